@@ -0,0 +1,147 @@
+package com.humanitarian.logistics;
+
+import com.humanitarian.logistics.analysis.*;
+import com.humanitarian.logistics.model.*;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Benchmark comparing the shared single-pass aggregation kernel, sequential and
+ * fork/join, with the list-and-stream grouping the analysis modules used before it.
+ * Run with: mvn exec:java -Dexec.mainClass="com.humanitarian.logistics.AnalysisBenchmark" -Dexec.args="1000000"
+ */
+public class AnalysisBenchmark {
+    private static final int COMMENTS_PER_POST = 100;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int commentCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        System.out.println("=== Analysis Aggregation Benchmark ===\n");
+        System.out.println("Generating corpus with " + commentCount + " comments...");
+        List<Post> posts = generateCorpus(commentCount, 42L);
+
+        // Warm up all paths before measuring
+        legacyGrouping(posts);
+        SentimentAggregate.of(posts, 6 * 3600L);
+        SentimentAggregate.ofParallel(posts, 6 * 3600L);
+
+        long legacyBest = Long.MAX_VALUE;
+        long kernelBest = Long.MAX_VALUE;
+        long parallelBest = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            legacyGrouping(posts);
+            legacyBest = Math.min(legacyBest, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            SentimentAggregate.of(posts, Long.MAX_VALUE);
+            SentimentAggregate.of(posts, 6 * 3600L);
+            kernelBest = Math.min(kernelBest, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            SentimentAggregate.ofParallel(posts, Long.MAX_VALUE);
+            SentimentAggregate.ofParallel(posts, 6 * 3600L);
+            parallelBest = Math.min(parallelBest, System.nanoTime() - start);
+        }
+
+        System.out.printf("Legacy grouping (both modules): %d ms%n", legacyBest / 1_000_000);
+        System.out.printf("Aggregation kernel (both modules): %d ms%n", kernelBest / 1_000_000);
+        System.out.printf("Speedup: %.1fx%n", (double) legacyBest / kernelBest);
+        System.out.printf("Parallel kernel (both modules, %d cores): %d ms%n",
+                Runtime.getRuntime().availableProcessors(), parallelBest / 1_000_000);
+
+        long start = System.nanoTime();
+        new SatisfactionAnalysisModule().analyze(posts);
+        new TimeSeriesSentimentModule().analyze(posts);
+        System.out.printf("Full analyze() of both modules: %d ms%n", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    static List<Post> generateCorpus(int commentCount, long seed) {
+        Random random = new Random(seed);
+        ReliefItem.Category[] categories = ReliefItem.Category.values();
+        Sentiment.SentimentType[] types = Sentiment.SentimentType.values();
+        LocalDateTime origin = LocalDateTime.of(2024, 9, 1, 0, 0);
+        List<Post> posts = new ArrayList<>();
+
+        int postIndex = 0;
+        int remaining = commentCount;
+        while (remaining > 0) {
+            LocalDateTime postTime = origin.plusMinutes(random.nextInt(60 * 24 * 60));
+            YouTubePost post = new YouTubePost("post-" + postIndex, "content", postTime, "author", "channel");
+            post.setReliefItem(new ReliefItem(categories[random.nextInt(categories.length)], "Benchmark", 3));
+            post.setSentiment(new Sentiment(types[random.nextInt(types.length)], random.nextDouble(), ""));
+
+            int batch = Math.min(COMMENTS_PER_POST, remaining);
+            List<Comment> comments = new ArrayList<>(batch);
+            for (int i = 0; i < batch; i++) {
+                Comment comment = new Comment("c-" + postIndex + "-" + i, post.getPostId(), "comment",
+                        postTime.plusMinutes(random.nextInt(60 * 24 * 7)), "user");
+                comment.setReliefItem(new ReliefItem(categories[random.nextInt(categories.length)], "Benchmark", 3));
+                comment.setSentiment(new Sentiment(types[random.nextInt(types.length)], random.nextDouble(), ""));
+                comments.add(comment);
+            }
+            post.addComments(comments);
+            posts.add(post);
+            remaining -= batch;
+            postIndex++;
+        }
+        return posts;
+    }
+
+    /**
+     * The grouping both modules performed before the shared kernel:
+     * per-category and per-bucket lists followed by one stream per sentiment type.
+     */
+    private static long legacyGrouping(List<Post> posts) {
+        long checksum = 0;
+
+        Map<ReliefItem.Category, List<Sentiment>> byCategory = new HashMap<>();
+        for (Post post : posts) {
+            if (post.getReliefItem() != null && post.getSentiment() != null) {
+                byCategory.computeIfAbsent(post.getReliefItem().getCategory(), k -> new ArrayList<>())
+                        .add(post.getSentiment());
+            }
+            for (Comment comment : post.getComments()) {
+                if (comment.getReliefItem() != null && comment.getSentiment() != null) {
+                    byCategory.computeIfAbsent(comment.getReliefItem().getCategory(), k -> new ArrayList<>())
+                            .add(comment.getSentiment());
+                }
+            }
+        }
+        for (List<Sentiment> sentiments : byCategory.values()) {
+            checksum += sentiments.stream().filter(Sentiment::isPositive).count();
+            checksum += sentiments.stream().filter(Sentiment::isNegative).count();
+            checksum += sentiments.stream().filter(Sentiment::isNeutral).count();
+            checksum += (long) sentiments.stream().mapToDouble(Sentiment::getConfidence).sum();
+        }
+
+        Map<ReliefItem.Category, Map<LocalDateTime, List<Sentiment>>> timeSeries = new HashMap<>();
+        for (Post post : posts) {
+            if (post.getReliefItem() != null && post.getSentiment() != null) {
+                timeSeries.computeIfAbsent(post.getReliefItem().getCategory(), k -> new TreeMap<>())
+                        .computeIfAbsent(legacyBucket(post.getCreatedAt()), k -> new ArrayList<>())
+                        .add(post.getSentiment());
+            }
+            for (Comment comment : post.getComments()) {
+                if (comment.getReliefItem() != null && comment.getSentiment() != null) {
+                    timeSeries.computeIfAbsent(comment.getReliefItem().getCategory(), k -> new TreeMap<>())
+                            .computeIfAbsent(legacyBucket(comment.getCreatedAt()), k -> new ArrayList<>())
+                            .add(comment.getSentiment());
+                }
+            }
+        }
+        for (Map<LocalDateTime, List<Sentiment>> series : timeSeries.values()) {
+            for (List<Sentiment> sentiments : series.values()) {
+                checksum += sentiments.stream().filter(Sentiment::isPositive).count();
+                checksum += sentiments.stream().filter(Sentiment::isNegative).count();
+                checksum += sentiments.stream().filter(Sentiment::isNeutral).count();
+            }
+        }
+        return checksum;
+    }
+
+    private static LocalDateTime legacyBucket(LocalDateTime dateTime) {
+        long hours = dateTime.getHour() / 6;
+        return dateTime.withHour((int) (hours * 6)).withMinute(0).withSecond(0).withNano(0);
+    }
+}
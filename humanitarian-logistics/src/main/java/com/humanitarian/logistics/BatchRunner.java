@@ -0,0 +1,383 @@
+package com.humanitarian.logistics;
+
+import com.humanitarian.logistics.analysis.*;
+import com.humanitarian.logistics.crawler.*;
+import com.humanitarian.logistics.database.DatabaseManager;
+import com.humanitarian.logistics.metrics.MetricsRegistry;
+import com.humanitarian.logistics.metrics.MetricsReporter;
+import com.humanitarian.logistics.model.*;
+import com.humanitarian.logistics.pipeline.BatchOutput;
+import com.humanitarian.logistics.pipeline.IngestionPipeline;
+import com.humanitarian.logistics.pipeline.PostEnricher;
+import com.humanitarian.logistics.preprocessor.ReliefItemClassifier;
+import com.humanitarian.logistics.sentiment.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import org.json.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Headless entry point: crawl → classify → score → persist → analyze from a job
+ * file, with no Swing components, so it can run under cron on a server or be
+ * profiled without the UI.
+ * Run with: mvn exec:java -Dexec.mainClass="com.humanitarian.logistics.BatchRunner" -Dexec.args="job.json"
+ *
+ * Job file (every key optional except source):
+ * <pre>
+ * {
+ *   "name": "yagi-nightly",
+ *   "source": "mock" | "fixtures" | "youtube" | "synthetic",
+ *   "keywords": ["bão yagi"], "limit": 50,          // mock and youtube
+ *   "urls": ["https://www.youtube.com/watch?v=..."],  // youtube
+ *   "fixtures": ["fixtures/", "run1.json"],          // fixtures: files or folders of *.json
+ *   "synthetic": {"seed": 42, "records": 10000000,   // synthetic: labeled corpus streamed in batches
+ *                 "batch_posts": 500, "vietnamese_share": 0.7, "comments_per_post": 20},
+ *   "disaster": "Typhoon Yagi",
+ *   "classifier": "keyword" | "python",
+ *   "sentiment": "enhanced" | "simple" | "python",
+ *   "sentiment_api": "http://localhost:5001",
+ *   "parallelism": {"classify": 4, "score": 2, "per_host": 4},
+ *   "database": "data/batch.db",                     // omit to skip persistence
+ *   "analysis": ["satisfaction", "time_series", "complaint_terms"],
+ *   "output": {"json": "out/result.json", "csv": "out/records.csv", "include_posts": true},
+ *   "metrics": {"dump_seconds": 30, "file": "out/metrics.json"}  // periodic dump while the job runs
+ * }
+ * </pre>
+ * A synthetic corpus is generated batch by batch while it is ingested. Posts are only
+ * kept in memory when analysis or output needs them, so a load test of millions of
+ * records sets "analysis": [] and "output": {"include_posts": false}.
+ * Exits with status 0 on success, 1 on a failed job and 2 on a bad job file.
+ */
+public class BatchRunner {
+    private static final Logger log = LoggerFactory.getLogger(BatchRunner.class);
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        if (args.length != 1) {
+            System.err.println("Usage: BatchRunner <job.json>");
+            System.exit(2);
+        }
+        JSONObject job;
+        try {
+            job = new JSONObject(new String(Files.readAllBytes(Paths.get(args[0])), StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            System.err.println("❌ Could not read job file " + args[0] + ": " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+        try {
+            new BatchRunner().run(job);
+            System.exit(0);
+        } catch (Exception e) {
+            log.error("❌ Batch job failed: {}", e.getMessage(), e);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs one job
+     * @return the result document that was written as JSON output
+     */
+    public JSONObject run(JSONObject job) throws Exception {
+        JSONObject metrics = job.optJSONObject("metrics");
+        MetricsReporter reporter = metrics == null ? null : new MetricsReporter(MetricsRegistry.getInstance(),
+                Duration.ofSeconds(metrics.optLong("dump_seconds", 30)),
+                metrics.has("file") ? Paths.get(metrics.getString("file")) : null);
+        if (reporter != null) {
+            reporter.start();
+        }
+        try {
+            return runJob(job);
+        } finally {
+            if (reporter != null) {
+                reporter.stop();
+            }
+        }
+    }
+
+    private JSONObject runJob(JSONObject job) throws Exception {
+        String name = job.optString("name", "batch");
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        System.out.println("=== Batch job: " + name + " ===");
+
+        // 1. Collect posts; a synthetic corpus is generated during ingestion instead
+        boolean synthetic = "synthetic".equals(job.getString("source"));
+        List<Post> crawled = synthetic ? Collections.emptyList() : collect(job);
+        String disaster = job.optString("disaster", "");
+        if (!disaster.isEmpty()) {
+            DisasterType disasterType = DisasterManager.getInstance().getOrCreateDisasterType(disaster);
+            for (Post post : crawled) {
+                if (post instanceof YouTubePost && ((YouTubePost) post).getDisasterType() == null) {
+                    ((YouTubePost) post).setDisasterType(disasterType);
+                }
+            }
+        }
+        long collectedNanos = System.nanoTime() - start;
+        System.out.println("✓ Collected " + crawled.size() + " posts in " + collectedNanos / 1_000_000 + " ms");
+
+        // 2. Classify, score and persist through the ingestion pipeline
+        SentimentAnalyzer analyzer = sentimentAnalyzer(job);
+        analyzer.initialize();
+        PostEnricher enricher = enricher(job, analyzer);
+        DatabaseManager db = job.has("database") ? new DatabaseManager(job.getString("database")) : null;
+        List<Post> ingested = Collections.synchronizedList(new ArrayList<>());
+        JSONObject output = job.optJSONObject("output");
+        if (output == null) {
+            output = new JSONObject();
+        }
+        Map<String, AnalysisModule> modules = analysisModules(job);
+        boolean keepPosts = !modules.isEmpty() || output.optBoolean("include_posts", true) || output.has("csv");
+        AtomicLong ingestedPosts = new AtomicLong();
+        AtomicLong ingestedRecords = new AtomicLong();
+        JSONObject parallelism = job.optJSONObject("parallelism");
+        int classifyWorkers = parallelism != null ? parallelism.optInt("classify", IngestionPipeline.DEFAULT_CLASSIFY_WORKERS)
+                : IngestionPipeline.DEFAULT_CLASSIFY_WORKERS;
+        int scoreWorkers = parallelism != null ? parallelism.optInt("score", IngestionPipeline.DEFAULT_SCORE_WORKERS)
+                : IngestionPipeline.DEFAULT_SCORE_WORKERS;
+        IngestionPipeline pipeline = new IngestionPipeline(enricher::classify, enricher::score,
+                batch -> persist(db, batch), batch -> {
+                    ingestedPosts.addAndGet(batch.size());
+                    ingestedRecords.addAndGet(countRecords(batch));
+                    if (keepPosts) {
+                        ingested.addAll(batch);
+                    }
+                },
+                classifyWorkers, scoreWorkers, IngestionPipeline.DEFAULT_PERSIST_WORKERS,
+                IngestionPipeline.DEFAULT_QUEUE_CAPACITY, IngestionPipeline.DEFAULT_SCORE_BATCH_RECORDS,
+                IngestionPipeline.DEFAULT_COMMIT_BATCH_POSTS);
+        long ingestStart = System.nanoTime();
+        try {
+            if (synthetic) {
+                // submit blocks while the pipeline is full, so generation runs at ingestion speed
+                List<CompletableFuture<Void>> submitted = new ArrayList<>();
+                long generated = syntheticCorpus(job).generate(syntheticRecords(job), syntheticBatchPosts(job),
+                        batch -> submitted.add(pipeline.submit(batch)));
+                CompletableFuture.allOf(submitted.toArray(new CompletableFuture<?>[0])).join();
+                System.out.println("✓ Generated " + generated + " synthetic records");
+            } else {
+                pipeline.submit(crawled).join();
+            }
+        } finally {
+            pipeline.shutdown();
+            analyzer.shutdown();
+            if (db != null) {
+                db.close();
+            }
+        }
+        long ingestNanos = System.nanoTime() - ingestStart;
+        List<Post> posts = new ArrayList<>(ingested);
+        posts.sort(Comparator.comparing(Post::getPostId));
+        System.out.println("✓ Ingested " + ingestedPosts.get() + " posts (" + ingestedRecords.get() + " records) in "
+                + ingestNanos / 1_000_000 + " ms");
+
+        // 3. Analyze
+        long analysisStart = System.nanoTime();
+        JSONObject analysis = new JSONObject();
+        boolean parallel = countRecords(posts) >= 50_000;
+        for (Map.Entry<String, AnalysisModule> module : modules.entrySet()) {
+            long moduleStart = System.nanoTime();
+            Map<String, Object> moduleResult = module.getValue().analyze(posts, parallel);
+            MetricsRegistry.getInstance().timer("analysis." + module.getKey()).recordSince(moduleStart);
+            analysis.put(module.getKey(), BatchOutput.toJsonValue(moduleResult));
+        }
+        long analysisNanos = System.nanoTime() - analysisStart;
+
+        // 4. Write results
+        JSONObject result = new JSONObject();
+        result.put("job", name);
+        result.put("started_at", startedAt.toString());
+        result.put("finished_at", LocalDateTime.now().toString());
+        result.put("posts_count", ingestedPosts.get());
+        result.put("records_count", ingestedRecords.get());
+        JSONObject timings = new JSONObject();
+        timings.put("collect_ms", collectedNanos / 1_000_000);
+        timings.put("ingest_ms", ingestNanos / 1_000_000);
+        timings.put("analysis_ms", analysisNanos / 1_000_000);
+        result.put("timings", timings);
+        result.put("pipeline", BatchOutput.toJsonValue(pipeline.getMetrics()));
+        result.put("http", BatchOutput.toJsonValue(CrawlerHttpClient.getInstance().getMetrics()));
+        result.put("metrics", BatchOutput.toJsonValue(MetricsRegistry.getInstance().getMetrics()));
+        result.put("analysis", analysis);
+
+        if (output.optBoolean("include_posts", true)) {
+            JSONArray postsJson = new JSONArray();
+            for (Post post : posts) {
+                postsJson.put(BatchOutput.toJson(post));
+            }
+            result.put("posts", postsJson);
+        }
+        if (output.has("json")) {
+            Path jsonFile = outputPath(output.getString("json"));
+            Files.write(jsonFile, result.toString(2).getBytes(StandardCharsets.UTF_8));
+            System.out.println("✓ Wrote " + jsonFile);
+        }
+        if (output.has("csv")) {
+            Path csvFile = outputPath(output.getString("csv"));
+            BatchOutput.writeCsv(posts, csvFile);
+            System.out.println("✓ Wrote " + csvFile);
+        }
+        System.out.println("=== Batch job " + name + " finished in " + (System.nanoTime() - start) / 1_000_000 + " ms ===");
+        return result;
+    }
+
+    private List<Post> collect(JSONObject job) throws Exception {
+        String source = job.getString("source");
+        int limit = job.optInt("limit", 50);
+        List<String> keywords = strings(job.optJSONArray("keywords"));
+        switch (source) {
+            case "mock":
+                return new MockDataCrawler().crawlPosts(keywords, new ArrayList<>(), limit);
+            case "fixtures":
+                List<Path> paths = new ArrayList<>();
+                for (String fixture : strings(job.optJSONArray("fixtures"))) {
+                    paths.add(Paths.get(fixture));
+                }
+                return BatchOutput.readPosts(paths);
+            case "youtube":
+                return crawlYouTube(job, keywords, limit);
+            default:
+                throw new IllegalArgumentException("Unknown source: " + source + " (expected mock, fixtures, youtube or synthetic)");
+        }
+    }
+
+    private static SyntheticCorpusGenerator syntheticCorpus(JSONObject job) {
+        JSONObject options = job.optJSONObject("synthetic");
+        if (options == null) {
+            options = new JSONObject();
+        }
+        SyntheticCorpusGenerator generator = new SyntheticCorpusGenerator(
+                options.optLong("seed", SyntheticCorpusGenerator.DEFAULT_SEED));
+        generator.setVietnameseShare(options.optDouble("vietnamese_share", SyntheticCorpusGenerator.DEFAULT_VIETNAMESE_SHARE));
+        generator.setMeanCommentsPerPost(options.optDouble("comments_per_post", SyntheticCorpusGenerator.DEFAULT_COMMENTS_PER_POST));
+        return generator;
+    }
+
+    private static long syntheticRecords(JSONObject job) {
+        JSONObject options = job.optJSONObject("synthetic");
+        return options != null ? options.optLong("records", 100_000) : 100_000;
+    }
+
+    private static int syntheticBatchPosts(JSONObject job) {
+        JSONObject options = job.optJSONObject("synthetic");
+        return options != null ? options.optInt("batch_posts", SyntheticCorpusGenerator.DEFAULT_BATCH_POSTS)
+                : SyntheticCorpusGenerator.DEFAULT_BATCH_POSTS;
+    }
+
+    private List<Post> crawlYouTube(JSONObject job, List<String> keywords, int limit) throws InterruptedException {
+        YouTubeCrawler crawler = new YouTubeCrawler();
+        crawler.initialize();
+        JSONObject parallelism = job.optJSONObject("parallelism");
+        int perHost = parallelism != null ? parallelism.optInt("per_host", CrawlScheduler.DEFAULT_MAX_PER_HOST)
+                : CrawlScheduler.DEFAULT_MAX_PER_HOST;
+        CrawlScheduler scheduler = new CrawlScheduler(crawler, perHost,
+                CrawlScheduler.DEFAULT_REQUESTS_PER_SECOND, CrawlScheduler.DEFAULT_MAX_RETRIES);
+        List<Post> posts = new ArrayList<>();
+        try {
+            List<String> urls = strings(job.optJSONArray("urls"));
+            if (!urls.isEmpty()) {
+                posts.addAll(scheduler.crawlVideos(urls).toList());
+            }
+            if (!keywords.isEmpty()) {
+                posts.addAll(scheduler.crawlKeywords(keywords, limit).toList());
+            }
+        } finally {
+            scheduler.shutdown();
+            crawler.shutdown();
+        }
+        return posts;
+    }
+
+    private static SentimentAnalyzer sentimentAnalyzer(JSONObject job) {
+        switch (job.optString("sentiment", "enhanced")) {
+            case "simple":
+                return new SimpleSentimentAnalyzer();
+            case "python":
+                return new PythonSentimentAnalyzer(job.optString("sentiment_api", "http://localhost:5001"),
+                        "xlm-roberta-large-xnli (Vietnamese + English)");
+            case "enhanced":
+                return new EnhancedSentimentAnalyzer();
+            default:
+                throw new IllegalArgumentException("Unknown sentiment analyzer: " + job.optString("sentiment"));
+        }
+    }
+
+    private static PostEnricher enricher(JSONObject job, SentimentAnalyzer analyzer) {
+        switch (job.optString("classifier", "keyword")) {
+            case "python":
+                return new PostEnricher(new PythonCategoryClassifier()::classifyText,
+                        "ML-classified (Keyword-based)", () -> analyzer);
+            case "keyword":
+                return new PostEnricher(new ReliefItemClassifier()::classifyText, "Auto-classified", () -> analyzer);
+            default:
+                throw new IllegalArgumentException("Unknown classifier: " + job.optString("classifier"));
+        }
+    }
+
+    /**
+     * @return modules named in the job, keyed by the name used in the job file
+     */
+    private static Map<String, AnalysisModule> analysisModules(JSONObject job) {
+        List<String> names = job.has("analysis")
+                ? strings(job.getJSONArray("analysis"))
+                : Arrays.asList("satisfaction", "time_series", "complaint_terms");
+        Map<String, AnalysisModule> modules = new LinkedHashMap<>();
+        for (String moduleName : names) {
+            switch (moduleName) {
+                case "satisfaction":
+                    modules.put(moduleName, new SatisfactionAnalysisModule());
+                    break;
+                case "time_series":
+                    modules.put(moduleName, new TimeSeriesSentimentModule());
+                    break;
+                case "complaint_terms":
+                    modules.put(moduleName, new ComplaintTermsModule());
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown analysis module: " + moduleName);
+            }
+        }
+        return modules;
+    }
+
+    private static void persist(DatabaseManager db, List<Post> batch) {
+        if (db == null) {
+            return;
+        }
+        try {
+            db.savePosts(batch);
+        } catch (Exception e) {
+            log.error("✗ Error saving {} posts: {}", batch.size(), e.getMessage(), e);
+        }
+    }
+
+    private static int countRecords(List<Post> posts) {
+        int records = 0;
+        for (Post post : posts) {
+            records += 1 + post.getComments().size();
+        }
+        return records;
+    }
+
+    private static Path outputPath(String file) throws java.io.IOException {
+        Path path = Paths.get(file);
+        if (path.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+        }
+        return path;
+    }
+
+    private static List<String> strings(JSONArray array) {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; array != null && i < array.length(); i++) {
+            values.add(array.getString(i));
+        }
+        return values;
+    }
+}
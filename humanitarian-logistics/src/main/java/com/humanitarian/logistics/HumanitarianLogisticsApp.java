@@ -5,6 +5,7 @@ import com.humanitarian.logistics.ui.View;
 import com.humanitarian.logistics.model.*;
 import com.humanitarian.logistics.sentiment.PythonSentimentAnalyzer;
 import com.humanitarian.logistics.database.DataPersistenceManager;
+import com.humanitarian.logistics.metrics.MetricsReporter;
 
 /**
  * Main application entry point.
@@ -35,6 +36,13 @@ public class HumanitarianLogisticsApp {
             // 1. "Use Sample Data" button - loads sample posts
             // 2. "Use Our Database" button - loads curated database
 
+            // Periodic metrics dump when run with -Dmetrics.dump.seconds=N [-Dmetrics.dump.file=path]
+            MetricsReporter reporter = MetricsReporter.fromSystemProperties();
+            if (reporter != null) {
+                reporter.start();
+                Runtime.getRuntime().addShutdownHook(new Thread(reporter::stop, "metrics-final-dump"));
+            }
+
             // Start the UI
             javax.swing.SwingUtilities.invokeLater(() -> {
                 new View(model);
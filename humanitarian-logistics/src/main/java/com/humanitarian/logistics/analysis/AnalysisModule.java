@@ -16,6 +16,17 @@ public interface AnalysisModule {
      */
     Map<String, Object> analyze(List<Post> posts);
 
+    /**
+     * Performs analysis, optionally aggregating partitions of the post list in parallel.
+     * Modules without a parallel implementation fall back to {@link #analyze(List)}.
+     * @param posts list of posts to analyze
+     * @param parallel whether aggregation may run on the fork/join pool
+     * @return analysis results as a map
+     */
+    default Map<String, Object> analyze(List<Post> posts, boolean parallel) {
+        return analyze(posts);
+    }
+
     /**
      * Gets the name of this analysis module
      * @return module name
@@ -0,0 +1,481 @@
+package com.humanitarian.logistics.analysis;
+
+import java.util.*;
+
+/**
+ * Immutable compressed set of non-negative ints, laid out like a Roaring bitmap.
+ * Values are split by their high 16 bits into chunks. A chunk is stored as a sorted
+ * char array of its low 16 bits while it holds at most 4096 values, and as a
+ * 1024-word bitset once that is smaller, so sparse sets cost two bytes per value and
+ * dense ones one bit. AND and OR work chunk by chunk, on whole words where both sides
+ * are dense, and {@link #rank} counts the values below any bound without a scan.
+ *
+ * Bitmaps share chunks with the bitmaps they were combined from; nothing is mutated
+ * after {@link Builder#build}, so they are safe to read from any thread.
+ */
+public final class CompactBitmap {
+    private static final int ARRAY_MAX = 4096;
+    private static final int WORDS = 1024;
+    private static final CompactBitmap EMPTY = new CompactBitmap(new char[0], new Object[0], 0);
+
+    private final char[] keys;          // high 16 bits of each chunk, ascending
+    private final Object[] containers;  // per chunk: char[] of low bits, ascending, or long[WORDS]
+    private final int[] ranks;          // number of values in the chunks before each chunk
+    private final int cardinality;
+
+    private CompactBitmap(char[] keys, Object[] containers, int size) {
+        this.keys = size == keys.length ? keys : Arrays.copyOf(keys, size);
+        this.containers = size == containers.length ? containers : Arrays.copyOf(containers, size);
+        this.ranks = new int[size];
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            ranks[i] = total;
+            total += count(this.containers[i]);
+        }
+        this.cardinality = total;
+    }
+
+    public static CompactBitmap empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @return the values from (inclusive) to to (exclusive)
+     */
+    public static CompactBitmap range(int from, int to) {
+        if (from < 0 || to <= from) {
+            return EMPTY;
+        }
+        int first = from >>> 16;
+        int last = (to - 1) >>> 16;
+        char[] keys = new char[last - first + 1];
+        Object[] containers = new Object[keys.length];
+        for (int high = first; high <= last; high++) {
+            int low = high == first ? from & 0xFFFF : 0;
+            int end = high == last ? ((to - 1) & 0xFFFF) + 1 : 0x10000;
+            Object container;
+            if (end - low <= ARRAY_MAX) {
+                char[] values = new char[end - low];
+                for (int v = low; v < end; v++) {
+                    values[v - low] = (char) v;
+                }
+                container = values;
+            } else {
+                long[] words = new long[WORDS];
+                for (int v = low; v < end; v++) {
+                    words[v >>> 6] |= 1L << v;
+                }
+                container = words;
+            }
+            keys[high - first] = (char) high;
+            containers[high - first] = container;
+        }
+        return new CompactBitmap(keys, containers, keys.length);
+    }
+
+    /**
+     * Union of several bitmaps, e.g. of the categories in a multi-select
+     */
+    public static CompactBitmap or(Collection<CompactBitmap> bitmaps) {
+        CompactBitmap result = EMPTY;
+        for (CompactBitmap bitmap : bitmaps) {
+            result = result.or(bitmap);
+        }
+        return result;
+    }
+
+    public int cardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int i = Arrays.binarySearch(keys, (char) (value >>> 16));
+        if (i < 0) {
+            return false;
+        }
+        char low = (char) value;
+        Object container = containers[i];
+        return container instanceof char[]
+                ? Arrays.binarySearch((char[]) container, low) >= 0
+                : contains((long[]) container, low);
+    }
+
+    /**
+     * @return number of values less than value
+     */
+    public int rank(int value) {
+        if (value <= 0) {
+            return 0;
+        }
+        int i = Arrays.binarySearch(keys, (char) (value >>> 16));
+        if (i < 0) {
+            int next = -i - 1;
+            return next < keys.length ? ranks[next] : cardinality;
+        }
+        char low = (char) value;
+        Object container = containers[i];
+        if (container instanceof char[]) {
+            int index = Arrays.binarySearch((char[]) container, low);
+            return ranks[i] + (index >= 0 ? index : -index - 1);
+        }
+        long[] words = (long[]) container;
+        int below = 0;
+        for (int w = 0; w < low >>> 6; w++) {
+            below += Long.bitCount(words[w]);
+        }
+        return ranks[i] + below + Long.bitCount(words[low >>> 6] & ((1L << low) - 1));
+    }
+
+    /**
+     * @return number of values from (inclusive) to to (exclusive)
+     */
+    public int cardinality(int from, int to) {
+        return to <= from ? 0 : rank(to) - rank(from);
+    }
+
+    public CompactBitmap and(CompactBitmap other) {
+        int capacity = Math.min(keys.length, other.keys.length);
+        char[] resultKeys = new char[capacity];
+        Object[] resultContainers = new Object[capacity];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Object container = and(containers[i], other.containers[j]);
+                if (container != null) {
+                    resultKeys[size] = keys[i];
+                    resultContainers[size++] = container;
+                }
+                i++;
+                j++;
+            }
+        }
+        return new CompactBitmap(resultKeys, resultContainers, size);
+    }
+
+    /**
+     * Same as and(other).cardinality() without building the intersection
+     */
+    public int andCardinality(CompactBitmap other) {
+        int total = 0;
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                total += andCount(containers[i++], other.containers[j++]);
+            }
+        }
+        return total;
+    }
+
+    public CompactBitmap or(CompactBitmap other) {
+        if (other.isEmpty()) {
+            return this;
+        }
+        if (isEmpty()) {
+            return other;
+        }
+        char[] resultKeys = new char[keys.length + other.keys.length];
+        Object[] resultContainers = new Object[resultKeys.length];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < keys.length || j < other.keys.length) {
+            if (j == other.keys.length || (i < keys.length && keys[i] < other.keys[j])) {
+                resultKeys[size] = keys[i];
+                resultContainers[size++] = containers[i++];
+            } else if (i == keys.length || other.keys[j] < keys[i]) {
+                resultKeys[size] = other.keys[j];
+                resultContainers[size++] = other.containers[j++];
+            } else {
+                resultKeys[size] = keys[i];
+                resultContainers[size++] = or(containers[i++], other.containers[j++]);
+            }
+        }
+        return new CompactBitmap(resultKeys, resultContainers, size);
+    }
+
+    /**
+     * @return the values in ascending order
+     */
+    public int[] toArray() {
+        int[] values = new int[cardinality];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            int base = keys[i] << 16;
+            Object container = containers[i];
+            if (container instanceof char[]) {
+                for (char low : (char[]) container) {
+                    values[n++] = base | low;
+                }
+            } else {
+                long[] words = (long[]) container;
+                for (int w = 0; w < WORDS; w++) {
+                    for (long word = words[w]; word != 0; word &= word - 1) {
+                        values[n++] = base | (w << 6) | Long.numberOfTrailingZeros(word);
+                    }
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * @return approximate heap size of the chunks, for diagnostics
+     */
+    public long sizeInBytes() {
+        long bytes = keys.length * 2L + ranks.length * 4L;
+        for (Object container : containers) {
+            bytes += container instanceof char[] ? ((char[]) container).length * 2L : WORDS * 8L;
+        }
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "CompactBitmap{" + cardinality + " values in " + keys.length + " chunks}";
+    }
+
+    // ---- Chunk operations; a null chunk stands for an empty one ----
+
+    private static int count(Object container) {
+        if (container instanceof char[]) {
+            return ((char[]) container).length;
+        }
+        int count = 0;
+        for (long word : (long[]) container) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private static boolean contains(long[] words, int low) {
+        return (words[low >>> 6] & (1L << low)) != 0;
+    }
+
+    private static Object and(Object a, Object b) {
+        if (a instanceof char[] && b instanceof char[]) {
+            char[] x = (char[]) a;
+            char[] y = (char[]) b;
+            char[] values = new char[Math.min(x.length, y.length)];
+            int n = 0;
+            for (int i = 0, j = 0; i < x.length && j < y.length; ) {
+                if (x[i] < y[j]) {
+                    i++;
+                } else if (x[i] > y[j]) {
+                    j++;
+                } else {
+                    values[n++] = x[i];
+                    i++;
+                    j++;
+                }
+            }
+            return n == 0 ? null : Arrays.copyOf(values, n);
+        }
+        if (a instanceof long[] && b instanceof long[]) {
+            long[] x = (long[]) a;
+            long[] y = (long[]) b;
+            long[] words = new long[WORDS];
+            int count = 0;
+            for (int w = 0; w < WORDS; w++) {
+                words[w] = x[w] & y[w];
+                count += Long.bitCount(words[w]);
+            }
+            return fromWords(words, count);
+        }
+        char[] sparse = (char[]) (a instanceof char[] ? a : b);
+        long[] dense = (long[]) (a instanceof char[] ? b : a);
+        char[] values = new char[sparse.length];
+        int n = 0;
+        for (char low : sparse) {
+            if (contains(dense, low)) {
+                values[n++] = low;
+            }
+        }
+        return n == 0 ? null : Arrays.copyOf(values, n);
+    }
+
+    private static int andCount(Object a, Object b) {
+        if (a instanceof long[] && b instanceof long[]) {
+            long[] x = (long[]) a;
+            long[] y = (long[]) b;
+            int count = 0;
+            for (int w = 0; w < WORDS; w++) {
+                count += Long.bitCount(x[w] & y[w]);
+            }
+            return count;
+        }
+        if (a instanceof char[] && b instanceof char[]) {
+            char[] x = (char[]) a;
+            char[] y = (char[]) b;
+            int count = 0;
+            for (int i = 0, j = 0; i < x.length && j < y.length; ) {
+                if (x[i] < y[j]) {
+                    i++;
+                } else if (x[i] > y[j]) {
+                    j++;
+                } else {
+                    count++;
+                    i++;
+                    j++;
+                }
+            }
+            return count;
+        }
+        char[] sparse = (char[]) (a instanceof char[] ? a : b);
+        long[] dense = (long[]) (a instanceof char[] ? b : a);
+        int count = 0;
+        for (char low : sparse) {
+            if (contains(dense, low)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static Object or(Object a, Object b) {
+        if (a instanceof char[] && b instanceof char[]) {
+            char[] x = (char[]) a;
+            char[] y = (char[]) b;
+            if (x.length + y.length > ARRAY_MAX) {
+                long[] words = toWords(x, x.length);
+                for (char low : y) {
+                    words[low >>> 6] |= 1L << low;
+                }
+                return fromWords(words, count(words));
+            }
+            char[] values = new char[x.length + y.length];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < x.length || j < y.length) {
+                if (j == y.length || (i < x.length && x[i] < y[j])) {
+                    values[n++] = x[i++];
+                } else if (i == x.length || y[j] < x[i]) {
+                    values[n++] = y[j++];
+                } else {
+                    values[n++] = x[i++];
+                    j++;
+                }
+            }
+            return Arrays.copyOf(values, n);
+        }
+        // A dense side already holds more than ARRAY_MAX values, so the union stays dense
+        long[] words = a instanceof long[] ? ((long[]) a).clone() : toWords((char[]) a, ((char[]) a).length);
+        if (b instanceof long[]) {
+            long[] y = (long[]) b;
+            for (int w = 0; w < WORDS; w++) {
+                words[w] |= y[w];
+            }
+        } else {
+            for (char low : (char[]) b) {
+                words[low >>> 6] |= 1L << low;
+            }
+        }
+        return words;
+    }
+
+    private static long[] toWords(char[] values, int n) {
+        long[] words = new long[WORDS];
+        for (int i = 0; i < n; i++) {
+            words[values[i] >>> 6] |= 1L << values[i];
+        }
+        return words;
+    }
+
+    /**
+     * Keeps a bitset chunk dense only while that is the smaller form
+     */
+    private static Object fromWords(long[] words, int count) {
+        if (count == 0) {
+            return null;
+        }
+        if (count > ARRAY_MAX) {
+            return words;
+        }
+        char[] values = new char[count];
+        int n = 0;
+        for (int w = 0; w < WORDS; w++) {
+            for (long word = words[w]; word != 0; word &= word - 1) {
+                values[n++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Collects values given in ascending order, as when an index walks its ids
+     */
+    public static class Builder {
+        private char[] keys = new char[4];
+        private Object[] containers = new Object[4];
+        private int[] counts = new int[4];
+        private int size;
+        private int last = -1;
+
+        public Builder add(int value) {
+            if (value < 0) {
+                throw new IllegalArgumentException("Values must not be negative: " + value);
+            }
+            if (value <= last) {
+                throw new IllegalArgumentException("Values must be added in ascending order: " + value + " after " + last);
+            }
+            last = value;
+            char high = (char) (value >>> 16);
+            char low = (char) value;
+            if (size == 0 || keys[size - 1] != high) {
+                if (size == keys.length) {
+                    keys = Arrays.copyOf(keys, size * 2);
+                    containers = Arrays.copyOf(containers, size * 2);
+                    counts = Arrays.copyOf(counts, size * 2);
+                }
+                keys[size] = high;
+                containers[size] = new char[16];
+                counts[size] = 0;
+                size++;
+            }
+            int c = size - 1;
+            if (containers[c] instanceof long[]) {
+                ((long[]) containers[c])[low >>> 6] |= 1L << low;
+            } else if (counts[c] == ARRAY_MAX) {
+                long[] words = toWords((char[]) containers[c], counts[c]);
+                words[low >>> 6] |= 1L << low;
+                containers[c] = words;
+            } else {
+                char[] values = (char[]) containers[c];
+                if (counts[c] == values.length) {
+                    values = Arrays.copyOf(values, Math.min(values.length * 2, ARRAY_MAX));
+                    containers[c] = values;
+                }
+                values[counts[c]] = low;
+            }
+            counts[c]++;
+            return this;
+        }
+
+        public CompactBitmap build() {
+            for (int c = 0; c < size; c++) {
+                if (containers[c] instanceof char[] && ((char[]) containers[c]).length != counts[c]) {
+                    containers[c] = Arrays.copyOf((char[]) containers[c], counts[c]);
+                }
+            }
+            return new CompactBitmap(keys, containers, size);
+        }
+    }
+}
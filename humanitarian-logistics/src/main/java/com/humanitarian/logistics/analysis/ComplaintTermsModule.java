@@ -0,0 +1,109 @@
+package com.humanitarian.logistics.analysis;
+
+import com.humanitarian.logistics.model.*;
+import java.util.*;
+
+/**
+ * Analysis Module 3: Identifies which words and authors drive sentiment per relief category.
+ *
+ * - Counts terms from preprocessed post and comment text per disaster, category and sentiment
+ * - Reports the top complaint terms (negative sentiment) and top praise terms (positive sentiment)
+ * - Reports the most active authors behind negative sentiment
+ * - Uses bounded-memory sketches, so results are estimates on very large corpora
+ */
+public class ComplaintTermsModule implements AnalysisModule {
+    private static final int TOP_K = 15;
+
+    @Override
+    public Map<String, Object> analyze(List<Post> posts) {
+        return analyze(TermFrequencyIndex.of(posts));
+    }
+
+    /**
+     * Reports from an index that is already filled, e.g. one fed incrementally as posts arrive
+     * @param index term index to report on
+     * @return analysis results as a map
+     */
+    public Map<String, Object> analyze(TermFrequencyIndex index) {
+        Map<String, Object> results = new LinkedHashMap<>();
+
+        Map<String, Object> overall = new LinkedHashMap<>();
+        for (ReliefItem.Category category : ReliefItem.Category.values()) {
+            Map<String, Object> categoryTerms = categoryTerms(index, null, category);
+            if (categoryTerms != null) {
+                overall.put(category.getDisplayName(), categoryTerms);
+            }
+        }
+
+        Map<String, Object> byDisaster = new LinkedHashMap<>();
+        for (String disaster : index.getDisasters()) {
+            Map<String, Object> disasterTerms = new LinkedHashMap<>();
+            for (ReliefItem.Category category : ReliefItem.Category.values()) {
+                Map<String, Object> categoryTerms = categoryTerms(index, disaster, category);
+                if (categoryTerms != null) {
+                    disasterTerms.put(category.getDisplayName(), categoryTerms);
+                }
+            }
+            byDisaster.put(disaster, disasterTerms);
+        }
+
+        results.put("complaint_terms_by_category", overall);
+        results.put("complaint_terms_by_disaster", byDisaster);
+        results.put("top_k", TOP_K);
+        results.put("summary", generateSummary(overall));
+        return results;
+    }
+
+    /**
+     * @return terms and authors for one category, or null if it has no records
+     */
+    private Map<String, Object> categoryTerms(TermFrequencyIndex index, String disaster,
+                                              ReliefItem.Category category) {
+        List<Map.Entry<String, Long>> negative = index.topTerms(disaster, category, Sentiment.SentimentType.NEGATIVE, TOP_K);
+        List<Map.Entry<String, Long>> positive = index.topTerms(disaster, category, Sentiment.SentimentType.POSITIVE, TOP_K);
+        List<Map.Entry<String, Long>> authors = index.topAuthors(disaster, category, Sentiment.SentimentType.NEGATIVE, TOP_K);
+        if (negative.isEmpty() && positive.isEmpty() && authors.isEmpty()) {
+            return null;
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("complaint_terms", toMap(negative));
+        stats.put("praise_terms", toMap(positive));
+        stats.put("top_negative_authors", toMap(authors));
+        return stats;
+    }
+
+    private static Map<String, Long> toMap(List<Map.Entry<String, Long>> entries) {
+        Map<String, Long> map = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : entries) {
+            map.put(entry.getKey(), entry.getValue());
+        }
+        return map;
+    }
+
+    @SuppressWarnings("unchecked")
+    private String generateSummary(Map<String, Object> overall) {
+        if (overall.isEmpty()) {
+            return "No classified records to extract terms from.";
+        }
+        StringBuilder summary = new StringBuilder("Top complaint terms: ");
+        List<String> parts = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : overall.entrySet()) {
+            Map<String, Long> complaints = (Map<String, Long>) ((Map<String, Object>) entry.getValue()).get("complaint_terms");
+            if (!complaints.isEmpty()) {
+                parts.add(entry.getKey() + " -> " + String.join(", ", new ArrayList<>(complaints.keySet()).subList(0, Math.min(3, complaints.size()))));
+            }
+        }
+        summary.append(parts.isEmpty() ? "none" : String.join("; ", parts));
+        return summary.toString();
+    }
+
+    @Override
+    public String getModuleName() {
+        return "Complaint Terms Analysis Module";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Finds the terms and authors that drive negative and positive sentiment per relief category and disaster";
+    }
+}
@@ -0,0 +1,144 @@
+package com.humanitarian.logistics.analysis;
+
+import java.util.*;
+
+/**
+ * Bounded-memory frequency counter for a stream of strings.
+ * A Count-Min Sketch with conservative update estimates the frequency of any item,
+ * and a fixed-capacity candidate set in the style of Space-Saving keeps the items
+ * with the highest estimates. Memory use depends only on the sketch dimensions and
+ * capacity, never on the number of distinct items.
+ *
+ * Estimates never undercount; an item that is not yet a candidate replaces the
+ * weakest one as soon as its estimate is higher.
+ */
+public class HeavyHitterSketch {
+    private static final int DEFAULT_DEPTH = 4;
+    private static final int DEFAULT_WIDTH = 2048;
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private final int depth;
+    private final int widthMask;
+    private final int[][] table;
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    private long total;
+
+    public HeavyHitterSketch() {
+        this(DEFAULT_DEPTH, DEFAULT_WIDTH, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param depth number of hash rows in the Count-Min Sketch
+     * @param width counters per row, rounded up to a power of two
+     * @param capacity number of heavy-hitter candidates tracked by Space-Saving
+     */
+    public HeavyHitterSketch(int depth, int width, int capacity) {
+        if (depth <= 0 || width <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("Sketch dimensions must be positive");
+        }
+        int roundedWidth = Integer.highestOneBit(width);
+        if (roundedWidth < width) {
+            roundedWidth <<= 1;
+        }
+        this.depth = depth;
+        this.widthMask = roundedWidth - 1;
+        this.table = new int[depth][roundedWidth];
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    /**
+     * Records one occurrence of an item
+     */
+    public void add(String item) {
+        total++;
+        int hash = item.hashCode();
+        int[] columns = new int[depth];
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            columns[row] = index(hash, row);
+            estimate = Math.min(estimate, table[row][columns[row]]);
+        }
+        // Conservative update: only raise the rows that hold the minimum
+        estimate++;
+        for (int row = 0; row < depth; row++) {
+            if (table[row][columns[row]] < estimate) {
+                table[row][columns[row]] = (int) Math.min(estimate, Integer.MAX_VALUE);
+            }
+        }
+
+        Counter counter = counters.get(item);
+        if (counter != null) {
+            counter.count = estimate;
+        } else if (counters.size() < capacity) {
+            counters.put(item, new Counter(item, estimate));
+        } else {
+            // Replace the weakest candidate once the sketch says the newcomer has overtaken it
+            Counter smallest = null;
+            for (Counter candidate : counters.values()) {
+                if (smallest == null || candidate.count < smallest.count) {
+                    smallest = candidate;
+                }
+            }
+            if (estimate > smallest.count) {
+                counters.remove(smallest.item);
+                counters.put(item, new Counter(item, estimate));
+            }
+        }
+    }
+
+    /**
+     * Estimates how many times an item has been added
+     */
+    public long estimate(String item) {
+        long estimate = Long.MAX_VALUE;
+        int hash = item.hashCode();
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, table[row][index(hash, row)]);
+        }
+        return estimate;
+    }
+
+    /**
+     * Gets the most frequent items seen so far
+     * @param k maximum number of items, at most the sketch capacity
+     * @return items in descending order of estimated frequency
+     */
+    public List<Map.Entry<String, Long>> topK(int k) {
+        List<Counter> sorted = new ArrayList<>(counters.values());
+        sorted.sort((a, b) -> a.count != b.count ? Long.compare(b.count, a.count) : a.item.compareTo(b.item));
+        List<Map.Entry<String, Long>> top = new ArrayList<>();
+        for (int i = 0; i < Math.min(k, sorted.size()); i++) {
+            Counter counter = sorted.get(i);
+            top.add(new AbstractMap.SimpleImmutableEntry<>(counter.item, counter.count));
+        }
+        return top;
+    }
+
+    /**
+     * @return total number of items added
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    private int index(int hash, int row) {
+        // Double hashing derives independent-enough row hashes from one hashCode
+        int mixed = hash * 0x9E3779B1 + row * (Integer.rotateLeft(hash, 16) | 1);
+        mixed ^= mixed >>> 15;
+        mixed *= 0x85EBCA6B;
+        mixed ^= mixed >>> 13;
+        return mixed & widthMask;
+    }
+
+    private static class Counter {
+        private final String item;
+        private long count;
+
+        Counter(String item, long count) {
+            this.item = item;
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.humanitarian.logistics.analysis;
+
+import com.humanitarian.logistics.model.Post;
+import com.humanitarian.logistics.model.ReliefItem;
+import com.humanitarian.logistics.model.Sentiment;
+import com.humanitarian.logistics.model.YouTubePost;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Bitmap index over a snapshot of posts for slicing the dashboards by disaster,
+ * relief category, sentiment and date. Every disaster, category and sentiment has a
+ * {@link CompactBitmap} of post ids, so any selection is an AND / OR of a few bitmaps
+ * and its size is a cardinality; the posts themselves are only read to list them.
+ *
+ * Ids are assigned in creation-time order, which makes every day, and any other time
+ * window, a contiguous id range: a per-day count is two rank lookups on the selection
+ * and a window is a {@link CompactBitmap#range}, so no per-day bitmaps are stored.
+ * Posts without a sentiment count as neutral and posts without a relief item are in
+ * no category, as in the charts.
+ */
+public class PostFilterIndex {
+    private static final ReliefItem.Category[] CATEGORIES = ReliefItem.Category.values();
+    private static final Sentiment.SentimentType[] TYPES = Sentiment.SentimentType.values();
+    private static final long SECONDS_PER_DAY = 86_400L;
+
+    private final List<Post> posts;         // by id
+    private final long[] times;             // creation time by id, epoch ms read as UTC; ascending
+    private final CompactBitmap all;
+    private final Map<String, CompactBitmap> byDisaster;
+    private final CompactBitmap[] byCategory;
+    private final CompactBitmap[] bySentiment;
+    private final List<LocalDate> days;     // days with posts, ascending
+    private final int[] dayStarts;          // first id of each day, then one past the last id
+
+    private PostFilterIndex(List<Post> posts, long[] times, Map<String, CompactBitmap> byDisaster,
+                            CompactBitmap[] byCategory, CompactBitmap[] bySentiment,
+                            List<LocalDate> days, int[] dayStarts) {
+        this.posts = posts;
+        this.times = times;
+        this.all = CompactBitmap.range(0, posts.size());
+        this.byDisaster = byDisaster;
+        this.byCategory = byCategory;
+        this.bySentiment = bySentiment;
+        this.days = days;
+        this.dayStarts = dayStarts;
+    }
+
+    /**
+     * @param posts posts to index, e.g. a repository snapshot; not modified
+     */
+    public static PostFilterIndex of(List<Post> posts) {
+        // Epoch seconds are read once per post; the conversion dominates the build otherwise
+        int n = posts.size();
+        long[] seconds = new long[n];
+        for (int i = 0; i < n; i++) {
+            Post post = posts.get(i);
+            seconds[i] = post.getCreatedAt() == null ? Long.MIN_VALUE : post.getCreatedAt().toEpochSecond(ZoneOffset.UTC);
+        }
+        int[] order = timeOrder(seconds);
+        List<Post> sorted = new ArrayList<>(n);
+        long[] times = new long[n];
+        Map<String, CompactBitmap.Builder> disasterBuilders = new HashMap<>();
+        CompactBitmap.Builder[] categoryBuilders = builders(CATEGORIES.length);
+        CompactBitmap.Builder[] sentimentBuilders = builders(TYPES.length);
+        List<LocalDate> days = new ArrayList<>();
+        int[] dayStarts = new int[n + 1];
+        long currentDay = Long.MIN_VALUE;
+
+        for (int id = 0; id < n; id++) {
+            Post post = posts.get(order[id]);
+            long second = seconds[order[id]];
+            sorted.add(post);
+            times[id] = second == Long.MIN_VALUE ? Long.MIN_VALUE : second * 1000L;
+            if (post instanceof YouTubePost && ((YouTubePost) post).getDisasterType() != null) {
+                disasterBuilders.computeIfAbsent(((YouTubePost) post).getDisasterType().getName(),
+                        name -> new CompactBitmap.Builder()).add(id);
+            }
+            if (post.getReliefItem() != null) {
+                categoryBuilders[post.getReliefItem().getCategory().ordinal()].add(id);
+            }
+            Sentiment.SentimentType type = post.getSentiment() == null
+                    ? Sentiment.SentimentType.NEUTRAL : post.getSentiment().getType();
+            sentimentBuilders[type.ordinal()].add(id);
+            if (second != Long.MIN_VALUE && Math.floorDiv(second, SECONDS_PER_DAY) != currentDay) {
+                currentDay = Math.floorDiv(second, SECONDS_PER_DAY);
+                dayStarts[days.size()] = id;
+                days.add(LocalDate.ofEpochDay(currentDay));
+            }
+        }
+        dayStarts[days.size()] = n;
+
+        Map<String, CompactBitmap> byDisaster = new HashMap<>();
+        disasterBuilders.forEach((name, builder) -> byDisaster.put(name, builder.build()));
+        return new PostFilterIndex(sorted, times, byDisaster, build(categoryBuilders), build(sentimentBuilders),
+                Collections.unmodifiableList(days), Arrays.copyOf(dayStarts, days.size() + 1));
+    }
+
+    /**
+     * Post indices sorted by creation time, posts without a time first
+     */
+    private static int[] timeOrder(long[] seconds) {
+        int n = seconds.length;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (long second : seconds) {
+            if (second != Long.MIN_VALUE) {
+                min = Math.min(min, second);
+                max = Math.max(max, second);
+            }
+        }
+        int[] order = new int[n];
+        if (min > max || max - min < Integer.MAX_VALUE) {
+            // Seconds since the earliest post and the index packed into one long sort as primitives
+            long[] keys = new long[n];
+            for (int i = 0; i < n; i++) {
+                long offset = seconds[i] == Long.MIN_VALUE ? 0 : seconds[i] - min + 1;
+                keys[i] = offset << 32 | i;
+            }
+            Arrays.sort(keys);
+            for (int i = 0; i < n; i++) {
+                order[i] = (int) keys[i];
+            }
+            return order;
+        }
+        Integer[] boxed = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            boxed[i] = i;
+        }
+        Arrays.sort(boxed, Comparator.comparingLong(i -> seconds[i]));
+        for (int i = 0; i < n; i++) {
+            order[i] = boxed[i];
+        }
+        return order;
+    }
+
+    private static CompactBitmap.Builder[] builders(int count) {
+        CompactBitmap.Builder[] builders = new CompactBitmap.Builder[count];
+        for (int i = 0; i < count; i++) {
+            builders[i] = new CompactBitmap.Builder();
+        }
+        return builders;
+    }
+
+    private static CompactBitmap[] build(CompactBitmap.Builder[] builders) {
+        CompactBitmap[] bitmaps = new CompactBitmap[builders.length];
+        for (int i = 0; i < builders.length; i++) {
+            bitmaps[i] = builders[i].build();
+        }
+        return bitmaps;
+    }
+
+    public int size() {
+        return posts.size();
+    }
+
+    public CompactBitmap all() {
+        return all;
+    }
+
+    /**
+     * @return posts of a YouTube disaster type, empty for an unknown name
+     */
+    public CompactBitmap disaster(String name) {
+        return byDisaster.getOrDefault(name, CompactBitmap.empty());
+    }
+
+    public CompactBitmap category(ReliefItem.Category category) {
+        return byCategory[category.ordinal()];
+    }
+
+    /**
+     * @return posts in any of the categories
+     */
+    public CompactBitmap categories(Set<ReliefItem.Category> categories) {
+        List<CompactBitmap> bitmaps = new ArrayList<>();
+        for (ReliefItem.Category category : categories) {
+            bitmaps.add(category(category));
+        }
+        return CompactBitmap.or(bitmaps);
+    }
+
+    public CompactBitmap sentiment(Sentiment.SentimentType type) {
+        return bySentiment[type.ordinal()];
+    }
+
+    /**
+     * @param from start in epoch ms of the wall-clock time read as UTC (inclusive)
+     * @param to end in epoch ms (exclusive)
+     * @return posts created in the window
+     */
+    public CompactBitmap between(long from, long to) {
+        return CompactBitmap.range(lowerBound(from), lowerBound(to));
+    }
+
+    /**
+     * @return the days with at least one post, ascending; indices are day numbers for {@link #count}
+     */
+    public List<LocalDate> getDays() {
+        return days;
+    }
+
+    /**
+     * @param day index into {@link #getDays()}
+     * @return number of posts of the selection created on that day
+     */
+    public int count(CompactBitmap selection, int day) {
+        return selection.cardinality(dayStarts[day], dayStarts[day + 1]);
+    }
+
+    /**
+     * @return the selected posts, oldest first
+     */
+    public List<Post> posts(CompactBitmap selection) {
+        int[] ids = selection.toArray();
+        List<Post> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            result.add(posts.get(id));
+        }
+        return result;
+    }
+
+    /**
+     * @return approximate heap size of all bitmaps, for diagnostics
+     */
+    public long sizeInBytes() {
+        long bytes = all.sizeInBytes();
+        for (CompactBitmap bitmap : byDisaster.values()) {
+            bytes += bitmap.sizeInBytes();
+        }
+        for (CompactBitmap bitmap : byCategory) {
+            bytes += bitmap.sizeInBytes();
+        }
+        for (CompactBitmap bitmap : bySentiment) {
+            bytes += bitmap.sizeInBytes();
+        }
+        return bytes;
+    }
+
+    private int lowerBound(long time) {
+        int low = 0;
+        int high = times.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
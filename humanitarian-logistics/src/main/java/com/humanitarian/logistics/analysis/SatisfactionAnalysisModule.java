@@ -17,39 +17,27 @@ import java.util.stream.Collectors;
 public class SatisfactionAnalysisModule implements AnalysisModule {
     @Override
     public Map<String, Object> analyze(List<Post> posts) {
-        Map<String, Object> results = new LinkedHashMap<>();
-
-        // Group posts and comments by relief category
-        Map<ReliefItem.Category, List<Sentiment>> sentimentsByCategory = new HashMap<>();
-
-        for (ReliefItem.Category category : ReliefItem.Category.values()) {
-            sentimentsByCategory.put(category, new ArrayList<>());
-        }
+        return analyze(posts, false);
+    }
 
-        // Collect sentiments from posts
-        for (Post post : posts) {
-            if (post.getReliefItem() != null && post.getSentiment() != null) {
-                sentimentsByCategory.computeIfAbsent(post.getReliefItem().getCategory(), k -> new ArrayList<>())
-                        .add(post.getSentiment());
-            }
+    @Override
+    public Map<String, Object> analyze(List<Post> posts, boolean parallel) {
+        Map<String, Object> results = new LinkedHashMap<>();
 
-            // Also collect from comments
-            for (Comment comment : post.getComments()) {
-                if (comment.getReliefItem() != null && comment.getSentiment() != null) {
-                    sentimentsByCategory.computeIfAbsent(comment.getReliefItem().getCategory(), k -> new ArrayList<>())
-                            .add(comment.getSentiment());
-                }
-            }
-        }
+        // Single pass over posts and comments; buckets are irrelevant here so one bucket spans all time
+        SentimentAggregate aggregate = parallel
+                ? SentimentAggregate.ofParallel(posts, Long.MAX_VALUE)
+                : SentimentAggregate.of(posts, Long.MAX_VALUE);
 
         // Calculate statistics per category
         Map<String, Map<String, Object>> categoryStats = new LinkedHashMap<>();
         Map<String, Object> categoryEffectiveness = new LinkedHashMap<>();
         
         for (ReliefItem.Category category : ReliefItem.Category.values()) {
-            List<Sentiment> sentiments = sentimentsByCategory.get(category);
-            if (!sentiments.isEmpty()) {
-                Map<String, Object> stats = calculateSentimentStats(sentiments, category);
+            long[] counts = aggregate.categoryCounts(category);
+            if (counts[0] + counts[1] + counts[2] > 0) {
+                Map<String, Object> stats = calculateSentimentStats(counts,
+                        aggregate.categoryConfidenceSum(category), category);
                 categoryStats.put(category.getDisplayName(), stats);
                 categoryEffectiveness.put(category.getDisplayName(), assessCategoryEffectiveness(stats));
             }
@@ -68,28 +56,27 @@ public class SatisfactionAnalysisModule implements AnalysisModule {
     /**
      * Calculate detailed sentiment statistics for a relief category
      */
-    private Map<String, Object> calculateSentimentStats(List<Sentiment> sentiments,
+    private Map<String, Object> calculateSentimentStats(long[] counts, double totalConfidence,
                                                         ReliefItem.Category category) {
         Map<String, Object> stats = new LinkedHashMap<>();
 
-        long positiveCount = sentiments.stream().filter(Sentiment::isPositive).count();
-        long negativeCount = sentiments.stream().filter(Sentiment::isNegative).count();
-        long neutralCount = sentiments.stream().filter(Sentiment::isNeutral).count();
+        long positiveCount = counts[Sentiment.SentimentType.POSITIVE.ordinal()];
+        long negativeCount = counts[Sentiment.SentimentType.NEGATIVE.ordinal()];
+        long neutralCount = counts[Sentiment.SentimentType.NEUTRAL.ordinal()];
+        int total = (int) (positiveCount + negativeCount + neutralCount);
 
-        double totalConfidence = sentiments.stream()
-                .mapToDouble(Sentiment::getConfidence).sum();
-        double avgConfidence = totalConfidence / sentiments.size();
+        double avgConfidence = totalConfidence / total;
 
         // Calculate percentages
-        double positivePercentage = (double) positiveCount / sentiments.size() * 100;
-        double negativePercentage = (double) negativeCount / sentiments.size() * 100;
-        double neutralPercentage = (double) neutralCount / sentiments.size() * 100;
+        double positivePercentage = (double) positiveCount / total * 100;
+        double negativePercentage = (double) negativeCount / total * 100;
+        double neutralPercentage = (double) neutralCount / total * 100;
 
         // Calculate satisfaction score (-1.0 to 1.0)
-        double satisfactionScore = (positiveCount - negativeCount) / (double) sentiments.size();
+        double satisfactionScore = (positiveCount - negativeCount) / (double) total;
 
         stats.put("category", category.getDisplayName());
-        stats.put("total_mentions", sentiments.size());
+        stats.put("total_mentions", total);
         stats.put("positive_count", positiveCount);
         stats.put("negative_count", negativeCount);
         stats.put("neutral_count", neutralCount);
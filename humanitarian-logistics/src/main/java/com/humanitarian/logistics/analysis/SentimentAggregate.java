@@ -0,0 +1,488 @@
+package com.humanitarian.logistics.analysis;
+
+import com.humanitarian.logistics.model.*;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * Shared aggregation kernel for the analysis modules.
+ * Visits every post and comment exactly once and accumulates sentiment counts
+ * into dense arrays indexed by [category][time bucket][sentiment type].
+ *
+ * Buckets are derived from epoch seconds by integer division, so two aggregates
+ * built with the same bucket size can be merged cell by cell.
+ */
+public class SentimentAggregate {
+    private static final ReliefItem.Category[] CATEGORIES = ReliefItem.Category.values();
+    private static final int SENTIMENT_TYPES = Sentiment.SentimentType.values().length;
+    private static final int INITIAL_BUCKETS = 16;
+    private static final int SPLIT_THRESHOLD = 256; // posts per fork/join leaf task
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+    private static final long MAX_PARALLEL_COLUMNS = 4_000_000; // bucket columns across all worker buffers
+
+    private final long bucketSeconds;
+    private long firstBucket;          // epoch bucket index of column 0
+    private int head;                  // array slot of column 0; the slots before it are room for earlier buckets
+    private int bucketCount;           // number of columns in use
+    private int[][][] counts;          // [category][slot][sentimentType]
+    private double[][] confidence;     // [category][slot] sum of confidence
+    private int postCount;
+    private int recordCount;
+
+    public SentimentAggregate(long bucketSeconds) {
+        if (bucketSeconds <= 0) {
+            throw new IllegalArgumentException("Bucket size must be positive");
+        }
+        this.bucketSeconds = bucketSeconds;
+        this.counts = new int[CATEGORIES.length][0][];
+        this.confidence = new double[CATEGORIES.length][0];
+    }
+
+    /**
+     * Builds an aggregate over all posts and their comments in a single pass
+     * @param posts posts to aggregate
+     * @param bucketSeconds width of a time bucket in seconds
+     * @return filled aggregate
+     */
+    public static SentimentAggregate of(List<Post> posts, long bucketSeconds) {
+        SentimentAggregate aggregate = new SentimentAggregate(bucketSeconds);
+        for (Post post : posts) {
+            aggregate.add(post);
+        }
+        aggregate.trimToSize();
+        return aggregate;
+    }
+
+    /**
+     * Builds an aggregate by partitioning the posts across the common fork/join pool.
+     * A first parallel pass finds the span; each worker thread then fills one buffer
+     * sized to that span, so no leaf allocates or grows arrays of its own, and the
+     * buffers are summed once at the end. Small lists, a single-worker pool and spans
+     * too long to copy per worker are aggregated on the calling thread instead.
+     * @param posts posts to aggregate
+     * @param bucketSeconds width of a time bucket in seconds
+     * @return filled aggregate
+     */
+    public static SentimentAggregate ofParallel(List<Post> posts, long bucketSeconds) {
+        return ofParallel(posts, bucketSeconds, ForkJoinPool.commonPool());
+    }
+
+    static SentimentAggregate ofParallel(List<Post> posts, long bucketSeconds, ForkJoinPool pool) {
+        int workers = pool.getParallelism();
+        if (posts.size() <= SPLIT_THRESHOLD || workers < 2) {
+            return of(posts, bucketSeconds);
+        }
+        List<Post> indexed = posts instanceof RandomAccess ? posts : new ArrayList<>(posts);
+        // A few leaves per worker balance the load; the buffers are per thread, not per leaf
+        int leafSize = Math.max(SPLIT_THRESHOLD, indexed.size() / (workers * 4));
+
+        long[] span = pool.invoke(new SpanTask(indexed, 0, indexed.size(), bucketSeconds, leafSize));
+        if (span[0] > span[1]) {
+            SentimentAggregate empty = new SentimentAggregate(bucketSeconds);
+            empty.postCount = indexed.size();
+            return empty;
+        }
+        long columns = span[1] - span[0] + 1;
+        if (columns * (workers + 1) > MAX_PARALLEL_COLUMNS) {
+            return of(indexed, bucketSeconds);
+        }
+
+        Map<Thread, SentimentAggregate> buffers = new ConcurrentHashMap<>();
+        pool.invoke(new AggregateTask(indexed, 0, indexed.size(), leafSize,
+                () -> buffers.computeIfAbsent(Thread.currentThread(), t -> sized(bucketSeconds, span[0], span[1]))));
+        SentimentAggregate result = null;
+        for (SentimentAggregate buffer : buffers.values()) {
+            result = result == null ? buffer : result.addAligned(buffer);
+        }
+        return result;
+    }
+
+    /**
+     * Empty aggregate whose arrays already cover the epoch buckets first to last
+     */
+    private static SentimentAggregate sized(long bucketSeconds, long first, long last) {
+        SentimentAggregate aggregate = new SentimentAggregate(bucketSeconds);
+        aggregate.reallocate(checkedCapacity(last - first + 1), 0);
+        aggregate.firstBucket = first;
+        aggregate.bucketCount = (int) (last - first + 1);
+        return aggregate;
+    }
+
+    /**
+     * Adds an aggregate covering exactly the same columns, slot by slot
+     */
+    private SentimentAggregate addAligned(SentimentAggregate other) {
+        for (int c = 0; c < CATEGORIES.length; c++) {
+            for (int b = 0; b < bucketCount; b++) {
+                int[] cell = other.counts[c][other.head + b];
+                if (cell == null) {
+                    continue;
+                }
+                int[] mine = counts[c][head + b];
+                if (mine == null) {
+                    counts[c][head + b] = cell;
+                } else {
+                    for (int t = 0; t < SENTIMENT_TYPES; t++) {
+                        mine[t] += cell[t];
+                    }
+                }
+                confidence[c][head + b] += other.confidence[c][other.head + b];
+            }
+        }
+        postCount += other.postCount;
+        recordCount += other.recordCount;
+        return this;
+    }
+
+    /**
+     * Adds a post and all of its comments; records without a category, sentiment or
+     * time are counted in no bucket
+     */
+    public void add(Post post) {
+        postCount++;
+        record(post.getReliefItem(), post.getSentiment(), post.getCreatedAt());
+        for (Comment comment : post.getComments()) {
+            record(comment.getReliefItem(), comment.getSentiment(), comment.getCreatedAt());
+        }
+    }
+
+    private void record(ReliefItem reliefItem, Sentiment sentiment, LocalDateTime createdAt) {
+        if (reliefItem == null || sentiment == null || createdAt == null) {
+            return;
+        }
+        int category = reliefItem.getCategory().ordinal();
+        int bucket = bucketIndex(Math.floorDiv(createdAt.toEpochSecond(ZoneOffset.UTC), bucketSeconds));
+        int[] cell = counts[category][bucket];
+        if (cell == null) {
+            cell = new int[SENTIMENT_TYPES];
+            counts[category][bucket] = cell;
+        }
+        cell[sentiment.getType().ordinal()]++;
+        confidence[category][bucket] += sentiment.getConfidence();
+        recordCount++;
+    }
+
+    /**
+     * Maps an epoch bucket to an array slot, growing the arrays if needed. Like ArrayDeque,
+     * room is kept separately before and after the columns in use and grows in proportion
+     * to the columns needed, so buckets arriving out of order in either direction cost
+     * amortized constant time and at most about twice the span in memory.
+     */
+    private int bucketIndex(long epochBucket) {
+        if (bucketCount == 0) {
+            if (capacity() == 0) {
+                reallocate(INITIAL_BUCKETS, INITIAL_BUCKETS / 2);
+            }
+            firstBucket = epochBucket;
+            bucketCount = 1;
+            return head;
+        }
+        if (epochBucket < firstBucket) {
+            long shift = firstBucket - epochBucket;
+            if (shift > head) {
+                long needed = bucketCount + shift;
+                long room = Math.max(needed >> 1, INITIAL_BUCKETS);
+                int tail = capacity() - head - bucketCount;
+                int newCapacity = checkedCapacity(room + needed + tail);
+                reallocate(newCapacity, (int) (room + shift));
+            }
+            head -= (int) shift;
+            firstBucket = epochBucket;
+            bucketCount += (int) shift;
+            return head;
+        }
+        long offset = epochBucket - firstBucket;
+        if (head + offset >= capacity()) {
+            long needed = offset + 1;
+            long room = Math.max(needed >> 1, INITIAL_BUCKETS);
+            reallocate(checkedCapacity(head + needed + room), head);
+        }
+        if (offset >= bucketCount) {
+            bucketCount = (int) offset + 1;
+        }
+        return head + (int) offset;
+    }
+
+    private static int checkedCapacity(long capacity) {
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Time span of " + capacity + " buckets is too large; use a wider bucket size");
+        }
+        return (int) capacity;
+    }
+
+    /**
+     * @return number of bucket slots allocated, including the room on either side
+     */
+    int capacity() {
+        return confidence[0].length;
+    }
+
+    /**
+     * Copies the columns in use into arrays of newCapacity, column 0 at slot newHead
+     */
+    private void reallocate(int newCapacity, int newHead) {
+        for (int c = 0; c < CATEGORIES.length; c++) {
+            int[][] newCounts = new int[newCapacity][];
+            double[] newConfidence = new double[newCapacity];
+            System.arraycopy(counts[c], head, newCounts, newHead, bucketCount);
+            System.arraycopy(confidence[c], head, newConfidence, newHead, bucketCount);
+            counts[c] = newCounts;
+            confidence[c] = newConfidence;
+        }
+        head = newHead;
+    }
+
+    /**
+     * Drops the growth room once an aggregate is complete, leaving exactly the observed span
+     */
+    private void trimToSize() {
+        if (capacity() != bucketCount) {
+            reallocate(bucketCount, 0);
+        }
+    }
+
+    /**
+     * Merges another aggregate built with the same bucket size into this one.
+     * The operation is associative, so partial aggregates may be combined in any grouping.
+     * @return this aggregate
+     */
+    public SentimentAggregate merge(SentimentAggregate other) {
+        if (other.bucketSeconds != bucketSeconds) {
+            throw new IllegalArgumentException("Cannot merge aggregates with different bucket sizes");
+        }
+        for (int b = 0; b < other.bucketCount; b++) {
+            int source = other.head + b;
+            int target = -1;
+            for (int c = 0; c < CATEGORIES.length; c++) {
+                int[] cell = other.counts[c][source];
+                if (cell == null) {
+                    continue;
+                }
+                if (target < 0) {
+                    target = bucketIndex(other.firstBucket + b);
+                }
+                int[] mine = counts[c][target];
+                if (mine == null) {
+                    counts[c][target] = Arrays.copyOf(cell, SENTIMENT_TYPES);
+                } else {
+                    for (int t = 0; t < SENTIMENT_TYPES; t++) {
+                        mine[t] += cell[t];
+                    }
+                }
+                confidence[c][target] += other.confidence[c][source];
+            }
+        }
+        postCount += other.postCount;
+        recordCount += other.recordCount;
+        return this;
+    }
+
+    /**
+     * Re-buckets this aggregate into coarser buckets without revisiting any posts.
+     * @param coarserBucketSeconds target bucket width, a whole multiple of this aggregate's width
+     * @return new aggregate at the coarser resolution
+     */
+    public SentimentAggregate rollup(long coarserBucketSeconds) {
+        if (coarserBucketSeconds % bucketSeconds != 0) {
+            throw new IllegalArgumentException("Rollup bucket size must be a multiple of " + bucketSeconds + "s");
+        }
+        SentimentAggregate coarse = new SentimentAggregate(coarserBucketSeconds);
+        long factor = coarserBucketSeconds / bucketSeconds;
+        for (int b = 0; b < bucketCount; b++) {
+            int source = head + b;
+            int target = -1;
+            for (int c = 0; c < CATEGORIES.length; c++) {
+                int[] cell = counts[c][source];
+                if (cell == null) {
+                    continue;
+                }
+                if (target < 0) {
+                    target = coarse.bucketIndex(Math.floorDiv(firstBucket + b, factor));
+                }
+                int[] into = coarse.counts[c][target];
+                if (into == null) {
+                    into = new int[SENTIMENT_TYPES];
+                    coarse.counts[c][target] = into;
+                }
+                for (int t = 0; t < SENTIMENT_TYPES; t++) {
+                    into[t] += cell[t];
+                }
+                coarse.confidence[c][target] += confidence[c][source];
+            }
+        }
+        coarse.trimToSize();
+        coarse.postCount = postCount;
+        coarse.recordCount = recordCount;
+        return coarse;
+    }
+
+    public long getBucketSeconds() {
+        return bucketSeconds;
+    }
+
+    /**
+     * @return number of bucket columns between the earliest and latest record
+     */
+    public int getBucketCount() {
+        return bucketCount;
+    }
+
+    /**
+     * @return start time of the given bucket column
+     */
+    public LocalDateTime getBucketStart(int bucket) {
+        return LocalDateTime.ofEpochSecond((firstBucket + bucket) * bucketSeconds, 0, ZoneOffset.UTC);
+    }
+
+    public int getPostCount() {
+        return postCount;
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    public int count(ReliefItem.Category category, int bucket, Sentiment.SentimentType type) {
+        int[] cell = counts[category.ordinal()][head + bucket];
+        return cell == null ? 0 : cell[type.ordinal()];
+    }
+
+    public int total(ReliefItem.Category category, int bucket) {
+        int[] cell = counts[category.ordinal()][head + bucket];
+        if (cell == null) {
+            return 0;
+        }
+        int sum = 0;
+        for (int value : cell) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    public double confidenceSum(ReliefItem.Category category, int bucket) {
+        return confidence[category.ordinal()][head + bucket];
+    }
+
+    /**
+     * @return counts for a category across all buckets, indexed by sentiment type ordinal
+     */
+    public long[] categoryCounts(ReliefItem.Category category) {
+        long[] totals = new long[SENTIMENT_TYPES];
+        int[][] row = counts[category.ordinal()];
+        for (int b = head; b < head + bucketCount; b++) {
+            if (row[b] != null) {
+                for (int t = 0; t < SENTIMENT_TYPES; t++) {
+                    totals[t] += row[b][t];
+                }
+            }
+        }
+        return totals;
+    }
+
+    public double categoryConfidenceSum(ReliefItem.Category category) {
+        double sum = 0;
+        double[] row = confidence[category.ordinal()];
+        for (int b = head; b < head + bucketCount; b++) {
+            sum += row[b];
+        }
+        return sum;
+    }
+
+    /**
+     * Fork/join task finding the earliest and latest epoch bucket of a range of posts
+     * @return {first, last}, or first greater than last if nothing would be recorded
+     */
+    private static class SpanTask extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Post> posts;
+        private final int from;
+        private final int to;
+        private final long bucketSeconds;
+        private final int leafSize;
+
+        SpanTask(List<Post> posts, int from, int to, long bucketSeconds, int leafSize) {
+            this.posts = posts;
+            this.from = from;
+            this.to = to;
+            this.bucketSeconds = bucketSeconds;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from <= leafSize) {
+                long[] span = {Long.MAX_VALUE, Long.MIN_VALUE};
+                for (int i = from; i < to; i++) {
+                    Post post = posts.get(i);
+                    include(span, post.getReliefItem(), post.getSentiment(), post.getCreatedAt());
+                    for (Comment comment : post.getComments()) {
+                        include(span, comment.getReliefItem(), comment.getSentiment(), comment.getCreatedAt());
+                    }
+                }
+                return span;
+            }
+            int mid = (from + to) >>> 1;
+            SpanTask left = new SpanTask(posts, from, mid, bucketSeconds, leafSize);
+            left.fork();
+            long[] right = new SpanTask(posts, mid, to, bucketSeconds, leafSize).compute();
+            long[] span = left.join();
+            return new long[] {Math.min(span[0], right[0]), Math.max(span[1], right[1])};
+        }
+
+        private void include(long[] span, ReliefItem reliefItem, Sentiment sentiment, LocalDateTime createdAt) {
+            if (reliefItem == null || sentiment == null || createdAt == null) {
+                return;
+            }
+            long bucket = Math.floorDiv(createdAt.toEpochSecond(ZoneOffset.UTC), bucketSeconds);
+            span[0] = Math.min(span[0], bucket);
+            span[1] = Math.max(span[1], bucket);
+        }
+    }
+
+    /**
+     * Fork/join task adding a contiguous range of the post list to its thread's buffer
+     */
+    private static class AggregateTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Post> posts;
+        private final int from;
+        private final int to;
+        private final int leafSize;
+        private final Supplier<SentimentAggregate> buffer;
+
+        AggregateTask(List<Post> posts, int from, int to, int leafSize, Supplier<SentimentAggregate> buffer) {
+            this.posts = posts;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+            this.buffer = buffer;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= leafSize) {
+                // A leaf never waits on other tasks, so no other leaf uses this thread's buffer meanwhile
+                SentimentAggregate aggregate = buffer.get();
+                for (int i = from; i < to; i++) {
+                    aggregate.add(posts.get(i));
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new AggregateTask(posts, from, mid, leafSize, buffer),
+                    new AggregateTask(posts, mid, to, leafSize, buffer));
+        }
+    }
+}
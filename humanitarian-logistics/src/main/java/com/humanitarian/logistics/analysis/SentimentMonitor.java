@@ -0,0 +1,216 @@
+package com.humanitarian.logistics.analysis;
+
+import com.humanitarian.logistics.model.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Streaming sentiment monitor fed one post at a time.
+ * For every (disaster, relief category) pair it keeps, in constant memory:
+ * - a slow exponentially weighted baseline of the sentiment score
+ * - a sliding time window of recent scores held in a fixed ring of slots
+ * - a one-sided CUSUM statistic that accumulates drops below the baseline
+ *
+ * When the CUSUM crosses its threshold a {@link SentimentShiftEvent} is returned
+ * and the statistic is reset, so a sustained collapse alerts once per run.
+ */
+public class SentimentMonitor {
+    public static final String UNKNOWN_DISASTER = PostRepository.UNKNOWN_DISASTER;
+
+    private static final int WINDOW_SLOTS = 12;
+    private static final double BASELINE_ALPHA = 0.02; // slow EWMA so the baseline lags a shift
+    private static final double CUSUM_SLACK = 0.5;     // drift tolerated per record before accumulating
+    private static final double CUSUM_THRESHOLD = 8.0;
+    private static final int WARMUP_RECORDS = 20;      // no alerts until the baseline has settled
+
+    private final long slotSeconds;
+    private final Map<String, MonitorState> states = new HashMap<>();
+
+    public SentimentMonitor() {
+        this(Duration.ofHours(1));
+    }
+
+    /**
+     * @param window length of the sliding window; split into 12 equal slots
+     */
+    public SentimentMonitor(Duration window) {
+        this.slotSeconds = Math.max(1, window.getSeconds() / WINDOW_SLOTS);
+    }
+
+    /**
+     * Feeds a post and its comments to the monitor
+     * @return shift events raised by these records, empty if none
+     */
+    public synchronized List<SentimentShiftEvent> observe(Post post) {
+        List<SentimentShiftEvent> events = new ArrayList<>();
+        String disaster = PostRepository.disasterOf(post);
+        observe(disaster, post.getReliefItem(), post.getSentiment(), post.getCreatedAt(), events);
+        for (Comment comment : post.getComments()) {
+            observe(disaster, comment.getReliefItem(), comment.getSentiment(), comment.getCreatedAt(), events);
+        }
+        return events;
+    }
+
+    /**
+     * Feeds comments attached to a post that was already observed
+     * @return shift events raised by these records, empty if none
+     */
+    public synchronized List<SentimentShiftEvent> observeComments(Post post, List<Comment> comments) {
+        List<SentimentShiftEvent> events = new ArrayList<>();
+        String disaster = PostRepository.disasterOf(post);
+        for (Comment comment : comments) {
+            observe(disaster, comment.getReliefItem(), comment.getSentiment(), comment.getCreatedAt(), events);
+        }
+        return events;
+    }
+
+    private void observe(String disaster, ReliefItem reliefItem, Sentiment sentiment,
+                         LocalDateTime createdAt, List<SentimentShiftEvent> events) {
+        if (reliefItem == null || sentiment == null) {
+            return;
+        }
+        ReliefItem.Category category = reliefItem.getCategory();
+        MonitorState state = states.computeIfAbsent(disaster + "|" + category.name(), k -> new MonitorState());
+        SentimentShiftEvent event = state.update(disaster, category, score(sentiment), createdAt);
+        if (event != null) {
+            events.add(event);
+        }
+    }
+
+    /**
+     * Gets current statistics for a disaster and category
+     * @return snapshot, or null if nothing has been observed for the pair
+     */
+    public synchronized Snapshot getSnapshot(String disaster, ReliefItem.Category category) {
+        MonitorState state = states.get(disaster + "|" + category.name());
+        return state == null ? null : state.snapshot();
+    }
+
+    public synchronized void reset() {
+        states.clear();
+    }
+
+    private static double score(Sentiment sentiment) {
+        if (sentiment.isPositive()) return 1.0;
+        if (sentiment.isNegative()) return -1.0;
+        return 0.0;
+    }
+
+    /**
+     * Read-only view of the monitor state for one disaster and category
+     */
+    public static class Snapshot {
+        private final double baselineScore;
+        private final double windowScore;
+        private final int windowCount;
+        private final double cusum;
+        private final long observed;
+
+        Snapshot(double baselineScore, double windowScore, int windowCount, double cusum, long observed) {
+            this.baselineScore = baselineScore;
+            this.windowScore = windowScore;
+            this.windowCount = windowCount;
+            this.cusum = cusum;
+            this.observed = observed;
+        }
+
+        public double getBaselineScore() {
+            return baselineScore;
+        }
+
+        public double getWindowScore() {
+            return windowScore;
+        }
+
+        public int getWindowCount() {
+            return windowCount;
+        }
+
+        public double getCusum() {
+            return cusum;
+        }
+
+        public long getObserved() {
+            return observed;
+        }
+    }
+
+    /**
+     * Per (disaster, category) state: fixed-size arrays only
+     */
+    private class MonitorState {
+        private final long[] slotIds = new long[WINDOW_SLOTS];
+        private final double[] slotSums = new double[WINDOW_SLOTS];
+        private final int[] slotCounts = new int[WINDOW_SLOTS];
+        private long latestSlot = Long.MIN_VALUE;
+        private double baseline;
+        private double cusum;
+        private long observed;
+
+        MonitorState() {
+            Arrays.fill(slotIds, Long.MIN_VALUE);
+        }
+
+        SentimentShiftEvent update(String disaster, ReliefItem.Category category, double score, LocalDateTime at) {
+            addToWindow(score, at);
+
+            if (observed == 0) {
+                baseline = score;
+            }
+            observed++;
+
+            // Lower CUSUM against the baseline as it stood before this record
+            double previousBaseline = baseline;
+            cusum = Math.max(0, cusum + (previousBaseline - score) - CUSUM_SLACK);
+            baseline += BASELINE_ALPHA * (score - baseline);
+
+            if (observed > WARMUP_RECORDS && cusum > CUSUM_THRESHOLD) {
+                double[] window = windowStats();
+                SentimentShiftEvent event = new SentimentShiftEvent(disaster, category, at,
+                        previousBaseline, window[0], (int) window[1], cusum);
+                cusum = 0;
+                return event;
+            }
+            return null;
+        }
+
+        private void addToWindow(double score, LocalDateTime at) {
+            long slot = Math.floorDiv(at.toEpochSecond(ZoneOffset.UTC), slotSeconds);
+            if (slot > latestSlot) {
+                latestSlot = slot;
+            } else if (slot <= latestSlot - WINDOW_SLOTS) {
+                return; // too old for the window; still counted by baseline and CUSUM
+            }
+            int index = (int) Math.floorMod(slot, (long) WINDOW_SLOTS);
+            if (slotIds[index] != slot) {
+                slotIds[index] = slot;
+                slotSums[index] = 0;
+                slotCounts[index] = 0;
+            }
+            slotSums[index] += score;
+            slotCounts[index]++;
+        }
+
+        /**
+         * @return {mean score, record count} over slots still inside the window
+         */
+        private double[] windowStats() {
+            double sum = 0;
+            int count = 0;
+            for (int i = 0; i < WINDOW_SLOTS; i++) {
+                if (slotIds[i] > latestSlot - WINDOW_SLOTS) {
+                    sum += slotSums[i];
+                    count += slotCounts[i];
+                }
+            }
+            return new double[]{count == 0 ? 0 : sum / count, count};
+        }
+
+        Snapshot snapshot() {
+            double[] window = windowStats();
+            return new Snapshot(baseline, window[0], (int) window[1], cusum, observed);
+        }
+    }
+}
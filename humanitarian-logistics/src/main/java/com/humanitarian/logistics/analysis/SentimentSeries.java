@@ -0,0 +1,173 @@
+package com.humanitarian.logistics.analysis;
+
+import com.humanitarian.logistics.model.Post;
+import com.humanitarian.logistics.model.Sentiment;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Post counts per sentiment over time, for charts whose visible window and resolution
+ * change as the user zooms. Posts are counted once into sparse 5-minute buckets; sums
+ * over any window at any coarser width are computed from those on request, touching
+ * only the non-empty buckets inside the window.
+ *
+ * Times are epoch milliseconds of the posts' wall-clock time read as UTC, the same
+ * convention as {@link SentimentAggregate}, so daily buckets match calendar dates.
+ * Posts without a sentiment count as neutral.
+ */
+public class SentimentSeries {
+    public static final long BASE_BUCKET_MILLIS = 5 * 60_000L;
+
+    private final long[] starts;  // start of each non-empty base bucket, ascending
+    private final int[] positive;
+    private final int[] negative;
+    private final int[] neutral;
+    private final int postCount;
+
+    private SentimentSeries(long[] starts, int[] positive, int[] negative, int[] neutral, int postCount) {
+        this.starts = starts;
+        this.positive = positive;
+        this.negative = negative;
+        this.neutral = neutral;
+        this.postCount = postCount;
+    }
+
+    /**
+     * Counts posts (not comments) by creation time
+     */
+    public static SentimentSeries of(List<Post> posts) {
+        long[] keys = new long[posts.size()];
+        int n = 0;
+        for (Post post : posts) {
+            if (post.getCreatedAt() != null) {
+                long millis = post.getCreatedAt().toEpochSecond(ZoneOffset.UTC) * 1000L;
+                long bucket = Math.floorDiv(millis, BASE_BUCKET_MILLIS);
+                keys[n++] = bucket * 3 + typeIndex(post.getSentiment()); // bucket and type sort together
+            }
+        }
+        Arrays.sort(keys, 0, n);
+
+        long[] starts = new long[n];
+        int[] positive = new int[n];
+        int[] negative = new int[n];
+        int[] neutral = new int[n];
+        int buckets = 0;
+        long current = Long.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            long bucket = Math.floorDiv(keys[i], 3);
+            if (bucket != current) {
+                current = bucket;
+                starts[buckets++] = bucket * BASE_BUCKET_MILLIS;
+            }
+            int type = Math.floorMod(keys[i], 3);
+            int[] counts = type == 0 ? positive : type == 1 ? negative : neutral;
+            counts[buckets - 1]++;
+        }
+        return new SentimentSeries(Arrays.copyOf(starts, buckets), Arrays.copyOf(positive, buckets),
+                Arrays.copyOf(negative, buckets), Arrays.copyOf(neutral, buckets), n);
+    }
+
+    private static int typeIndex(Sentiment sentiment) {
+        if (sentiment != null && sentiment.isPositive()) {
+            return 0;
+        }
+        return sentiment != null && sentiment.isNegative() ? 1 : 2;
+    }
+
+    public boolean isEmpty() {
+        return starts.length == 0;
+    }
+
+    public int getPostCount() {
+        return postCount;
+    }
+
+    /**
+     * @return start of the earliest non-empty base bucket
+     */
+    public long getStart() {
+        return starts.length == 0 ? 0 : starts[0];
+    }
+
+    /**
+     * @return end of the latest non-empty base bucket
+     */
+    public long getEnd() {
+        return starts.length == 0 ? 0 : starts[starts.length - 1] + BASE_BUCKET_MILLIS;
+    }
+
+    /**
+     * Sums the counts into consecutive buckets covering [from, to), aligned to the epoch.
+     * Every bucket in the window is present, including empty ones.
+     * @param bucketMillis bucket width, a whole multiple of {@link #BASE_BUCKET_MILLIS}
+     */
+    public Buckets sum(long from, long to, long bucketMillis) {
+        if (bucketMillis <= 0 || bucketMillis % BASE_BUCKET_MILLIS != 0) {
+            throw new IllegalArgumentException("Bucket width must be a multiple of 5 minutes: " + bucketMillis);
+        }
+        long first = Math.floorDiv(from, bucketMillis);
+        long last = Math.floorDiv(Math.max(from, to - 1), bucketMillis);
+        Buckets result = new Buckets(first * bucketMillis, bucketMillis, (int) (last - first + 1));
+
+        int i = lowerBound(first * bucketMillis);
+        long end = (last + 1) * bucketMillis;
+        for (; i < starts.length && starts[i] < end; i++) {
+            int index = (int) (Math.floorDiv(starts[i], bucketMillis) - first);
+            result.positive[index] += positive[i];
+            result.negative[index] += negative[i];
+            result.neutral[index] += neutral[i];
+        }
+        return result;
+    }
+
+    private int lowerBound(long time) {
+        int index = Arrays.binarySearch(starts, time);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Dense per-bucket counts over a window
+     */
+    public static class Buckets {
+        private final long start;
+        private final long width;
+        final int[] positive;
+        final int[] negative;
+        final int[] neutral;
+
+        Buckets(long start, long width, int size) {
+            this.start = start;
+            this.width = width;
+            this.positive = new int[size];
+            this.negative = new int[size];
+            this.neutral = new int[size];
+        }
+
+        public int size() {
+            return positive.length;
+        }
+
+        public long getWidth() {
+            return width;
+        }
+
+        public long getStart(int bucket) {
+            return start + bucket * width;
+        }
+
+        public int count(int bucket, Sentiment.SentimentType type) {
+            switch (type) {
+                case POSITIVE:
+                    return positive[bucket];
+                case NEGATIVE:
+                    return negative[bucket];
+                default:
+                    return neutral[bucket];
+            }
+        }
+
+        public int total(int bucket) {
+            return positive[bucket] + negative[bucket] + neutral[bucket];
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.humanitarian.logistics.analysis;
+
+import com.humanitarian.logistics.model.ReliefItem;
+import java.time.LocalDateTime;
+
+/**
+ * Raised by {@link SentimentMonitor} when sentiment for a disaster and relief
+ * category drops significantly below its running baseline.
+ */
+public class SentimentShiftEvent {
+    private final String disaster;
+    private final ReliefItem.Category category;
+    private final LocalDateTime detectedAt;
+    private final double baselineScore;
+    private final double recentScore;
+    private final int recentCount;
+    private final double cusum;
+
+    public SentimentShiftEvent(String disaster, ReliefItem.Category category, LocalDateTime detectedAt,
+                               double baselineScore, double recentScore, int recentCount, double cusum) {
+        this.disaster = disaster;
+        this.category = category;
+        this.detectedAt = detectedAt;
+        this.baselineScore = baselineScore;
+        this.recentScore = recentScore;
+        this.recentCount = recentCount;
+        this.cusum = cusum;
+    }
+
+    public String getDisaster() {
+        return disaster;
+    }
+
+    public ReliefItem.Category getCategory() {
+        return category;
+    }
+
+    /**
+     * @return timestamp of the record that triggered the alert
+     */
+    public LocalDateTime getDetectedAt() {
+        return detectedAt;
+    }
+
+    /**
+     * @return long-run sentiment score (-1 to 1) before the shift
+     */
+    public double getBaselineScore() {
+        return baselineScore;
+    }
+
+    /**
+     * @return sentiment score (-1 to 1) inside the sliding window
+     */
+    public double getRecentScore() {
+        return recentScore;
+    }
+
+    public int getRecentCount() {
+        return recentCount;
+    }
+
+    public double getCusum() {
+        return cusum;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Negative sentiment shift: %s / %s at %s (baseline %.2f -> recent %.2f over %d records)",
+                disaster, category.getDisplayName(), detectedAt, baselineScore, recentScore, recentCount);
+    }
+}
@@ -0,0 +1,92 @@
+package com.humanitarian.logistics.analysis;
+
+import com.humanitarian.logistics.model.Post;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Multi-resolution view of sentiment over time.
+ * The corpus is scanned once into 5-minute buckets; hourly and daily rollups are
+ * derived from that once, and any other supported bucket size is rolled up from the
+ * coarsest level that divides it. Changing the bucket size never rescans the posts.
+ *
+ * Buckets are aligned to the epoch, so weekly buckets start on Thursdays.
+ */
+public class SentimentTimeline {
+    public static final Duration MIN_BUCKET = Duration.ofMinutes(5);
+    public static final Duration MAX_BUCKET = Duration.ofDays(7);
+
+    private static final long MINUTE_LEVEL_SECONDS = MIN_BUCKET.getSeconds();
+    private static final long HOUR_LEVEL_SECONDS = 3600L;
+    private static final long DAY_LEVEL_SECONDS = 86400L;
+
+    private final SentimentAggregate minuteLevel;
+    private final SentimentAggregate hourLevel;
+    private final SentimentAggregate dayLevel;
+    private final Map<Long, SentimentAggregate> rollups = new ConcurrentHashMap<>();
+
+    public SentimentTimeline(SentimentAggregate minuteLevel) {
+        if (minuteLevel.getBucketSeconds() != MINUTE_LEVEL_SECONDS) {
+            throw new IllegalArgumentException("Timeline base must use " + MINUTE_LEVEL_SECONDS + "s buckets");
+        }
+        this.minuteLevel = minuteLevel;
+        this.hourLevel = minuteLevel.rollup(HOUR_LEVEL_SECONDS);
+        this.dayLevel = hourLevel.rollup(DAY_LEVEL_SECONDS);
+        rollups.put(MINUTE_LEVEL_SECONDS, minuteLevel);
+        rollups.put(HOUR_LEVEL_SECONDS, hourLevel);
+        rollups.put(DAY_LEVEL_SECONDS, dayLevel);
+    }
+
+    /**
+     * Builds a timeline from posts and comments
+     * @param posts posts to aggregate
+     * @param parallel whether the base scan may run on the fork/join pool
+     */
+    public static SentimentTimeline of(List<Post> posts, boolean parallel) {
+        SentimentAggregate base = parallel
+                ? SentimentAggregate.ofParallel(posts, MINUTE_LEVEL_SECONDS)
+                : SentimentAggregate.of(posts, MINUTE_LEVEL_SECONDS);
+        return new SentimentTimeline(base);
+    }
+
+    /**
+     * Gets the aggregate for a bucket size, rolling it up from precomputed levels on first use
+     * @param bucketSize between 5 minutes and 1 week, in whole multiples of 5 minutes
+     */
+    public SentimentAggregate at(Duration bucketSize) {
+        long seconds = validateBucketSize(bucketSize);
+        return rollups.computeIfAbsent(seconds, s -> {
+            if (s % DAY_LEVEL_SECONDS == 0) {
+                return dayLevel.rollup(s);
+            } else if (s % HOUR_LEVEL_SECONDS == 0) {
+                return hourLevel.rollup(s);
+            }
+            return minuteLevel.rollup(s);
+        });
+    }
+
+    /**
+     * Checks that a bucket size is supported
+     * @return bucket size in seconds
+     */
+    public static long validateBucketSize(Duration bucketSize) {
+        if (bucketSize == null || bucketSize.compareTo(MIN_BUCKET) < 0 || bucketSize.compareTo(MAX_BUCKET) > 0) {
+            throw new IllegalArgumentException("Bucket size must be between 5 minutes and 1 week: " + bucketSize);
+        }
+        long seconds = bucketSize.getSeconds();
+        if (seconds % MINUTE_LEVEL_SECONDS != 0 || bucketSize.getNano() != 0) {
+            throw new IllegalArgumentException("Bucket size must be a whole multiple of 5 minutes: " + bucketSize);
+        }
+        return seconds;
+    }
+
+    public int getPostCount() {
+        return minuteLevel.getPostCount();
+    }
+
+    public int getRecordCount() {
+        return minuteLevel.getRecordCount();
+    }
+}
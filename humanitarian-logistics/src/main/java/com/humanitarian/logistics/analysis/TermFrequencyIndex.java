@@ -0,0 +1,217 @@
+package com.humanitarian.logistics.analysis;
+
+import com.humanitarian.logistics.model.*;
+import com.humanitarian.logistics.preprocessor.BasicTextPreprocessor;
+import com.humanitarian.logistics.preprocessor.TextPreprocessor;
+import java.util.*;
+
+/**
+ * Incremental term and author counters per (disaster, relief category, sentiment).
+ * Each cell holds two fixed-size {@link HeavyHitterSketch}es, so memory is bounded
+ * by the number of disasters rather than by corpus size.
+ *
+ * Counts are append-only: sketches cannot forget, so edits and removals of
+ * comments are not subtracted.
+ */
+public class TermFrequencyIndex {
+    private static final int MIN_TERM_LENGTH = 3;
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+        "the", "and", "for", "are", "but", "not", "you", "all", "any", "can", "had", "her", "was",
+        "one", "our", "out", "has", "have", "his", "how", "its", "who", "this", "that", "with",
+        "they", "them", "their", "there", "from", "what", "when", "will", "would", "been", "were",
+        "just", "than", "then", "into", "your", "about", "very", "also", "more", "some", "only",
+        "khong", "nhung", "cua", "cho", "va", "la", "co", "duoc", "nay", "mot", "nguoi", "cac"
+    ));
+
+    private final TextPreprocessor preprocessor = new BasicTextPreprocessor();
+    private final Map<Key, Cell> cells = new HashMap<>();
+
+    /**
+     * Builds an index over all posts and their comments
+     */
+    public static TermFrequencyIndex of(List<Post> posts) {
+        TermFrequencyIndex index = new TermFrequencyIndex();
+        for (Post post : posts) {
+            index.add(post);
+        }
+        return index;
+    }
+
+    /**
+     * Adds a post and all of its comments
+     */
+    public synchronized void add(Post post) {
+        String disaster = PostRepository.disasterOf(post);
+        record(disaster, post.getReliefItem(), post.getSentiment(), post.getContent(), post.getAuthor());
+        for (Comment comment : post.getComments()) {
+            record(disaster, comment.getReliefItem(), comment.getSentiment(), comment.getContent(), comment.getAuthor());
+        }
+    }
+
+    /**
+     * Adds comments attached to a post that is already indexed
+     */
+    public synchronized void addComments(Post post, List<Comment> comments) {
+        String disaster = PostRepository.disasterOf(post);
+        for (Comment comment : comments) {
+            record(disaster, comment.getReliefItem(), comment.getSentiment(), comment.getContent(), comment.getAuthor());
+        }
+    }
+
+    private void record(String disaster, ReliefItem reliefItem, Sentiment sentiment, String content, String author) {
+        if (reliefItem == null || sentiment == null) {
+            return;
+        }
+        Cell cell = cells.computeIfAbsent(new Key(disaster, reliefItem.getCategory(), sentiment.getType()),
+                k -> new Cell());
+        for (String term : tokenize(content)) {
+            cell.terms.add(term);
+        }
+        if (author != null && !author.isEmpty()) {
+            cell.authors.add(author);
+        }
+    }
+
+    /**
+     * Splits preprocessed text into countable terms, skipping stop words and short tokens.
+     * Hashtags are kept, mentions are dropped.
+     */
+    List<String> tokenize(String content) {
+        String text = preprocessor.preprocess(content);
+        List<String> terms = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            boolean termChar = (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '#' || c == '@' || c == '\'';
+            if (termChar) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                addTerm(text.substring(start, i), terms);
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private static void addTerm(String token, List<String> terms) {
+        if (token.startsWith("@")) {
+            return;
+        }
+        String term = token.replace("'", "");
+        if (term.length() >= MIN_TERM_LENGTH && !STOP_WORDS.contains(term)) {
+            terms.add(term);
+        }
+    }
+
+    /**
+     * Gets the most frequent terms for a disaster, category and sentiment
+     * @param disaster disaster name, or null to combine all disasters
+     * @return terms with estimated counts, most frequent first
+     */
+    public synchronized List<Map.Entry<String, Long>> topTerms(String disaster, ReliefItem.Category category,
+                                                               Sentiment.SentimentType type, int k) {
+        return top(disaster, category, type, k, true);
+    }
+
+    /**
+     * Gets the most active authors for a disaster, category and sentiment
+     * @param disaster disaster name, or null to combine all disasters
+     * @return authors with estimated counts, most frequent first
+     */
+    public synchronized List<Map.Entry<String, Long>> topAuthors(String disaster, ReliefItem.Category category,
+                                                                 Sentiment.SentimentType type, int k) {
+        return top(disaster, category, type, k, false);
+    }
+
+    private List<Map.Entry<String, Long>> top(String disaster, ReliefItem.Category category,
+                                              Sentiment.SentimentType type, int k, boolean terms) {
+        if (disaster != null) {
+            Cell cell = cells.get(new Key(disaster, category, type));
+            if (cell == null) {
+                return Collections.emptyList();
+            }
+            return (terms ? cell.terms : cell.authors).topK(k);
+        }
+        // Across disasters: combine each cell's candidates, then sort by summed estimate
+        Map<String, Long> combined = new HashMap<>();
+        for (Map.Entry<Key, Cell> entry : cells.entrySet()) {
+            Key key = entry.getKey();
+            if (key.category == category && key.type == type) {
+                HeavyHitterSketch sketch = terms ? entry.getValue().terms : entry.getValue().authors;
+                for (Map.Entry<String, Long> item : sketch.topK(Integer.MAX_VALUE)) {
+                    combined.merge(item.getKey(), item.getValue(), Long::sum);
+                }
+            }
+        }
+        List<Map.Entry<String, Long>> sorted = new ArrayList<>(combined.entrySet());
+        sorted.sort((a, b) -> !a.getValue().equals(b.getValue())
+                ? Long.compare(b.getValue(), a.getValue()) : a.getKey().compareTo(b.getKey()));
+        return new ArrayList<>(sorted.subList(0, Math.min(k, sorted.size())));
+    }
+
+    /**
+     * @return disasters with at least one indexed record, sorted by name
+     */
+    public synchronized Set<String> getDisasters() {
+        Set<String> disasters = new TreeSet<>();
+        for (Key key : cells.keySet()) {
+            disasters.add(key.disaster);
+        }
+        return disasters;
+    }
+
+    /**
+     * @return number of terms counted for a cell, or 0 if it is empty
+     */
+    public synchronized long termTotal(String disaster, ReliefItem.Category category, Sentiment.SentimentType type) {
+        Cell cell = cells.get(new Key(disaster, category, type));
+        return cell == null ? 0 : cell.terms.getTotal();
+    }
+
+    public synchronized void clear() {
+        cells.clear();
+    }
+
+    /**
+     * Replaces all counts with those of the given posts, e.g. after they were
+     * reclassified or had comments attached in place
+     */
+    public synchronized void rebuild(List<Post> posts) {
+        cells.clear();
+        for (Post post : posts) {
+            add(post);
+        }
+    }
+
+    private static class Cell {
+        private final HeavyHitterSketch terms = new HeavyHitterSketch();
+        private final HeavyHitterSketch authors = new HeavyHitterSketch();
+    }
+
+    private static class Key {
+        private final String disaster;
+        private final ReliefItem.Category category;
+        private final Sentiment.SentimentType type;
+
+        Key(String disaster, ReliefItem.Category category, Sentiment.SentimentType type) {
+            this.disaster = disaster;
+            this.category = category;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return disaster.equals(key.disaster) && category == key.category && type == key.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(disaster, category, type);
+        }
+    }
+}
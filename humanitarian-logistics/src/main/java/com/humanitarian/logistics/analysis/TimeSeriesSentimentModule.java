@@ -1,7 +1,7 @@
 package com.humanitarian.logistics.analysis;
 
 import com.humanitarian.logistics.model.*;
-import java.time.LocalDateTime;
+import java.time.Duration;
 import java.util.*;
 
 /**
@@ -10,44 +10,50 @@ import java.util.*;
  * 
  * Problem 2 - Detailed Analysis:
  * - Analyze sentiment trends for each relief category (cash, medical, shelter, food, transportation)
- * - Track sentiment changes across time buckets (6-hour intervals)
+ * - Track sentiment changes across time buckets (6-hour intervals by default, 5 minutes to 1 week)
  * - Identify patterns: improving, deteriorating, or stable
  * - Measure effectiveness by comparing positive vs negative sentiment
  * - Highlight areas of success and gaps needing attention
  */
 public class TimeSeriesSentimentModule implements AnalysisModule {
-    private static final int TIME_BUCKET_HOURS = 6; // Group data into 6-hour buckets
+    public static final Duration DEFAULT_BUCKET_SIZE = Duration.ofHours(6);
+
+    private volatile Duration bucketSize = DEFAULT_BUCKET_SIZE;
+
+    public Duration getBucketSize() {
+        return bucketSize;
+    }
+
+    /**
+     * Sets the time bucket granularity used by subsequent analyses
+     * @param bucketSize between 5 minutes and 1 week, in whole multiples of 5 minutes
+     */
+    public void setBucketSize(Duration bucketSize) {
+        SentimentTimeline.validateBucketSize(bucketSize);
+        this.bucketSize = bucketSize;
+    }
 
     @Override
     public Map<String, Object> analyze(List<Post> posts) {
-        Map<String, Object> results = new LinkedHashMap<>();
-
-        // Group sentiments by relief category and time bucket
-        Map<ReliefItem.Category, Map<LocalDateTime, List<Sentiment>>> timeSeries = new HashMap<>();
-        
-        // Collect all sentiments for each category
-        for (Post post : posts) {
-            if (post.getReliefItem() != null && post.getSentiment() != null) {
-                ReliefItem.Category category = post.getReliefItem().getCategory();
-                LocalDateTime bucket = getTimeBucket(post.getCreatedAt());
+        return analyze(posts, false);
+    }
 
-                timeSeries.computeIfAbsent(category, k -> new TreeMap<>())
-                        .computeIfAbsent(bucket, k -> new ArrayList<>())
-                        .add(post.getSentiment());
-            }
+    @Override
+    public Map<String, Object> analyze(List<Post> posts, boolean parallel) {
+        return analyze(SentimentTimeline.of(posts, parallel), bucketSize);
+    }
 
-            // Also process comments
-            for (Comment comment : post.getComments()) {
-                if (comment.getReliefItem() != null && comment.getSentiment() != null) {
-                    ReliefItem.Category category = comment.getReliefItem().getCategory();
-                    LocalDateTime bucket = getTimeBucket(comment.getCreatedAt());
+    /**
+     * Analyzes a prebuilt timeline at the given granularity.
+     * Reusing the timeline lets callers change the bucket size without rescanning the corpus.
+     * @param timeline multi-resolution sentiment timeline
+     * @param bucketSize between 5 minutes and 1 week, in whole multiples of 5 minutes
+     * @return analysis results as a map
+     */
+    public Map<String, Object> analyze(SentimentTimeline timeline, Duration bucketSize) {
+        Map<String, Object> results = new LinkedHashMap<>();
 
-                    timeSeries.computeIfAbsent(category, k -> new TreeMap<>())
-                            .computeIfAbsent(bucket, k -> new ArrayList<>())
-                            .add(comment.getSentiment());
-                }
-            }
-        }
+        SentimentAggregate aggregate = timeline.at(bucketSize);
 
         // Convert to detailed analysis format
         Map<String, Object> timeSeriesAnalysis = new LinkedHashMap<>();
@@ -55,12 +61,10 @@ public class TimeSeriesSentimentModule implements AnalysisModule {
         Map<String, Object> detailedInsights = new LinkedHashMap<>();
         
         for (ReliefItem.Category category : ReliefItem.Category.values()) {
-            Map<LocalDateTime, List<Sentiment>> categoryTimeSeries = timeSeries.get(category);
-            if (categoryTimeSeries != null && !categoryTimeSeries.isEmpty()) {
+            Map<String, Object> categoryAnalysis = analyzeTimeSeries(aggregate, category);
+            if (categoryAnalysis != null) {
                 String categoryName = category.getDisplayName();
                 
-                // Analyze time series
-                Map<String, Object> categoryAnalysis = analyzeTimeSeries(categoryTimeSeries);
                 timeSeriesAnalysis.put(categoryName, categoryAnalysis);
                 
                 // Determine effectiveness
@@ -71,7 +75,8 @@ public class TimeSeriesSentimentModule implements AnalysisModule {
             }
         }
 
-        results.put("time_bucket_hours", TIME_BUCKET_HOURS);
+        results.put("time_bucket_minutes", bucketSize.toMinutes());
+        results.put("time_bucket_hours", bucketSize.getSeconds() / 3600.0); // a Double: buckets may be shorter than an hour
         results.put("problem_2_time_series_sentiment", timeSeriesAnalysis);
         results.put("sector_effectiveness", sectorEffectiveness);
         results.put("detailed_insights", detailedInsights);
@@ -80,18 +85,11 @@ public class TimeSeriesSentimentModule implements AnalysisModule {
         return results;
     }
 
-    private LocalDateTime getTimeBucket(LocalDateTime dateTime) {
-        long hours = dateTime.getHour() / TIME_BUCKET_HOURS;
-        return dateTime.withHour((int) (hours * TIME_BUCKET_HOURS))
-                .withMinute(0)
-                .withSecond(0)
-                .withNano(0);
-    }
-
     /**
      * Detailed analysis of sentiment time series for a relief category
+     * @return analysis map, or null if the category has no records
      */
-    private Map<String, Object> analyzeTimeSeries(Map<LocalDateTime, List<Sentiment>> timeSeries) {
+    private Map<String, Object> analyzeTimeSeries(SentimentAggregate aggregate, ReliefItem.Category category) {
         Map<String, Object> analysis = new LinkedHashMap<>();
         List<Map<String, Object>> timePoints = new ArrayList<>();
         
@@ -99,30 +97,33 @@ public class TimeSeriesSentimentModule implements AnalysisModule {
         double negativeSum = 0;
         double totalCount = 0;
 
-        for (Map.Entry<LocalDateTime, List<Sentiment>> entry : timeSeries.entrySet()) {
-            List<Sentiment> sentiments = entry.getValue();
+        for (int bucket = 0; bucket < aggregate.getBucketCount(); bucket++) {
+            int total = aggregate.total(category, bucket);
+            if (total == 0) {
+                continue;
+            }
             Map<String, Object> timePoint = new LinkedHashMap<>();
 
-            long positive = sentiments.stream().filter(Sentiment::isPositive).count();
-            long negative = sentiments.stream().filter(Sentiment::isNegative).count();
-            long neutral = sentiments.stream().filter(Sentiment::isNeutral).count();
+            long positive = aggregate.count(category, bucket, Sentiment.SentimentType.POSITIVE);
+            long negative = aggregate.count(category, bucket, Sentiment.SentimentType.NEGATIVE);
+            long neutral = aggregate.count(category, bucket, Sentiment.SentimentType.NEUTRAL);
             
-            double positiveRatio = (double) positive / sentiments.size();
-            double negativeRatio = (double) negative / sentiments.size();
-            double neutralRatio = (double) neutral / sentiments.size();
+            double positiveRatio = (double) positive / total;
+            double negativeRatio = (double) negative / total;
+            double neutralRatio = (double) neutral / total;
 
-            timePoint.put("timestamp", entry.getKey().toString());
+            timePoint.put("timestamp", aggregate.getBucketStart(bucket).toString());
             timePoint.put("positive_count", positive);
             timePoint.put("negative_count", negative);
             timePoint.put("neutral_count", neutral);
-            timePoint.put("total_count", sentiments.size());
+            timePoint.put("total_count", total);
             
             timePoint.put("positive_ratio", String.format("%.2f%%", positiveRatio * 100));
             timePoint.put("negative_ratio", String.format("%.2f%%", negativeRatio * 100));
             timePoint.put("neutral_ratio", String.format("%.2f%%", neutralRatio * 100));
             
             // Calculate sentiment score (-1 to 1)
-            double sentimentScore = (positive - negative) / (double) sentiments.size();
+            double sentimentScore = (positive - negative) / (double) total;
             timePoint.put("sentiment_score", String.format("%.2f", sentimentScore));
 
             timePoints.add(timePoint);
@@ -130,7 +131,11 @@ public class TimeSeriesSentimentModule implements AnalysisModule {
             // Accumulate for overall stats
             positiveSum += positive;
             negativeSum += negative;
-            totalCount += sentiments.size();
+            totalCount += total;
+        }
+
+        if (timePoints.isEmpty()) {
+            return null;
         }
 
         analysis.put("time_points", timePoints);
@@ -183,13 +188,13 @@ public class TimeSeriesSentimentModule implements AnalysisModule {
         if (timePoints.size() < 2) return 0;
         
         double sumSquaredDifferences = 0;
-        double prevScore = 0;
+        Double prevScore = null;
         
         for (Map<String, Object> point : timePoints) {
             String scoreStr = (String) point.get("sentiment_score");
             double score = Double.parseDouble(scoreStr);
             
-            if (prevScore != 0) {
+            if (prevScore != null) {
                 sumSquaredDifferences += Math.pow(score - prevScore, 2);
             }
             prevScore = score;
@@ -0,0 +1,193 @@
+package com.humanitarian.logistics.concurrent;
+
+import com.humanitarian.logistics.metrics.Counter;
+import com.humanitarian.logistics.metrics.MetricsRegistry;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shared executor for blocking I/O: crawler fetches, Python API calls and UI actions
+ * that wait on the network. On JDK 21+ every task gets its own virtual thread, so
+ * thousands of waiting calls cost a few KB each instead of a platform thread stack.
+ * Older JDKs fall back to a bounded pool of daemon platform threads.
+ *
+ * Virtual threads do not limit concurrency, so callers that talk to one server pass
+ * a limit to {@link #map} rather than relying on the pool size.
+ *
+ * Select the mode with -Dio.executor=virtual|platform (default: virtual when available)
+ * and the fallback pool size with -Dio.executor.threads=N.
+ */
+public class IoExecutor {
+    public static final String MODE_PROPERTY = "io.executor";
+    public static final String THREADS_PROPERTY = "io.executor.threads";
+    public static final int DEFAULT_PLATFORM_THREADS = 64;
+    private static final Logger log = LoggerFactory.getLogger(IoExecutor.class);
+    private static final Counter tasks = MetricsRegistry.getInstance().counter("io.tasks");
+
+    private static IoExecutor instance;
+    private static final Object lock = new Object();
+
+    private final ExecutorService executor;
+    private final boolean virtual;
+
+    IoExecutor(ExecutorService executor, boolean virtual) {
+        this.executor = executor;
+        this.virtual = virtual;
+    }
+
+    /**
+     * Get the shared executor
+     */
+    public static IoExecutor getInstance() {
+        if (instance == null) {
+            synchronized (lock) {
+                if (instance == null) {
+                    instance = create();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Builds an executor in the mode the system properties select
+     */
+    static IoExecutor create() {
+        String mode = System.getProperty(MODE_PROPERTY, "virtual");
+        if (!"platform".equalsIgnoreCase(mode)) {
+            ExecutorService virtualExecutor = newVirtualThreadExecutor();
+            if (virtualExecutor != null) {
+                log.info("I/O executor: virtual threads");
+                return new IoExecutor(virtualExecutor, true);
+            }
+        }
+        int threads = Integer.getInteger(THREADS_PROPERTY, DEFAULT_PLATFORM_THREADS);
+        log.info("I/O executor: {} platform threads", threads);
+        return new IoExecutor(newPlatformExecutor(threads), false);
+    }
+
+    /**
+     * Thread-per-task executor on virtual threads named "io-N", looked up reflectively
+     * so the code still compiles for and runs on Java 11
+     * @return the executor, or null if the running JDK has no virtual threads
+     */
+    static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, "io-", 0L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            Method perTask = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) perTask.invoke(null, factory);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // JDK 11-20, or 19/20 without --enable-preview
+            return null;
+        }
+    }
+
+    /**
+     * Bounded pool of daemon threads; idle threads exit after a minute
+     */
+    static ExecutorService newPlatformExecutor(int threads) {
+        AtomicInteger number = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "io-" + number.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Whether tasks run on virtual threads
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Gets the executor, e.g. for CompletableFuture async stages or an HttpClient.
+     * It is shared, so callers must not shut it down.
+     */
+    public Executor executor() {
+        return this::execute;
+    }
+
+    public void execute(Runnable task) {
+        tasks.increment();
+        executor.execute(task);
+    }
+
+    /**
+     * Runs a blocking call on its own I/O thread
+     */
+    public <T> CompletableFuture<T> supplyAsync(Callable<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        execute(() -> {
+            try {
+                result.complete(call.call());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Applies a blocking function to every item concurrently and waits for all of them.
+     * The calling thread works through items too and only waits for items already
+     * started, so a caller that is itself on a saturated pool cannot deadlock.
+     * @param maxConcurrent maximum calls in flight at once, to spare the server being called
+     * @return results in the order of the items
+     * @throws CompletionException wrapping the first failure
+     */
+    public <T, R> List<R> map(List<T> items, int maxConcurrent, Function<T, R> function) {
+        Object[] results = new Object[items.size()];
+        AtomicInteger next = new AtomicInteger();
+        CountDownLatch finished = new CountDownLatch(results.length);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Runnable worker = () -> {
+            for (int i = next.getAndIncrement(); i < results.length; i = next.getAndIncrement()) {
+                try {
+                    if (failure.get() == null) {
+                        results[i] = function.apply(items.get(i));
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                } finally {
+                    finished.countDown();
+                }
+            }
+        };
+        int helpers = Math.min(maxConcurrent, results.length) - 1;
+        for (int h = 0; h < helpers; h++) {
+            execute(worker);
+        }
+        worker.run();
+        try {
+            finished.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+        if (failure.get() != null) {
+            throw failure.get() instanceof CompletionException
+                    ? (CompletionException) failure.get() : new CompletionException(failure.get());
+        }
+        List<R> ordered = new ArrayList<>(results.length);
+        for (Object result : results) {
+            @SuppressWarnings("unchecked")
+            R value = (R) result;
+            ordered.add(value);
+        }
+        return ordered;
+    }
+}
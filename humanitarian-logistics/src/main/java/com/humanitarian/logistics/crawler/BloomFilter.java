@@ -0,0 +1,117 @@
+package com.humanitarian.logistics.crawler;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Bloom filter over strings, used to tell whether a comment id has been stored
+ * before without asking the database. Answers "maybe" or "definitely not": a
+ * false positive makes a comment look known, never the other way round.
+ *
+ * The k bit positions come from double hashing one 64-bit hash (h1 + i*h2).
+ * Not thread-safe; callers synchronize.
+ */
+public class BloomFilter {
+    private final long[] bits;
+    private final long numBits;
+    private final int numHashes;
+    private final int capacity;
+    private int count;
+
+    /**
+     * @param expectedInsertions number of keys the filter is sized for
+     * @param falsePositiveRate target false positive rate at that size, e.g. 1e-4
+     */
+    public BloomFilter(int expectedInsertions, double falsePositiveRate) {
+        this.capacity = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bits = new long[(int) Math.max(1, (m + 63) / 64)];
+        this.numBits = bits.length * 64L;
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / capacity * Math.log(2)));
+    }
+
+    /**
+     * Adds a key
+     * @return true if the key was definitely not present before
+     */
+    public boolean put(String key) {
+        long hash = hash(key);
+        long h1 = hash;
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        boolean changed = false;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, numBits);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((bits[word] & mask) == 0) {
+                bits[word] |= mask;
+                changed = true;
+            }
+        }
+        if (changed) {
+            count++;
+        }
+        return changed;
+    }
+
+    /**
+     * @return false if the key was never added; true if it probably was
+     */
+    public boolean mightContain(String key) {
+        long hash = hash(key);
+        long h1 = hash;
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, numBits);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return keys added so far (keys that looked present when added are not counted)
+     */
+    public int getCount() {
+        return count;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return whether the filter holds as many keys as it was sized for
+     */
+    public boolean isFull() {
+        return count >= capacity;
+    }
+
+    /**
+     * @return false positive rate at the current fill, (1 - e^(-kn/m))^k
+     */
+    public double getExpectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) numHashes * count / numBits), numHashes);
+    }
+
+    /**
+     * FNV-1a over the UTF-8 bytes, then a murmur3 finalizer to spread the bits
+     */
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
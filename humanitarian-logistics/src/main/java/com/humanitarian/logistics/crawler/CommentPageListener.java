@@ -0,0 +1,20 @@
+package com.humanitarian.logistics.crawler;
+
+import com.humanitarian.logistics.model.Comment;
+import com.humanitarian.logistics.model.YouTubePost;
+import java.util.List;
+
+/**
+ * Receives comments page by page while a video's comment threads are being crawled.
+ * Pages of one video arrive in order; pages of different videos may arrive on
+ * different threads. The post still collects every page, so a listener gets comments
+ * early but does not lower the memory a crawl holds.
+ */
+public interface CommentPageListener {
+    /**
+     * Called after each page of comments or replies has been parsed and scored
+     * @param post the video the comments belong to; already holds this page
+     * @param comments comments new on this page
+     */
+    void onCommentPage(YouTubePost post, List<Comment> comments);
+}
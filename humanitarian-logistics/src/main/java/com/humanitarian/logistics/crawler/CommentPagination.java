@@ -0,0 +1,301 @@
+package com.humanitarian.logistics.crawler;
+
+import com.humanitarian.logistics.model.*;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpRequest;
+import java.util.*;
+import org.json.*;
+
+/**
+ * Walks every continuation of one video's comment section: the next pages of
+ * top-level comments, each thread's replies and their "show more replies" pages.
+ * Ported from the continuation loop in ytb_crawl.py.
+ *
+ * A page is handled in two steps so the caller can prefetch: {@link #read} parses
+ * the response and queues its continuations, the caller sends the next request,
+ * then {@link #accept} extracts and scores the page's comments.
+ * Stops at the crawler's per-video page and comment caps.
+ *
+ * With a {@link CrawlStateStore} set on the crawler the walk is incremental: the
+ * comment section is switched to newest-first, comments already in the dedup index
+ * are skipped, and paging stops at the newest comment of the previous crawl. Older
+ * comments left behind by a cap are resumed from the saved cursor afterwards.
+ */
+class CommentPagination {
+    private static final Set<String> COMMENT_SECTION_TARGETS = Set.of(
+        "comments-section",
+        "engagement-panel-comments-section",
+        "shorts-engagement-panel-comments-section"
+    );
+
+    private final YouTubeCrawler crawler;
+    private final YouTubePost post;
+    private final JSONObject ytcfg;
+    private final CommentPageListener listener;
+    private final int maxPages;
+    private final int maxComments;
+    private final boolean includeReplies;
+    private final CrawlStateStore crawlState;
+    private final CrawlState previous;
+
+    private final Deque<String> continuations = new ArrayDeque<>(); // popped from the end, like the Python list
+    private final Set<String> pageTokens = new HashSet<>(); // next-page tokens, as opposed to reply tokens
+    private final Set<String> seenCommentIds = new HashSet<>();
+    private String resumeCursor;
+    private String newestCommentId;
+    private boolean sortChecked;
+    private boolean newestFirst;
+    private boolean firstSortedPage = true;
+    private boolean resumed; // paging the older comments from the saved cursor
+    private int pagesRequested;
+    private int commentsQueued; // comments on pages read so far, counted before they are accepted
+    private final List<String> addedCommentIds = new ArrayList<>(); // staged as known once the post is saved
+
+    CommentPagination(YouTubeCrawler crawler, YouTubePost post, JSONObject ytcfg, String firstToken,
+                      CommentPageListener listener) {
+        this.crawler = crawler;
+        this.post = post;
+        this.ytcfg = ytcfg;
+        this.listener = listener;
+        this.maxPages = crawler.getMaxPagesPerVideo();
+        this.maxComments = crawler.getMaxCommentsPerVideo();
+        this.includeReplies = crawler.isIncludeReplies();
+        this.crawlState = crawler.getCrawlStateStore();
+        this.previous = crawlState != null ? crawlState.getState(post.getPostId()) : null;
+        this.resumeCursor = previous != null ? previous.getContinuationCursor() : null;
+        this.continuations.add(firstToken);
+        this.pageTokens.add(firstToken);
+    }
+
+    /**
+     * @return whether another page should be requested
+     */
+    boolean hasNext() {
+        if (continuations.isEmpty() && resumeCursor != null) {
+            // New comments are done; continue the older ones a previous crawl left behind
+            continuations.add(resumeCursor);
+            pageTokens.add(resumeCursor);
+            resumeCursor = null;
+            resumed = true;
+        }
+        return !continuations.isEmpty() && pagesRequested < maxPages && commentsQueued < maxComments;
+    }
+
+    /**
+     * @return request for the next continuation
+     */
+    HttpRequest nextRequest() {
+        pagesRequested++;
+        return crawler.buildContinuationRequest(continuations.pollLast(), ytcfg);
+    }
+
+    /**
+     * Streams a continuation response, keeping only continuation actions and
+     * comment payloads, and queues the continuations it contains
+     */
+    Page read(String body) {
+        StreamingJsonExtractor response;
+        try {
+            response = new StreamingJsonExtractor()
+                .object("reloadContinuationItemsCommand")
+                .object("appendContinuationItemsAction")
+                .object("commentEntityPayload")
+                .read(body, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Malformed continuation response", e);
+        }
+        List<JSONObject> actions = new ArrayList<>(response.get("reloadContinuationItemsCommand"));
+        actions.addAll(response.get("appendContinuationItemsAction"));
+        if (crawlState != null && !sortChecked) {
+            sortChecked = true;
+            String newestFirstToken = findNewestFirstToken(actions);
+            if (newestFirstToken != null) {
+                // Start over on the newest-first ordering; this page's comments come again there
+                continuations.clear();
+                pageTokens.clear();
+                continuations.add(newestFirstToken);
+                pageTokens.add(newestFirstToken);
+                newestFirst = true;
+                return new Page(Collections.emptyList());
+            }
+        }
+        collectContinuations(actions);
+        List<JSONObject> payloads = response.get("commentEntityPayload");
+        if (crawlState == null) {
+            commentsQueued += payloads.size();
+        } else {
+            checkCaughtUp(payloads);
+        }
+        return new Page(payloads);
+    }
+
+    /**
+     * Counts the page's unknown comments and, when the page reaches comments of the
+     * previous crawl, drops the remaining next-page tokens. Reply tokens already
+     * queued are kept, since new threads can have replies.
+     */
+    private void checkCaughtUp(List<JSONObject> payloads) {
+        boolean topLevel = false;
+        boolean reachedNewest = false;
+        boolean anyNew = false;
+        for (int i = 0; i < payloads.size(); i++) {
+            String commentId = commentIdOf(payloads.get(i));
+            boolean known = commentId.isEmpty() || crawlState.isKnownComment(commentId);
+            if (!known) {
+                commentsQueued++;
+            }
+            if (commentId.contains(".") || (firstSortedPage && newestFirst && i == 0)) {
+                continue; // replies, and the first comment of the section, which may be pinned
+            }
+            topLevel = true;
+            anyNew |= !known;
+            if (newestFirst && !resumed && newestCommentId == null && !known) {
+                newestCommentId = commentId;
+            }
+            if (previous != null && commentId.equals(previous.getNewestCommentId())) {
+                reachedNewest = true;
+            }
+        }
+        if (newestFirst && topLevel) {
+            firstSortedPage = false;
+        }
+        if (newestFirst && topLevel && (reachedNewest || !anyNew)) {
+            continuations.removeIf(pageTokens::contains);
+        }
+    }
+
+    private static String commentIdOf(JSONObject payload) {
+        JSONObject properties = payload.optJSONObject("properties");
+        return properties == null ? "" : properties.optString("commentId", "");
+    }
+
+    /**
+     * @return continuation token of the "Newest first" entry of the comment sort menu, or null
+     */
+    private static String findNewestFirstToken(List<JSONObject> actions) {
+        for (JSONObject action : actions) {
+            for (JSONObject menu : YouTubeCrawler.searchDict(action, "sortFilterSubMenuRenderer")) {
+                JSONArray items = menu.optJSONArray("subMenuItems");
+                JSONObject newest = items != null ? items.optJSONObject(1) : null;
+                JSONObject endpoint = newest != null ? newest.optJSONObject("serviceEndpoint") : null;
+                if (endpoint != null) {
+                    List<String> tokens = new ArrayList<>();
+                    addToken(tokens, endpoint);
+                    if (!tokens.isEmpty()) {
+                        return tokens.get(0);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds the page's new comments to the post, up to the comment cap, and notifies the listener
+     */
+    void accept(Page page) {
+        List<Comment> comments = crawler.extractComments(post, page.payloads, maxComments - addedCommentIds.size(),
+            commentId -> seenCommentIds.add(commentId) && (crawlState == null || !crawlState.isKnownComment(commentId)));
+        for (Comment comment : comments) {
+            addedCommentIds.add(comment.getCommentId());
+        }
+        if (listener != null && !comments.isEmpty()) {
+            listener.onCommentPage(post, comments);
+        }
+    }
+
+    private void collectContinuations(List<JSONObject> actions) {
+        for (JSONObject action : actions) {
+            String targetId = action.optString("targetId", "");
+            JSONArray items = action.optJSONArray("continuationItems");
+            if (items == null) {
+                continue;
+            }
+            for (int i = 0; i < items.length(); i++) {
+                JSONObject item = items.optJSONObject(i);
+                if (item == null) {
+                    continue;
+                }
+                if (COMMENT_SECTION_TARGETS.contains(targetId)) {
+                    // Next page of comments, and the reply thread under each comment
+                    if (!includeReplies && item.has("commentThreadRenderer")) {
+                        continue;
+                    }
+                    List<String> tokens = new ArrayList<>();
+                    for (JSONObject endpoint : YouTubeCrawler.searchDict(item, "continuationEndpoint")) {
+                        addToken(tokens, endpoint);
+                    }
+                    if (!item.has("commentThreadRenderer")) {
+                        pageTokens.addAll(tokens);
+                    }
+                    for (int t = tokens.size() - 1; t >= 0; t--) {
+                        continuations.addFirst(tokens.get(t));
+                    }
+                }
+                if (includeReplies && targetId.startsWith("comment-replies-item") && item.has("continuationItemRenderer")) {
+                    // "Show more replies" button
+                    List<JSONObject> buttons = YouTubeCrawler.searchDict(item, "buttonRenderer");
+                    if (!buttons.isEmpty() && buttons.get(0).optJSONObject("command") != null) {
+                        List<String> tokens = new ArrayList<>();
+                        addToken(tokens, buttons.get(0).getJSONObject("command"));
+                        continuations.addAll(tokens);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void addToken(List<String> tokens, JSONObject endpoint) {
+        JSONObject command = endpoint.optJSONObject("continuationCommand");
+        if (command != null && !command.optString("token").isEmpty()) {
+            tokens.add(command.getString("token"));
+        }
+    }
+
+    /**
+     * Stages where this crawl stopped and the comments it added, when incremental
+     * crawling is on; they are recorded once the post is saved
+     * @param failed whether paging ended on an error; the cursor is then not kept
+     */
+    void finish(boolean failed) {
+        if (crawlState == null) {
+            return;
+        }
+        String cursor = null;
+        if (!failed) {
+            for (String token : continuations) {
+                if (pageTokens.contains(token)) {
+                    cursor = token; // stopped by a cap with older comments still unfetched
+                }
+            }
+            if (cursor == null) {
+                cursor = resumeCursor;
+            }
+        }
+        crawlState.stage(post.getPostId(), newestCommentId, cursor, addedCommentIds);
+    }
+
+    YouTubePost getPost() {
+        return post;
+    }
+
+    int getPagesRequested() {
+        return pagesRequested;
+    }
+
+    int getCommentsAdded() {
+        return addedCommentIds.size();
+    }
+
+    /**
+     * A read continuation response, waiting to be accepted
+     */
+    static class Page {
+        private final List<JSONObject> payloads;
+
+        Page(List<JSONObject> payloads) {
+            this.payloads = payloads;
+        }
+    }
+}
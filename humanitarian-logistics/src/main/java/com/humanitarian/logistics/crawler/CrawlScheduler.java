@@ -0,0 +1,563 @@
+package com.humanitarian.logistics.crawler;
+
+import com.humanitarian.logistics.concurrent.IoExecutor;
+import com.humanitarian.logistics.model.*;
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Concurrent crawl scheduler for YouTube videos.
+ * Video pages and their comment continuations are fetched with asynchronous
+ * sends on the shared {@link CrawlerHttpClient}, so several videos are in flight at once. Every request goes
+ * through a per-host gate that:
+ * - caps the number of concurrent requests to the host
+ * - spaces request starts to a maximum rate
+ * - retries 403/413/429 responses with exponential backoff and random jitter
+ *
+ * Continuation requests for videos already started jump ahead of new page fetches,
+ * so finished posts appear on the {@link ResultStream} as early as possible.
+ *
+ * When the crawler has incremental crawling on, keyword crawls skip videos crawled
+ * within the crawler's re-crawl interval; explicit URLs are always fetched, but only
+ * their new comments are collected.
+ *
+ * Parsing and comment-page listeners run on the shared {@link IoExecutor}, so a
+ * listener that blocks on a scoring call does not starve the other videos.
+ */
+public class CrawlScheduler {
+    private static final Logger log = LoggerFactory.getLogger(CrawlScheduler.class);
+    public static final int DEFAULT_MAX_PER_HOST = 4;
+    public static final double DEFAULT_REQUESTS_PER_SECOND = 4.0;
+    public static final int DEFAULT_MAX_RETRIES = 4;
+    private static final long BASE_BACKOFF_MS = 500;
+    private static final long MAX_BACKOFF_MS = 16_000;
+
+    private final YouTubeCrawler crawler;
+    private final CrawlerHttpClient http;
+    private final Executor executor;
+    private volatile boolean shutdown;
+    private final int maxPerHost;
+    private final long intervalNanos;
+    private final int maxRetries;
+    private final Map<String, HostGate> gates = new ConcurrentHashMap<>();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    /**
+     * Creates a scheduler with the default per-host limits
+     * @param crawler supplies page parsing and comment extraction
+     */
+    public CrawlScheduler(YouTubeCrawler crawler) {
+        this(crawler, DEFAULT_MAX_PER_HOST, DEFAULT_REQUESTS_PER_SECOND, DEFAULT_MAX_RETRIES);
+    }
+
+    /**
+     * @param crawler supplies page parsing and comment extraction
+     * @param maxPerHost maximum concurrent requests to one host
+     * @param requestsPerSecond maximum request starts per second to one host
+     * @param maxRetries retries of a throttled request before it fails
+     */
+    public CrawlScheduler(YouTubeCrawler crawler, int maxPerHost, double requestsPerSecond, int maxRetries) {
+        if (maxPerHost <= 0 || requestsPerSecond <= 0 || maxRetries < 0) {
+            throw new IllegalArgumentException("Invalid crawl scheduler limits");
+        }
+        this.crawler = crawler;
+        this.maxPerHost = maxPerHost;
+        this.intervalNanos = (long) (1e9 / requestsPerSecond);
+        this.maxRetries = maxRetries;
+        this.executor = IoExecutor.getInstance()::execute;
+        this.http = CrawlerHttpClient.getInstance();
+    }
+
+    /**
+     * Crawls videos by URL concurrently
+     * @return stream that yields each post, with its comments, as soon as it is complete
+     */
+    public ResultStream crawlVideos(List<String> videoUrls) {
+        return crawlVideos(videoUrls, null);
+    }
+
+    /**
+     * Crawls videos by URL concurrently, handing each page of comments to a listener as it arrives
+     * @param listener receives comment pages on I/O executor threads; may be null
+     */
+    public ResultStream crawlVideos(List<String> videoUrls, CommentPageListener listener) {
+        ResultStream stream = new ResultStream(listener);
+        for (String url : videoUrls) {
+            crawlVideo(url, stream);
+        }
+        stream.done();
+        return stream;
+    }
+
+    /**
+     * Searches every term concurrently and crawls the videos found
+     * @param limit maximum number of distinct videos crawled over all terms
+     * @return stream that yields each post, with its comments, as soon as it is complete
+     */
+    public ResultStream crawlKeywords(List<String> searchTerms, int limit) {
+        return crawlKeywords(searchTerms, limit, null);
+    }
+
+    /**
+     * Searches every term concurrently and crawls the videos found
+     * @param limit maximum number of distinct videos crawled over all terms; recently
+     *        crawled videos that are skipped do not count
+     * @param listener receives comment pages on I/O executor threads; may be null
+     */
+    public ResultStream crawlKeywords(List<String> searchTerms, int limit, CommentPageListener listener) {
+        ResultStream stream = new ResultStream(listener);
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        AtomicInteger scheduled = new AtomicInteger();
+        for (String term : searchTerms) {
+            stream.register();
+            HttpRequest request;
+            try {
+                request = crawler.buildPageRequest(crawler.searchUrl(term));
+            } catch (IOException e) {
+                stream.fail(term, e);
+                continue;
+            }
+            log.info("🔎 Searching YouTube: {}", term);
+            send(request, false, stream).whenCompleteAsync((response, error) -> {
+                if (error != null) {
+                    stream.fail(term, error);
+                    return;
+                }
+                try {
+                    Set<String> videoIds = YouTubeCrawler.extractVideoIds(response.body(), limit);
+                    log.info("📌 Found {} video IDs for keyword: {}", videoIds.size(), term);
+                    CrawlStateStore crawlState = crawler.getCrawlStateStore();
+                    for (String videoId : videoIds) {
+                        if (!seen.add(videoId)) {
+                            continue;
+                        }
+                        if (crawlState != null && crawlState.isRecentlyCrawled(videoId, crawler.getRecrawlInterval())) {
+                            stream.skipped.incrementAndGet();
+                            continue;
+                        }
+                        if (scheduled.getAndIncrement() < limit) {
+                            crawlVideo(crawler.watchUrl(videoId), stream);
+                        }
+                    }
+                } finally {
+                    stream.done();
+                }
+            }, executor);
+        }
+        stream.done();
+        return stream;
+    }
+
+    /**
+     * Fetches a video page, then every comment page, and delivers the post
+     */
+    private void crawlVideo(String videoUrl, ResultStream stream) {
+        stream.register();
+        send(crawler.buildPageRequest(videoUrl), false, stream)
+            .thenApplyAsync(response -> {
+                YouTubeCrawler.VideoPage page = crawler.parseVideoPage(videoUrl, response.body());
+                if (page == null) {
+                    throw new CompletionException(new IOException("No video data found in page"));
+                }
+                return page;
+            }, executor)
+            .thenCompose(page -> {
+                if (crawler.getMaxCommentsPerVideo() == 0) {
+                    // no comments wanted; the crawl state keeps tracking comment crawls only
+                    return CompletableFuture.completedFuture(page.post);
+                }
+                if (page.continuationToken == null) {
+                    if (crawler.getCrawlStateStore() != null) {
+                        crawler.getCrawlStateStore().stage(page.post.getPostId(), null, null, Collections.emptyList());
+                    }
+                    return CompletableFuture.completedFuture(page.post);
+                }
+                CommentPagination pages = new CommentPagination(crawler, page.post, page.ytcfg,
+                    page.continuationToken, stream.listener);
+                return fetchCommentPages(pages, send(pages.nextRequest(), true, stream), stream)
+                    .thenApply(post -> {
+                        pages.finish(false);
+                        return post;
+                    })
+                    .exceptionally(error -> {
+                        // keep the video with the comments collected before the failure
+                        log.warn("⚠️ Comment pagination stopped for {}: {}", videoUrl, error.getMessage());
+                        pages.finish(true);
+                        return page.post;
+                    });
+            })
+            .whenComplete((post, error) -> {
+                if (error != null) {
+                    stream.fail(videoUrl, error);
+                } else {
+                    stream.deliver(post);
+                }
+            });
+    }
+
+    /**
+     * Handles one comment page. The next page is sent before this one is parsed
+     * and scored, so the two overlap; pages of one video are handled in order.
+     */
+    private CompletableFuture<YouTubePost> fetchCommentPages(CommentPagination pages,
+                                                             CompletableFuture<HttpResponse<String>> inFlight,
+                                                             ResultStream stream) {
+        return inFlight.thenComposeAsync(response -> {
+            CommentPagination.Page page = pages.read(response.body());
+            CompletableFuture<HttpResponse<String>> next = pages.hasNext() && !stream.isCancelled()
+                ? send(pages.nextRequest(), true, stream)
+                : null;
+            pages.accept(page);
+            if (next == null) {
+                return CompletableFuture.completedFuture(pages.getPost());
+            }
+            return fetchCommentPages(pages, next, stream);
+        }, executor);
+    }
+
+    /**
+     * Sends a request through its host gate, retrying throttled responses
+     * @param followUp whether the request continues work already started
+     * @return future completed with a 200 response
+     */
+    private CompletableFuture<HttpResponse<String>> send(HttpRequest request, boolean followUp, ResultStream stream) {
+        return send(request, followUp, stream, 0);
+    }
+
+    private CompletableFuture<HttpResponse<String>> send(HttpRequest request, boolean followUp,
+                                                         ResultStream stream, int attempt) {
+        if (stream.isCancelled()) {
+            return CompletableFuture.failedFuture(new CancellationException("Crawl cancelled"));
+        }
+        HostGate gate = gates.computeIfAbsent(request.uri().getHost(), host -> new HostGate());
+        return gate.submit(() -> {
+            if (stream.isCancelled()) {
+                // queued before the cancel; give the slot back without sending
+                return CompletableFuture.failedFuture(new CancellationException("Crawl cancelled"));
+            }
+            requests.incrementAndGet();
+            return http.sendAsync(YouTubeCrawler.endpointOf(request), request);
+        }, followUp || attempt > 0).thenCompose(response -> {
+            int status = response.statusCode();
+            if (status == 200) {
+                return CompletableFuture.completedFuture(response);
+            }
+            if (isThrottled(status) && attempt < maxRetries) {
+                long delay = backoffMillis(attempt);
+                retries.incrementAndGet();
+                log.info("⚠️ Rate limited (status {}), retrying in {} ms", status, delay);
+                Executor later = CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, executor);
+                return CompletableFuture.supplyAsync(() -> null, later)
+                    .thenCompose(ignored -> send(request, followUp, stream, attempt + 1));
+            }
+            errors.incrementAndGet();
+            return CompletableFuture.failedFuture(new IOException("HTTP " + status + " for " + request.uri()));
+        });
+    }
+
+    private static boolean isThrottled(int status) {
+        return status == 403 || status == 413 || status == 429;
+    }
+
+    /**
+     * Exponential backoff with jitter: a random delay between half and all of
+     * the doubled base, so throttled requests do not retry in lockstep
+     */
+    static long backoffMillis(int attempt) {
+        long cap = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << attempt);
+        return cap / 2 + ThreadLocalRandom.current().nextLong(cap / 2 + 1);
+    }
+
+    /**
+     * Gets request counters and current per-host load
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("requests", requests.get());
+        metrics.put("retries", retries.get());
+        metrics.put("errors", errors.get());
+        Map<String, Object> hosts = new TreeMap<>();
+        gates.forEach((host, gate) -> hosts.put(host, gate.metrics()));
+        metrics.put("hosts", hosts);
+        return metrics;
+    }
+
+    /**
+     * Stops sending requests. Requests not yet started fail, so open result streams
+     * still end; requests already in flight are abandoned.
+     */
+    public void shutdown() {
+        shutdown = true;
+    }
+
+    /**
+     * Per-host concurrency cap and request spacing. Waiting requests start when a
+     * running one completes; follow-up requests wait at the front of the queue.
+     */
+    private class HostGate {
+        private final Deque<Launch> waiting = new ArrayDeque<>();
+        private int active;
+        private long nextStartNanos;
+
+        <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> call, boolean priority) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            Launch launch = new Launch(result, () -> {
+                CompletableFuture<T> sent;
+                try {
+                    sent = call.get();
+                } catch (RuntimeException e) {
+                    sent = CompletableFuture.failedFuture(e);
+                }
+                sent.whenComplete((value, error) -> {
+                    release();
+                    if (error != null) {
+                        result.completeExceptionally(error);
+                    } else {
+                        result.complete(value);
+                    }
+                });
+            });
+            synchronized (this) {
+                if (active >= maxPerHost) {
+                    if (priority) {
+                        waiting.addFirst(launch);
+                    } else {
+                        waiting.addLast(launch);
+                    }
+                    return result;
+                }
+                active++;
+            }
+            if (!start(launch)) {
+                release();
+            }
+            return result;
+        }
+
+        /**
+         * Starts a launch that holds a slot, now or after the spacing delay
+         * @return false if it was rejected at once and its slot must be released
+         */
+        private boolean start(Launch launch) {
+            long delay = reserveStart();
+            if (delay <= 0) {
+                return execute(launch);
+            }
+            // Only the wait runs on the timer, so a rejection after it is still handled
+            CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS).execute(() -> {
+                if (!execute(launch)) {
+                    release();
+                }
+            });
+            return true;
+        }
+
+        /**
+         * Runs a launch, or fails its result if the request cannot be sent
+         * @return whether it was accepted
+         */
+        private boolean execute(Launch launch) {
+            try {
+                if (shutdown) {
+                    throw new RejectedExecutionException("Crawl scheduler shut down");
+                }
+                executor.execute(launch.task);
+                return true;
+            } catch (RejectedExecutionException e) {
+                launch.result.completeExceptionally(e);
+                return false;
+            }
+        }
+
+        /**
+         * Hands a finished request's slot to the next waiting one; after a shutdown this
+         * fails the whole queue in a loop rather than recursively
+         */
+        private void release() {
+            while (true) {
+                Launch next;
+                synchronized (this) {
+                    next = waiting.pollFirst();
+                    if (next == null) {
+                        active--;
+                        return;
+                    }
+                }
+                if (start(next)) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * @return nanoseconds to wait so starts are at least one interval apart
+         */
+        private synchronized long reserveStart() {
+            long now = System.nanoTime();
+            long start = Math.max(now, nextStartNanos);
+            nextStartNanos = start + intervalNanos;
+            return start - now;
+        }
+
+        synchronized Map<String, Object> metrics() {
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metrics.put("active", active);
+            metrics.put("waiting", waiting.size());
+            return metrics;
+        }
+    }
+
+    /**
+     * A request waiting for its host gate, with the future its caller holds
+     */
+    private static class Launch {
+        private final CompletableFuture<?> result;
+        private final Runnable task;
+
+        Launch(CompletableFuture<?> result, Runnable task) {
+            this.result = result;
+            this.task = task;
+        }
+    }
+
+    /**
+     * Posts produced by one crawl, readable while the crawl is still running.
+     * {@link #next()} blocks until a post is ready and returns null once every
+     * video has been delivered or has failed.
+     */
+    public static class ResultStream {
+        private static final Object END = new Object();
+
+        private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+        private final AtomicInteger pending = new AtomicInteger(1); // held by the submitter until all work is registered
+        private final AtomicInteger delivered = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final List<String> failures = Collections.synchronizedList(new ArrayList<>());
+        private final CommentPageListener listener;
+        private volatile boolean cancelled;
+
+        ResultStream(CommentPageListener listener) {
+            this.listener = listener;
+        }
+
+        void register() {
+            pending.incrementAndGet();
+        }
+
+        void deliver(Post post) {
+            if (!cancelled) {
+                delivered.incrementAndGet();
+                queue.add(post);
+            }
+            done();
+        }
+
+        void fail(String source, Throwable error) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (!(cause instanceof CancellationException)) {
+                failures.add(source + ": " + cause.getMessage());
+                log.warn("❌ Crawl failed for {}: {}", source, cause.getMessage());
+            }
+            done();
+        }
+
+        void done() {
+            if (pending.decrementAndGet() == 0) {
+                queue.add(END);
+            }
+        }
+
+        /**
+         * Waits for the next finished post
+         * @return the post, or null when the crawl has ended
+         */
+        public Post next() throws InterruptedException {
+            Object item = queue.take();
+            if (item == END) {
+                queue.add(END); // later calls also see the end
+                return null;
+            }
+            return (Post) item;
+        }
+
+        /**
+         * Waits up to a timeout for the next finished post
+         * @return the post, or null if none arrived in time or the crawl has ended
+         */
+        public Post poll(long timeout, TimeUnit unit) throws InterruptedException {
+            Object item = queue.poll(timeout, unit);
+            if (item == END) {
+                queue.add(END);
+                return null;
+            }
+            return (Post) item;
+        }
+
+        /**
+         * Waits for the crawl to end and collects every remaining post
+         */
+        public List<Post> toList() {
+            List<Post> posts = new ArrayList<>();
+            try {
+                Post post;
+                while ((post = next()) != null) {
+                    posts.add(post);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return posts;
+        }
+
+        /**
+         * Stops scheduling new requests; requests already sent are discarded when they finish
+         */
+        public void cancel() {
+            cancelled = true;
+            queue.add(END);
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public boolean isFinished() {
+            return cancelled || pending.get() == 0;
+        }
+
+        public int getDeliveredCount() {
+            return delivered.get();
+        }
+
+        /**
+         * @return videos left out because they were crawled within the re-crawl interval
+         */
+        public int getSkippedCount() {
+            return skipped.get();
+        }
+
+        public int getFailedCount() {
+            return failures.size();
+        }
+
+        /**
+         * @return one "source: reason" line per failed video or search
+         */
+        public List<String> getFailures() {
+            synchronized (failures) {
+                return new ArrayList<>(failures);
+            }
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.humanitarian.logistics.crawler;
+
+import com.humanitarian.logistics.database.DatabaseManager;
+import com.humanitarian.logistics.model.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Crawl state for incremental re-crawls: where each video's last crawl stopped,
+ * and a Bloom filter of every comment id already stored, so known comments are
+ * skipped without a database round-trip.
+ *
+ * State is loaded from the database once, on first use. The dedup index grows as a
+ * chain of filters, each twice the size of the previous one, so it keeps its false
+ * positive rate however many comments are added.
+ *
+ * A finished crawl of a video is only staged. It is recorded by {@link #commit} once
+ * the post has been saved, so comments from a failed save are fetched again next time.
+ */
+public class CrawlStateStore {
+    private static final Logger log = LoggerFactory.getLogger(CrawlStateStore.class);
+    public static final int DEFAULT_EXPECTED_COMMENTS = 100_000;
+    public static final double FALSE_POSITIVE_RATE = 1e-4;
+
+    private static CrawlStateStore instance;
+    private static final Object lock = new Object();
+
+    private final DatabaseManager dbManager;
+    private final Map<String, CrawlState> states = new ConcurrentHashMap<>();
+    private final List<BloomFilter> filters = new ArrayList<>();
+    private final Map<String, StagedCrawl> staged = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    /**
+     * @param dbManager database to load and save state in, or null to keep it in memory only
+     */
+    public CrawlStateStore(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+    }
+
+    /**
+     * Get the store backed by the shared database
+     */
+    public static CrawlStateStore getInstance() {
+        if (instance == null) {
+            synchronized (lock) {
+                if (instance == null) {
+                    instance = new CrawlStateStore(DatabaseManager.getInstance());
+                }
+            }
+        }
+        return instance;
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            int expected = DEFAULT_EXPECTED_COMMENTS;
+            if (dbManager != null) {
+                try {
+                    for (CrawlState state : dbManager.getCrawlStates()) {
+                        states.put(state.getVideoId(), state);
+                    }
+                    expected = Math.max(expected, dbManager.countComments() * 2);
+                    filters.add(new BloomFilter(expected, FALSE_POSITIVE_RATE));
+                    dbManager.forEachCommentId(this::addKnown);
+                    log.info("✓ Crawl state loaded: {} videos, {} known comments", states.size(), knownCount());
+                } catch (Exception e) {
+                    log.warn("Could not load crawl state, crawling everything: {}", e.getMessage());
+                    states.clear();
+                    filters.clear();
+                }
+            }
+            if (filters.isEmpty()) {
+                filters.add(new BloomFilter(expected, FALSE_POSITIVE_RATE));
+            }
+            loaded = true;
+        }
+    }
+
+    /**
+     * Drops the in-memory state; it is reloaded from the database on next use
+     */
+    public synchronized void invalidate() {
+        states.clear();
+        filters.clear();
+        staged.clear();
+        loaded = false;
+    }
+
+    /**
+     * @return state of the last crawl of a video, or null if it was never crawled
+     */
+    public CrawlState getState(String videoId) {
+        ensureLoaded();
+        return states.get(videoId);
+    }
+
+    /**
+     * @return whether a video was crawled less than minInterval ago
+     */
+    public boolean isRecentlyCrawled(String videoId, Duration minInterval) {
+        CrawlState state = getState(videoId);
+        return state != null && state.getLastCrawledAt().isAfter(LocalDateTime.now().minus(minInterval));
+    }
+
+    /**
+     * @return false if the comment is definitely new; true if it was probably stored before
+     */
+    public synchronized boolean isKnownComment(String commentId) {
+        ensureLoaded();
+        for (BloomFilter filter : filters) {
+            if (filter.mightContain(commentId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds comment ids to the dedup index
+     */
+    public synchronized void markKnown(Collection<String> commentIds) {
+        ensureLoaded();
+        for (String commentId : commentIds) {
+            if (!isKnownComment(commentId)) {
+                addKnown(commentId);
+            }
+        }
+    }
+
+    private void addKnown(String commentId) {
+        BloomFilter current = filters.get(filters.size() - 1);
+        if (current.isFull()) {
+            current = new BloomFilter(current.getCapacity() * 2, FALSE_POSITIVE_RATE);
+            filters.add(current);
+        }
+        current.put(commentId);
+    }
+
+    /**
+     * Records a finished crawl of a video and saves it
+     * @param newestCommentId newest top-level comment seen, or null to keep the previous one
+     * @param continuationCursor continuation of comments left unfetched, or null if none
+     * @param newComments comments this crawl added
+     */
+    public void recordCrawl(String videoId, String newestCommentId, String continuationCursor, int newComments) {
+        CrawlState previous = getState(videoId);
+        CrawlState state = new CrawlState(videoId, LocalDateTime.now(),
+                newestCommentId != null ? newestCommentId : previous != null ? previous.getNewestCommentId() : null,
+                continuationCursor,
+                (previous != null ? previous.getCommentCount() : 0) + newComments);
+        states.put(videoId, state);
+        if (dbManager != null) {
+            try {
+                dbManager.saveCrawlState(state);
+            } catch (Exception e) {
+                log.warn("Error saving crawl state for {}: {}", videoId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Holds a finished crawl of a video until its post is saved; replaces an earlier
+     * staged crawl of the same video
+     * @param newestCommentId newest top-level comment seen, or null to keep the previous one
+     * @param continuationCursor continuation of comments left unfetched, or null if none
+     * @param newCommentIds ids of the comments this crawl added
+     */
+    public void stage(String videoId, String newestCommentId, String continuationCursor,
+                      Collection<String> newCommentIds) {
+        staged.put(videoId, new StagedCrawl(newestCommentId, continuationCursor, new ArrayList<>(newCommentIds)));
+    }
+
+    /**
+     * Records the staged crawls of saved posts: their comments become known and
+     * where each crawl stopped is saved. Posts without a staged crawl are ignored.
+     */
+    public void commit(Collection<? extends Post> saved) {
+        for (Post post : saved) {
+            StagedCrawl crawl = staged.remove(post.getPostId());
+            if (crawl != null) {
+                markKnown(crawl.commentIds);
+                recordCrawl(post.getPostId(), crawl.newestCommentId, crawl.continuationCursor, crawl.commentIds.size());
+            }
+        }
+    }
+
+    /**
+     * Drops the staged crawls of posts that could not be saved
+     */
+    public void discard(Collection<? extends Post> posts) {
+        for (Post post : posts) {
+            staged.remove(post.getPostId());
+        }
+    }
+
+    private long knownCount() {
+        long count = 0;
+        for (BloomFilter filter : filters) {
+            count += filter.getCount();
+        }
+        return count;
+    }
+
+    /**
+     * Gets tracked videos, indexed comment ids, filter count and the current false positive rate
+     */
+    public synchronized Map<String, Object> getStats() {
+        ensureLoaded();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("videos", states.size());
+        stats.put("known_comments", knownCount());
+        stats.put("filters", filters.size());
+        double missRate = 1;
+        for (BloomFilter filter : filters) {
+            missRate *= 1 - filter.getExpectedFalsePositiveRate();
+        }
+        stats.put("false_positive_rate", 1 - missRate);
+        stats.put("staged_videos", staged.size());
+        return stats;
+    }
+
+    private static class StagedCrawl {
+        private final String newestCommentId;
+        private final String continuationCursor;
+        private final List<String> commentIds;
+
+        StagedCrawl(String newestCommentId, String continuationCursor, List<String> commentIds) {
+            this.newestCommentId = newestCommentId;
+            this.continuationCursor = continuationCursor;
+            this.commentIds = commentIds;
+        }
+    }
+}
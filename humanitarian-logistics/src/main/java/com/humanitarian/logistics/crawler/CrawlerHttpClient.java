@@ -0,0 +1,265 @@
+package com.humanitarian.logistics.crawler;
+
+import com.humanitarian.logistics.concurrent.IoExecutor;
+import com.humanitarian.logistics.metrics.Counter;
+import com.humanitarian.logistics.metrics.Histogram;
+import com.humanitarian.logistics.metrics.MetricsRegistry;
+import com.humanitarian.logistics.metrics.LatencyTimer;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Shared HTTP transport for all crawlers.
+ * One JDK HttpClient is reused for every request, so connections (and HTTP/2
+ * streams) are pooled across crawls instead of being opened per call. Requests
+ * built with {@link #newRequest} ask for compressed responses; gzip and deflate
+ * bodies are decoded here. Every send is timed into a per-endpoint latency histogram,
+ * which is also published to the {@link MetricsRegistry} as "http.&lt;endpoint&gt;".
+ * Async responses are handled on the shared {@link IoExecutor}.
+ */
+public class CrawlerHttpClient {
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(15);
+    public static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    private static CrawlerHttpClient instance;
+    private static final Object lock = new Object();
+
+    private volatile HttpClient client;
+    private volatile Duration requestTimeout = DEFAULT_REQUEST_TIMEOUT;
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+    private CrawlerHttpClient() {
+        this.client = buildClient(DEFAULT_CONNECT_TIMEOUT);
+    }
+
+    /**
+     * Get the shared client
+     */
+    public static CrawlerHttpClient getInstance() {
+        if (instance == null) {
+            synchronized (lock) {
+                if (instance == null) {
+                    instance = new CrawlerHttpClient();
+                }
+            }
+        }
+        return instance;
+    }
+
+    private static HttpClient buildClient(Duration connectTimeout) {
+        return HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2) // falls back to HTTP/1.1 when the server does not offer h2
+            .connectTimeout(connectTimeout)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .executor(IoExecutor.getInstance().executor())
+            .build();
+    }
+
+    /**
+     * Sets the timeouts. A new connect timeout replaces the underlying client, so
+     * pooled connections are reopened.
+     * @param connectTimeout time allowed to establish a connection
+     * @param requestTimeout default time allowed for a whole request, used by {@link #newRequest}
+     */
+    public synchronized void configure(Duration connectTimeout, Duration requestTimeout) {
+        if (!connectTimeout.equals(client.connectTimeout().orElse(null))) {
+            client = buildClient(connectTimeout);
+        }
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Starts a request with the default timeout and compression headers
+     */
+    public HttpRequest.Builder newRequest(String url) {
+        return HttpRequest.newBuilder()
+            .uri(URI.create(url))
+            .header("Accept-Encoding", ACCEPT_ENCODING)
+            .timeout(requestTimeout);
+    }
+
+    /**
+     * Sends a request and waits for the decoded body
+     * @param endpoint label the latency is recorded under, e.g. "youtube/next"
+     */
+    public HttpResponse<String> send(String endpoint, HttpRequest request) throws IOException, InterruptedException {
+        EndpointStats stats = stats(endpoint);
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request, decodingHandler(stats));
+            stats.record(System.nanoTime() - start, response.statusCode());
+            return response;
+        } catch (IOException | RuntimeException e) {
+            stats.recordFailure(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    /**
+     * Sends a request asynchronously
+     * @param endpoint label the latency is recorded under, e.g. "youtube/next"
+     * @return future completed with the decoded response
+     */
+    public CompletableFuture<HttpResponse<String>> sendAsync(String endpoint, HttpRequest request) {
+        EndpointStats stats = stats(endpoint);
+        long start = System.nanoTime();
+        return client.sendAsync(request, decodingHandler(stats)).whenComplete((response, error) -> {
+            if (error != null) {
+                stats.recordFailure(System.nanoTime() - start);
+            } else {
+                stats.record(System.nanoTime() - start, response.statusCode());
+            }
+        });
+    }
+
+    private EndpointStats stats(String endpoint) {
+        return endpoints.computeIfAbsent(endpoint, EndpointStats::new);
+    }
+
+    /**
+     * Reads the raw body and decodes it according to Content-Encoding and the charset
+     */
+    private static HttpResponse.BodyHandler<String> decodingHandler(EndpointStats stats) {
+        return info -> HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofByteArray(), body -> {
+            String encoding = info.headers().firstValue("Content-Encoding").orElse("identity").trim().toLowerCase();
+            byte[] decoded = decode(body, encoding);
+            stats.recordBytes(body.length, decoded.length);
+            return new String(decoded, charsetOf(info.headers()));
+        });
+    }
+
+    private static byte[] decode(byte[] body, String encoding) {
+        if (body.length == 0 || encoding.equals("identity")) {
+            return body;
+        }
+        try {
+            InputStream in;
+            if (encoding.equals("gzip") || encoding.equals("x-gzip")) {
+                in = new GZIPInputStream(new ByteArrayInputStream(body));
+            } else if (encoding.equals("deflate")) {
+                in = new InflaterInputStream(new ByteArrayInputStream(body));
+            } else {
+                return body; // not requested, so not expected
+            }
+            try (InputStream stream = in) {
+                return stream.readAllBytes();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not decode " + encoding + " response", e);
+        }
+    }
+
+    private static Charset charsetOf(HttpHeaders headers) {
+        String contentType = headers.firstValue("Content-Type").orElse("");
+        for (String part : contentType.split(";")) {
+            String param = part.trim();
+            if (param.toLowerCase().startsWith("charset=")) {
+                try {
+                    return Charset.forName(param.substring(8).replace("\"", ""));
+                } catch (RuntimeException e) {
+                    break;
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * Gets per-endpoint request counts, status classes, bytes on the wire vs decoded,
+     * and latency percentiles
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new TreeMap<>();
+        endpoints.forEach((endpoint, stats) -> metrics.put(endpoint, stats.metrics()));
+        return metrics;
+    }
+
+    /**
+     * @return latency histogram for an endpoint in nanoseconds, or null if it has not been called
+     */
+    public Histogram getLatency(String endpoint) {
+        EndpointStats stats = endpoints.get(endpoint);
+        return stats == null ? null : stats.latency;
+    }
+
+    private static class EndpointStats {
+        private final Histogram latency = new Histogram();
+        private final AtomicLong ok = new AtomicLong();
+        private final AtomicLong clientErrors = new AtomicLong();
+        private final AtomicLong serverErrors = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong wireBytes = new AtomicLong();
+        private final AtomicLong decodedBytes = new AtomicLong();
+        private final LatencyTimer timer;
+        private final Counter errors;
+        private final Counter wireBytesTotal;
+
+        EndpointStats(String endpoint) {
+            MetricsRegistry registry = MetricsRegistry.getInstance();
+            this.timer = registry.timer("http." + endpoint);
+            this.errors = registry.counter("http." + endpoint + ".errors");
+            this.wireBytesTotal = registry.counter("http.wire_bytes");
+        }
+
+        void record(long nanos, int status) {
+            latency.record(nanos);
+            timer.record(nanos);
+            if (status >= 500) {
+                serverErrors.incrementAndGet();
+                errors.increment();
+            } else if (status >= 400) {
+                clientErrors.incrementAndGet();
+                errors.increment();
+            } else {
+                ok.incrementAndGet();
+            }
+        }
+
+        void recordFailure(long nanos) {
+            latency.record(nanos);
+            timer.record(nanos);
+            failures.incrementAndGet();
+            errors.increment();
+        }
+
+        void recordBytes(long wire, long decoded) {
+            wireBytes.addAndGet(wire);
+            decodedBytes.addAndGet(decoded);
+            wireBytesTotal.add(wire);
+        }
+
+        Map<String, Object> metrics() {
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metrics.put("count", latency.getCount());
+            metrics.put("mean_ms", latency.getMean() / 1e6);
+            metrics.put("p50_ms", latency.getValueAtQuantile(0.50) / 1e6);
+            metrics.put("p90_ms", latency.getValueAtQuantile(0.90) / 1e6);
+            metrics.put("p99_ms", latency.getValueAtQuantile(0.99) / 1e6);
+            metrics.put("max_ms", latency.getMax() / 1e6);
+            metrics.put("ok", ok.get());
+            metrics.put("4xx", clientErrors.get());
+            metrics.put("5xx", serverErrors.get());
+            metrics.put("failed", failures.get());
+            metrics.put("wire_bytes", wireBytes.get());
+            metrics.put("decoded_bytes", decodedBytes.get());
+            return metrics;
+        }
+    }
+}
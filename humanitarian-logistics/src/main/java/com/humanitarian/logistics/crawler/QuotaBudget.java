@@ -0,0 +1,119 @@
+package com.humanitarian.logistics.crawler;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Quota accounting for the YouTube Data API.
+ * Every call reserves its unit cost before it is sent, so concurrent callers can
+ * never overspend the budget. Usage resets when the API's quota day changes
+ * (midnight Pacific time).
+ */
+public class QuotaBudget {
+    public static final long DEFAULT_DAILY_UNITS = 10_000;
+    private static final ZoneId QUOTA_ZONE = ZoneId.of("America/Los_Angeles");
+
+    /** Unit cost per list call, from the Data API quota table */
+    private static final Map<String, Integer> COSTS = Map.of(
+        "search", 100,
+        "commentThreads", 1,
+        "comments", 1,
+        "videos", 1,
+        "channels", 1,
+        "i18nLanguages", 1
+    );
+
+    private final long dailyUnits;
+    private final AtomicLong used = new AtomicLong();
+    private final Map<String, AtomicLong> unitsByMethod = new ConcurrentHashMap<>();
+    private volatile LocalDate quotaDay = LocalDate.now(QUOTA_ZONE);
+
+    public QuotaBudget() {
+        this(DEFAULT_DAILY_UNITS);
+    }
+
+    /**
+     * @param dailyUnits units this application may spend per quota day
+     */
+    public QuotaBudget(long dailyUnits) {
+        if (dailyUnits <= 0) {
+            throw new IllegalArgumentException("Daily quota must be positive");
+        }
+        this.dailyUnits = dailyUnits;
+    }
+
+    /**
+     * @return unit cost of one call to an API method, e.g. "search"
+     */
+    public static int costOf(String method) {
+        return COSTS.getOrDefault(method, 1);
+    }
+
+    /**
+     * Reserves the cost of one call
+     * @throws ExceededException if the call would go over the budget; nothing is reserved
+     */
+    public void reserve(String method) throws ExceededException {
+        rollOver();
+        int cost = costOf(method);
+        long before = used.getAndAccumulate(cost, (current, add) -> current + add <= dailyUnits ? current + add : current);
+        if (before + cost > dailyUnits) {
+            throw new ExceededException(method, cost, getRemaining());
+        }
+        unitsByMethod.computeIfAbsent(method, k -> new AtomicLong()).addAndGet(cost);
+    }
+
+    private void rollOver() {
+        LocalDate today = LocalDate.now(QUOTA_ZONE);
+        if (!today.equals(quotaDay)) {
+            synchronized (this) {
+                if (!today.equals(quotaDay)) {
+                    quotaDay = today;
+                    used.set(0);
+                    unitsByMethod.clear();
+                }
+            }
+        }
+    }
+
+    public long getUsed() {
+        rollOver();
+        return used.get();
+    }
+
+    public long getRemaining() {
+        return dailyUnits - getUsed();
+    }
+
+    public long getDailyUnits() {
+        return dailyUnits;
+    }
+
+    /**
+     * Gets units used and remaining, and units spent per API method
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("daily_units", dailyUnits);
+        metrics.put("used", getUsed());
+        metrics.put("remaining", getRemaining());
+        Map<String, Object> byMethod = new TreeMap<>();
+        unitsByMethod.forEach((method, units) -> byMethod.put(method, units.get()));
+        metrics.put("by_method", byMethod);
+        return metrics;
+    }
+
+    /**
+     * Thrown when a call does not fit in the remaining quota
+     */
+    public static class ExceededException extends IOException {
+        public ExceededException(String method, int cost, long remaining) {
+            super("YouTube API quota budget exhausted: " + method + " costs " + cost
+                + " units, " + remaining + " left");
+        }
+    }
+}
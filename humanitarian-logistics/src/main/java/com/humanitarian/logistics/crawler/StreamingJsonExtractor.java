@@ -0,0 +1,255 @@
+package com.humanitarian.logistics.crawler;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.*;
+import org.json.*;
+
+/**
+ * Pulls selected keys out of a large JSON document with Gson's streaming reader.
+ * Only the subtrees under wanted keys are materialized (as org.json objects);
+ * everything else is skipped token by token, so no full tree of the document is
+ * built. Matching follows {@link YouTubeCrawler#searchDict}: a wanted key is
+ * found at any depth, and its subtree is not searched again for the same key.
+ *
+ * Also locates JSON embedded in a page, e.g. {@code var ytInitialData = {...};},
+ * by a plain string scan, and reads exactly one value from there, so the end of
+ * the JSON never has to be found with a regex.
+ */
+final class StreamingJsonExtractor {
+    private final Set<String> objectKeys = new LinkedHashSet<>();
+    private final Set<String> stringKeys = new HashSet<>();
+    private final Map<String, String> requiredAncestors = new HashMap<>();
+
+    private final Map<String, List<JSONObject>> objects = new HashMap<>();
+    private final Map<String, List<String>> strings = new HashMap<>();
+    private final Map<String, Integer> openNames = new HashMap<>();
+
+    /**
+     * Collects the object under every occurrence of a key
+     */
+    StreamingJsonExtractor object(String key) {
+        objectKeys.add(key);
+        return this;
+    }
+
+    /**
+     * Collects the object under a key only where the key is nested inside another key,
+     * e.g. continuationItemRenderer inside itemSectionRenderer
+     */
+    StreamingJsonExtractor objectWithin(String key, String ancestor) {
+        objectKeys.add(key);
+        requiredAncestors.put(key, ancestor);
+        return this;
+    }
+
+    /**
+     * Collects the string value of every occurrence of a key
+     */
+    StreamingJsonExtractor string(String key) {
+        stringKeys.add(key);
+        return this;
+    }
+
+    /**
+     * Reads one JSON value from a string, starting at an offset
+     */
+    StreamingJsonExtractor read(String text, int offset) throws IOException {
+        StringReader reader = new StringReader(text);
+        reader.skip(offset);
+        return read(reader);
+    }
+
+    /**
+     * Reads one JSON value from a reader; anything after the value is ignored
+     */
+    StreamingJsonExtractor read(Reader reader) throws IOException {
+        JsonReader in = new JsonReader(reader);
+        in.setLenient(true);
+        walk(in);
+        return this;
+    }
+
+    /**
+     * @return objects found under a key, in document order
+     */
+    List<JSONObject> get(String key) {
+        return objects.getOrDefault(key, Collections.emptyList());
+    }
+
+    JSONObject first(String key) {
+        List<JSONObject> found = get(key);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    /**
+     * @return string values found under a key, in document order
+     */
+    List<String> getStrings(String key) {
+        return strings.getOrDefault(key, Collections.emptyList());
+    }
+
+    private void walk(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.BEGIN_OBJECT) {
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                JsonToken next = in.peek();
+                if (next == JsonToken.BEGIN_OBJECT && wants(name)) {
+                    capture(name, (JSONObject) readValue(in));
+                } else if (next == JsonToken.STRING && stringKeys.contains(name)) {
+                    strings.computeIfAbsent(name, k -> new ArrayList<>()).add(in.nextString());
+                } else if (next == JsonToken.BEGIN_OBJECT || next == JsonToken.BEGIN_ARRAY) {
+                    openNames.merge(name, 1, Integer::sum);
+                    walk(in);
+                    openNames.merge(name, -1, Integer::sum);
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+        } else if (token == JsonToken.BEGIN_ARRAY) {
+            in.beginArray();
+            while (in.hasNext()) {
+                walk(in);
+            }
+            in.endArray();
+        } else {
+            in.skipValue();
+        }
+    }
+
+    private boolean wants(String name) {
+        if (!objectKeys.contains(name)) {
+            return false;
+        }
+        String ancestor = requiredAncestors.get(name);
+        return ancestor == null || openNames.getOrDefault(ancestor, 0) > 0;
+    }
+
+    private void capture(String name, JSONObject value) {
+        objects.computeIfAbsent(name, k -> new ArrayList<>()).add(value);
+        // Other wanted keys nested in the captured subtree are still reported
+        for (String key : objectKeys) {
+            if (!key.equals(name) && !requiredAncestors.containsKey(key)) {
+                List<JSONObject> nested = YouTubeCrawler.searchDict(value, key);
+                if (!nested.isEmpty()) {
+                    objects.computeIfAbsent(key, k -> new ArrayList<>()).addAll(nested);
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds the org.json value at the reader's position
+     */
+    static Object readValue(JsonReader in) throws IOException {
+        switch (in.peek()) {
+            case BEGIN_OBJECT:
+                JSONObject object = new JSONObject();
+                in.beginObject();
+                while (in.hasNext()) {
+                    object.put(in.nextName(), readValue(in));
+                }
+                in.endObject();
+                return object;
+            case BEGIN_ARRAY:
+                JSONArray array = new JSONArray();
+                in.beginArray();
+                while (in.hasNext()) {
+                    array.put(readValue(in));
+                }
+                in.endArray();
+                return array;
+            case STRING:
+                return in.nextString();
+            case NUMBER:
+                return JSONObject.stringToValue(in.nextString());
+            case BOOLEAN:
+                return in.nextBoolean();
+            case NULL:
+                in.nextNull();
+                return JSONObject.NULL;
+            default:
+                throw new IOException("Unexpected JSON token " + in.peek());
+        }
+    }
+
+    /**
+     * Reads a whole JSON object from a string, starting at an offset
+     */
+    static JSONObject readObject(String text, int offset) throws IOException {
+        StringReader reader = new StringReader(text);
+        reader.skip(offset);
+        JsonReader in = new JsonReader(reader);
+        in.setLenient(true);
+        Object value = readValue(in);
+        if (!(value instanceof JSONObject)) {
+            throw new IOException("Expected a JSON object at offset " + offset);
+        }
+        return (JSONObject) value;
+    }
+
+    /**
+     * Finds the object assigned to a variable, e.g. {@code ytInitialData = {...}} or
+     * {@code window["ytInitialData"] = {...}}
+     * @return offset of the opening brace, or -1 if there is none
+     */
+    static int findAssignedObject(String text, String variable) {
+        int from = 0;
+        while (true) {
+            int index = text.indexOf(variable, from);
+            if (index < 0) {
+                return -1;
+            }
+            int i = index + variable.length();
+            if (i < text.length() && (text.charAt(i) == '"' || text.charAt(i) == '\'')) {
+                i = skipWhitespace(text, i + 1);
+                if (i < text.length() && text.charAt(i) == ']') {
+                    i++;
+                }
+            }
+            i = skipWhitespace(text, i);
+            if (i < text.length() && text.charAt(i) == '=') {
+                i = skipWhitespace(text, i + 1);
+                if (i < text.length() && text.charAt(i) == '{') {
+                    return i;
+                }
+            }
+            from = index + variable.length();
+        }
+    }
+
+    /**
+     * Finds the object passed to a call, e.g. {@code ytcfg.set({...})}
+     * @param from offset to search from; pass a previous result to find the next call
+     * @return offset of the opening brace, or -1 if there is none
+     */
+    static int findCallArgument(String text, String function, int from) {
+        while (true) {
+            int index = text.indexOf(function, from);
+            if (index < 0) {
+                return -1;
+            }
+            int i = skipWhitespace(text, index + function.length());
+            if (i < text.length() && text.charAt(i) == '(') {
+                i = skipWhitespace(text, i + 1);
+                if (i < text.length() && text.charAt(i) == '{') {
+                    return i;
+                }
+            }
+            from = index + function.length();
+        }
+    }
+
+    private static int skipWhitespace(String text, int i) {
+        while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,355 @@
+package com.humanitarian.logistics.crawler;
+
+import com.humanitarian.logistics.model.*;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Deterministic, seedable generator of labeled posts and comments for load testing.
+ * Unlike MockDataCrawler it makes no classifier or sentiment calls: every record is
+ * generated with its relief category and sentiment already set, so millions of
+ * records can be streamed straight into the database or the ingestion pipeline.
+ *
+ * Distributions:
+ * - Disasters: one profile per default disaster, with an onset date spread over the
+ *   time span, a traffic weight and its own mix of relief categories
+ * - Volume: posts cluster after a disaster's onset and decay exponentially, with a
+ *   daily activity cycle
+ * - Sentiment drift: negative right after onset, shifting towards positive as relief
+ *   arrives; how fast depends on the category (medical help arrives before shelter)
+ * - Language: a configurable share of Vietnamese text, the rest English
+ * - Comments: heavy-tailed counts per post; a few posts go viral and get a burst of
+ *   comments within a few hours
+ *
+ * Post number i depends only on the seed and i, so a corpus is the same whatever
+ * the batch size and a run can be reproduced or extended.
+ */
+public class SyntheticCorpusGenerator implements DataCrawler {
+    public static final long DEFAULT_SEED = 42L;
+    public static final int DEFAULT_BATCH_POSTS = 500;
+    public static final LocalDateTime DEFAULT_START = LocalDateTime.of(2024, 9, 1, 0, 0);
+    public static final int DEFAULT_SPAN_DAYS = 120;
+    public static final double DEFAULT_VIETNAMESE_SHARE = 0.7;
+    public static final double DEFAULT_COMMENTS_PER_POST = 20;
+
+    private static final ReliefItem.Category[] CATEGORIES = ReliefItem.Category.values();
+    private static final Sentiment.SentimentType[] TYPES = {
+        Sentiment.SentimentType.NEGATIVE, Sentiment.SentimentType.NEUTRAL, Sentiment.SentimentType.POSITIVE
+    };
+    private static final String[] DISASTERS = {"yagi", "matmo", "bualo", "koto", "fung-wong"};
+    // Days until half of the complaints about a category have turned around
+    private static final double[] RECOVERY_DAYS = {12, 6, 25, 8, 15}; // CASH, MEDICAL, SHELTER, FOOD, TRANSPORTATION
+    // Relative activity per hour of the day
+    private static final double[] HOURLY_ACTIVITY = {
+        0.3, 0.2, 0.1, 0.1, 0.2, 0.5, 1.0, 1.4, 1.5, 1.4, 1.3, 1.4,
+        1.5, 1.3, 1.2, 1.2, 1.3, 1.5, 1.8, 2.0, 2.0, 1.7, 1.2, 0.6
+    };
+    private static final double[] HOURLY_CUMULATIVE = cumulative(HOURLY_ACTIVITY);
+    private static final int AUTHOR_POOL = 200_000;
+    private static final String LABEL = "Synthetic";
+
+    private final long seed;
+    private final DisasterProfile[] disasters;
+    private final ReliefItem[] reliefItems = new ReliefItem[CATEGORIES.length];
+    private LocalDateTime start = DEFAULT_START;
+    private int spanDays = DEFAULT_SPAN_DAYS;
+    private double vietnameseShare = DEFAULT_VIETNAMESE_SHARE;
+    private double meanCommentsPerPost = DEFAULT_COMMENTS_PER_POST;
+    private double burstProbability = 0.02;
+    private long nextPostIndex;
+
+    public SyntheticCorpusGenerator() {
+        this(DEFAULT_SEED);
+    }
+
+    public SyntheticCorpusGenerator(long seed) {
+        this.seed = seed;
+        SplittableRandom random = new SplittableRandom(seed);
+        this.disasters = new DisasterProfile[DISASTERS.length];
+        for (int d = 0; d < DISASTERS.length; d++) {
+            double[] categoryWeights = new double[CATEGORIES.length];
+            for (int c = 0; c < categoryWeights.length; c++) {
+                categoryWeights[c] = 0.2 + random.nextDouble() * random.nextDouble() * 3;
+            }
+            disasters[d] = new DisasterProfile(
+                    DisasterManager.getInstance().getOrCreateDisasterType(DISASTERS[d]),
+                    1.0 / (d + 1),                                       // Zipf-like traffic
+                    (d + random.nextDouble() * 0.5) / DISASTERS.length,   // onset, as a fraction of the span
+                    3 + random.nextDouble() * 10,                         // days for traffic to fall by 1/e
+                    cumulative(categoryWeights));
+        }
+        for (int c = 0; c < CATEGORIES.length; c++) {
+            reliefItems[c] = new ReliefItem(CATEGORIES[c], LABEL, 3);
+        }
+    }
+
+    public void setStart(LocalDateTime start) {
+        this.start = start;
+    }
+
+    public void setSpanDays(int spanDays) {
+        if (spanDays <= 0) {
+            throw new IllegalArgumentException("Span must be at least one day");
+        }
+        this.spanDays = spanDays;
+    }
+
+    /**
+     * @param vietnameseShare fraction of records written in Vietnamese, 0 to 1
+     */
+    public void setVietnameseShare(double vietnameseShare) {
+        this.vietnameseShare = Math.max(0, Math.min(1, vietnameseShare));
+    }
+
+    public void setMeanCommentsPerPost(double meanCommentsPerPost) {
+        this.meanCommentsPerPost = Math.max(0, meanCommentsPerPost);
+    }
+
+    /**
+     * @param burstProbability chance that a post gets a burst of comments
+     */
+    public void setBurstProbability(double burstProbability) {
+        this.burstProbability = Math.max(0, Math.min(1, burstProbability));
+    }
+
+    /**
+     * Streams posts with their comments to a sink in batches, holding only one batch
+     * in memory. The last post is cut short so exactly maxRecords records are made.
+     * @param maxRecords posts plus comments to generate
+     * @param batchPosts posts per batch handed to the sink
+     * @return number of records generated
+     */
+    public long generate(long maxRecords, int batchPosts, Consumer<List<Post>> sink) {
+        if (batchPosts <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        long records = 0;
+        List<Post> batch = new ArrayList<>(batchPosts);
+        while (records < maxRecords) {
+            Post post = generatePost(nextPostIndex++, maxRecords - records - 1);
+            records += 1 + post.getComments().size();
+            batch.add(post);
+            if (batch.size() == batchPosts) {
+                sink.accept(batch);
+                batch = new ArrayList<>(batchPosts);
+            }
+        }
+        if (!batch.isEmpty()) {
+            sink.accept(batch);
+        }
+        return records;
+    }
+
+    /**
+     * Generates post number index; the same seed and index always give the same post
+     * @param maxComments cap on the comments attached to it
+     */
+    public Post generatePost(long index, long maxComments) {
+        SplittableRandom random = new SplittableRandom(mix(seed, index));
+        DisasterProfile disaster = pickDisaster(random);
+        LocalDateTime createdAt = postTime(disaster, random);
+        double daysSinceOnset = daysSinceOnset(disaster, createdAt);
+        int category = pick(disaster.categoryCumulative, random);
+        Sentiment.SentimentType type = drawSentiment(category, daysSinceOnset, random);
+        boolean vietnamese = random.nextDouble() < vietnameseShare;
+
+        String content = SyntheticText.post(CATEGORIES[category], type, disaster.type.getName(), vietnamese, random);
+        YouTubePost post = new YouTubePost(
+                "SYN-" + seed + "-" + index,
+                content,
+                createdAt,
+                author(random),
+                "SYN-CHANNEL-" + disaster.type.getName());
+        post.setDisasterType(disaster.type);
+        post.setDisasterKeyword("#" + disaster.type.getName());
+        post.setReliefItem(reliefItems[category]);
+        post.setSentiment(new Sentiment(type, confidence(random), content));
+
+        int commentCount = (int) Math.min(commentCount(random), maxComments);
+        boolean burst = random.nextDouble() < burstProbability;
+        if (burst) {
+            commentCount = (int) Math.min((long) commentCount * (10 + random.nextInt(30)) + 50, maxComments);
+        }
+        post.setViews((int) Math.min(Integer.MAX_VALUE, (commentCount + 1L) * (50 + random.nextInt(500))));
+        post.setLikes(post.getViews() / (20 + random.nextInt(30)));
+
+        // A burst is centered a little after the post, a normal thread drifts in over days
+        long burstCenterMinutes = 30 + random.nextInt(12 * 60);
+        List<Comment> comments = new ArrayList<>(commentCount);
+        for (int i = 0; i < commentCount; i++) {
+            long delayMinutes = burst && random.nextDouble() < 0.8
+                    ? Math.max(1, burstCenterMinutes + (long) (random.nextDouble() * 180 - 90))
+                    : 1 + (long) exponential(random, 18 * 60);
+            LocalDateTime commentTime = createdAt.plusMinutes(delayMinutes);
+
+            // Replies mostly stay on the post's topic and mood, the rest follow the drift
+            int commentCategory = random.nextDouble() < 0.8 ? category : pick(disaster.categoryCumulative, random);
+            Sentiment.SentimentType commentType = random.nextDouble() < 0.6
+                    ? type
+                    : drawSentiment(commentCategory, daysSinceOnset(disaster, commentTime), random);
+            boolean commentVietnamese = random.nextDouble() < 0.85 ? vietnamese : !vietnamese;
+
+            String text = SyntheticText.comment(CATEGORIES[commentCategory], commentType, commentVietnamese, random);
+            Comment comment = new Comment(post.getPostId() + "-c" + i, post.getPostId(), text, commentTime, author(random));
+            comment.setReliefItem(reliefItems[commentCategory]);
+            comment.setSentiment(new Sentiment(commentType, confidence(random), text));
+            comments.add(comment);
+        }
+        post.addComments(comments);
+        return post;
+    }
+
+    private DisasterProfile pickDisaster(SplittableRandom random) {
+        double total = 0;
+        for (DisasterProfile disaster : disasters) {
+            total += disaster.weight;
+        }
+        double r = random.nextDouble() * total;
+        for (DisasterProfile disaster : disasters) {
+            r -= disaster.weight;
+            if (r < 0) {
+                return disaster;
+            }
+        }
+        return disasters[disasters.length - 1];
+    }
+
+    /**
+     * Onset plus an exponential delay, wrapped into the span; the time of day follows
+     * the daily activity cycle
+     */
+    private LocalDateTime postTime(DisasterProfile disaster, SplittableRandom random) {
+        double onsetDay = disaster.onset * spanDays;
+        double day = (onsetDay + exponential(random, disaster.decayDays)) % spanDays;
+        int hour = pick(HOURLY_CUMULATIVE, random);
+        return start.plusDays((long) day).plusHours(hour).plusMinutes(random.nextInt(60)).plusSeconds(random.nextInt(60));
+    }
+
+    private double daysSinceOnset(DisasterProfile disaster, LocalDateTime time) {
+        double day = java.time.Duration.between(start, time).toMinutes() / (24.0 * 60);
+        double since = day - disaster.onset * spanDays;
+        return since >= 0 ? since : since + spanDays; // posts wrapped to before the onset belong to its tail
+    }
+
+    /**
+     * Negative share falls from 65% to 20% and positive rises from 10% to 55% as relief
+     * for the category arrives; neutral stays at 25%
+     */
+    private static Sentiment.SentimentType drawSentiment(int category, double daysSinceOnset, SplittableRandom random) {
+        double recovered = 1 - Math.pow(0.5, daysSinceOnset / RECOVERY_DAYS[category]);
+        double negative = 0.65 - 0.45 * recovered;
+        double r = random.nextDouble();
+        if (r < negative) {
+            return TYPES[0];
+        }
+        return r < negative + 0.25 ? TYPES[1] : TYPES[2];
+    }
+
+    /**
+     * Log-normal with the configured mean, so most posts get a few comments and some get many
+     */
+    private long commentCount(SplittableRandom random) {
+        if (meanCommentsPerPost <= 0) {
+            return 0;
+        }
+        double sigma = 1.2;
+        double mu = Math.log(meanCommentsPerPost) - sigma * sigma / 2;
+        return (long) Math.exp(mu + sigma * gaussian(random));
+    }
+
+    /**
+     * Log-uniform over the pool, so a few authors write a large share of the records
+     */
+    private static String author(SplittableRandom random) {
+        return "user_" + (long) Math.exp(random.nextDouble() * Math.log(AUTHOR_POOL));
+    }
+
+    private static double confidence(SplittableRandom random) {
+        return 0.55 + random.nextDouble() * 0.45;
+    }
+
+    private static double exponential(SplittableRandom random, double mean) {
+        return -mean * Math.log(1 - random.nextDouble());
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        double u = 1 - random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] cumulative = new double[weights.length];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += weights[i];
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < cumulative.length; i++) {
+            cumulative[i] /= total;
+        }
+        return cumulative;
+    }
+
+    private static int pick(double[] cumulative, SplittableRandom random) {
+        double r = random.nextDouble();
+        for (int i = 0; i < cumulative.length; i++) {
+            if (r < cumulative[i]) {
+                return i;
+            }
+        }
+        return cumulative.length - 1;
+    }
+
+    /**
+     * SplitMix64 finalizer over seed and index, so neighbouring posts get unrelated streams
+     */
+    private static long mix(long seed, long index) {
+        long z = seed * 0x9E3779B97F4A7C15L + index;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Generates limit posts, continuing after the posts of earlier calls
+     */
+    @Override
+    public List<Post> crawlPosts(List<String> keywords, List<String> hashtags, int limit) {
+        List<Post> posts = new ArrayList<>(limit);
+        for (int i = 0; i < limit; i++) {
+            posts.add(generatePost(nextPostIndex++, Long.MAX_VALUE));
+        }
+        return posts;
+    }
+
+    @Override
+    public String getCrawlerName() {
+        return "Synthetic Corpus Generator";
+    }
+
+    @Override
+    public boolean isInitialized() {
+        return true;
+    }
+
+    @Override
+    public void shutdown() {
+    }
+
+    private static final class DisasterProfile {
+        final DisasterType type;
+        final double weight;
+        final double onset;
+        final double decayDays;
+        final double[] categoryCumulative;
+
+        DisasterProfile(DisasterType type, double weight, double onset, double decayDays, double[] categoryCumulative) {
+            this.type = type;
+            this.weight = weight;
+            this.onset = onset;
+            this.decayDays = decayDays;
+            this.categoryCumulative = categoryCumulative;
+        }
+    }
+}
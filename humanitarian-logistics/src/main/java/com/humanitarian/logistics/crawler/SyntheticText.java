@@ -0,0 +1,141 @@
+package com.humanitarian.logistics.crawler;
+
+import com.humanitarian.logistics.model.ReliefItem;
+import com.humanitarian.logistics.model.Sentiment;
+import java.util.*;
+
+/**
+ * Text for synthetic posts and comments, composed from fragments per relief category,
+ * sentiment and language. Fragments carry the category's keywords, so keyword-based
+ * classifiers and term-frequency analyses see a realistic vocabulary.
+ */
+final class SyntheticText {
+    private static final Map<ReliefItem.Category, String[]> TOPICS_VI = new EnumMap<>(ReliefItem.Category.class);
+    private static final Map<ReliefItem.Category, String[]> TOPICS_EN = new EnumMap<>(ReliefItem.Category.class);
+
+    static {
+        TOPICS_VI.put(ReliefItem.Category.CASH, new String[] {
+            "tiền hỗ trợ", "tiền cứu trợ", "gói hỗ trợ tài chính", "tiền mặt cho hộ nghèo", "khoản trợ cấp"
+        });
+        TOPICS_VI.put(ReliefItem.Category.MEDICAL, new String[] {
+            "thuốc men", "đội y tế", "trạm y tế", "bác sĩ tình nguyện", "thuốc và bông băng"
+        });
+        TOPICS_VI.put(ReliefItem.Category.SHELTER, new String[] {
+            "nhà tạm", "chỗ ở tạm thời", "lều bạt", "việc sửa nhà", "khu tránh trú"
+        });
+        TOPICS_VI.put(ReliefItem.Category.FOOD, new String[] {
+            "gạo", "mì tôm và nước sạch", "lương thực", "suất ăn", "thực phẩm cứu trợ"
+        });
+        TOPICS_VI.put(ReliefItem.Category.TRANSPORTATION, new String[] {
+            "đường sá", "xe chở hàng cứu trợ", "cầu bị sập", "thuyền cứu hộ", "giao thông"
+        });
+        TOPICS_EN.put(ReliefItem.Category.CASH, new String[] {
+            "cash assistance", "relief money", "financial aid", "cash grants", "emergency payments"
+        });
+        TOPICS_EN.put(ReliefItem.Category.MEDICAL, new String[] {
+            "medicine", "medical teams", "the clinic", "volunteer doctors", "first aid supplies"
+        });
+        TOPICS_EN.put(ReliefItem.Category.SHELTER, new String[] {
+            "temporary housing", "shelter", "tents", "house repairs", "evacuation centers"
+        });
+        TOPICS_EN.put(ReliefItem.Category.FOOD, new String[] {
+            "rice", "food packages", "clean water and noodles", "hot meals", "food supplies"
+        });
+        TOPICS_EN.put(ReliefItem.Category.TRANSPORTATION, new String[] {
+            "the roads", "aid trucks", "the collapsed bridge", "rescue boats", "transport"
+        });
+    }
+
+    // {t} is replaced by the topic
+    private static final String[][] POST_VI = {
+        { // NEGATIVE
+            "Đã ba ngày mà {t} vẫn chưa tới, bà con rất bức xúc",
+            "Thiếu {t} trầm trọng, nhiều gia đình đang rất khó khăn",
+            "{t} bị chậm trễ, người dân chờ mãi không thấy",
+            "Cần gấp {t}, tình hình đang rất tệ"
+        },
+        { // NEUTRAL
+            "Cập nhật về {t} tại các xã bị ảnh hưởng",
+            "Chính quyền thông báo kế hoạch phân phối {t}",
+            "Danh sách điểm nhận {t} trong tuần này",
+            "Thông tin về {t} cho bà con vùng lũ"
+        },
+        { // POSITIVE
+            "Cảm ơn các đoàn đã mang {t} đến kịp thời",
+            "{t} đã đến tận tay bà con, rất cảm động",
+            "Nhờ {t} mà nhiều gia đình đã ổn định lại",
+            "Việc phân phối {t} rất nhanh và chu đáo"
+        }
+    };
+    private static final String[][] POST_EN = {
+        {
+            "Three days and still no {t}, families are furious",
+            "Severe shortage of {t}, many households are struggling",
+            "{t} delayed again, people are still waiting",
+            "Urgently need {t}, the situation is getting worse"
+        },
+        {
+            "Update on {t} in the affected communes",
+            "Authorities announce the plan for {t}",
+            "List of pickup points for {t} this week",
+            "Information about {t} for flood victims"
+        },
+        {
+            "Thank you to every team bringing {t} so quickly",
+            "{t} finally reached the families, very moving",
+            "Thanks to {t} many families are back on their feet",
+            "Distribution of {t} has been fast and well organized"
+        }
+    };
+    private static final String[][] COMMENT_VI = {
+        {"Chỗ tôi vẫn chưa có {t}", "Quá chậm, {t} ở đâu rồi?", "Không công bằng, {t} không đến đủ", "Thất vọng về {t}"},
+        {"Ai biết {t} phát ở đâu không?", "Cho mình hỏi về {t}", "{t} đợt sau khi nào?", "Đang chờ thông tin {t}"},
+        {"Cảm ơn rất nhiều vì {t}", "Đã nhận được {t}, cảm ơn", "{t} đến rồi, tốt quá", "Tuyệt vời, {t} rất kịp thời"}
+    };
+    private static final String[][] COMMENT_EN = {
+        {"Still no {t} in my village", "Too slow, where is the {t}?", "Unfair, not enough {t}", "Disappointed with {t}"},
+        {"Does anyone know where {t} is handed out?", "Question about {t}", "When is the next round of {t}?", "Waiting for news on {t}"},
+        {"Thank you so much for {t}", "We received {t}, thanks", "{t} arrived, great", "Amazing, {t} came right on time"}
+    };
+    private static final String[] PLACES = {
+        "Quảng Ninh", "Hải Phòng", "Yên Bái", "Lào Cai", "Cao Bằng", "Thái Nguyên", "Hà Giang", "Phú Thọ", "Hà Nội", "Quảng Bình"
+    };
+
+    private SyntheticText() {
+    }
+
+    static String post(ReliefItem.Category category, Sentiment.SentimentType type, String disaster,
+                       boolean vietnamese, SplittableRandom random) {
+        String[] templates = (vietnamese ? POST_VI : POST_EN)[index(type)];
+        StringBuilder text = new StringBuilder(fill(templates[random.nextInt(templates.length)], category, vietnamese, random));
+        text.append(vietnamese ? " ở " : " in ").append(PLACES[random.nextInt(PLACES.length)]);
+        text.append(vietnamese ? " sau bão " : " after typhoon ").append(disaster).append(". #").append(disaster);
+        return text.toString();
+    }
+
+    static String comment(ReliefItem.Category category, Sentiment.SentimentType type,
+                          boolean vietnamese, SplittableRandom random) {
+        String[] templates = (vietnamese ? COMMENT_VI : COMMENT_EN)[index(type)];
+        return fill(templates[random.nextInt(templates.length)], category, vietnamese, random);
+    }
+
+    private static String fill(String template, ReliefItem.Category category, boolean vietnamese, SplittableRandom random) {
+        String[] topics = (vietnamese ? TOPICS_VI : TOPICS_EN).get(category);
+        String topic = topics[random.nextInt(topics.length)];
+        if (template.startsWith("{t}")) {
+            topic = Character.toUpperCase(topic.charAt(0)) + topic.substring(1);
+        }
+        return template.replace("{t}", topic);
+    }
+
+    private static int index(Sentiment.SentimentType type) {
+        switch (type) {
+            case NEGATIVE:
+                return 0;
+            case POSITIVE:
+                return 2;
+            default:
+                return 1;
+        }
+    }
+}
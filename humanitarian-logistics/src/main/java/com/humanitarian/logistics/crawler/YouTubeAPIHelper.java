@@ -1,65 +1,93 @@
 package com.humanitarian.logistics.crawler;
 
 import com.google.gson.*;
+import com.humanitarian.logistics.concurrent.IoExecutor;
 import com.humanitarian.logistics.model.Comment;
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.Response;
-
+import java.io.IOException;
 import java.net.URLEncoder;
+import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * YouTube Official API v3 Helper
  * Provides alternative to HTTP scraping using official YouTube API
  * Logic reused from YoutubeDataCrawler project
- * Uses OkHttp + GSON for JSON parsing (same as YoutubeDataCrawler)
+ * Uses GSON for JSON parsing (same as YoutubeDataCrawler); requests go through
+ * the shared CrawlerHttpClient so connections are pooled across calls
+ *
+ * Quota-aware: every call reserves its unit cost from a {@link QuotaBudget} first,
+ * requests carry a {@code fields} filter so only the parts read here are returned,
+ * video details are looked up 50 ids per call, and comment pages of several videos
+ * are fetched concurrently. Responses are handled on the shared I/O executor.
  */
 public class YouTubeAPIHelper {
-    private final String apiKey;
+    private static final Logger log = LoggerFactory.getLogger(YouTubeAPIHelper.class);
+    public static final int MAX_IDS_PER_VIDEOS_CALL = 50;
+    public static final int DEFAULT_MAX_CONCURRENT_VIDEOS = 4;
     private static final String API_BASE = "https://www.googleapis.com/youtube/v3";
 
+    private static final String SEARCH_FIELDS = "nextPageToken,items(id/videoId)";
+    private static final String COMMENT_THREAD_FIELDS =
+            "nextPageToken,items(id,snippet/topLevelComment/snippet(authorDisplayName,textOriginal,publishedAt))";
+    private static final String VIDEO_FIELDS = "items(id,snippet(title,description,channelTitle,publishedAt))";
+
+    private final String apiKey;
+    private final String apiBase;
+    private final QuotaBudget quota;
+    private final CrawlerHttpClient http = CrawlerHttpClient.getInstance();
+
     public YouTubeAPIHelper(String apiKey) {
+        this(apiKey, new QuotaBudget());
+    }
+
+    /**
+     * @param quota budget shared by every helper that uses the same API key
+     */
+    public YouTubeAPIHelper(String apiKey, QuotaBudget quota) {
+        this(apiKey, quota, API_BASE);
+    }
+
+    /**
+     * @param apiBase base URL of the API, e.g. a local server that replays recorded responses
+     */
+    YouTubeAPIHelper(String apiKey, QuotaBudget quota, String apiBase) {
         this.apiKey = apiKey;
+        this.quota = quota;
+        this.apiBase = apiBase;
     }
 
     /**
-     * Search videos by keyword using official API
+     * Search videos by keyword using official API (100 quota units per page)
      * Logic reused from YoutubeDataCrawler.YouTubeSearch
      */
     public List<String> searchVideos(String query, int maxResults) throws Exception {
-        OkHttpClient client = new OkHttpClient();
         List<String> videoIds = new ArrayList<>();
 
-        String encodedQuery = URLEncoder.encode(query, StandardCharsets.UTF_8.toString());
-        String url = API_BASE + "/search?" +
-                "part=snippet&" +
+        String url = url("search",
+                "part=id&" +
                 "type=video&" +
-                "maxResults=" + maxResults + "&" +
-                "q=" + encodedQuery + "&" +
-                "key=" + apiKey;
-
-        Request request = new Request.Builder().url(url).build();
-        try (Response response = client.newCall(request).execute()) {
-            if (response.isSuccessful() && response.body() != null) {
-                String jsonData = response.body().string();
-                JsonObject json = JsonParser.parseString(jsonData).getAsJsonObject();
-                JsonArray items = json.getAsJsonArray("items");
-
-                if (items != null) {
-                    for (JsonElement item : items) {
-                        try {
-                            String videoId = item.getAsJsonObject()
-                                    .getAsJsonObject("id")
-                                    .get("videoId")
-                                    .getAsString();
-                            videoIds.add(videoId);
-                        } catch (Exception e) {
-                            // Skip invalid entries
-                        }
-                    }
+                "maxResults=" + Math.min(maxResults, 50) + "&" +
+                "q=" + encode(query), SEARCH_FIELDS);
+
+        JsonObject json = get("search", url);
+        JsonArray items = json != null ? json.getAsJsonArray("items") : null;
+        if (items != null) {
+            for (JsonElement item : items) {
+                try {
+                    String videoId = item.getAsJsonObject()
+                            .getAsJsonObject("id")
+                            .get("videoId")
+                            .getAsString();
+                    videoIds.add(videoId);
+                } catch (Exception e) {
+                    // Skip invalid entries
                 }
             }
         }
@@ -68,74 +96,139 @@ public class YouTubeAPIHelper {
     }
 
     /**
-     * Get comments for a video using official API
+     * Searches several keywords concurrently on the I/O executor (100 quota units per query)
+     * @return video ids per query, in the order of the queries; a failed query maps to no ids
+     */
+    public Map<String, List<String>> searchVideos(Collection<String> queries, int maxResultsPerQuery) {
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(queries));
+        List<List<String>> found = IoExecutor.getInstance().map(distinct, DEFAULT_MAX_CONCURRENT_VIDEOS, query -> {
+            try {
+                return searchVideos(query, maxResultsPerQuery);
+            } catch (Exception e) {
+                log.warn("⚠️ Search failed for {}: {}", query, e.getMessage());
+                return Collections.<String>emptyList();
+            }
+        });
+        Map<String, List<String>> results = new LinkedHashMap<>();
+        for (int i = 0; i < distinct.size(); i++) {
+            results.put(distinct.get(i), found.get(i));
+        }
+        return results;
+    }
+
+    /**
+     * Get comments for a video using official API (1 quota unit per page of 100).
+     * Stops early, keeping the comments read so far, when the quota budget runs out.
      * Logic reused from YoutubeDataCrawler.YouTubeCommentCrawler
      */
     public List<Comment> getComments(String videoId) throws Exception {
-        OkHttpClient client = new OkHttpClient();
-        List<Comment> comments = new ArrayList<>();
-        String pageToken = "";
-        boolean hasNext = true;
-
-        while (hasNext) {
-            String url = API_BASE + "/commentThreads?" +
-                    "part=snippet&" +
-                    "videoId=" + videoId + "&" +
-                    "maxResults=100&" +
-                    "key=" + apiKey;
-
-            if (!pageToken.isEmpty()) {
-                url += "&pageToken=" + pageToken;
-            }
+        return getComments(Collections.singletonList(videoId), Integer.MAX_VALUE, 1)
+                .getOrDefault(videoId, Collections.emptyList());
+    }
 
-            Request request = new Request.Builder().url(url).build();
-            try (Response response = client.newCall(request).execute()) {
-                if (!response.isSuccessful() || response.body() == null) {
-                    break;
-                }
+    /**
+     * Gets comments for several videos, fetching up to maxConcurrent videos at once.
+     * Pages of one video are fetched in order; a video whose pages fail or run out of
+     * quota keeps the comments read so far.
+     * @param maxPagesPerVideo maximum commentThreads pages per video
+     * @return comments per video id, in the order of the ids
+     * @throws IllegalArgumentException if maxConcurrent is not positive
+     */
+    public Map<String, List<Comment>> getComments(Collection<String> videoIds, int maxPagesPerVideo, int maxConcurrent) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("maxConcurrent must be positive: " + maxConcurrent);
+        }
+        Map<String, List<Comment>> results = new ConcurrentHashMap<>();
+        Deque<String> pending = new ArrayDeque<>(new LinkedHashSet<>(videoIds));
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < Math.min(maxConcurrent, pending.size()); i++) {
+            workers.add(nextVideo(pending, maxPagesPerVideo, results));
+        }
+        CompletableFuture.allOf(workers.toArray(new CompletableFuture<?>[0])).join();
 
-                String jsonData = response.body().string();
-                JsonObject json = JsonParser.parseString(jsonData).getAsJsonObject();
-                JsonArray items = json.getAsJsonArray("items");
-
-                if (items != null) {
-                    for (JsonElement item : items) {
-                        try {
-                            JsonObject snippet = item.getAsJsonObject()
-                                    .getAsJsonObject("snippet")
-                                    .getAsJsonObject("topLevelComment")
-                                    .getAsJsonObject("snippet");
-
-                            String author = snippet.get("authorDisplayName").getAsString();
-                            String text = snippet.get("textOriginal").getAsString();
-                            String publishedAt = snippet.get("publishedAt").getAsString();
-
-                            // Parse ISO date
-                            LocalDateTime createdAt = parseISO8601(publishedAt);
-                            
-                            Comment comment = new Comment(
-                                    UUID.randomUUID().toString(),
-                                    videoId,
-                                    text,
-                                    createdAt,
-                                    author
-                            );
-                            comments.add(comment);
-                        } catch (Exception e) {
-                            // Skip invalid entries
-                        }
-                    }
-                }
+        Map<String, List<Comment>> ordered = new LinkedHashMap<>();
+        for (String videoId : new LinkedHashSet<>(videoIds)) {
+            ordered.put(videoId, results.getOrDefault(videoId, Collections.emptyList()));
+        }
+        return ordered;
+    }
 
-                // Check for next page
-                if (json.has("nextPageToken")) {
-                    pageToken = json.get("nextPageToken").getAsString();
-                } else {
-                    hasNext = false;
-                }
+    /**
+     * Takes the next video off the queue and fetches it, then the next one, until the queue is empty
+     */
+    private CompletableFuture<Void> nextVideo(Deque<String> pending, int maxPages, Map<String, List<Comment>> results) {
+        String videoId;
+        synchronized (pending) {
+            videoId = pending.pollFirst();
+        }
+        if (videoId == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        List<Comment> comments = Collections.synchronizedList(new ArrayList<>());
+        results.put(videoId, comments);
+        return fetchCommentPage(videoId, null, maxPages, comments)
+                .exceptionally(error -> {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    log.warn("⚠️ Comments stopped for {}: {}", videoId, cause.getMessage());
+                    return null;
+                })
+                .thenCompose(v -> nextVideo(pending, maxPages, results));
+    }
+
+    private CompletableFuture<Void> fetchCommentPage(String videoId, String pageToken, int pagesLeft, List<Comment> comments) {
+        String url = url("commentThreads",
+                "part=snippet&" +
+                "videoId=" + encode(videoId) + "&" +
+                "maxResults=100&" +
+                "textFormat=plainText" +
+                (pageToken != null ? "&pageToken=" + encode(pageToken) : ""), COMMENT_THREAD_FIELDS);
+        return getAsync("commentThreads", url).thenCompose(json -> {
+            if (json == null) {
+                return CompletableFuture.completedFuture(null);
             }
+            comments.addAll(parseCommentThreads(videoId, json));
+            if (pagesLeft > 1 && json.has("nextPageToken")) {
+                return fetchCommentPage(videoId, json.get("nextPageToken").getAsString(), pagesLeft - 1, comments);
+            }
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
+    private List<Comment> parseCommentThreads(String videoId, JsonObject json) {
+        List<Comment> comments = new ArrayList<>();
+        JsonArray items = json.getAsJsonArray("items");
+        if (items == null) {
+            return comments;
         }
+        for (JsonElement item : items) {
+            try {
+                JsonObject thread = item.getAsJsonObject();
+                JsonObject snippet = thread
+                        .getAsJsonObject("snippet")
+                        .getAsJsonObject("topLevelComment")
+                        .getAsJsonObject("snippet");
 
+                String author = snippet.get("authorDisplayName").getAsString();
+                String text = snippet.get("textOriginal").getAsString();
+                String publishedAt = snippet.get("publishedAt").getAsString();
+
+                // Parse ISO date
+                LocalDateTime createdAt = parseISO8601(publishedAt);
+
+                // The thread id is the top-level comment's id, so re-crawls map to the same comment
+                Comment comment = new Comment(
+                        thread.has("id") ? thread.get("id").getAsString() : UUID.randomUUID().toString(),
+                        videoId,
+                        text,
+                        createdAt,
+                        author
+                );
+                comments.add(comment);
+            } catch (Exception e) {
+                // Skip invalid entries
+            }
+        }
         return comments;
     }
 
@@ -143,46 +236,83 @@ public class YouTubeAPIHelper {
      * Get video details (title, published date) using official API
      */
     public JsonObject getVideoDetails(String videoId) throws Exception {
-        OkHttpClient client = new OkHttpClient();
-
-        String url = API_BASE + "/videos?" +
-                "part=snippet,contentDetails&" +
-                "id=" + videoId + "&" +
-                "key=" + apiKey;
-
-        Request request = new Request.Builder().url(url).build();
-        try (Response response = client.newCall(request).execute()) {
-            if (response.isSuccessful() && response.body() != null) {
-                String jsonData = response.body().string();
-                JsonObject json = JsonParser.parseString(jsonData).getAsJsonObject();
-                JsonArray items = json.getAsJsonArray("items");
-
-                if (items != null && items.size() > 0) {
-                    return items.get(0).getAsJsonObject().getAsJsonObject("snippet");
-                }
-            }
-        }
+        return getVideoDetails(Collections.singletonList(videoId)).get(videoId);
+    }
 
-        return null;
+    /**
+     * Gets video snippets, looking up to 50 ids per call (1 quota unit per call)
+     * with at most DEFAULT_MAX_CONCURRENT_VIDEOS calls in flight
+     * @return snippet per video id; ids the API does not return are left out
+     */
+    public Map<String, JsonObject> getVideoDetails(Collection<String> videoIds) throws Exception {
+        return getVideoDetails(videoIds, DEFAULT_MAX_CONCURRENT_VIDEOS);
     }
 
     /**
-     * Parse ISO 8601 date format (2024-12-01T10:30:00Z)
+     * Gets video snippets, 50 ids per call, sending up to maxConcurrent calls at once
+     * @return snippet per video id, in the order of the ids; ids the API does not return are left out
+     * @throws IllegalArgumentException if maxConcurrent is not positive
      */
-    private LocalDateTime parseISO8601(String dateStr) {
+    public Map<String, JsonObject> getVideoDetails(Collection<String> videoIds, int maxConcurrent) throws Exception {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("maxConcurrent must be positive: " + maxConcurrent);
+        }
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(videoIds));
+        Deque<List<String>> pending = new ArrayDeque<>();
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_VIDEOS_CALL) {
+            pending.add(ids.subList(from, Math.min(from + MAX_IDS_PER_VIDEOS_CALL, ids.size())));
+        }
+        Map<String, JsonObject> found = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < Math.min(maxConcurrent, pending.size()); i++) {
+            workers.add(nextVideoBatch(pending, found));
+        }
         try {
-            // Remove 'Z' and replace with +00:00 for parsing
-            dateStr = dateStr.replace("Z", "+00:00");
-            
-            return java.time.OffsetDateTime.parse(dateStr).toLocalDateTime();
-        } catch (Exception e) {
-            System.err.println("Could not parse date: " + dateStr);
-            return LocalDateTime.now();
+            CompletableFuture.allOf(workers.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+
+        Map<String, JsonObject> details = new LinkedHashMap<>();
+        for (String id : ids) {
+            JsonObject snippet = found.get(id);
+            if (snippet != null) {
+                details.put(id, snippet);
+            }
+        }
+        return details;
+    }
+
+    /**
+     * Takes the next batch of ids off the queue and looks it up, then the next one, until the queue is empty
+     */
+    private CompletableFuture<Void> nextVideoBatch(Deque<List<String>> pending, Map<String, JsonObject> found) {
+        List<String> batch;
+        synchronized (pending) {
+            batch = pending.pollFirst();
         }
+        if (batch == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        String url = url("videos",
+                "part=snippet&" +
+                "id=" + encode(String.join(",", batch)), VIDEO_FIELDS);
+        return getAsync("videos", url).thenCompose(json -> {
+            JsonArray items = json != null ? json.getAsJsonArray("items") : null;
+            if (items != null) {
+                for (JsonElement item : items) {
+                    JsonObject video = item.getAsJsonObject();
+                    if (video.has("id") && video.has("snippet")) {
+                        found.put(video.get("id").getAsString(), video.getAsJsonObject("snippet"));
+                    }
+                }
+            }
+            return nextVideoBatch(pending, found);
+        });
     }
 
     /**
-     * Check if API key is valid and accessible
+     * Check if API key is valid and accessible, using a 1-unit call rather than a search
      */
     public boolean isAPIKeyValid() {
         if (apiKey == null || apiKey.isEmpty()) {
@@ -190,15 +320,62 @@ public class YouTubeAPIHelper {
         }
 
         try {
-            OkHttpClient client = new OkHttpClient();
-            String url = API_BASE + "/search?part=snippet&q=test&maxResults=1&key=" + apiKey;
-            Request request = new Request.Builder().url(url).build();
-
-            try (Response response = client.newCall(request).execute()) {
-                return response.isSuccessful();
-            }
+            return get("i18nLanguages", url("i18nLanguages", "part=snippet&hl=en", "etag")) != null;
         } catch (Exception e) {
             return false;
         }
     }
+
+    public QuotaBudget getQuotaBudget() {
+        return quota;
+    }
+
+    private String url(String method, String query, String fields) {
+        return apiBase + "/" + method + "?" + query + "&fields=" + encode(fields) + "&key=" + apiKey;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reserves quota for a call and sends it
+     * @return parsed response, or null if the API did not answer with success
+     */
+    private JsonObject get(String method, String url) throws IOException, InterruptedException {
+        quota.reserve(method);
+        HttpResponse<String> response = http.send("data-api/" + method, http.newRequest(url).GET().build());
+        return isSuccessful(response) ? JsonParser.parseString(response.body()).getAsJsonObject() : null;
+    }
+
+    private CompletableFuture<JsonObject> getAsync(String method, String url) {
+        try {
+            quota.reserve(method);
+        } catch (QuotaBudget.ExceededException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return http.sendAsync("data-api/" + method, http.newRequest(url).GET().build())
+                .thenApply(response -> isSuccessful(response)
+                        ? JsonParser.parseString(response.body()).getAsJsonObject()
+                        : null);
+    }
+
+    private static boolean isSuccessful(HttpResponse<String> response) {
+        return response.statusCode() >= 200 && response.statusCode() < 300 && response.body() != null;
+    }
+
+    /**
+     * Parse ISO 8601 date format (2024-12-01T10:30:00Z)
+     */
+    private LocalDateTime parseISO8601(String dateStr) {
+        try {
+            // Remove 'Z' and replace with +00:00 for parsing
+            dateStr = dateStr.replace("Z", "+00:00");
+
+            return java.time.OffsetDateTime.parse(dateStr).toLocalDateTime();
+        } catch (Exception e) {
+            log.debug("Could not parse date: {}", dateStr);
+            return LocalDateTime.now();
+        }
+    }
 }
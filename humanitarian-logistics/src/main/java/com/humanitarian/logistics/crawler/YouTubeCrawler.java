@@ -4,9 +4,6 @@ import com.humanitarian.logistics.model.*;
 import com.humanitarian.logistics.sentiment.EnhancedSentimentAnalyzer;
 import com.humanitarian.logistics.sentiment.SentimentAnalyzer;
 
-import net.bytebuddy.asm.MemberSubstitution.Substitution.Chain.Step.ForField.Write;
-
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.LocalDateTime;
@@ -15,39 +12,52 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.json.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * YouTube Crawler - HTTP-based implementation using YouTube AJAX API
  * Logic ported directly from ytb_crawl.py (YoutubeCommentDownloader)
  * 
- * Key difference: Python uses raw regex with {.+?} pattern
- * Java uses Pattern.DOTALL to match . including newlines
+ * Key difference: Python extracts ytcfg and ytInitialData with a {.+?} regex and
+ * parses the whole document; here the JSON start is found with a string scan and
+ * only the needed keys are read with a streaming parser (StreamingJsonExtractor)
  */
 public class YouTubeCrawler implements DataCrawler {
-    private HttpClient httpClient;
+    private static final Logger log = LoggerFactory.getLogger(YouTubeCrawler.class);
+    private final CrawlerHttpClient http;
     private boolean initialized;
     private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/79.0.3945.130 Safari/537.36";
+    private static final String SITE_URL = "https://www.youtube.com";
+    private static final String CONTINUATION_API_PATH = "/youtubei/v1/next";
+    private static final String ENDPOINT_NEXT = "youtube/next";
     private static final String YOUTUBE_VIDEO_URL = "https://www.youtube.com/watch?v={youtube_id}";
     
-    // Regex patterns - EXACTLY from ytb_crawl.py but with proper Java escaping
-    // Python: r'ytcfg\.set\s*\(\s*({.+?})\s*\)\s*;'
-    // In Java: need to escape the curly braces as \{ and \} in the regex string
-    private static final Pattern YT_CFG_RE = Pattern.compile(
-        "ytcfg\\.set\\s*\\(\\s*(\\{.+?\\})\\s*\\)\\s*;", 
-        Pattern.DOTALL
-    );
+    private static final Pattern VIDEO_ID_RE = Pattern.compile("\"videoId\":\"([A-Za-z0-9_-]{11})\"");
     
-    // Python: r'(?:window\s*\[\s*["\']ytInitialData["\']\s*\]|ytInitialData)\s*=\s*({.+?})\s*;\s*(?:var\s+meta|</script|\n)'
-    private static final Pattern YT_INITIAL_DATA_RE = Pattern.compile(
-        "(?:window\\s*\\[\\s*[\"']ytInitialData[\"']\\s*\\]|ytInitialData)\\s*=\\s*(\\{.+?\\})\\s*;\\s*(?:var\\s+meta|</script|\\n)",
-        Pattern.DOTALL
-    );
+    public static final int DEFAULT_MAX_COMMENTS_PER_VIDEO = 2000;
+    public static final int DEFAULT_MAX_PAGES_PER_VIDEO = 200;
+    public static final java.time.Duration DEFAULT_RECRAWL_INTERVAL = java.time.Duration.ofHours(1);
     
-    private SentimentAnalyzer sentimentAnalyzer;
+    private volatile SentimentAnalyzer sentimentAnalyzer;
+    private volatile int maxCommentsPerVideo = DEFAULT_MAX_COMMENTS_PER_VIDEO;
+    private volatile int maxPagesPerVideo = DEFAULT_MAX_PAGES_PER_VIDEO;
+    private volatile boolean includeReplies = true;
+    private volatile CrawlStateStore crawlStateStore;
+    private volatile java.time.Duration recrawlInterval = DEFAULT_RECRAWL_INTERVAL;
+    private final String siteUrl;
 
     public YouTubeCrawler() {
+        this(SITE_URL);
+    }
+
+    /**
+     * Sends search, watch page and continuation requests to another site, e.g. a fixture server in tests
+     */
+    YouTubeCrawler(String siteUrl) {
+        this.siteUrl = siteUrl;
         this.initialized = false;
-        this.httpClient = HttpClient.newHttpClient();
+        this.http = CrawlerHttpClient.getInstance();
         this.sentimentAnalyzer = new EnhancedSentimentAnalyzer();
     }
 
@@ -57,9 +67,9 @@ public class YouTubeCrawler implements DataCrawler {
     }
 
     public void initialize() {
-        System.out.println("🚀 Initializing YouTube Crawler (HTTP API)...");
+        log.info("🚀 Initializing YouTube Crawler (HTTP API)...");
         initialized = true;
-        System.out.println("✓ YouTube Crawler initialized (HTTP mode)");
+        log.info("✓ YouTube Crawler initialized (HTTP mode)");
     }
 
     @Override
@@ -75,78 +85,47 @@ public class YouTubeCrawler implements DataCrawler {
         }
         
         if (searchTerms.isEmpty()) {
-            System.err.println("No search terms provided");
+            log.warn("No search terms provided");
             return allPosts;
         }
         
-        for (String term : searchTerms) {
-            List<Post> results = crawlByKeyword(term, limit);
-            allPosts.addAll(results);
-            
-            if (allPosts.size() >= limit) break;
-        }
-        
-        return allPosts;
-    }
-
-    /**
-     * Crawl YouTube videos by keyword - simplified for now
-     */
-    private List<Post> crawlByKeyword(String keyword, int limit) {
-        List<Post> posts = new ArrayList<>();
-        
         if (!initialized) {
-            System.err.println("Crawler not initialized");
-            return posts;
+            log.warn("Crawler not initialized");
+            return allPosts;
         }
         
-        System.out.println("\n🎬 Crawling YouTube for keyword: " + keyword);
+        // Search terms and videos are fetched concurrently; posts arrive as each video finishes
+        CrawlScheduler scheduler = new CrawlScheduler(this);
         try {
-            String searchUrl = "https://www.youtube.com/results?search_query=" 
-                                + java.net.URLEncoder.encode(keyword, "UTF-8");
-
-            System.out.println("🔎 Searching YouTube: " + searchUrl);
-
-            // Fetch HTML
-            String html = fetchPageContent(searchUrl);
-
-            // Regex for extracting videoId fields inside initialData
-            Pattern videoIdPattern = Pattern.compile("\"videoId\":\"([A-Za-z0-9_-]{11})\"");
-            Matcher matcher = videoIdPattern.matcher(html);
-
-            Set<String> videoIds = new LinkedHashSet<>(); // maintain order + avoid duplicates
-
-            while (matcher.find() && videoIds.size() < limit) {
-                videoIds.add(matcher.group(1));
-            }
-
-            if (videoIds.isEmpty()) {
-                System.out.println("⚠️ No videos found for keyword: " + keyword);
-                return posts;
-            }
-
-            System.out.println("📌 Found " + videoIds.size() + " video IDs for keyword: " + keyword);
-
-            // Convert video IDs into Post objects by crawling each video
-            for (String vid : videoIds) {
-                if (posts.size() >= limit) break;
+            CrawlScheduler.ResultStream results = scheduler.crawlKeywords(searchTerms, limit);
+            allPosts.addAll(results.toList());
+            log.info("✓ Crawled {} videos, {} failed", allPosts.size(), results.getFailedCount());
+        } finally {
+            scheduler.shutdown();
+        }
+        
+        return allPosts;
+    }
 
-                String videoUrl = "https://www.youtube.com/watch?v=" + vid;
-                System.out.println("➡️ Crawling video: " + videoUrl);
+    String searchUrl(String keyword) throws java.io.UnsupportedEncodingException {
+        return siteUrl + "/results?search_query=" + java.net.URLEncoder.encode(keyword, "UTF-8");
+    }
 
-                YouTubePost ytPost = crawlVideoByUrl(videoUrl);
-                if (ytPost != null) {
-                    posts.add(ytPost);
-                }
-            }
+    String watchUrl(String videoId) {
+        return siteUrl + "/watch?v=" + videoId;
+    }
 
-        } catch (Exception e) {
-            System.err.println("❌ Error during keyword search: " + e.getMessage());
-            e.printStackTrace();
+    /**
+     * Extract distinct video ids from a search results page, in page order
+     */
+    static Set<String> extractVideoIds(String html, int limit) {
+        // Regex for extracting videoId fields inside initialData
+        Matcher matcher = VIDEO_ID_RE.matcher(html);
+        Set<String> videoIds = new LinkedHashSet<>(); // maintain order + avoid duplicates
+        while (matcher.find() && videoIds.size() < limit) {
+            videoIds.add(matcher.group(1));
         }
-
-        
-        return posts;
+        return videoIds;
     }
 
     /**
@@ -154,242 +133,278 @@ public class YouTubeCrawler implements DataCrawler {
      * Implements: get_comments_from_url from Python
      */
     public YouTubePost crawlVideoByUrl(String videoUrl) {
+        return crawlVideoByUrl(videoUrl, null);
+    }
+
+    /**
+     * Crawl single video by URL, handing each page of comments to a listener as it arrives
+     * @param listener receives comment pages on the calling thread; may be null
+     */
+    public YouTubePost crawlVideoByUrl(String videoUrl, CommentPageListener listener) {
         try {
-            System.out.println("\n🔗 Crawling single video from URL");
-            System.out.println("📍 URL: " + videoUrl);
+            log.debug("🔗 Crawling single video from URL");
+            log.debug("📍 URL: {}", videoUrl);
             
             if (!videoUrl.contains("youtube.com")) {
-                System.err.println("Invalid URL: Must be a YouTube URL");
-                return null;
-            }
-            
-            // Extract video ID from URL
-            String videoId = extractVideoIdFromUrl(videoUrl);
-            if (videoId == null || videoId.isEmpty()) {
-                System.err.println("Could not extract video ID from URL");
+                log.warn("Invalid URL: Must be a YouTube URL");
                 return null;
             }
             
-            System.out.println("📝 Video ID: " + videoId);
-            
             // Fetch the video page HTML
-            System.out.println("⏳ Fetching video page...");
+            log.debug("⏳ Fetching video page...");
             String html = fetchPageContent(videoUrl);
             
-            // Step 1: Extract ytcfg using regex_search (group 1 = the JSON)
-            String ytcfgJson = regexSearch(html, YT_CFG_RE, 1, "");
-            if (ytcfgJson.isEmpty()) {
-                System.err.println("❌ Failed to extract ytcfg - regex didn't match");
-                System.err.println("📄 HTML length: " + html.length() + " chars");
-                // Debug: check if ytcfg.set is present
-                if (html.contains("ytcfg.set")) {
-                    System.err.println("⚠️ Found 'ytcfg.set' in HTML but regex didn't match");
-                }
+            VideoPage page = parseVideoPage(videoUrl, html);
+            if (page == null) {
                 return null;
             }
             
-            System.out.println("✓ Extracted ytcfg (" + ytcfgJson.length() + " chars)");
-            JSONObject ytcfg = new JSONObject(ytcfgJson);
-            
-            // Step 2: Extract ytInitialData using regex_search (group 1 = the JSON)
-            String ytInitialDataJson = regexSearch(html, YT_INITIAL_DATA_RE, 1, "");
-            if (ytInitialDataJson.isEmpty()) {
-                System.err.println("❌ Failed to extract ytInitialData - regex didn't match");
-                // Debug: check if ytInitialData is present
-                if (html.contains("ytInitialData")) {
-                    System.err.println("⚠️ Found 'ytInitialData' in HTML but regex didn't match");
-                }
-                return null;
-            }
-            
-            System.out.println("✓ Extracted ytInitialData (" + ytInitialDataJson.length() + " chars)");
-            JSONObject data = new JSONObject(ytInitialDataJson);
-            
-            // Extract video title
-            String title = extractVideoTitle(html);
-            if (title == null || title.isEmpty()) {
-                title = "Video: " + videoId;
-            }
-            
-            // Extract video publish date from ytInitialData
-            LocalDateTime videoPublishDate = extractVideoPublishDate(data);
-            if (videoPublishDate == null) {
-                System.out.println("⚠️ Could not extract video publish date, using current date");
-                videoPublishDate = LocalDateTime.now();
-            } else {
-                System.out.println("📅 Video publish date: " + videoPublishDate);
+            // Step 3: Fetch comments through the continuation token found in the initial data
+            if (maxCommentsPerVideo == 0) {
+                log.debug("Comments not requested; crawl state left unchanged");
+            } else if (page.continuationToken != null) {
+                log.debug("📌 Found continuation token, fetching comments...");
+                fetchCommentsWithContinuation(page.post, page.continuationToken, page.ytcfg, listener);
+            } else if (crawlStateStore != null) {
+                crawlStateStore.stage(page.post.getPostId(), null, null, Collections.emptyList());
             }
             
-            YouTubePost post = new YouTubePost(videoId, title, videoPublishDate, "YouTube User", videoUrl);
-            
-            // Step 3: Extract comments from the initial data
-            // Look for itemSectionRenderer -> continuationItemRenderer
-            System.out.println("💬 Extracting comments...");
-            extractCommentsFromInitialData(post, data, ytcfg);
-            
-            System.out.println("✅ Successfully extracted video with " + post.getComments().size() + " comments");
-            return post;
+            log.info("✅ Successfully extracted video with {} comments", page.post.getComments().size());
+            return page.post;
             
         } catch (Exception e) {
-            System.err.println("❌ Error crawling video by URL: " + e.getMessage());
+            log.warn("❌ Error crawling video by URL: {}", e.getMessage());
             e.printStackTrace();
             return null;
         }
     }
 
     /**
-     * Extract comments from ytInitialData
-     * Equivalent to Python's get_comments_from_url logic
+     * Parses a fetched video page into a post plus what is needed to fetch its comments
+     * @return parsed page, or null if the page has no usable ytcfg or ytInitialData
      */
-    private void extractCommentsFromInitialData(YouTubePost post, JSONObject data, JSONObject ytcfg) {
+    VideoPage parseVideoPage(String videoUrl, String html) {
+        // Extract video ID from URL
+        String videoId = extractVideoIdFromUrl(videoUrl);
+        if (videoId == null || videoId.isEmpty()) {
+            log.warn("Could not extract video ID from URL");
+            return null;
+        }
+        
+        log.debug("📝 Video ID: {}", videoId);
+        
+        JSONObject ytcfg = null;
+        StreamingJsonExtractor data;
         try {
-            // Search for itemSectionRenderer
-            List<JSONObject> itemSections = searchDict(data, "itemSectionRenderer");
-            if (itemSections.isEmpty()) {
-                System.out.println("⚠️ No itemSectionRenderer found");
-                return;
+            // Step 1: Locate ytcfg.set({...}) calls with a string scan; use the one holding the API key
+            int ytcfgStart = StreamingJsonExtractor.findCallArgument(html, "ytcfg.set", 0);
+            while (ytcfgStart >= 0 && ytcfg == null) {
+                JSONObject candidate = StreamingJsonExtractor.readObject(html, ytcfgStart);
+                if (candidate.has("INNERTUBE_API_KEY")) {
+                    ytcfg = candidate;
+                }
+                ytcfgStart = StreamingJsonExtractor.findCallArgument(html, "ytcfg.set", ytcfgStart);
             }
-            
-            JSONObject itemSection = itemSections.get(0);
-            
-            // Search for continuationItemRenderer in itemSection
-            List<JSONObject> continuations = searchDict(itemSection, "continuationItemRenderer");
-            if (continuations.isEmpty()) {
-                System.out.println("⚠️ No continuationItemRenderer found - comments may be disabled");
-                return;
+            if (ytcfg == null) {
+                log.warn("❌ Failed to extract ytcfg - no ytcfg.set({...}) with INNERTUBE_API_KEY found");
+                log.debug("📄 HTML length: {} chars", html.length());
+                return null;
             }
+            log.debug("✓ Extracted ytcfg ({} keys)", ytcfg.length());
             
-            // Extract the continuation endpoint
-            JSONObject continuationRenderer = continuations.get(0);
-            List<JSONObject> continuationEndpoints = searchDict(continuationRenderer, "continuationEndpoint");
-            
-            if (!continuationEndpoints.isEmpty()) {
-                try {
-                    JSONObject continuationEndpoint = continuationEndpoints.get(0);
-                    JSONObject continuationCommand = continuationEndpoint.getJSONObject("continuationCommand");
-                    String continuationToken = continuationCommand.getString("token");
-                    
-                    System.out.println("📌 Found continuation token, fetching comments...");
-                    
-                    // Build the AJAX request following Python's ajax_request
-                    fetchCommentsWithContinuation(post, continuationToken, ytcfg);
-                } catch (JSONException e) {
-                    System.out.println("⚠️ Could not extract continuation token: " + e.getMessage());
-                }
+            // Step 2: Stream ytInitialData, keeping only the comment continuation and date fields
+            int dataStart = StreamingJsonExtractor.findAssignedObject(html, "ytInitialData");
+            if (dataStart < 0) {
+                log.warn("❌ Failed to extract ytInitialData - no assignment found");
+                return null;
             }
-            
-        } catch (Exception e) {
-            System.err.println("Error extracting comments from initial data: " + e.getMessage());
+            data = new StreamingJsonExtractor()
+                .objectWithin("continuationItemRenderer", "itemSectionRenderer")
+                .object("dateText")
+                .object("publishedTimeText")
+                .string("uploadDate")
+                .read(html, dataStart);
+        } catch (java.io.IOException | RuntimeException e) {
+            log.warn("❌ Failed to parse page JSON: {}", e.getMessage());
+            return null;
+        }
+        log.debug("✓ Extracted ytInitialData");
+        
+        // Extract video title
+        String title = extractVideoTitle(html);
+        if (title == null || title.isEmpty()) {
+            title = "Video: " + videoId;
+        }
+        
+        // Extract video publish date from ytInitialData
+        LocalDateTime videoPublishDate = extractVideoPublishDate(data);
+        if (videoPublishDate == null) {
+            log.debug("⚠️ Could not extract video publish date, using current date");
+            videoPublishDate = LocalDateTime.now();
+        } else {
+            log.debug("📅 Video publish date: {}", videoPublishDate);
         }
+        
+        YouTubePost post = new YouTubePost(videoId, title, videoPublishDate, "YouTube User", videoUrl);
+        return new VideoPage(post, ytcfg, findContinuationToken(data));
     }
 
     /**
-     * Fetch comments using continuation token via AJAX API
-     * Equivalent to Python's ajax_request
+     * Find the comment continuation token in ytInitialData: the continuationItemRenderer
+     * inside the comment itemSectionRenderer
+     * Equivalent to Python's get_comments_from_url logic
+     * @return token, or null if comments are unavailable
      */
-    private void fetchCommentsWithContinuation(YouTubePost post, String continuationToken, JSONObject ytcfg) {
-        try {
-            // Construct the API URL and request body like Python does
-            String apiUrl = "https://www.youtube.com/youtubei/v1/next";
-            String apiKey = ytcfg.getString("INNERTUBE_API_KEY");
-            JSONObject context = ytcfg.getJSONObject("INNERTUBE_CONTEXT");
-            
-            // Build request body
-            JSONObject requestBody = new JSONObject();
-            requestBody.put("context", context);
-            requestBody.put("continuation", continuationToken);
-            
-            System.out.println("🔄 Making AJAX request to: " + apiUrl);
-            
-            // Make the HTTP POST request
-            HttpRequest request = HttpRequest.newBuilder()
-                .uri(java.net.URI.create(apiUrl + "?key=" + apiKey))
-                .header("Content-Type", "application/json")
-                .header("User-Agent", USER_AGENT)
-                .POST(HttpRequest.BodyPublishers.ofString(requestBody.toString()))
-                .timeout(java.time.Duration.ofSeconds(60))
-                .build();
-            
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            
-            if (response.statusCode() == 200) {
-                JSONObject responseData = new JSONObject(response.body());
-                extractCommentsFromResponse(post, responseData);
-            } else if (response.statusCode() == 403 || response.statusCode() == 413) {
-                System.out.println("⚠️ API rate limited (status " + response.statusCode() + ")");
-            } else {
-                System.err.println("⚠️ AJAX request failed with status " + response.statusCode());
+    private String findContinuationToken(StreamingJsonExtractor data) {
+        JSONObject continuationRenderer = data.first("continuationItemRenderer");
+        if (continuationRenderer == null) {
+            log.debug("⚠️ No continuationItemRenderer found - comments may be disabled");
+            return null;
+        }
+        
+        // Extract the continuation endpoint
+        List<JSONObject> continuationEndpoints = searchDict(continuationRenderer, "continuationEndpoint");
+        if (!continuationEndpoints.isEmpty()) {
+            JSONObject continuationCommand = continuationEndpoints.get(0).optJSONObject("continuationCommand");
+            if (continuationCommand != null && continuationCommand.has("token")) {
+                return continuationCommand.getString("token");
             }
-            
-        } catch (Exception e) {
-            System.err.println("Error fetching comments with continuation: " + e.getMessage());
         }
+        log.debug("⚠️ Could not extract continuation token");
+        return null;
     }
 
     /**
-     * Extract comments from AJAX response
+     * Fetch comments using continuation token via AJAX API, following every
+     * continuation (next pages and reply threads) up to the per-video caps.
+     * The next page is requested before the current one is parsed and scored.
+     * Equivalent to Python's ajax_request loop
      */
-    private void extractCommentsFromResponse(YouTubePost post, JSONObject response) {
+    private void fetchCommentsWithContinuation(YouTubePost post, String continuationToken, JSONObject ytcfg,
+                                               CommentPageListener listener) {
+        CommentPagination pages = new CommentPagination(this, post, ytcfg, continuationToken, listener);
+        log.debug("🔄 Making AJAX requests to: {}", siteUrl + CONTINUATION_API_PATH);
+        boolean failed = true;
         try {
-            // Search for commentEntityPayload in the response
-            List<JSONObject> commentPayloads = searchDict(response, "commentEntityPayload");
-            
-            System.out.println("Found " + commentPayloads.size() + " comments in response");
-            
-            for (JSONObject payload : commentPayloads) {
-                try {
-                    JSONObject properties = payload.getJSONObject("properties");
-                    JSONObject author = payload.getJSONObject("author");
-                    
-                    String commentId = properties.getString("commentId");
-                    String content = properties.getJSONObject("content").getString("content");
-                    String authorName = author.getString("displayName");
-                    
-                    // Extract comment creation date/time
-                    LocalDateTime commentDate = extractCommentDateTime(properties);
-                    if (commentDate == null) {
-                        // Fallback to video publish date if available
-                        commentDate = post.getCreatedAt();
-                    }
-                    
-                    Comment comment = new Comment(
-                        commentId,
-                        post.getPostId(),
-                        content,
-                        commentDate,
-                        authorName
-                    );
-                    
-                    // Set sentiment if analyzer available
-                    if (sentimentAnalyzer != null) {
-                        Sentiment sentiment = sentimentAnalyzer.analyzeSentiment(content);
-                        comment.setSentiment(sentiment);
-                    }
-                    
-                    post.addComment(comment);
-                    
-                } catch (JSONException e) {
-                    // Skip malformed comments
+            java.util.concurrent.CompletableFuture<HttpResponse<String>> inFlight =
+                http.sendAsync(ENDPOINT_NEXT, pages.nextRequest());
+            
+            while (inFlight != null) {
+                HttpResponse<String> response = inFlight.join();
+                if (response.statusCode() == 403 || response.statusCode() == 413) {
+                    log.warn("⚠️ API rate limited (status {})", response.statusCode());
+                    break;
+                } else if (response.statusCode() != 200) {
+                    log.warn("⚠️ AJAX request failed with status {}", response.statusCode());
+                    break;
                 }
+                
+                CommentPagination.Page page = pages.read(response.body());
+                // Prefetch the next page while this one is scored
+                inFlight = pages.hasNext()
+                    ? http.sendAsync(ENDPOINT_NEXT, pages.nextRequest())
+                    : null;
+                pages.accept(page);
             }
+            failed = inFlight != null;
             
         } catch (Exception e) {
-            System.err.println("Error extracting comments from response: " + e.getMessage());
+            log.warn("Error fetching comments with continuation: {}", e.getMessage());
         }
+        pages.finish(failed);
+        log.debug("Found {} comments in {} pages", pages.getCommentsAdded(), pages.getPagesRequested());
     }
 
     /**
-     * Fetch page content using HTTP GET
+     * Build the AJAX request for a continuation token
+     * Equivalent to Python's ajax_request
      */
-    private String fetchPageContent(String url) throws Exception {
-        HttpRequest request = HttpRequest.newBuilder()
-            .uri(java.net.URI.create(url))
+    HttpRequest buildContinuationRequest(String continuationToken, JSONObject ytcfg) {
+        // Construct the API URL and request body like Python does
+        String apiKey = ytcfg.getString("INNERTUBE_API_KEY");
+        JSONObject context = ytcfg.getJSONObject("INNERTUBE_CONTEXT");
+        
+        // Build request body
+        JSONObject requestBody = new JSONObject();
+        requestBody.put("context", context);
+        requestBody.put("continuation", continuationToken);
+        
+        return http.newRequest(siteUrl + CONTINUATION_API_PATH + "?key=" + apiKey)
+            .header("Content-Type", "application/json")
             .header("User-Agent", USER_AGENT)
-            .timeout(java.time.Duration.ofSeconds(30))
-            .GET()
+            .POST(HttpRequest.BodyPublishers.ofString(requestBody.toString()))
+            .timeout(java.time.Duration.ofSeconds(60))
             .build();
+    }
+
+    /**
+     * Extract comments from commentEntityPayload objects of one AJAX response and add them to the post
+     * @param limit maximum number of comments to add
+     * @param accept decides by id whether a comment is new; called once per comment
+     * @return comments added
+     */
+    List<Comment> extractComments(YouTubePost post, List<JSONObject> commentPayloads, int limit,
+                                  java.util.function.Predicate<String> accept) {
+        List<Comment> added = new ArrayList<>();
+        for (JSONObject payload : commentPayloads) {
+            if (added.size() >= limit) {
+                break;
+            }
+            try {
+                JSONObject properties = payload.getJSONObject("properties");
+                JSONObject author = payload.getJSONObject("author");
+                
+                String commentId = properties.getString("commentId");
+                if (!accept.test(commentId)) {
+                    continue;
+                }
+                String content = properties.getJSONObject("content").getString("content");
+                String authorName = author.getString("displayName");
+                
+                // Extract comment creation date/time
+                LocalDateTime commentDate = extractCommentDateTime(properties);
+                if (commentDate == null) {
+                    // Fallback to video publish date if available
+                    commentDate = post.getCreatedAt();
+                }
+                
+                Comment comment = new Comment(
+                    commentId,
+                    post.getPostId(),
+                    content,
+                    commentDate,
+                    authorName
+                );
+                
+                post.addComment(comment);
+                added.add(comment);
+                
+            } catch (JSONException e) {
+                // Skip malformed comments
+            }
+        }
+        SentimentAnalyzer analyzer = sentimentAnalyzer;
+        if (analyzer != null && !added.isEmpty()) {
+            // One batch per page, so a remote analyzer can score the page's comments concurrently
+            String[] texts = new String[added.size()];
+            for (int i = 0; i < texts.length; i++) {
+                texts[i] = added.get(i).getContent();
+            }
+            Sentiment[] sentiments = analyzer.analyzeSentimentBatch(texts);
+            for (int i = 0; i < texts.length; i++) {
+                added.get(i).setSentiment(sentiments[i]);
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Fetch page content using HTTP GET
+     */
+    private String fetchPageContent(String url) throws Exception {
+        HttpRequest request = buildPageRequest(url);
         
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = http.send(endpointOf(request), request);
         
         if (response.statusCode() == 200) {
             return response.body();
@@ -398,166 +413,89 @@ public class YouTubeCrawler implements DataCrawler {
         throw new Exception("Failed to fetch page: HTTP " + response.statusCode());
     }
 
+    HttpRequest buildPageRequest(String url) {
+        return http.newRequest(url)
+            .header("User-Agent", USER_AGENT)
+            .GET()
+            .build();
+    }
+
+    /**
+     * Latency label for a YouTube request: continuation API, search results or watch page
+     */
+    static String endpointOf(HttpRequest request) {
+        String path = request.uri().getPath();
+        if (path.startsWith("/youtubei/")) {
+            return ENDPOINT_NEXT;
+        }
+        return path.startsWith("/results") ? "youtube/search" : "youtube/watch";
+    }
+
     /**
      * Extract video publish date from ytInitialData
      * YouTube embeds date info in various places - we'll search for date patterns in JSON
      */
-    private LocalDateTime extractVideoPublishDate(JSONObject data) {
+    private LocalDateTime extractVideoPublishDate(StreamingJsonExtractor data) {
         try {
-            String jsonStr = data.toString();
-            
-            // Pattern 1: Look for Vietnamese month format "thg XX, YYYY"
-            Pattern vietnamesePattern = Pattern.compile(
-                "\"(?:dateText|publishedTimeText|uploadDate)\"\\s*:\\s*\\{[^}]*\"simpleText\"\\s*:\\s*\"([^\"]*thg[^\"]+)\"",
-                Pattern.CASE_INSENSITIVE
-            );
-            Matcher matcher = vietnamesePattern.matcher(jsonStr);
-            
-            if (matcher.find()) {
-                String dateStr = matcher.group(1);
-                System.out.println("  📝 Found Vietnamese date in JSON: " + dateStr);
-                
-                LocalDateTime date = parseYouTubeDateString(dateStr);
-                if (date != null) {
-                    System.out.println("✓ Extracted video date: " + dateStr + " → " + date);
-                    return date;
+            List<String> dateTexts = simpleTexts(data.get("dateText"));
+            List<String> publishedTexts = simpleTexts(data.get("publishedTimeText"));
+            List<String> candidates = new ArrayList<>(dateTexts);
+            candidates.addAll(publishedTexts);
+            
+            // Absolute dates first: "thg 12, 2024", "Jan 15, 2025"; relative times are less precise
+            for (String dateStr : candidates) {
+                if (!YouTubeDateParser.isRelative(dateStr)) {
+                    LocalDateTime date = YouTubeDateParser.parse(dateStr);
+                    if (date != null) {
+                        log.debug("✓ Extracted video date: {} → {}", dateStr, date);
+                        return date;
+                    }
                 }
             }
             
-            // Pattern 2: Look for "Jan 15, 2025" or similar date formats in JSON values
-            Pattern datePattern = Pattern.compile(
-                "\"(?:dateText|publishedTimeText|uploadDate)\"\\s*:\\s*\\{[^}]*\"simpleText\"\\s*:\\s*\"([^\"]+)\"",
-                Pattern.CASE_INSENSITIVE
-            );
-            matcher = datePattern.matcher(jsonStr);
-            
-            while (matcher.find()) {
-                String dateStr = matcher.group(1);
-                System.out.println("  📝 Found in JSON: " + dateStr);
-                
-                if (!dateStr.contains("ago") && !dateStr.contains("view")) {
-                    LocalDateTime date = parseYouTubeDateString(dateStr);
+            // ISO date in uploadDate fields
+            for (String dateStr : data.getStrings("uploadDate")) {
+                if (dateStr.length() >= 10) {
+                    LocalDateTime date = YouTubeDateParser.parse(dateStr.substring(0, 10));
                     if (date != null) {
-                        System.out.println("✓ Extracted video date: " + dateStr + " → " + date);
+                        log.debug("✓ Extracted video date from uploadDate: {} → {}", dateStr, date);
                         return date;
                     }
                 }
             }
             
-            // Pattern 3: Look for ISO date format in uploadDate fields
-            Pattern isoDatePattern = Pattern.compile("\"uploadDate\"\\s*:\\s*\"(\\d{4}-\\d{2}-\\d{2})");
-            matcher = isoDatePattern.matcher(jsonStr);
-            
-            while (matcher.find()) {
-                String dateStr = matcher.group(1);
-                System.out.println("  📝 Found ISO date: " + dateStr);
-                
-                LocalDateTime date = parseYouTubeDateString(dateStr);
+            // Fallback: relative publishedTimeText such as "2 days ago"
+            for (String dateStr : publishedTexts) {
+                LocalDateTime date = YouTubeDateParser.parse(dateStr);
                 if (date != null) {
-                    System.out.println("✓ Extracted video date: " + dateStr + " → " + date);
+                    log.debug("✓ Extracted video date from publishedTimeText: {} → {}", dateStr, date);
                     return date;
                 }
             }
             
-            // Pattern 4: Search for common date formats in the entire JSON
-            Pattern commonDatePattern = Pattern.compile(
-                "thg\\s+\\d{1,2},?\\s+\\d{4}|[A-Za-z]+\\s+\\d{1,2},?\\s+\\d{4}|\\d{1,2}\\s+[A-Za-z]+\\s+\\d{4}|\\d{4}-\\d{2}-\\d{2}"
-            );
-            matcher = commonDatePattern.matcher(jsonStr);
-            
-            int count = 0;
-            while (matcher.find() && count < 5) { // Limit to first 5 matches
-                String dateStr = matcher.group(0);
-                System.out.println("  📝 Found potential date: " + dateStr);
-                count++;
-                
-                // Try to parse
-                LocalDateTime date = parseYouTubeDateString(dateStr);
-                if (date != null) {
-                    System.out.println("✓ Extracted video date: " + dateStr + " → " + date);
-                    return date;
-                }
-            }
-            
-            // Fallback: Search using the original searchDict approach
-            List<JSONObject> dateTexts = searchDict(data, "dateText");
-            System.out.println("🔍 Found " + dateTexts.size() + " dateText objects via searchDict");
-            
-            for (JSONObject dateObj : dateTexts) {
-                try {
-                    if (dateObj.has("simpleText")) {
-                        String dateStr = dateObj.getString("simpleText");
-                        System.out.println("  📝 Found dateText: " + dateStr);
-                        
-                        // Skip if it's a duration or view count format
-                        if (dateStr.contains("ago") || dateStr.contains("views") || dateStr.contains("ago")) {
-                            System.out.println("    ⏭️ Skipping (relative time or view count)");
-                            continue;
-                        }
-                        
-                        LocalDateTime date = parseYouTubeDateString(dateStr);
-                        if (date != null) {
-                            System.out.println("✓ Extracted video date: " + dateStr + " → " + date);
-                            return date;
-                        }
-                    }
-                } catch (JSONException e) {
-                    // Continue to next
-                }
-            }
-            
-            // Alternative: Search for "publishedTimeText"
-            List<JSONObject> publishedTexts = searchDict(data, "publishedTimeText");
-            System.out.println("🔍 Found " + publishedTexts.size() + " publishedTimeText objects");
-            
-            for (JSONObject pubObj : publishedTexts) {
-                try {
-                    if (pubObj.has("simpleText")) {
-                        String dateStr = pubObj.getString("simpleText");
-                        System.out.println("  📝 Found publishedTimeText: " + dateStr);
-                        
-                        LocalDateTime date = parseYouTubeDateString(dateStr);
-                        if (date != null) {
-                            System.out.println("✓ Extracted video date from publishedTimeText: " + dateStr + " → " + date);
-                            return date;
-                        }
-                    }
-                } catch (JSONException e) {
-                    // Continue
-                }
-            }
-            
-            // Fallback: search for uploadDate in JSON-LD structured data
-            List<JSONObject> uploadDates = searchDict(data, "uploadDate");
-            System.out.println("🔍 Found " + uploadDates.size() + " uploadDate objects");
-            
-            for (JSONObject uploadDateObj : uploadDates) {
-                try {
-                    String dateStr = uploadDateObj.toString();
-                    if (dateStr.length() < 100) { // Avoid long JSON objects
-                        System.out.println("  📝 Found uploadDate: " + dateStr);
-                        LocalDateTime date = parseYouTubeDateString(dateStr);
-                        if (date != null) {
-                            System.out.println("✓ Extracted video date from uploadDate: " + dateStr + " → " + date);
-                            return date;
-                        }
-                    }
-                } catch (Exception e) {
-                    // Continue
-                }
-            }
-            
-            System.out.println("⚠️ No valid date found in ytInitialData");
+            log.debug("⚠️ No valid date found in ytInitialData");
             return null;
         } catch (Exception e) {
-            System.err.println("Error extracting video publish date: " + e.getMessage());
+            log.debug("Error extracting video publish date: {}", e.getMessage());
             return null;
         }
     }
 
+    private static List<String> simpleTexts(List<JSONObject> textObjects) {
+        List<String> texts = new ArrayList<>();
+        for (JSONObject textObject : textObjects) {
+            String text = textObject.optString("simpleText", "");
+            if (!text.isEmpty()) {
+                texts.add(text);
+            }
+        }
+        return texts;
+    }
+
     /**
      * Extract comment creation date from properties
-     * YouTube API provides "createTime" or relative time like "2 days ago"
+     * YouTube API provides "createTime" or relative time like "2 days ago".
+     * Runs once per comment, so it only logs failures.
      */
     private LocalDateTime extractCommentDateTime(JSONObject properties) {
         try {
@@ -576,164 +514,20 @@ public class YouTubeCrawler implements DataCrawler {
                 }
             }
             
-            // Try publishedTimeText (like "2 days ago", "1 year ago", etc)
-            if (properties.has("publishedTimeText")) {
-                try {
-                    JSONObject timeText = properties.getJSONObject("publishedTimeText");
-                    if (timeText.has("simpleText")) {
-                        String timeStr = timeText.getString("simpleText");
-                        LocalDateTime date = parseYouTubeRelativeTime(timeStr);
-                        if (date != null) {
-                            System.out.println("✓ Parsed comment time: " + timeStr);
-                            return date;
-                        }
-                    }
-                } catch (JSONException e) {
-                    // Continue
-                }
-            }
-            
-            return null;
-        } catch (Exception e) {
-            System.err.println("Error extracting comment date: " + e.getMessage());
-            return null;
-        }
-    }
-
-    /**
-     * Parse YouTube date strings like "Jan 15, 2023" or "Uploaded on Dec 25, 2024"
-     */
-    private LocalDateTime parseYouTubeDateString(String dateStr) {
-        try {
-            // Remove common prefixes
-            dateStr = dateStr.replaceAll("(Uploaded on|Streamed|Started streaming|Published|Premiere)\\s*", "");
-            dateStr = dateStr.trim();
-            
-            // Handle Vietnamese month abbreviation "thg" (tháng)
-            // E.g., "thg 12, 2024" -> "Dec 1, 2024"
-            if (dateStr.toLowerCase().contains("thg")) {
-                String[] viMonths = {"", "Jan", "Feb", "Mar", "Apr", "May", "Jun", 
-                                    "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
-                
-                java.util.regex.Pattern pattern = java.util.regex.Pattern.compile("thg\\s+(\\d+),?\\s+(\\d{4})");
-                java.util.regex.Matcher matcher = pattern.matcher(dateStr);
-                
-                if (matcher.find()) {
-                    int month = Integer.parseInt(matcher.group(1));
-                    int year = Integer.parseInt(matcher.group(2));
-                    
-                    if (month >= 1 && month <= 12) {
-                        String englishDate = viMonths[month] + " 1, " + year; // Day 1 of the month
-                        System.out.println("  🌍 Converted Vietnamese date: " + dateStr + " → " + englishDate);
-                        dateStr = englishDate;
-                    }
-                }
-            }
-            
-            // Try various date formats
-            String[] formats = {
-                "MMM dd, yyyy",           // Jan 15, 2023
-                "MMM d, yyyy",            // Jan 5, 2023
-                "MMMM dd, yyyy",          // January 15, 2023
-                "MMMM d, yyyy",           // January 5, 2023
-                "yyyy-MM-dd",             // 2023-01-15 (ISO format)
-                "MMM dd yyyy",            // Jan 15 2023 (no comma)
-                "MMM d yyyy",             // Jan 5 2023 (no comma)
-                "MMM dd",                 // Jan 15 (no year)
-                "MMMM d"                  // January 15 (no year)
-            };
-            
-            for (String format : formats) {
-                try {
-                    java.time.format.DateTimeFormatter formatter = 
-                        java.time.format.DateTimeFormatter.ofPattern(format);
-                    
-                    // If format has no year, add current year
-                    String dateToparse = dateStr;
-                    if (!format.contains("yyyy")) {
-                        dateToparse = dateStr + ", " + java.time.Year.now().getValue();
-                    }
-                    
-                    java.time.LocalDate date = java.time.LocalDate.parse(dateToparse, formatter);
-                    return date.atStartOfDay();
-                } catch (Exception e) {
-                    // Try next format
-                }
+            // Relative time (like "2 days ago", "3 tuần trước"): publishedTime in entity
+            // payloads, publishedTimeText in the older renderer format
+            String timeStr = properties.optString("publishedTime", "");
+            if (timeStr.isEmpty()) {
+                JSONObject timeText = properties.optJSONObject("publishedTimeText");
+                timeStr = timeText != null ? timeText.optString("simpleText", "") : "";
             }
-            
-            return null;
+            return YouTubeDateParser.parse(timeStr);
         } catch (Exception e) {
+            log.debug("Error extracting comment date: {}", e.getMessage());
             return null;
         }
     }
 
-    /**
-     * Parse YouTube relative time strings like "2 days ago", "1 month ago", "1 year ago"
-     */
-    private LocalDateTime parseYouTubeRelativeTime(String timeStr) {
-        try {
-            timeStr = timeStr.toLowerCase().trim();
-            
-            // Parse patterns like "2 days ago", "1 month ago", etc
-            java.util.regex.Pattern pattern = java.util.regex.Pattern.compile("(\\d+)\\s*(second|minute|hour|day|week|month|year)s?\\s*ago");
-            java.util.regex.Matcher matcher = pattern.matcher(timeStr);
-            
-            if (matcher.find()) {
-                int amount = Integer.parseInt(matcher.group(1));
-                String unit = matcher.group(2);
-                
-                LocalDateTime now = LocalDateTime.now();
-                
-                switch (unit) {
-                    case "second":
-                        return now.minusSeconds(amount);
-                    case "minute":
-                        return now.minusMinutes(amount);
-                    case "hour":
-                        return now.minusHours(amount);
-                    case "day":
-                        return now.minusDays(amount);
-                    case "week":
-                        return now.minusWeeks(amount);
-                    case "month":
-                        return now.minusMonths(amount);
-                    case "year":
-                        return now.minusYears(amount);
-                    default:
-                        return null;
-                }
-            }
-            
-            // Handle "Today", "Yesterday", etc
-            if (timeStr.equals("today")) {
-                return LocalDateTime.now().withHour(0).withMinute(0).withSecond(0);
-            }
-            if (timeStr.equals("yesterday")) {
-                return LocalDateTime.now().minusDays(1).withHour(0).withMinute(0).withSecond(0);
-            }
-            
-            return null;
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
-    /**
-     * Regex search - equivalent to Python's regex_search method
-     * Returns group(groupNum) if match found, else default
-     */
-    private static String regexSearch(String text, Pattern pattern, int group, String defaultValue) {
-        try {
-            Matcher matcher = pattern.matcher(text);
-            if (matcher.find()) {
-                return matcher.group(group);
-            }
-        } catch (Exception e) {
-            System.err.println("Regex search error: " + e.getMessage());
-        }
-        return defaultValue;
-    }
-
     /**
      * Recursive search for key in JSON object - equivalent to Python's search_dict
      * Uses stack-based approach (not true recursion) to avoid stack overflow
@@ -753,7 +547,7 @@ public class YouTubeCrawler implements DataCrawler {
      *         elif isinstance(current_item, list):
      *             stack.extend(current_item)
      */
-    private static List<JSONObject> searchDict(Object partial, String searchKey) {
+    static List<JSONObject> searchDict(Object partial, String searchKey) {
         List<JSONObject> results = new ArrayList<>();
         Stack<Object> stack = new Stack<>();
         
@@ -799,10 +593,10 @@ public class YouTubeCrawler implements DataCrawler {
     }
 
     /**
-     * Extract video ID from YouTube URL
+     * Extract video ID from a watch URL, on youtube.com or another host, or a youtu.be link
      */
-    private String extractVideoIdFromUrl(String url) {
-        Pattern pattern = Pattern.compile("(?:youtube\\.com/watch\\?v=|youtu\\.be/)([A-Za-z0-9_\\-]+)");
+    static String extractVideoIdFromUrl(String url) {
+        Pattern pattern = Pattern.compile("(?:/watch\\?v=|youtu\\.be/)([A-Za-z0-9_\\-]+)");
         Matcher matcher = pattern.matcher(url);
         return matcher.find() ? matcher.group(1) : null;
     }
@@ -826,11 +620,93 @@ public class YouTubeCrawler implements DataCrawler {
                 return matcher.group(1).trim();
             }
         } catch (Exception e) {
-            System.err.println("Error extracting title: " + e.getMessage());
+            log.debug("Error extracting title: {}", e.getMessage());
         }
         return null;
     }
 
+    /**
+     * A parsed video page: the post without comments, and the state needed to fetch them
+     */
+    static class VideoPage {
+        final YouTubePost post;
+        final JSONObject ytcfg;
+        final String continuationToken;
+
+        VideoPage(YouTubePost post, JSONObject ytcfg, String continuationToken) {
+            this.post = post;
+            this.ytcfg = ytcfg;
+            this.continuationToken = continuationToken;
+        }
+    }
+
+    /**
+     * Sets the analyzer that scores comments as pages are read. A blocking remote analyzer
+     * is fine here: pages are handled on the shared I/O executor.
+     * @param analyzer the analyzer, or null to leave comments unscored
+     */
+    public void setSentimentAnalyzer(SentimentAnalyzer analyzer) {
+        this.sentimentAnalyzer = analyzer;
+    }
+
+    /**
+     * Sets the per-video pagination caps
+     * @param maxComments maximum comments and replies kept per video; 0 crawls videos without comments
+     * @param maxPages maximum continuation requests per video
+     */
+    public void setCommentLimits(int maxComments, int maxPages) {
+        if (maxComments < 0 || maxPages <= 0) {
+            throw new IllegalArgumentException("Invalid comment limits");
+        }
+        this.maxCommentsPerVideo = maxComments;
+        this.maxPagesPerVideo = maxPages;
+    }
+
+    public int getMaxCommentsPerVideo() {
+        return maxCommentsPerVideo;
+    }
+
+    public int getMaxPagesPerVideo() {
+        return maxPagesPerVideo;
+    }
+
+    /**
+     * @param includeReplies whether reply threads are followed as well as top-level comments
+     */
+    public void setIncludeReplies(boolean includeReplies) {
+        this.includeReplies = includeReplies;
+    }
+
+    public boolean isIncludeReplies() {
+        return includeReplies;
+    }
+
+    /**
+     * Turns on incremental crawling: comments already in the store's dedup index are
+     * skipped, comment paging stops at the previous crawl's newest comment, and
+     * keyword crawls leave out videos crawled less than recrawlInterval ago.
+     * Pass crawled posts to {@link CrawlStateStore#commit} once they are saved.
+     */
+    public void enableIncrementalCrawl(CrawlStateStore store, java.time.Duration recrawlInterval) {
+        this.crawlStateStore = store;
+        this.recrawlInterval = recrawlInterval;
+    }
+
+    public void disableIncrementalCrawl() {
+        this.crawlStateStore = null;
+    }
+
+    /**
+     * @return store used for incremental crawls, or null if every crawl is a full crawl
+     */
+    public CrawlStateStore getCrawlStateStore() {
+        return crawlStateStore;
+    }
+
+    public java.time.Duration getRecrawlInterval() {
+        return recrawlInterval;
+    }
+
     @Override
     public String getCrawlerName() {
         return "YouTubeCrawler (HTTP API)";
@@ -838,7 +714,7 @@ public class YouTubeCrawler implements DataCrawler {
 
     @Override
     public void shutdown() {
-        System.out.println("YouTube Crawler shutdown");
+        log.info("YouTube Crawler shutdown");
         initialized = false;
     }
 }
@@ -0,0 +1,319 @@
+package com.humanitarian.logistics.crawler;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves the date strings YouTube shows, in English or Vietnamese:
+ * - relative times: "2 days ago", "3 tuần trước", "5 hours ago (edited)"
+ * - absolute dates: "Jan 15, 2023", "Uploaded on Dec 25, 2024", "thg 12, 2024",
+ *   "15 thg 12, 2024", "2024-12-01"
+ * - "today", "yesterday", "hôm nay", "hôm qua"
+ *
+ * Strings are split into number and word tokens by hand instead of trying a list of
+ * formatters, so a miss costs no exception. The parsed form is memoized per string;
+ * for relative times that is the amount and unit, so a cached entry stays valid as
+ * the clock moves.
+ */
+final class YouTubeDateParser {
+    private static final int MAX_CACHE_SIZE = 10_000;
+
+    private static final Map<String, Integer> MONTHS = new HashMap<>();
+    private static final Map<String, ChronoUnit> UNITS = new HashMap<>();
+
+    static {
+        String[] names = {"january", "february", "march", "april", "may", "june", "july",
+            "august", "september", "october", "november", "december"};
+        for (int i = 0; i < names.length; i++) {
+            MONTHS.put(names[i], i + 1);
+            MONTHS.put(names[i].substring(0, 3), i + 1);
+        }
+        MONTHS.put("sept", 9);
+
+        for (String unit : new String[] {"second", "seconds", "sec", "secs", "giây"}) {
+            UNITS.put(unit, ChronoUnit.SECONDS);
+        }
+        for (String unit : new String[] {"minute", "minutes", "min", "mins", "phút"}) {
+            UNITS.put(unit, ChronoUnit.MINUTES);
+        }
+        for (String unit : new String[] {"hour", "hours", "giờ"}) {
+            UNITS.put(unit, ChronoUnit.HOURS);
+        }
+        for (String unit : new String[] {"day", "days", "ngày"}) {
+            UNITS.put(unit, ChronoUnit.DAYS);
+        }
+        for (String unit : new String[] {"week", "weeks", "tuần"}) {
+            UNITS.put(unit, ChronoUnit.WEEKS);
+        }
+        for (String unit : new String[] {"month", "months", "tháng"}) {
+            UNITS.put(unit, ChronoUnit.MONTHS);
+        }
+        for (String unit : new String[] {"year", "years", "năm"}) {
+            UNITS.put(unit, ChronoUnit.YEARS);
+        }
+    }
+
+    private static final Map<String, Parsed> cache = new ConcurrentHashMap<>();
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+
+    private YouTubeDateParser() {
+    }
+
+    /**
+     * @return the date the text denotes, relative times resolved against now; null if not a date
+     */
+    static LocalDateTime parse(String text) {
+        return parse(text, LocalDateTime.now());
+    }
+
+    /**
+     * @param now time relative strings are resolved against
+     * @return the date the text denotes, or null if not a date
+     */
+    static LocalDateTime parse(String text, LocalDateTime now) {
+        if (text == null || text.isEmpty()) {
+            return null;
+        }
+        return lookup(text).resolve(now);
+    }
+
+    /**
+     * @return whether the text is a relative time such as "2 days ago" or "yesterday"
+     */
+    static boolean isRelative(String text) {
+        return text != null && !text.isEmpty() && lookup(text).unit != null;
+    }
+
+    private static Parsed lookup(String text) {
+        Parsed parsed = cache.get(text);
+        if (parsed != null) {
+            hits.incrementAndGet();
+            return parsed;
+        }
+        misses.incrementAndGet();
+        parsed = parseUncached(text);
+        if (cache.size() >= MAX_CACHE_SIZE) {
+            cache.clear(); // strings repeat within a crawl; a cold restart is cheap
+        }
+        cache.put(text, parsed);
+        return parsed;
+    }
+
+    private static Parsed parseUncached(String text) {
+        List<String> words = new ArrayList<>();
+        List<Integer> numbers = new ArrayList<>();
+        List<Integer> numberPositions = new ArrayList<>(); // index into words where each number appeared
+        tokenize(text.toLowerCase(Locale.ROOT), words, numbers, numberPositions);
+
+        if (words.contains("ago") || words.contains("trước")) {
+            return parseRelative(words, numbers, numberPositions);
+        }
+        if (words.contains("today") || (words.contains("hôm") && words.contains("nay"))) {
+            return Parsed.days(0);
+        }
+        if (words.contains("yesterday") || (words.contains("hôm") && words.contains("qua"))) {
+            return Parsed.days(1);
+        }
+        int thg = words.indexOf("thg");
+        if (thg >= 0) {
+            return parseVietnamese(thg, numbers, numberPositions);
+        }
+        if (isIsoDate(text)) {
+            return Parsed.date(numbers.get(0), numbers.get(1), numbers.get(2));
+        }
+        for (int i = 0; i < words.size(); i++) {
+            Integer month = MONTHS.get(words.get(i));
+            if (month != null) {
+                return parseEnglish(month, numbers);
+            }
+        }
+        return Parsed.NONE;
+    }
+
+    /**
+     * Splits text into word tokens (letters) and number tokens (digits); everything else separates
+     */
+    private static void tokenize(String text, List<String> words, List<Integer> numbers, List<Integer> numberPositions) {
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                int value = 0;
+                int start = i;
+                while (i < text.length() && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+                    if (i - start < 9) {
+                        value = value * 10 + (text.charAt(i) - '0');
+                    }
+                    i++;
+                }
+                numbers.add(value);
+                numberPositions.add(words.size());
+            } else if (Character.isLetter(c)) {
+                int start = i;
+                while (i < text.length() && Character.isLetter(text.charAt(i))) {
+                    i++;
+                }
+                words.add(text.substring(start, i));
+            } else {
+                i++;
+            }
+        }
+    }
+
+    /**
+     * "N unit(s) ago" / "N unit trước": the unit is the first word after the number
+     */
+    private static Parsed parseRelative(List<String> words, List<Integer> numbers, List<Integer> numberPositions) {
+        for (int n = 0; n < numbers.size(); n++) {
+            int position = numberPositions.get(n);
+            if (position < words.size()) {
+                ChronoUnit unit = UNITS.get(words.get(position));
+                if (unit != null) {
+                    return Parsed.relative(numbers.get(n), unit);
+                }
+            }
+        }
+        return Parsed.NONE;
+    }
+
+    /**
+     * "thg M, YYYY" (first of the month) or "D thg M, YYYY"
+     */
+    private static Parsed parseVietnamese(int thg, List<Integer> numbers, List<Integer> numberPositions) {
+        Integer day = null;
+        Integer month = null;
+        Integer year = null;
+        for (int n = 0; n < numbers.size(); n++) {
+            if (numberPositions.get(n) <= thg) {
+                day = numbers.get(n);
+            } else if (month == null) {
+                month = numbers.get(n);
+            } else if (year == null) {
+                year = numbers.get(n);
+            }
+        }
+        if (month == null || year == null) {
+            return Parsed.NONE;
+        }
+        return Parsed.date(year, month, day != null ? day : 1);
+    }
+
+    /**
+     * "Jan 15, 2023", "January 15 2023" or "Jan 15" (current year)
+     */
+    private static Parsed parseEnglish(int month, List<Integer> numbers) {
+        Integer day = null;
+        Integer year = null;
+        for (int number : numbers) {
+            if (number >= 1000 && year == null) {
+                year = number;
+            } else if (day == null) {
+                day = number;
+            }
+        }
+        if (day == null) {
+            return Parsed.NONE;
+        }
+        return year != null ? Parsed.date(year, month, day) : Parsed.dateThisYear(month, day);
+    }
+
+    private static boolean isIsoDate(String text) {
+        if (text.length() < 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return false;
+        }
+        for (int i : new int[] {0, 1, 2, 3, 5, 6, 8, 9}) {
+            if (text.charAt(i) < '0' || text.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets memo cache size, hits and misses
+     */
+    static Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cached", cache.size());
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        return stats;
+    }
+
+    /**
+     * A parsed date string: a calendar date, a date in the current year, an amount of
+     * a unit before now, or nothing
+     */
+    private static final class Parsed {
+        static final Parsed NONE = new Parsed(null, 0, 0, 0, null, false);
+
+        private final LocalDate date;
+        private final int month;
+        private final int day;
+        private final long amount;
+        private final ChronoUnit unit;
+        private final boolean startOfDay;
+
+        private Parsed(LocalDate date, int month, int day, long amount, ChronoUnit unit, boolean startOfDay) {
+            this.date = date;
+            this.month = month;
+            this.day = day;
+            this.amount = amount;
+            this.unit = unit;
+            this.startOfDay = startOfDay;
+        }
+
+        static Parsed date(int year, int month, int day) {
+            if (!isValid(month, day)) {
+                return NONE;
+            }
+            try {
+                return new Parsed(LocalDate.of(year, month, day), 0, 0, 0, null, false);
+            } catch (DateTimeException e) {
+                return NONE; // e.g. Feb 30; rare, and cached like any other miss
+            }
+        }
+
+        static Parsed dateThisYear(int month, int day) {
+            return isValid(month, day) ? new Parsed(null, month, day, 0, null, false) : NONE;
+        }
+
+        static Parsed relative(long amount, ChronoUnit unit) {
+            return new Parsed(null, 0, 0, amount, unit, false);
+        }
+
+        /**
+         * Start of today or of an earlier day
+         */
+        static Parsed days(int daysAgo) {
+            return new Parsed(null, 0, 0, daysAgo, ChronoUnit.DAYS, true);
+        }
+
+        private static boolean isValid(int month, int day) {
+            return month >= 1 && month <= 12 && day >= 1 && day <= 31;
+        }
+
+        LocalDateTime resolve(LocalDateTime now) {
+            if (date != null) {
+                return date.atStartOfDay();
+            }
+            if (startOfDay) {
+                return now.toLocalDate().minusDays(amount).atStartOfDay();
+            }
+            if (unit != null) {
+                return now.minus(amount, unit);
+            }
+            if (month != 0) {
+                LocalDate thisYear = LocalDate.of(now.getYear(), month, Math.min(day, 28));
+                return thisYear.withDayOfMonth(Math.min(day, thisYear.lengthOfMonth())).atStartOfDay();
+            }
+            return null;
+        }
+    }
+}
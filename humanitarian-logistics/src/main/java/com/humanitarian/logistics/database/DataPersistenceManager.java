@@ -38,6 +38,14 @@ public class DataPersistenceManager {
         // Data directory is already created in getDataDir() static method
     }
 
+    /**
+     * Keeps the cache files in a given folder instead of the project's data folder
+     */
+    public DataPersistenceManager(String dataDir) {
+        this.postsFile = dataDir + "/posts.dat";
+        this.disastersFile = dataDir + "/disasters.dat";
+    }
+
     /**
      * Save posts to persistent storage
      */
@@ -34,8 +34,9 @@ public class DatabaseLoader {
         if (model == null) {
             throw new IllegalArgumentException("Model cannot be null");
         }
-        model.getPosts().clear();
+        model.clearPosts();
         loadFromDevUIDatabase(model);
+        model.rebuildIndexes(); // comments were attached after their posts were added
         
         // Save loaded data to user database to ensure persistence
         saveLoadedDataToUserDatabase(model);
@@ -127,8 +128,14 @@ public class DatabaseLoader {
             String dbUrl = "jdbc:sqlite:" + dbPath;
             System.out.println("DEBUG: Connecting to: " + dbUrl);
             try (Connection connection = DriverManager.getConnection(dbUrl)) {
-                loadPostsFromDevUI(connection, model);
-                loadCommentsFromDevUI(connection, model);
+                // Posts and their comments reach listeners as one change event
+                model.beginBulkUpdate();
+                try {
+                    loadPostsFromDevUI(connection, model);
+                    loadCommentsFromDevUI(connection, model);
+                } finally {
+                    model.endBulkUpdate();
+                }
                 int postCount = model.getPosts().size();
                 System.out.println("\n✓ LOADED FROM DEV-UI DATABASE");
                 System.out.println("  Total posts: " + postCount);
@@ -142,6 +149,7 @@ public class DatabaseLoader {
     
     private static void loadPostsFromDevUI(Connection connection, Model model) throws SQLException {
         String sql = "SELECT * FROM posts";
+        int unsaved = 0;
         try (Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
@@ -183,9 +191,16 @@ public class DatabaseLoader {
                     }
                 }
                 
-                model.addPost(post);
+                try {
+                    model.loadPost(post);
+                } catch (IllegalStateException e) {
+                    unsaved++; // still loaded into the model
+                }
             }
         }
+        if (unsaved > 0) {
+            System.err.println("⚠️ " + unsaved + " posts loaded but not saved to the user database");
+        }
     }
     
     private static void loadCommentsFromDevUI(Connection connection, Model model) throws SQLException {
@@ -201,13 +216,7 @@ public class DatabaseLoader {
                 LocalDateTime createdAt = LocalDateTime.parse(rs.getString("created_at"));
                 
                 // Find the post this comment belongs to
-                Post targetPost = null;
-                for (Post post : model.getPosts()) {
-                    if (post.getPostId().equals(postId)) {
-                        targetPost = post;
-                        break;
-                    }
-                }
+                Post targetPost = model.getRepository().findPost(postId);
                 
                 if (targetPost != null) {
                     // Create comment
@@ -232,6 +241,7 @@ public class DatabaseLoader {
                     
                     // Add comment to post
                     targetPost.addComment(comment);
+                    model.getRepository().indexComment(comment, targetPost);
                 }
             }
         }
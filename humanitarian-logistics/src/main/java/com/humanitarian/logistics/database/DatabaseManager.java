@@ -1,9 +1,12 @@
 package com.humanitarian.logistics.database;
 
+import com.humanitarian.logistics.metrics.*;
 import com.humanitarian.logistics.model.*;
 import java.sql.*;
 import java.util.*;
 import java.io.File;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Database manager for storing and retrieving posts and comments.
@@ -11,14 +14,32 @@ import java.io.File;
  */
 public class DatabaseManager {
     private static DatabaseManager instance;
-    private static final Object lock = new Object();
+    private static final Object lock = new Object(); // guards the singleton and every write on the shared connection
+    private static final Logger log = LoggerFactory.getLogger(DatabaseManager.class);
+    private static final LatencyTimer savePostTimer = MetricsRegistry.getInstance().timer("db.save_post");
+    private static final LatencyTimer saveCommentTimer = MetricsRegistry.getInstance().timer("db.save_comment");
+    private static final LatencyTimer savePostsTimer = MetricsRegistry.getInstance().timer("db.save_posts");
+    private static final LatencyTimer saveAnalyzedTimer = MetricsRegistry.getInstance().timer("db.save_posts_analyzed");
+    private static final Counter rowsWritten = MetricsRegistry.getInstance().counter("db.rows_written");
+    private static final String INSERT_POST_SQL = "INSERT OR REPLACE INTO posts VALUES(?,?,?,?,?,?,?,?,?)";
+    private static final String INSERT_COMMENT_SQL = "INSERT OR REPLACE INTO comments VALUES(?,?,?,?,?,?,?,?)";
     
     private String dbUrl;
     private Connection connection;
     private boolean initialized = false;
+    private final String dbPath; // null: resolve the default path under the project's data folder
 
     public DatabaseManager() {
         // Lazy initialization - only connect when needed
+        this(null);
+    }
+
+    /**
+     * Uses a database file at a given path instead of the project's data folder,
+     * e.g. for a headless batch run
+     */
+    public DatabaseManager(String dbPath) {
+        this.dbPath = dbPath;
     }
     
     /**
@@ -36,6 +57,13 @@ public class DatabaseManager {
     }
 
     private String getDbUrl() {
+        if (dbPath != null) {
+            File parent = new File(dbPath).getAbsoluteFile().getParentFile();
+            if (parent != null && !parent.exists()) {
+                parent.mkdirs();
+            }
+            return "jdbc:sqlite:" + dbPath;
+        }
         String currentDir = System.getProperty("user.dir");
         String basePath;
         
@@ -67,7 +95,7 @@ public class DatabaseManager {
         }
         
         String dbPath = basePath + "/humanitarian_logistics_user.db";
-        System.out.println("DEBUG: DatabaseManager path = " + dbPath);
+        log.debug("DatabaseManager path = {}", dbPath);
         return "jdbc:sqlite:" + dbPath;
     }
 
@@ -97,7 +125,7 @@ public class DatabaseManager {
                     stmt.execute("PRAGMA busy_timeout = 30000");
                 }
                 createTables();
-                System.out.println("Database initialized: " + dbUrl);
+                log.info("Database initialized: {}", dbUrl);
                 initialized = true;
             }
         }
@@ -132,59 +160,280 @@ public class DatabaseManager {
                 "relief_category TEXT," +
                 "FOREIGN KEY(post_id) REFERENCES posts(post_id))";
 
+        // Which model version last analyzed each post (and its comments); doubles as the
+        // checkpoint for resumable batch analysis
+        String analysisVersionsTable = "CREATE TABLE IF NOT EXISTS analysis_versions (" +
+                "post_id TEXT PRIMARY KEY," +
+                "model_version TEXT," +
+                "analyzed_at TEXT)";
+
+        String analysisJobsTable = "CREATE TABLE IF NOT EXISTS analysis_jobs (" +
+                "job_id TEXT PRIMARY KEY," +
+                "model_version TEXT," +
+                "total INTEGER," +
+                "completed INTEGER," +
+                "status TEXT," +
+                "updated_at TEXT)";
+
+        // Where the last crawl of each video stopped, for incremental re-crawls
+        String crawlStateTable = "CREATE TABLE IF NOT EXISTS crawl_state (" +
+                "video_id TEXT PRIMARY KEY," +
+                "last_crawled_at TEXT," +
+                "newest_comment_id TEXT," +
+                "continuation_cursor TEXT," +
+                "comment_count INTEGER)";
+
         try (Statement stmt = connection.createStatement()) {
             stmt.execute(postsTable);
             stmt.execute(commentsTable);
-            System.out.println("DEBUG: Tables created/verified");
+            stmt.execute(analysisVersionsTable);
+            stmt.execute(analysisJobsTable);
+            stmt.execute(crawlStateTable);
+            // Replacing a post makes SQLite look up its comments for the foreign key; without
+            // this index every re-saved post scans the whole comments table
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_comments_post_id ON comments(post_id)");
+            log.debug("Tables created/verified");
         }
     }
 
     public void savePost(Post post) throws SQLException, ClassNotFoundException {
+        synchronized (lock) {
+            ensureConnection();
+            long start = System.nanoTime();
+            try (PreparedStatement pstmt = connection.prepareStatement(INSERT_POST_SQL)) {
+                bindPost(pstmt, post);
+                pstmt.executeUpdate();
+            }
+            rowsWritten.increment();
+
+            // Save all comments associated with this post
+            for (Comment comment : post.getComments()) {
+                saveComment(comment);
+            }
+            savePostTimer.recordSince(start);
+        }
+    }
+
+    /**
+     * Saves several posts and their comments in a single transaction (group commit).
+     * Either all posts are written or, on error, none are.
+     */
+    public void savePosts(List<Post> posts) throws SQLException, ClassNotFoundException {
+        ensureConnection();
+        synchronized (lock) {
+            long start = System.nanoTime();
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement postStmt = connection.prepareStatement(INSERT_POST_SQL);
+                 PreparedStatement commentStmt = connection.prepareStatement(INSERT_COMMENT_SQL)) {
+                // One statement per table, executed as JDBC batches: bulk loads of millions
+                // of rows spend their time in SQLite rather than in re-preparing statements
+                for (Post post : posts) {
+                    bindPost(postStmt, post);
+                    postStmt.addBatch();
+                    for (Comment comment : post.getComments()) {
+                        bindComment(commentStmt, comment);
+                        commentStmt.addBatch();
+                    }
+                }
+                int[] postRows = postStmt.executeBatch();
+                int[] commentRows = commentStmt.executeBatch();
+                connection.commit();
+                rowsWritten.add(postRows.length + commentRows.length);
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+                savePostsTimer.recordSince(start);
+            }
+        }
+    }
+
+    /**
+     * Saves re-analyzed posts and records the model version that produced them,
+     * all in one transaction, so a checkpoint never claims work that was not saved.
+     */
+    public void savePostsAnalyzed(List<Post> posts, String modelVersion) throws SQLException, ClassNotFoundException {
+        ensureConnection();
+        synchronized (lock) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            String sql = "INSERT OR REPLACE INTO analysis_versions VALUES(?,?,?)";
+            long start = System.nanoTime();
+            try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                String now = java.time.LocalDateTime.now().toString();
+                for (Post post : posts) {
+                    savePost(post);
+                    pstmt.setString(1, post.getPostId());
+                    pstmt.setString(2, modelVersion);
+                    pstmt.setString(3, now);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+                saveAnalyzedTimer.recordSince(start);
+            }
+        }
+    }
+
+    /**
+     * Gets ids of posts already analyzed by a model version
+     */
+    public Set<String> getPostIdsAnalyzedWith(String modelVersion) throws SQLException, ClassNotFoundException {
         ensureConnection();
-        String sql = "INSERT OR REPLACE INTO posts VALUES(?,?,?,?,?,?,?,?,?)";
+        Set<String> ids = new HashSet<>();
+        String sql = "SELECT post_id FROM analysis_versions WHERE model_version = ?";
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, post.getPostId());
-            pstmt.setString(2, post.getContent());
-            pstmt.setString(3, post.getAuthor());
-            pstmt.setString(4, post.getSource());
-            pstmt.setString(5, post.getCreatedAt().toString());
-            pstmt.setString(6, post.getSentiment() != null ? post.getSentiment().getType().toString() : null);
-            pstmt.setDouble(7, post.getSentiment() != null ? post.getSentiment().getConfidence() : 0);
-            String reliefCategory = null;
-            if (post.getReliefItem() != null && post.getReliefItem().getCategory() != null) {
-                reliefCategory = post.getReliefItem().getCategory().name();
+            pstmt.setString(1, modelVersion);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getString(1));
+                }
             }
-            pstmt.setString(8, reliefCategory);
-            pstmt.setString(9, post.getDisasterKeyword());
-            pstmt.executeUpdate();
         }
+        return ids;
+    }
 
-        // Save all comments associated with this post
-        for (Comment comment : post.getComments()) {
-            saveComment(comment);
+    /**
+     * Records progress of a batch analysis job
+     */
+    public void saveAnalysisJob(String jobId, String modelVersion, int total, int completed, String status)
+            throws SQLException, ClassNotFoundException {
+        synchronized (lock) {
+            ensureConnection();
+            String sql = "INSERT OR REPLACE INTO analysis_jobs VALUES(?,?,?,?,?,?)";
+            try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                pstmt.setString(1, jobId);
+                pstmt.setString(2, modelVersion);
+                pstmt.setInt(3, total);
+                pstmt.setInt(4, completed);
+                pstmt.setString(5, status);
+                pstmt.setString(6, java.time.LocalDateTime.now().toString());
+                pstmt.executeUpdate();
+            }
         }
     }
 
-    public void saveComment(Comment comment) throws SQLException, ClassNotFoundException {
+    /**
+     * Finds the most recent job for a model version that did not finish
+     * @return job id, or null if there is none
+     */
+    public String findUnfinishedAnalysisJob(String modelVersion) throws SQLException, ClassNotFoundException {
         ensureConnection();
-        String sql = "INSERT OR REPLACE INTO comments VALUES(?,?,?,?,?,?,?,?)";
+        String sql = "SELECT job_id FROM analysis_jobs WHERE model_version = ? AND status <> 'COMPLETED' " +
+                "ORDER BY updated_at DESC LIMIT 1";
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, comment.getCommentId());
-            pstmt.setString(2, comment.getPostId());
-            pstmt.setString(3, comment.getContent());
-            pstmt.setString(4, comment.getAuthor());
-            pstmt.setString(5, comment.getCreatedAt().toString());
-            pstmt.setString(6, comment.getSentiment() != null ? comment.getSentiment().getType().toString() : null);
-            pstmt.setDouble(7, comment.getSentiment() != null ? comment.getSentiment().getConfidence() : 0);
-            String commentReliefCategory = null;
-            if (comment.getReliefItem() != null && comment.getReliefItem().getCategory() != null) {
-                commentReliefCategory = comment.getReliefItem().getCategory().name();
+            pstmt.setString(1, modelVersion);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
             }
-            pstmt.setString(8, commentReliefCategory);
-            pstmt.executeUpdate();
         }
     }
 
+    /**
+     * Records where a crawl of a video stopped
+     */
+    public void saveCrawlState(CrawlState state) throws SQLException, ClassNotFoundException {
+        synchronized (lock) {
+            ensureConnection();
+            String sql = "INSERT OR REPLACE INTO crawl_state VALUES(?,?,?,?,?)";
+            try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                pstmt.setString(1, state.getVideoId());
+                pstmt.setString(2, state.getLastCrawledAt().toString());
+                pstmt.setString(3, state.getNewestCommentId());
+                pstmt.setString(4, state.getContinuationCursor());
+                pstmt.setInt(5, state.getCommentCount());
+                pstmt.executeUpdate();
+            }
+        }
+    }
+
+    public List<CrawlState> getCrawlStates() throws SQLException, ClassNotFoundException {
+        ensureConnection();
+        List<CrawlState> states = new ArrayList<>();
+        String sql = "SELECT video_id, last_crawled_at, newest_comment_id, continuation_cursor, comment_count " +
+                "FROM crawl_state";
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                states.add(new CrawlState(rs.getString(1), java.time.LocalDateTime.parse(rs.getString(2)),
+                        rs.getString(3), rs.getString(4), rs.getInt(5)));
+            }
+        }
+        return states;
+    }
+
+    public int countComments() throws SQLException, ClassNotFoundException {
+        ensureConnection();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM comments")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Streams every stored comment id without loading the comments
+     */
+    public void forEachCommentId(java.util.function.Consumer<String> action) throws SQLException, ClassNotFoundException {
+        ensureConnection();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT comment_id FROM comments")) {
+            while (rs.next()) {
+                action.accept(rs.getString(1));
+            }
+        }
+    }
+
+    public void saveComment(Comment comment) throws SQLException, ClassNotFoundException {
+        synchronized (lock) {
+            ensureConnection();
+            long start = System.nanoTime();
+            try (PreparedStatement pstmt = connection.prepareStatement(INSERT_COMMENT_SQL)) {
+                bindComment(pstmt, comment);
+                pstmt.executeUpdate();
+            }
+            rowsWritten.increment();
+            saveCommentTimer.recordSince(start);
+        }
+    }
+
+    private static void bindPost(PreparedStatement pstmt, Post post) throws SQLException {
+        pstmt.setString(1, post.getPostId());
+        pstmt.setString(2, post.getContent());
+        pstmt.setString(3, post.getAuthor());
+        pstmt.setString(4, post.getSource());
+        pstmt.setString(5, post.getCreatedAt().toString());
+        pstmt.setString(6, post.getSentiment() != null ? post.getSentiment().getType().toString() : null);
+        pstmt.setDouble(7, post.getSentiment() != null ? post.getSentiment().getConfidence() : 0);
+        String reliefCategory = null;
+        if (post.getReliefItem() != null && post.getReliefItem().getCategory() != null) {
+            reliefCategory = post.getReliefItem().getCategory().name();
+        }
+        pstmt.setString(8, reliefCategory);
+        pstmt.setString(9, post.getDisasterKeyword());
+    }
+
+    private static void bindComment(PreparedStatement pstmt, Comment comment) throws SQLException {
+        pstmt.setString(1, comment.getCommentId());
+        pstmt.setString(2, comment.getPostId());
+        pstmt.setString(3, comment.getContent());
+        pstmt.setString(4, comment.getAuthor());
+        pstmt.setString(5, comment.getCreatedAt().toString());
+        pstmt.setString(6, comment.getSentiment() != null ? comment.getSentiment().getType().toString() : null);
+        pstmt.setDouble(7, comment.getSentiment() != null ? comment.getSentiment().getConfidence() : 0);
+        String commentReliefCategory = null;
+        if (comment.getReliefItem() != null && comment.getReliefItem().getCategory() != null) {
+            commentReliefCategory = comment.getReliefItem().getCategory().name();
+        }
+        pstmt.setString(8, commentReliefCategory);
+    }
+
     public List<Post> getAllPosts() throws SQLException, ClassNotFoundException {
         ensureConnection();
         List<Post> posts = new ArrayList<>();
@@ -200,30 +449,34 @@ public class DatabaseManager {
     }
 
     public void deleteComment(String commentId) throws SQLException, ClassNotFoundException {
-        ensureConnection();
-        String sql = "DELETE FROM comments WHERE comment_id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, commentId);
-            pstmt.executeUpdate();
-            commit();
+        synchronized (lock) {
+            ensureConnection();
+            String sql = "DELETE FROM comments WHERE comment_id = ?";
+            try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                pstmt.setString(1, commentId);
+                pstmt.executeUpdate();
+                commit();
+            }
         }
     }
 
     public void updateComment(Comment comment) throws SQLException, ClassNotFoundException {
-        ensureConnection();
-        String sql = "UPDATE comments SET content = ?, sentiment = ?, confidence = ?, relief_category = ? WHERE comment_id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, comment.getContent());
-            pstmt.setString(2, comment.getSentiment() != null ? comment.getSentiment().getType().toString() : null);
-            pstmt.setDouble(3, comment.getSentiment() != null ? comment.getSentiment().getConfidence() : 0);
-            String updateReliefCategory = null;
-            if (comment.getReliefItem() != null && comment.getReliefItem().getCategory() != null) {
-                updateReliefCategory = comment.getReliefItem().getCategory().name();
+        synchronized (lock) {
+            ensureConnection();
+            String sql = "UPDATE comments SET content = ?, sentiment = ?, confidence = ?, relief_category = ? WHERE comment_id = ?";
+            try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                pstmt.setString(1, comment.getContent());
+                pstmt.setString(2, comment.getSentiment() != null ? comment.getSentiment().getType().toString() : null);
+                pstmt.setDouble(3, comment.getSentiment() != null ? comment.getSentiment().getConfidence() : 0);
+                String updateReliefCategory = null;
+                if (comment.getReliefItem() != null && comment.getReliefItem().getCategory() != null) {
+                    updateReliefCategory = comment.getReliefItem().getCategory().name();
+                }
+                pstmt.setString(4, updateReliefCategory);
+                pstmt.setString(5, comment.getCommentId());
+                pstmt.executeUpdate();
+                commit();
             }
-            pstmt.setString(4, updateReliefCategory);
-            pstmt.setString(5, comment.getCommentId());
-            pstmt.executeUpdate();
-            commit();
         }
     }
 
@@ -254,15 +507,6 @@ public class DatabaseManager {
         return post;
     }
 
-    public void clearAllComments() throws SQLException, ClassNotFoundException {
-        ensureConnection();
-        String sql = "DELETE FROM comments";
-        try (Statement stmt = connection.createStatement()) {
-            stmt.executeUpdate(sql);
-            commit();
-        }
-    }
-
     public void commit() throws SQLException {
         if (connection != null && !connection.isClosed()) {
             try {
@@ -283,12 +527,12 @@ public class DatabaseManager {
             try {
                 if (!connection.isClosed()) {
                     connection.close();
-                    System.out.println("Database connection closed");
+                    log.info("Database connection closed");
                 }
             } catch (SQLException e) {
-                System.err.println("Error closing database connection: " + e.getMessage());
+                log.warn("Error closing database connection: {}", e.getMessage());
             } catch (Exception e) {
-                System.err.println("Unexpected error during database cleanup: " + e.getMessage());
+                log.warn("Unexpected error during database cleanup: {}", e.getMessage());
             }
         }
     }
@@ -299,7 +543,7 @@ public class DatabaseManager {
      * Without this, the old connection will be reused and SQLite will recover old data.
      */
     public void reset() {
-        System.out.println("DEBUG: Resetting DatabaseManager - clearing cached connection");
+        log.debug("Resetting DatabaseManager - clearing cached connection");
         try {
             // Force close the current connection COMPLETELY
             if (connection != null) {
@@ -312,14 +556,14 @@ public class DatabaseManager {
                 }
                 connection = null;
             }
-            System.out.println("DEBUG: Closed existing connection");
+            log.debug("Closed existing connection");
         } catch (Exception e) {
-            System.err.println("Error closing connection during reset: " + e.getMessage());
+            log.warn("Error closing connection during reset: {}", e.getMessage());
         }
         
         // Reset the initialized flag so next call to ensureConnection() will create new connection
         initialized = false;
         dbUrl = null;
-        System.out.println("DEBUG: DatabaseManager reset complete - will reconnect on next operation");
+        log.debug("DatabaseManager reset complete - will reconnect on next operation");
     }
 }
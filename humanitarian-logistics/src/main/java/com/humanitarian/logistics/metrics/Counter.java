@@ -0,0 +1,27 @@
+package com.humanitarian.logistics.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonic count of events, e.g. rows written. Striped, so threads incrementing
+ * the same counter do not contend on one cache line.
+ */
+public class Counter {
+    private final LongAdder count = new LongAdder();
+
+    public void increment() {
+        count.increment();
+    }
+
+    public void add(long amount) {
+        count.add(amount);
+    }
+
+    public long get() {
+        return count.sum();
+    }
+
+    public void reset() {
+        count.reset();
+    }
+}
@@ -0,0 +1,70 @@
+package com.humanitarian.logistics.metrics;
+
+import java.util.*;
+
+/**
+ * Latency of an operation, recorded in nanoseconds and reported in milliseconds.
+ * Callers time with {@code System.nanoTime()} themselves, so timing adds no allocation:
+ * <pre>
+ * long start = System.nanoTime();
+ * ...
+ * timer.recordSince(start);
+ * </pre>
+ */
+public class LatencyTimer {
+    private final Histogram nanos = new Histogram();
+
+    public void record(long elapsedNanos) {
+        nanos.record(elapsedNanos);
+    }
+
+    /**
+     * Records the time since a {@code System.nanoTime()} reading
+     */
+    public void recordSince(long startNanos) {
+        nanos.record(System.nanoTime() - startNanos);
+    }
+
+    public long getCount() {
+        return nanos.getCount();
+    }
+
+    public double getTotalMillis() {
+        return nanos.getTotal() / 1e6;
+    }
+
+    public double getMeanMillis() {
+        return nanos.getMean() / 1e6;
+    }
+
+    public double getMaxMillis() {
+        return nanos.getMax() / 1e6;
+    }
+
+    /**
+     * @param quantile between 0 and 1, e.g. 0.99
+     */
+    public double getPercentileMillis(double quantile) {
+        return nanos.getValueAtQuantile(quantile) / 1e6;
+    }
+
+    public void reset() {
+        nanos.reset();
+    }
+
+    /**
+     * Gets count, total, mean, p50/p90/p99/p99.9 and max in milliseconds
+     */
+    public Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", getCount());
+        summary.put("total_ms", getTotalMillis());
+        summary.put("mean_ms", getMeanMillis());
+        summary.put("p50_ms", getPercentileMillis(0.50));
+        summary.put("p90_ms", getPercentileMillis(0.90));
+        summary.put("p99_ms", getPercentileMillis(0.99));
+        summary.put("p999_ms", getPercentileMillis(0.999));
+        summary.put("max_ms", getMaxMillis());
+        return summary;
+    }
+}
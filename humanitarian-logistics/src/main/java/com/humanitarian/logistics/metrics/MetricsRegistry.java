@@ -0,0 +1,104 @@
+package com.humanitarian.logistics.metrics;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide registry of named counters, timers and histograms.
+ * Metrics are created on first use and live for the process, so hot paths look one
+ * up once into a field and then only record into it. Names are dotted, e.g.
+ * "http.youtube/next", "sentiment.batch" or "db.save_posts".
+ */
+public class MetricsRegistry {
+    private static MetricsRegistry instance;
+    private static final Object lock = new Object();
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, LatencyTimer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Get the shared registry
+     */
+    public static MetricsRegistry getInstance() {
+        if (instance == null) {
+            synchronized (lock) {
+                if (instance == null) {
+                    instance = new MetricsRegistry();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, k -> new Counter());
+    }
+
+    public LatencyTimer timer(String name) {
+        return timers.computeIfAbsent(name, k -> new LatencyTimer());
+    }
+
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, k -> new Histogram());
+    }
+
+    /**
+     * Zeroes every metric; metrics held in fields keep working
+     */
+    public void reset() {
+        counters.values().forEach(Counter::reset);
+        timers.values().forEach(LatencyTimer::reset);
+        histograms.values().forEach(Histogram::reset);
+    }
+
+    /**
+     * Gets every metric, sorted by name: counter values, timer summaries in
+     * milliseconds and histogram summaries in their own unit
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> counterValues = new TreeMap<>();
+        counters.forEach((name, counter) -> counterValues.put(name, counter.get()));
+        Map<String, Object> timerSummaries = new TreeMap<>();
+        timers.forEach((name, timer) -> timerSummaries.put(name, timer.summary()));
+        Map<String, Object> histogramSummaries = new TreeMap<>();
+        histograms.forEach((name, histogram) -> histogramSummaries.put(name, histogram.summary()));
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("counters", counterValues);
+        metrics.put("timers", timerSummaries);
+        metrics.put("histograms", histogramSummaries);
+        return metrics;
+    }
+
+    /**
+     * One line per non-empty timer and a line of counters, for periodic logging
+     */
+    public String formatSummary() {
+        StringBuilder text = new StringBuilder();
+        new TreeMap<>(timers).forEach((name, timer) -> {
+            if (timer.getCount() > 0) {
+                text.append(String.format(Locale.ROOT, "%n  %-32s n=%-9d mean=%.2fms p50=%.2fms p99=%.2fms max=%.2fms",
+                        name, timer.getCount(), timer.getMeanMillis(), timer.getPercentileMillis(0.5),
+                        timer.getPercentileMillis(0.99), timer.getMaxMillis()));
+            }
+        });
+        new TreeMap<>(histograms).forEach((name, histogram) -> {
+            if (histogram.getCount() > 0) {
+                text.append(String.format(Locale.ROOT, "%n  %-32s n=%-9d mean=%.1f p50=%d p99=%d max=%d",
+                        name, histogram.getCount(), histogram.getMean(), histogram.getValueAtQuantile(0.5),
+                        histogram.getValueAtQuantile(0.99), histogram.getMax()));
+            }
+        });
+        StringBuilder counterLine = new StringBuilder();
+        new TreeMap<>(counters).forEach((name, counter) -> {
+            if (counter.get() > 0) {
+                counterLine.append(counterLine.length() == 0 ? "" : ", ").append(name).append('=').append(counter.get());
+            }
+        });
+        if (counterLine.length() > 0) {
+            text.append(System.lineSeparator()).append("  ").append(counterLine);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,107 @@
+package com.humanitarian.logistics.metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Periodically logs a summary of the registry and, optionally, writes it as JSON.
+ * The JSON file is replaced atomically, so a dashboard or script polling it never
+ * reads a half-written dump.
+ */
+public class MetricsReporter {
+    public static final String PERIOD_PROPERTY = "metrics.dump.seconds";
+    public static final String FILE_PROPERTY = "metrics.dump.file";
+    private static final Logger log = LoggerFactory.getLogger(MetricsReporter.class);
+
+    private final MetricsRegistry registry;
+    private final Duration period;
+    private final Path jsonFile;
+    private ScheduledExecutorService executor;
+
+    /**
+     * @param jsonFile file the metrics are written to on every dump; null to only log
+     */
+    public MetricsReporter(MetricsRegistry registry, Duration period, Path jsonFile) {
+        if (period.isZero() || period.isNegative()) {
+            throw new IllegalArgumentException("Dump period must be positive");
+        }
+        this.registry = registry;
+        this.period = period;
+        this.jsonFile = jsonFile;
+    }
+
+    /**
+     * Creates a reporter from -Dmetrics.dump.seconds and -Dmetrics.dump.file
+     * @return the reporter, or null if no period is set
+     */
+    public static MetricsReporter fromSystemProperties() {
+        String seconds = System.getProperty(PERIOD_PROPERTY);
+        if (seconds == null || seconds.isEmpty()) {
+            return null;
+        }
+        String file = System.getProperty(FILE_PROPERTY);
+        return new MetricsReporter(MetricsRegistry.getInstance(), Duration.ofSeconds(Long.parseLong(seconds)),
+                file != null && !file.isEmpty() ? Paths.get(file) : null);
+    }
+
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = period.toMillis();
+        executor.scheduleAtFixedRate(this::dump, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the schedule and writes a last dump
+     */
+    public synchronized void stop() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdownNow();
+        executor = null;
+        dump();
+    }
+
+    /**
+     * Logs the summary and writes the JSON file now
+     */
+    public void dump() {
+        try {
+            String summary = registry.formatSummary();
+            if (!summary.isEmpty()) {
+                log.info("Metrics:{}", summary);
+            }
+            if (jsonFile != null) {
+                writeJson();
+            }
+        } catch (Exception e) {
+            log.warn("Metrics dump failed: {}", e.getMessage()); // keep the schedule alive
+        }
+    }
+
+    private void writeJson() throws IOException {
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("timestamp", LocalDateTime.now().toString());
+        document.putAll(registry.getMetrics());
+        Path target = jsonFile.toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.write(temp, new JSONObject(document).toString(2).getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,61 @@
+package com.humanitarian.logistics.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Where the last crawl of a video's comments stopped, so a re-crawl only has to
+ * fetch what is new.
+ */
+public class CrawlState {
+    private final String videoId;
+    private final LocalDateTime lastCrawledAt;
+    private final String newestCommentId;
+    private final String continuationCursor;
+    private final int commentCount;
+
+    /**
+     * @param newestCommentId newest top-level comment seen, or null if unknown
+     * @param continuationCursor continuation of older comments that were not fetched
+     *        because a cap was reached, or null if the crawl reached the end
+     * @param commentCount comments collected for the video over all crawls
+     */
+    public CrawlState(String videoId, LocalDateTime lastCrawledAt, String newestCommentId,
+                      String continuationCursor, int commentCount) {
+        this.videoId = videoId;
+        this.lastCrawledAt = lastCrawledAt;
+        this.newestCommentId = newestCommentId;
+        this.continuationCursor = continuationCursor;
+        this.commentCount = commentCount;
+    }
+
+    public String getVideoId() {
+        return videoId;
+    }
+
+    public LocalDateTime getLastCrawledAt() {
+        return lastCrawledAt;
+    }
+
+    public String getNewestCommentId() {
+        return newestCommentId;
+    }
+
+    public String getContinuationCursor() {
+        return continuationCursor;
+    }
+
+    public int getCommentCount() {
+        return commentCount;
+    }
+
+    @Override
+    public String toString() {
+        return "CrawlState{" +
+                "videoId='" + videoId + '\'' +
+                ", lastCrawledAt=" + lastCrawledAt +
+                ", newestCommentId='" + newestCommentId + '\'' +
+                ", commentCount=" + commentCount +
+                ", hasCursor=" + (continuationCursor != null) +
+                '}';
+    }
+}
@@ -1,11 +1,13 @@
 package com.humanitarian.logistics.model;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Abstract base class for social media posts.
@@ -23,7 +25,8 @@ public abstract class Post implements Serializable, Comparable<Post> {
     private Sentiment sentiment;
     private ReliefItem reliefItem;
     private String disasterKeyword;
-    private final List<Comment> comments;
+    // Copy-on-write: comments of a published post change while the UI iterates them
+    private List<Comment> comments;
 
     protected Post(String postId, String content, LocalDateTime createdAt,
                    String author, String source) {
@@ -32,7 +35,7 @@ public abstract class Post implements Serializable, Comparable<Post> {
         this.createdAt = Objects.requireNonNull(createdAt, "Created date cannot be null");
         this.author = Objects.requireNonNull(author, "Author cannot be null");
         this.source = Objects.requireNonNull(source, "Source cannot be null");
-        this.comments = new ArrayList<>();
+        this.comments = new CopyOnWriteArrayList<>();
     }
 
     // Getters
@@ -68,6 +71,9 @@ public abstract class Post implements Serializable, Comparable<Post> {
         return disasterKeyword;
     }
 
+    /**
+     * @return read-only view of the comments; an iteration sees them as they were when it started
+     */
     public List<Comment> getComments() {
         return Collections.unmodifiableList(comments);
     }
@@ -101,6 +107,11 @@ public abstract class Post implements Serializable, Comparable<Post> {
         this.comments.removeIf(c -> c.getCommentId().equals(commentId));
     }
 
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        comments = new CopyOnWriteArrayList<>(comments); // caches written before this held an ArrayList
+    }
+
     public void updateComment(Comment updatedComment) {
         for (int i = 0; i < this.comments.size(); i++) {
             if (this.comments.get(i).getCommentId().equals(updatedComment.getCommentId())) {
@@ -0,0 +1,231 @@
+package com.humanitarian.logistics.model;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory store of posts with hash and secondary indexes.
+ * Posts are kept in append-only logs, so a snapshot is just the backing array and a
+ * length: readers never lock or copy, and crawler threads can append while the UI
+ * iterates. Writes are serialized on the repository.
+ *
+ * Secondary indexes:
+ * - post id and comment id → post
+ * - disaster name → posts tagged with that disaster
+ * - relief category → posts whose own record or any comment falls in that category
+ *
+ * Category and disaster indexes are built when a post is added; call {@link #reindex()}
+ * after posts are reclassified in place.
+ */
+public class PostRepository {
+    public static final String UNKNOWN_DISASTER = "unknown";
+
+    private volatile AppendLog<Post> all = new AppendLog<>();
+    private final Map<String, Post> byPostId = new ConcurrentHashMap<>();
+    private final Map<String, Post> byCommentId = new ConcurrentHashMap<>();
+    private final Map<String, AppendLog<Post>> byDisaster = new ConcurrentHashMap<>();
+    private final Map<ReliefItem.Category, AppendLog<Post>> byCategory = new ConcurrentHashMap<>();
+
+    /**
+     * Appends a post and indexes it and its comments
+     */
+    public synchronized void add(Post post) {
+        all.append(post);
+        index(post);
+    }
+
+    private void index(Post post) {
+        byPostId.put(post.getPostId(), post);
+        for (Comment comment : post.getComments()) {
+            byCommentId.put(comment.getCommentId(), post);
+        }
+        byDisaster.computeIfAbsent(disasterOf(post), k -> new AppendLog<>()).append(post);
+        for (ReliefItem.Category category : categoriesOf(post)) {
+            byCategory.computeIfAbsent(category, k -> new AppendLog<>()).append(post);
+        }
+    }
+
+    /**
+     * Attaches comments to a stored post, e.g. the new comments of an incremental
+     * re-crawl, and indexes them. Comments whose id is already stored are left out.
+     * The post's comment list is copy-on-write, so readers iterating it are unaffected.
+     * @return the comments that were added
+     */
+    public synchronized List<Comment> mergeComments(Post target, List<Comment> comments) {
+        Set<ReliefItem.Category> before = categoriesOf(target);
+        List<Comment> added = new ArrayList<>();
+        for (Comment comment : comments) {
+            if (byCommentId.putIfAbsent(comment.getCommentId(), target) == null) {
+                added.add(comment);
+            }
+        }
+        target.addComments(added); // one copy for the whole batch
+        for (ReliefItem.Category category : categoriesOf(target)) {
+            if (!before.contains(category)) {
+                byCategory.computeIfAbsent(category, k -> new AppendLog<>()).append(target);
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Removes all posts. Snapshots taken earlier stay valid.
+     */
+    public synchronized void clear() {
+        all = new AppendLog<>();
+        clearIndexes();
+    }
+
+    private void clearIndexes() {
+        byPostId.clear();
+        byCommentId.clear();
+        byDisaster.clear();
+        byCategory.clear();
+    }
+
+    /**
+     * Rebuilds every index from the stored posts, e.g. after batch reclassification
+     */
+    public synchronized void reindex() {
+        List<Post> posts = snapshot();
+        clearIndexes();
+        for (Post post : posts) {
+            index(post);
+        }
+    }
+
+    /**
+     * @return read-only view of all posts at this moment; later appends are not visible in it
+     */
+    public List<Post> snapshot() {
+        return all.snapshot();
+    }
+
+    public int size() {
+        return all.size();
+    }
+
+    public Post findPost(String postId) {
+        return byPostId.get(postId);
+    }
+
+    /**
+     * @return the post that holds a comment, or null if the comment id is unknown
+     */
+    public Post findPostByCommentId(String commentId) {
+        return byCommentId.get(commentId);
+    }
+
+    /**
+     * Records that a comment was attached to a post after the post was added
+     */
+    public void indexComment(Comment comment, Post post) {
+        byCommentId.put(comment.getCommentId(), post);
+    }
+
+    public void unindexComment(String commentId) {
+        byCommentId.remove(commentId);
+    }
+
+    /**
+     * @return posts tagged with a disaster, in insertion order
+     */
+    public List<Post> findByDisaster(String disaster) {
+        AppendLog<Post> log = byDisaster.get(disaster);
+        return log == null ? Collections.emptyList() : log.snapshot();
+    }
+
+    /**
+     * @return posts whose own record or any comment is in the category, in insertion order
+     */
+    public List<Post> findByCategory(ReliefItem.Category category) {
+        AppendLog<Post> log = byCategory.get(category);
+        return log == null ? Collections.emptyList() : log.snapshot();
+    }
+
+    /**
+     * @return names of disasters with at least one post
+     */
+    public Set<String> getDisasters() {
+        return new TreeSet<>(byDisaster.keySet());
+    }
+
+    /**
+     * Resolves the disaster a post belongs to: its assigned disaster type if any,
+     * otherwise its normalized disaster keyword, otherwise {@link #UNKNOWN_DISASTER}.
+     */
+    public static String disasterOf(Post post) {
+        if (post instanceof YouTubePost && ((YouTubePost) post).getDisasterType() != null) {
+            return ((YouTubePost) post).getDisasterType().getName();
+        }
+        if (post.getDisasterKeyword() != null && !post.getDisasterKeyword().isEmpty()) {
+            return DisasterType.normalize(post.getDisasterKeyword());
+        }
+        return UNKNOWN_DISASTER;
+    }
+
+    private static Set<ReliefItem.Category> categoriesOf(Post post) {
+        Set<ReliefItem.Category> categories = EnumSet.noneOf(ReliefItem.Category.class);
+        if (post.getReliefItem() != null) {
+            categories.add(post.getReliefItem().getCategory());
+        }
+        for (Comment comment : post.getComments()) {
+            if (comment.getReliefItem() != null) {
+                categories.add(comment.getReliefItem().getCategory());
+            }
+        }
+        return categories;
+    }
+
+    /**
+     * Single-writer append-only array. The element is stored before the size is
+     * published, so a reader that sees size n can read elements 0..n-1 without locking.
+     */
+    private static class AppendLog<T> {
+        private volatile Object[] items = new Object[16];
+        private volatile int size;
+
+        synchronized void append(T item) {
+            Object[] current = items;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+                items = current;
+            }
+            current[size] = item;
+            size = size + 1;
+        }
+
+        int size() {
+            return size;
+        }
+
+        List<T> snapshot() {
+            int length = size; // read size before items, matching the writer's publish order
+            return new Snapshot<>(items, length);
+        }
+    }
+
+    private static class Snapshot<T> extends AbstractList<T> implements RandomAccess {
+        private final Object[] items;
+        private final int size;
+
+        Snapshot(Object[] items, int size) {
+            this.items = items;
+            this.size = size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return (T) items[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package com.humanitarian.logistics.pipeline;
+
+import com.humanitarian.logistics.database.DatabaseManager;
+import com.humanitarian.logistics.model.Post;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Background job that re-analyzes posts with the current models.
+ * Posts already analyzed by the same model version (according to SQLite) are
+ * skipped, and finished posts are checkpointed in batches together with their
+ * version marks, so a crashed or cancelled run resumes where it stopped.
+ */
+public class BatchAnalysisJob {
+    public static final int DEFAULT_CHECKPOINT_POSTS = 25;
+    private static final Logger log = LoggerFactory.getLogger(BatchAnalysisJob.class);
+
+    public enum State {
+        PENDING, RUNNING, COMPLETED, CANCELLED, FAILED
+    }
+
+    private final String modelVersion;
+    private final List<Post> posts;
+    private final Consumer<Post> analyzer;
+    private final DatabaseManager dbManager;
+    private final int workers;
+    private final int checkpointPosts;
+
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final List<Post> pendingCheckpoint = new ArrayList<>();
+    private final Object checkpointLock = new Object(); // keeps checkpoints and their job rows in order
+    private final CompletableFuture<Integer> result = new CompletableFuture<>();
+    private volatile State state = State.PENDING;
+    private volatile String jobId;
+    private volatile int total;
+    private volatile int skipped;
+    private volatile long startNanos;
+    private volatile long endNanos;
+    private volatile boolean resumed;
+
+    /**
+     * @param modelVersion identifies the classifier and sentiment models; records at this version are skipped
+     * @param posts posts to analyze
+     * @param analyzer re-classifies and re-scores one post and its comments in memory
+     * @param dbManager where results and checkpoints are saved
+     * @param workers number of posts analyzed concurrently
+     */
+    public BatchAnalysisJob(String modelVersion, List<Post> posts, Consumer<Post> analyzer,
+                            DatabaseManager dbManager, int workers) {
+        this(modelVersion, posts, analyzer, dbManager, workers, DEFAULT_CHECKPOINT_POSTS);
+    }
+
+    public BatchAnalysisJob(String modelVersion, List<Post> posts, Consumer<Post> analyzer,
+                            DatabaseManager dbManager, int workers, int checkpointPosts) {
+        if (workers <= 0 || checkpointPosts <= 0) {
+            throw new IllegalArgumentException("Workers and checkpoint size must be positive");
+        }
+        this.modelVersion = modelVersion;
+        this.posts = posts;
+        this.analyzer = analyzer;
+        this.dbManager = dbManager;
+        this.workers = workers;
+        this.checkpointPosts = checkpointPosts;
+    }
+
+    /**
+     * Starts the job on a background thread
+     * @return future completed with the number of posts analyzed in this run
+     */
+    public synchronized CompletableFuture<Integer> start() {
+        if (state != State.PENDING) {
+            return result;
+        }
+        state = State.RUNNING;
+        Thread coordinator = new Thread(this::run, "batch-analysis");
+        coordinator.setDaemon(true);
+        coordinator.start();
+        return result;
+    }
+
+    /**
+     * Stops the job after the posts currently being analyzed; finished work stays checkpointed
+     */
+    public void cancel() {
+        if (state == State.RUNNING || state == State.PENDING) {
+            state = State.CANCELLED;
+        }
+    }
+
+    private void run() {
+        startNanos = System.nanoTime();
+        try {
+            Set<String> done = dbManager.getPostIdsAnalyzedWith(modelVersion);
+            List<Post> todo = new ArrayList<>();
+            for (Post post : posts) {
+                if (!done.contains(post.getPostId())) {
+                    todo.add(post);
+                }
+            }
+            total = posts.size();
+            skipped = total - todo.size();
+
+            String unfinished = dbManager.findUnfinishedAnalysisJob(modelVersion);
+            resumed = unfinished != null;
+            jobId = resumed ? unfinished : UUID.randomUUID().toString();
+            saveJob(State.RUNNING);
+            log.info("{} batch analysis {}: {} to analyze, {} already at {}",
+                    resumed ? "↻ Resuming" : "Starting", jobId, todo.size(), skipped, modelVersion);
+
+            ExecutorService pool = Executors.newFixedThreadPool(workers, runnable -> {
+                Thread thread = new Thread(runnable, "batch-analysis-worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+            for (Post post : todo) {
+                pool.execute(() -> analyze(post));
+            }
+            pool.shutdown();
+            while (!pool.awaitTermination(1, TimeUnit.SECONDS)) {
+                // queued tasks return immediately once the job is cancelled
+            }
+            checkpoint(true);
+
+            if (state != State.CANCELLED) {
+                state = State.COMPLETED;
+            }
+            saveJob(state);
+            endNanos = System.nanoTime();
+            log.info("✓ Batch analysis {}: {} analyzed, {} failed, {} skipped",
+                    state.name().toLowerCase(), completed.get(), failed.get(), skipped);
+            result.complete(completed.get());
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            state = State.FAILED;
+            endNanos = System.nanoTime();
+            log.error("✗ Batch analysis failed", e);
+            try {
+                saveJob(State.FAILED);
+            } catch (Exception ignored) {
+                // the checkpointed posts are still recorded
+            }
+            result.completeExceptionally(e);
+        }
+    }
+
+    private void analyze(Post post) {
+        if (state == State.CANCELLED) {
+            return;
+        }
+        try {
+            analyzer.accept(post);
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            log.warn("✗ Error analyzing post {}: {}", post.getPostId(), e.getMessage());
+            return;
+        }
+        synchronized (pendingCheckpoint) {
+            pendingCheckpoint.add(post);
+        }
+        checkpoint(false);
+    }
+
+    /**
+     * Saves finished posts and their version marks in one transaction
+     * @param force save even if fewer than a full checkpoint are pending
+     */
+    private void checkpoint(boolean force) {
+        List<Post> batch;
+        synchronized (pendingCheckpoint) {
+            if (pendingCheckpoint.isEmpty() || (!force && pendingCheckpoint.size() < checkpointPosts)) {
+                return;
+            }
+            batch = new ArrayList<>(pendingCheckpoint);
+            pendingCheckpoint.clear();
+        }
+        synchronized (checkpointLock) {
+            try {
+                dbManager.savePostsAnalyzed(batch, modelVersion);
+                int done = completed.addAndGet(batch.size());
+                saveJob(State.RUNNING);
+                Progress progress = getProgress();
+                log.info("✓ Checkpoint: {}/{} analyzed ({} posts/s, ETA {})", done + skipped, total,
+                        String.format("%.0f", progress.getPostsPerSecond()), formatEta(progress.getEta()));
+            } catch (Exception e) {
+                failed.addAndGet(batch.size());
+                log.warn("✗ Checkpoint of {} posts failed: {}", batch.size(), e.getMessage());
+            }
+        }
+    }
+
+    private void saveJob(State jobState) throws Exception {
+        dbManager.saveAnalysisJob(jobId, modelVersion, total, skipped + completed.get(), jobState.name());
+    }
+
+    private static String formatEta(Duration eta) {
+        if (eta == null) {
+            return "unknown";
+        }
+        return String.format("%d:%02d:%02d", eta.toHours(), eta.toMinutesPart(), eta.toSecondsPart());
+    }
+
+    /**
+     * @return current progress; safe to call from any thread
+     */
+    public Progress getProgress() {
+        long end = endNanos != 0 ? endNanos : System.nanoTime();
+        double seconds = startNanos == 0 ? 0 : (end - startNanos) / 1e9;
+        return new Progress(state, total, skipped, completed.get(), failed.get(), seconds, resumed);
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getModelVersion() {
+        return modelVersion;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Waits for the job to finish
+     * @return number of posts analyzed in this run
+     */
+    public int await() {
+        return result.join();
+    }
+
+    /**
+     * Immutable progress snapshot
+     */
+    public static class Progress {
+        private final State state;
+        private final int total;
+        private final int skipped;
+        private final int completed;
+        private final int failed;
+        private final double elapsedSeconds;
+        private final boolean resumed;
+
+        Progress(State state, int total, int skipped, int completed, int failed,
+                 double elapsedSeconds, boolean resumed) {
+            this.state = state;
+            this.total = total;
+            this.skipped = skipped;
+            this.completed = completed;
+            this.failed = failed;
+            this.elapsedSeconds = elapsedSeconds;
+            this.resumed = resumed;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        /**
+         * @return posts skipped because they were already analyzed by this model version
+         */
+        public int getSkipped() {
+            return skipped;
+        }
+
+        public int getCompleted() {
+            return completed;
+        }
+
+        public int getFailed() {
+            return failed;
+        }
+
+        public int getRemaining() {
+            return Math.max(0, total - skipped - completed - failed);
+        }
+
+        public boolean isResumed() {
+            return resumed;
+        }
+
+        /**
+         * @return share of posts done (analyzed, skipped or failed), 0 to 1
+         */
+        public double getFraction() {
+            return total == 0 ? (state == State.COMPLETED ? 1.0 : 0.0)
+                    : (double) (skipped + completed + failed) / total;
+        }
+
+        public double getPostsPerSecond() {
+            return elapsedSeconds <= 0 ? 0 : completed / elapsedSeconds;
+        }
+
+        /**
+         * @return estimated time to finish, or null until a rate is known
+         */
+        public Duration getEta() {
+            double rate = getPostsPerSecond();
+            if (state != State.RUNNING) {
+                return Duration.ZERO;
+            }
+            if (rate <= 0) {
+                return null;
+            }
+            return Duration.ofSeconds((long) Math.ceil(getRemaining() / rate));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %d/%d (%d skipped, %d failed)", state, skipped + completed, total, skipped, failed);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.humanitarian.logistics.pipeline;
+
+import com.humanitarian.logistics.model.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.*;
+import java.util.stream.Stream;
+import org.json.*;
+
+/**
+ * JSON and CSV forms of posts and analysis results for headless batch runs.
+ * The JSON post form can be read back, so the output of one run serves as a
+ * recorded fixture for the next, offline.
+ */
+public final class BatchOutput {
+    private static final String[] CSV_HEADER = {
+        "record_type", "post_id", "comment_id", "disaster", "category", "sentiment",
+        "confidence", "created_at", "author", "content"
+    };
+
+    private BatchOutput() {
+    }
+
+    public static JSONObject toJson(Post post) {
+        JSONObject json = recordJson(post.getContent(), post.getAuthor(), post.getCreatedAt(),
+                post.getSentiment(), post.getReliefItem());
+        json.put("post_id", post.getPostId());
+        json.put("source", post.getSource());
+        json.put("disaster", PostRepository.disasterOf(post));
+        if (post.getDisasterKeyword() != null) {
+            json.put("disaster_keyword", post.getDisasterKeyword());
+        }
+        if (post instanceof YouTubePost) {
+            YouTubePost youtubePost = (YouTubePost) post;
+            json.put("channel_id", youtubePost.getChannelId());
+            json.put("likes", youtubePost.getLikes());
+            json.put("views", youtubePost.getViews());
+        }
+        JSONArray comments = new JSONArray();
+        for (Comment comment : post.getComments()) {
+            JSONObject commentJson = recordJson(comment.getContent(), comment.getAuthor(), comment.getCreatedAt(),
+                    comment.getSentiment(), comment.getReliefItem());
+            commentJson.put("comment_id", comment.getCommentId());
+            comments.put(commentJson);
+        }
+        json.put("comments", comments);
+        return json;
+    }
+
+    private static JSONObject recordJson(String content, String author, LocalDateTime createdAt,
+                                         Sentiment sentiment, ReliefItem reliefItem) {
+        JSONObject json = new JSONObject();
+        json.put("content", content);
+        json.put("author", author);
+        json.put("created_at", createdAt.toString());
+        if (sentiment != null) {
+            json.put("sentiment", sentiment.getType().name());
+            json.put("confidence", sentiment.getConfidence());
+        }
+        if (reliefItem != null) {
+            json.put("category", reliefItem.getCategory().name());
+        }
+        return json;
+    }
+
+    /**
+     * Rebuilds a post written by {@link #toJson(Post)}. Sentiment and category are kept
+     * when present, so enrichment only fills in what is missing.
+     */
+    public static Post fromJson(JSONObject json) {
+        YouTubePost post = new YouTubePost(
+                json.getString("post_id"),
+                json.getString("content"),
+                LocalDateTime.parse(json.getString("created_at")),
+                json.optString("author", "unknown"),
+                json.optString("channel_id", ""));
+        post.setReliefItem(reliefItemOf(json));
+        post.setSentiment(sentimentOf(json));
+        post.setLikes(json.optInt("likes"));
+        post.setViews(json.optInt("views"));
+        String disaster = json.optString("disaster", PostRepository.UNKNOWN_DISASTER);
+        if (!disaster.equals(PostRepository.UNKNOWN_DISASTER)) {
+            post.setDisasterType(DisasterManager.getInstance().getOrCreateDisasterType(disaster));
+        }
+        if (json.has("disaster_keyword")) {
+            post.setDisasterKeyword(json.getString("disaster_keyword"));
+        }
+        JSONArray comments = json.optJSONArray("comments");
+        for (int i = 0; comments != null && i < comments.length(); i++) {
+            JSONObject commentJson = comments.getJSONObject(i);
+            Comment comment = new Comment(
+                    commentJson.getString("comment_id"),
+                    post.getPostId(),
+                    commentJson.getString("content"),
+                    LocalDateTime.parse(commentJson.getString("created_at")),
+                    commentJson.optString("author", "unknown"));
+            comment.setReliefItem(reliefItemOf(commentJson));
+            comment.setSentiment(sentimentOf(commentJson));
+            post.addComment(comment);
+        }
+        return post;
+    }
+
+    private static ReliefItem reliefItemOf(JSONObject json) {
+        return json.has("category")
+                ? new ReliefItem(ReliefItem.Category.valueOf(json.getString("category")), "Fixture", 3)
+                : null;
+    }
+
+    private static Sentiment sentimentOf(JSONObject json) {
+        return json.has("sentiment")
+                ? new Sentiment(Sentiment.SentimentType.valueOf(json.getString("sentiment")),
+                        json.optDouble("confidence", 0), json.optString("content"))
+                : null;
+    }
+
+    /**
+     * Reads posts from fixture files: each is a JSON array of posts, or an object with a
+     * "posts" array such as a previous run's output. Directories are read for *.json files.
+     */
+    public static List<Post> readPosts(List<Path> paths) throws IOException {
+        List<Post> posts = new ArrayList<>();
+        for (Path path : paths) {
+            if (Files.isDirectory(path)) {
+                List<Path> files = new ArrayList<>();
+                try (Stream<Path> listing = Files.list(path)) {
+                    listing.filter(file -> file.toString().endsWith(".json")).sorted().forEach(files::add);
+                }
+                posts.addAll(readPosts(files));
+                continue;
+            }
+            Object root = new JSONTokener(new String(Files.readAllBytes(path), StandardCharsets.UTF_8)).nextValue();
+            JSONArray array = root instanceof JSONArray ? (JSONArray) root : ((JSONObject) root).getJSONArray("posts");
+            for (int i = 0; i < array.length(); i++) {
+                posts.add(fromJson(array.getJSONObject(i)));
+            }
+        }
+        return posts;
+    }
+
+    /**
+     * Converts an analysis result to JSON: maps and collections are kept as structure,
+     * numbers and booleans as values, and anything else as its string form
+     */
+    public static Object toJsonValue(Object value) {
+        if (value == null) {
+            return JSONObject.NULL;
+        }
+        if (value instanceof Map) {
+            JSONObject json = new JSONObject();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                json.put(String.valueOf(entry.getKey()), toJsonValue(entry.getValue()));
+            }
+            return json;
+        }
+        if (value instanceof Collection || value instanceof Object[]) {
+            JSONArray json = new JSONArray();
+            Collection<?> items = value instanceof Collection ? (Collection<?>) value : Arrays.asList((Object[]) value);
+            for (Object item : items) {
+                json.put(toJsonValue(item));
+            }
+            return json;
+        }
+        if (value instanceof double[]) {
+            return new JSONArray((double[]) value);
+        }
+        if (value instanceof int[]) {
+            return new JSONArray((int[]) value);
+        }
+        if (value instanceof long[]) {
+            return new JSONArray((long[]) value);
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof String) {
+            return value;
+        }
+        if (value instanceof Post) {
+            return toJson((Post) value);
+        }
+        if (value instanceof Enum || value instanceof TemporalAccessor) {
+            return value.toString();
+        }
+        return String.valueOf(value);
+    }
+
+    /**
+     * Writes one row per post and per comment
+     */
+    public static void writeCsv(List<Post> posts, Path file) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writeCsvRow(out, CSV_HEADER);
+            for (Post post : posts) {
+                String disaster = PostRepository.disasterOf(post);
+                writeCsvRow(out, row("post", post.getPostId(), "", disaster, post.getReliefItem(), post.getSentiment(),
+                        post.getCreatedAt(), post.getAuthor(), post.getContent()));
+                for (Comment comment : post.getComments()) {
+                    writeCsvRow(out, row("comment", post.getPostId(), comment.getCommentId(), disaster,
+                            comment.getReliefItem(), comment.getSentiment(), comment.getCreatedAt(),
+                            comment.getAuthor(), comment.getContent()));
+                }
+            }
+        }
+    }
+
+    private static String[] row(String type, String postId, String commentId, String disaster, ReliefItem reliefItem,
+                                Sentiment sentiment, LocalDateTime createdAt, String author, String content) {
+        return new String[] {
+            type, postId, commentId, disaster,
+            reliefItem != null ? reliefItem.getCategory().name() : "",
+            sentiment != null ? sentiment.getType().name() : "",
+            sentiment != null ? String.format(Locale.ROOT, "%.4f", sentiment.getConfidence()) : "",
+            createdAt.toString(), author, content
+        };
+    }
+
+    private static void writeCsvRow(Writer out, String[] fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            String field = fields[i] == null ? "" : fields[i];
+            if (field.indexOf(',') >= 0 || field.indexOf('"') >= 0 || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0) {
+                out.write('"');
+                out.write(field.replace("\"", "\"\""));
+                out.write('"');
+            } else {
+                out.write(field);
+            }
+        }
+        out.write("\r\n");
+    }
+}
@@ -0,0 +1,348 @@
+package com.humanitarian.logistics.pipeline;
+
+import com.humanitarian.logistics.metrics.Histogram;
+import com.humanitarian.logistics.metrics.MetricsRegistry;
+import com.humanitarian.logistics.metrics.LatencyTimer;
+import com.humanitarian.logistics.model.Post;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Staged ingestion pipeline: classify → score → persist.
+ * Each stage runs on its own worker threads and hands posts to the next stage
+ * through a bounded queue, so classification calls, sentiment calls and database
+ * writes for different posts overlap. A full queue blocks the stage before it.
+ *
+ * - Classify: one post at a time
+ * - Score: micro-batches of posts, gathered until the batch holds enough records
+ *   or the queue has been idle for a short linger time
+ * - Persist: group commit of several posts per call
+ *
+ * Stage work is supplied by the caller. Posts may leave the pipeline in a different
+ * order than they entered when a stage has more than one worker.
+ */
+public class IngestionPipeline {
+    public static final int DEFAULT_CLASSIFY_WORKERS = 4;
+    public static final int DEFAULT_SCORE_WORKERS = 2;
+    public static final int DEFAULT_PERSIST_WORKERS = 1; // SQLite has a single writer
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+    public static final int DEFAULT_SCORE_BATCH_RECORDS = 64;
+    public static final int DEFAULT_COMMIT_BATCH_POSTS = 50;
+    private static final long LINGER_MS = 20;
+    private static final Logger log = LoggerFactory.getLogger(IngestionPipeline.class);
+
+    private final Stage classifyStage;
+    private final Stage scoreStage;
+    private final Stage persistStage;
+    private final int scoreBatchRecords;
+    private final int commitBatchPosts;
+
+    private final Consumer<Post> classifier;
+    private final Consumer<List<Post>> scorer;
+    private final Consumer<List<Post>> persister;
+    private final Consumer<List<Post>> publisher;
+
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    /**
+     * Creates a pipeline with default parallelism and queue sizes
+     */
+    public IngestionPipeline(Consumer<Post> classifier, Consumer<List<Post>> scorer,
+                             Consumer<List<Post>> persister, Consumer<List<Post>> publisher) {
+        this(classifier, scorer, persister, publisher,
+             DEFAULT_CLASSIFY_WORKERS, DEFAULT_SCORE_WORKERS, DEFAULT_PERSIST_WORKERS,
+             DEFAULT_QUEUE_CAPACITY, DEFAULT_SCORE_BATCH_RECORDS, DEFAULT_COMMIT_BATCH_POSTS);
+    }
+
+    /**
+     * @param classifier assigns relief categories to a post and its comments
+     * @param scorer assigns sentiment to a micro-batch of posts and their comments
+     * @param persister writes a batch of posts in one transaction
+     * @param publisher makes persisted posts visible, e.g. adds them to the model
+     * @param classifyWorkers threads in the classification stage
+     * @param scoreWorkers threads in the sentiment stage
+     * @param persistWorkers threads in the persistence stage
+     * @param queueCapacity capacity of each queue between stages
+     * @param scoreBatchRecords posts plus comments gathered per sentiment micro-batch
+     * @param commitBatchPosts posts written per group commit
+     */
+    public IngestionPipeline(Consumer<Post> classifier, Consumer<List<Post>> scorer,
+                             Consumer<List<Post>> persister, Consumer<List<Post>> publisher,
+                             int classifyWorkers, int scoreWorkers, int persistWorkers,
+                             int queueCapacity, int scoreBatchRecords, int commitBatchPosts) {
+        if (classifyWorkers <= 0 || scoreWorkers <= 0 || persistWorkers <= 0
+                || queueCapacity <= 0 || scoreBatchRecords <= 0 || commitBatchPosts <= 0) {
+            throw new IllegalArgumentException("Pipeline sizes must be positive");
+        }
+        this.classifier = classifier;
+        this.scorer = scorer;
+        this.persister = persister;
+        this.publisher = publisher;
+        this.classifyStage = new Stage("classify", classifyWorkers, queueCapacity);
+        this.scoreStage = new Stage("score", scoreWorkers, queueCapacity);
+        this.persistStage = new Stage("persist", persistWorkers, queueCapacity);
+        this.scoreBatchRecords = scoreBatchRecords;
+        this.commitBatchPosts = commitBatchPosts;
+    }
+
+    /**
+     * Starts the worker threads; called automatically on first submit
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        startWorkers(classifyStage, this::runClassify);
+        startWorkers(scoreStage, this::runScore);
+        startWorkers(persistStage, this::runPersist);
+    }
+
+    private void startWorkers(Stage stage, Runnable loop) {
+        for (int i = 0; i < stage.workers; i++) {
+            Thread thread = new Thread(loop, "ingest-" + stage.name + "-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            workers.add(thread);
+        }
+    }
+
+    /**
+     * Stops the worker threads. Posts still queued are not processed.
+     */
+    public synchronized void shutdown() {
+        running = false;
+        for (Thread thread : workers) {
+            thread.interrupt();
+        }
+        workers.clear();
+    }
+
+    /**
+     * Submits posts for ingestion, blocking while the first queue is full
+     * @return future completed once every post has been persisted and published; completed
+     *         exceptionally if a batch failed to persist or publish. Posts whose save failed
+     *         are still published.
+     */
+    public CompletableFuture<Void> submit(List<Post> posts) {
+        start();
+        Ticket ticket = new Ticket(posts.size());
+        if (posts.isEmpty()) {
+            ticket.future.complete(null);
+            return ticket.future;
+        }
+        try {
+            for (Post post : posts) {
+                classifyStage.queue.put(new Job(post, ticket));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ticket.future.completeExceptionally(e);
+        }
+        return ticket.future;
+    }
+
+    private void runClassify() {
+        try {
+            while (running) {
+                Job job = classifyStage.queue.take();
+                long start = System.nanoTime();
+                try {
+                    classifier.accept(job.post);
+                } catch (RuntimeException e) {
+                    log.warn("✗ Classification failed for post {}: {}", job.post.getPostId(), e.getMessage());
+                }
+                classifyStage.record(1, System.nanoTime() - start);
+                scoreStage.queue.put(job);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runScore() {
+        try {
+            while (running) {
+                List<Job> batch = new ArrayList<>();
+                int records = drain(scoreStage.queue, batch, scoreBatchRecords, true);
+                long start = System.nanoTime();
+                try {
+                    scorer.accept(posts(batch));
+                } catch (RuntimeException e) {
+                    log.warn("✗ Sentiment scoring failed for a batch of {} posts: {}", batch.size(), e.getMessage());
+                }
+                scoreStage.record(records, System.nanoTime() - start);
+                for (Job job : batch) {
+                    persistStage.queue.put(job);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runPersist() {
+        try {
+            while (running) {
+                List<Job> batch = new ArrayList<>();
+                drain(persistStage.queue, batch, commitBatchPosts, false);
+                List<Post> posts = posts(batch);
+                long start = System.nanoTime();
+                // A failing batch fails its submitters; the worker carries on with the next one
+                RuntimeException failure = null;
+                try {
+                    persister.accept(posts);
+                } catch (RuntimeException e) {
+                    failure = e;
+                    log.warn("✗ Group commit of {} posts failed: {}", posts.size(), e.getMessage());
+                }
+                persistStage.record(posts.size(), System.nanoTime() - start);
+                try {
+                    publisher.accept(posts);
+                } catch (RuntimeException e) {
+                    failure = e;
+                    log.error("✗ Publishing {} persisted posts failed", posts.size(), e);
+                }
+                for (Job job : batch) {
+                    if (failure == null) {
+                        job.ticket.done();
+                    } else {
+                        job.ticket.fail(failure);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Blocks for one job, then keeps taking jobs until the limit is reached or the queue
+     * stays empty for the linger time
+     * @param countRecords whether the limit counts posts plus comments rather than posts
+     * @return number of records gathered
+     */
+    private int drain(BlockingQueue<Job> queue, List<Job> batch, int limit, boolean countRecords)
+            throws InterruptedException {
+        Job job = queue.take();
+        int size = 0;
+        while (job != null) {
+            batch.add(job);
+            size += countRecords ? 1 + job.post.getComments().size() : 1;
+            if (size >= limit) {
+                break;
+            }
+            job = queue.poll(LINGER_MS, TimeUnit.MILLISECONDS);
+        }
+        return size;
+    }
+
+    private static List<Post> posts(List<Job> jobs) {
+        List<Post> posts = new ArrayList<>(jobs.size());
+        for (Job job : jobs) {
+            posts.add(job.post);
+        }
+        return posts;
+    }
+
+    /**
+     * Gets per-stage metrics: current queue depth, peak depth, items processed,
+     * batches run and mean busy time per batch
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put(classifyStage.name, classifyStage.metrics());
+        metrics.put(scoreStage.name, scoreStage.metrics());
+        metrics.put(persistStage.name, persistStage.metrics());
+        return metrics;
+    }
+
+    /**
+     * @return posts waiting in any queue
+     */
+    public int getBacklog() {
+        return classifyStage.queue.size() + scoreStage.queue.size() + persistStage.queue.size();
+    }
+
+    private static class Stage {
+        private final String name;
+        private final int workers;
+        private final BlockingQueue<Job> queue;
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong batches = new AtomicLong();
+        private final AtomicLong busyNanos = new AtomicLong();
+        private final AtomicInteger peakDepth = new AtomicInteger();
+        private final LatencyTimer timer;
+        private final Histogram queueDepth;
+
+        Stage(String name, int workers, int capacity) {
+            this.name = name;
+            this.workers = workers;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.timer = MetricsRegistry.getInstance().timer("ingest." + name);
+            this.queueDepth = MetricsRegistry.getInstance().histogram("ingest." + name + ".queue_depth");
+        }
+
+        void record(int items, long nanos) {
+            processed.addAndGet(items);
+            batches.incrementAndGet();
+            busyNanos.addAndGet(nanos);
+            int depth = queue.size();
+            peakDepth.accumulateAndGet(depth, Math::max);
+            timer.record(nanos);
+            queueDepth.record(depth);
+        }
+
+        Map<String, Object> metrics() {
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            long batchCount = batches.get();
+            metrics.put("workers", workers);
+            metrics.put("queue_depth", queue.size());
+            metrics.put("queue_capacity", queue.size() + queue.remainingCapacity());
+            metrics.put("peak_queue_depth", peakDepth.get());
+            metrics.put("processed", processed.get());
+            metrics.put("batches", batchCount);
+            metrics.put("avg_batch_ms", batchCount == 0 ? 0.0 : busyNanos.get() / 1e6 / batchCount);
+            return metrics;
+        }
+    }
+
+    private static class Job {
+        private final Post post;
+        private final Ticket ticket;
+
+        Job(Post post, Ticket ticket) {
+            this.post = post;
+            this.ticket = ticket;
+        }
+    }
+
+    /**
+     * Tracks completion of one submitted batch
+     */
+    private static class Ticket {
+        private final AtomicInteger remaining;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        Ticket(int count) {
+            this.remaining = new AtomicInteger(count);
+        }
+
+        void done() {
+            if (remaining.decrementAndGet() == 0) {
+                future.complete(null);
+            }
+        }
+
+        void fail(Throwable error) {
+            remaining.decrementAndGet();
+            future.completeExceptionally(error);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.humanitarian.logistics.pipeline;
+
+import com.humanitarian.logistics.metrics.*;
+import com.humanitarian.logistics.model.*;
+import com.humanitarian.logistics.sentiment.SentimentAnalyzer;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The classify and score stages of ingestion: assigns relief categories and sentiment
+ * to posts and their comments where they are missing. Shared by the UI model and the
+ * headless batch runner so both enrich posts the same way.
+ */
+public class PostEnricher {
+    private static final LatencyTimer classifyTimer = MetricsRegistry.getInstance().timer("classify.post");
+    private static final Counter classifiedRecords = MetricsRegistry.getInstance().counter("classify.records");
+    private static final LatencyTimer scoreTimer = MetricsRegistry.getInstance().timer("sentiment.batch");
+    private static final Histogram scoreBatchSize = MetricsRegistry.getInstance().histogram("sentiment.batch_records");
+    private static final Counter scoredRecords = MetricsRegistry.getInstance().counter("sentiment.records");
+
+    private final Function<String, ReliefItem.Category> classifier;
+    private final String classifierDescription;
+    private final Supplier<SentimentAnalyzer> analyzer;
+
+    /**
+     * @param classifier maps text to a relief category
+     * @param classifierDescription description stored on the relief items it creates
+     * @param analyzer current sentiment analyzer; may supply null to skip scoring
+     */
+    public PostEnricher(Function<String, ReliefItem.Category> classifier, String classifierDescription,
+                        Supplier<SentimentAnalyzer> analyzer) {
+        this.classifier = classifier;
+        this.classifierDescription = classifierDescription;
+        this.analyzer = analyzer;
+    }
+
+    /**
+     * Classifies a post and its comments into relief categories if not already done
+     */
+    public void classify(Post post) {
+        long start = System.nanoTime();
+        int classified = 0;
+        if (post.getReliefItem() == null) {
+            ReliefItem.Category category = classifier.apply(post.getContent());
+            classified++;
+            if (category != null) {
+                post.setReliefItem(new ReliefItem(category, classifierDescription, 3));
+            }
+        }
+        for (Comment comment : post.getComments()) {
+            if (comment.getReliefItem() == null) {
+                ReliefItem.Category category = classifier.apply(comment.getContent());
+                classified++;
+                if (category != null) {
+                    comment.setReliefItem(new ReliefItem(category, classifierDescription, 3));
+                }
+            }
+        }
+        if (classified > 0) {
+            classifiedRecords.add(classified);
+            classifyTimer.recordSince(start);
+        }
+    }
+
+    /**
+     * Scores every post and comment without a sentiment in one batch call
+     */
+    public void score(List<Post> batch) {
+        SentimentAnalyzer current = analyzer.get();
+        if (current == null) {
+            return;
+        }
+        List<String> texts = new ArrayList<>();
+        List<Object> targets = new ArrayList<>();
+        for (Post post : batch) {
+            if (post.getSentiment() == null) {
+                texts.add(post.getContent());
+                targets.add(post);
+            }
+            for (Comment comment : post.getComments()) {
+                if (comment.getSentiment() == null) {
+                    texts.add(comment.getContent());
+                    targets.add(comment);
+                }
+            }
+        }
+        if (texts.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        Sentiment[] sentiments = current.analyzeSentimentBatch(texts.toArray(new String[0]));
+        scoreTimer.recordSince(start);
+        scoreBatchSize.record(texts.size());
+        scoredRecords.add(texts.size());
+        for (int i = 0; i < targets.size(); i++) {
+            Object target = targets.get(i);
+            if (target instanceof Post) {
+                ((Post) target).setSentiment(sentiments[i]);
+            } else {
+                ((Comment) target).setSentiment(sentiments[i]);
+            }
+        }
+    }
+}
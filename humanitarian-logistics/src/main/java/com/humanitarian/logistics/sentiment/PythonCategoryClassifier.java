@@ -1,5 +1,9 @@
 package com.humanitarian.logistics.sentiment;
 
+import com.humanitarian.logistics.concurrent.IoExecutor;
+import com.humanitarian.logistics.metrics.Counter;
+import com.humanitarian.logistics.metrics.MetricsRegistry;
+import com.humanitarian.logistics.metrics.LatencyTimer;
 import com.humanitarian.logistics.model.ReliefItem;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
@@ -9,8 +13,10 @@ import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Category classifier that uses the Python API for zero-shot classification.
@@ -20,10 +26,13 @@ import java.util.logging.Logger;
  * to classify text into relief item categories.
  */
 public class PythonCategoryClassifier {
-    private static final Logger LOGGER = Logger.getLogger(PythonCategoryClassifier.class.getName());
+    private static final Logger LOGGER = LoggerFactory.getLogger(PythonCategoryClassifier.class);
+    private static final LatencyTimer callTimer = MetricsRegistry.getInstance().timer("classify.python.call");
+    private static final Counter fallbacks = MetricsRegistry.getInstance().counter("classify.python.fallbacks");
     private static final String API_ENDPOINT = "http://localhost:5001/classify_category";
     private static final String BATCH_ENDPOINT = "http://localhost:5001/classify_batch_category";
     private static final int TIMEOUT = 30000; // 30 seconds
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 8;
 
     /**
      * Classify a single text into a relief category using zero-shot classification.
@@ -36,6 +45,15 @@ public class PythonCategoryClassifier {
             return ReliefItem.Category.FOOD; // Default
         }
 
+        long start = System.nanoTime();
+        try {
+            return callClassifyApi(text);
+        } finally {
+            callTimer.recordSince(start);
+        }
+    }
+
+    private ReliefItem.Category callClassifyApi(String text) {
         try {
             // Create request JSON
             JsonObject requestBody = new JsonObject();
@@ -72,26 +90,37 @@ public class PythonCategoryClassifier {
                     String category = jsonResponse.get("category").getAsString();
                     double confidence = jsonResponse.get("confidence").getAsDouble();
                     
-                    LOGGER.info("✓ Category classified via Python API: " + category + 
-                               " (confidence: " + String.format("%.2f%%", confidence * 100) + ")");
-                    LOGGER.info("  Model: " + jsonResponse.get("model").getAsString());
-                    LOGGER.info("  Category name: " + jsonResponse.get("category_name").getAsString());
+                    if (LOGGER.isDebugEnabled()) {
+                        LOGGER.debug("✓ Category classified via Python API: {} (confidence: {}, model: {}, name: {})",
+                                category, String.format("%.2f%%", confidence * 100),
+                                jsonResponse.get("model").getAsString(), jsonResponse.get("category_name").getAsString());
+                    }
                     
                     return ReliefItem.Category.valueOf(category);
                 }
             } else {
-                LOGGER.log(Level.WARNING, "Python API error (code " + responseCode + "). Falling back to FOOD.");
+                LOGGER.warn("Python API error (code {}). Falling back to FOOD.", responseCode);
             }
 
         } catch (Exception e) {
-            LOGGER.log(Level.WARNING, "Failed to connect to Python API: " + e.getMessage() + 
-                      ". Make sure to run: python sentiment_api.py");
-            LOGGER.log(Level.WARNING, "Falling back to default category: FOOD");
+            LOGGER.warn("Failed to connect to Python API: {}. Make sure to run: python sentiment_api.py. "
+                    + "Falling back to default category: FOOD", e.getMessage());
         }
 
+        fallbacks.increment();
         return ReliefItem.Category.FOOD; // Fallback
     }
 
+    /**
+     * Classify several texts, with up to {@link #DEFAULT_MAX_CONCURRENT_REQUESTS} calls in
+     * flight on the shared I/O executor.
+     *
+     * @return categories in the order of the texts
+     */
+    public List<ReliefItem.Category> classifyTexts(List<String> texts) {
+        return IoExecutor.getInstance().map(texts, DEFAULT_MAX_CONCURRENT_REQUESTS, this::classifyText);
+    }
+
     /**
      * Classify a post based on its content.
      * 
@@ -106,6 +135,28 @@ public class PythonCategoryClassifier {
         }
     }
 
+    /**
+     * Classify the posts that have no relief item yet, concurrently.
+     *
+     * @param posts The posts to classify
+     */
+    public void classifyPosts(List<com.humanitarian.logistics.model.Post> posts) {
+        List<com.humanitarian.logistics.model.Post> pending = new ArrayList<>();
+        List<String> texts = new ArrayList<>();
+        for (com.humanitarian.logistics.model.Post post : posts) {
+            if (post.getReliefItem() == null) {
+                pending.add(post);
+                texts.add(post.getContent());
+            }
+        }
+        List<ReliefItem.Category> categories = classifyTexts(texts);
+        for (int i = 0; i < pending.size(); i++) {
+            if (categories.get(i) != null) {
+                pending.get(i).setReliefItem(new ReliefItem(categories.get(i), "ML-classified (Keyword-based)", 3));
+            }
+        }
+    }
+
     /**
      * Check if the Python API is available.
      * 
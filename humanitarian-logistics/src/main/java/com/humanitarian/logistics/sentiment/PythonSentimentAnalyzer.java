@@ -1,5 +1,9 @@
 package com.humanitarian.logistics.sentiment;
 
+import com.humanitarian.logistics.concurrent.IoExecutor;
+import com.humanitarian.logistics.metrics.Counter;
+import com.humanitarian.logistics.metrics.MetricsRegistry;
+import com.humanitarian.logistics.metrics.LatencyTimer;
 import com.humanitarian.logistics.model.Sentiment;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.CloseableHttpResponse;
@@ -9,16 +13,28 @@ import org.apache.http.impl.client.HttpClients;
 import org.json.JSONObject;
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
+import java.util.Arrays;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Sentiment analyzer that communicates with Python API.
  * Demonstrates the abstraction of Python sentiment analysis for Java consumers.
+ * Batches are scored with up to {@link #DEFAULT_MAX_CONCURRENT_REQUESTS} calls in flight
+ * on the shared {@link IoExecutor}, over a connection pool of the same size.
  */
 public class PythonSentimentAnalyzer implements SentimentAnalyzer {
+    private static final Logger log = LoggerFactory.getLogger(PythonSentimentAnalyzer.class);
+    private static final LatencyTimer callTimer = MetricsRegistry.getInstance().timer("sentiment.python.call");
+    private static final Counter errors = MetricsRegistry.getInstance().counter("sentiment.python.errors");
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 8;
+
     private final String apiUrl;
     private final String modelName;
-    private CloseableHttpClient httpClient;
-    private boolean initialized;
+    private volatile CloseableHttpClient httpClient;
+    private volatile boolean initialized;
+    private volatile int maxConcurrentRequests = DEFAULT_MAX_CONCURRENT_REQUESTS;
 
     public PythonSentimentAnalyzer(String apiUrl, String modelName) {
         this.apiUrl = apiUrl;
@@ -27,22 +43,25 @@ public class PythonSentimentAnalyzer implements SentimentAnalyzer {
     }
 
     @Override
-    public void initialize() {
-        this.httpClient = HttpClients.createDefault();
+    public synchronized void initialize() {
+        // The default pool allows only 2 connections per route, which would serialize a concurrent batch
+        this.httpClient = HttpClients.custom()
+                .setMaxConnPerRoute(maxConcurrentRequests)
+                .setMaxConnTotal(maxConcurrentRequests)
+                .build();
         this.initialized = true;
-        System.out.println("PythonSentimentAnalyzer initialized with API: " + apiUrl);
+        log.info("PythonSentimentAnalyzer initialized with API: {}", apiUrl);
     }
 
     @Override
     public Sentiment analyzeSentiment(String text) {
-        if (!initialized) {
-            initialize();
-        }
+        ensureInitialized();
 
         if (text == null || text.trim().isEmpty()) {
             return new Sentiment(Sentiment.SentimentType.NEUTRAL, 0.0, "");
         }
 
+        long start = System.nanoTime();
         try {
             HttpPost post = new HttpPost(apiUrl + "/analyze");
             JSONObject requestBody = new JSONObject();
@@ -65,7 +84,8 @@ public class PythonSentimentAnalyzer implements SentimentAnalyzer {
 
                 String responseText = result.toString();
                 if (responseText.isEmpty()) {
-                    System.err.println("✗ Error analyzing sentiment: Empty response from API");
+                    errors.increment();
+                    log.warn("✗ Error analyzing sentiment: Empty response from API");
                     return new Sentiment(Sentiment.SentimentType.NEUTRAL, 0.5, text);
                 }
 
@@ -73,14 +93,15 @@ public class PythonSentimentAnalyzer implements SentimentAnalyzer {
                 
                 // Check for error in response
                 if (responseJson.has("error")) {
-                    System.err.println("✗ Error analyzing sentiment: " + responseJson.getString("error"));
+                    errors.increment();
+                    log.warn("✗ Error analyzing sentiment: {}", responseJson.getString("error"));
                     return new Sentiment(Sentiment.SentimentType.NEUTRAL, 0.5, text);
                 }
 
                 // Check if sentiment field exists
                 if (!responseJson.has("sentiment")) {
-                    System.err.println("✗ Error analyzing sentiment: Response missing 'sentiment' field");
-                    System.err.println("  Response: " + responseText);
+                    errors.increment();
+                    log.warn("✗ Error analyzing sentiment: Response missing 'sentiment' field; response: {}", responseText);
                     return new Sentiment(Sentiment.SentimentType.NEUTRAL, 0.5, text);
                 }
 
@@ -88,28 +109,49 @@ public class PythonSentimentAnalyzer implements SentimentAnalyzer {
                 double confidence = responseJson.has("confidence") ? responseJson.getDouble("confidence") : 0.5;
 
                 Sentiment.SentimentType type = Sentiment.SentimentType.valueOf(sentiment.toUpperCase());
-                System.out.println("✓ Sentiment analyzed: " + sentiment + " (confidence: " + String.format("%.2f%%", confidence * 100) + ")");
+                if (log.isDebugEnabled()) {
+                    log.debug("✓ Sentiment analyzed: {} (confidence: {})", sentiment, String.format("%.2f%%", confidence * 100));
+                }
                 return new Sentiment(type, confidence, text);
             }
         } catch (Exception e) {
-            System.err.println("✗ Error analyzing sentiment: " + e.getMessage());
-            e.printStackTrace();
+            errors.increment();
+            log.warn("✗ Error analyzing sentiment: {}", e.getMessage());
+            log.debug("Sentiment API call failed", e);
             // Return neutral sentiment on error
             return new Sentiment(Sentiment.SentimentType.NEUTRAL, 0.5, text);
+        } finally {
+            callTimer.recordSince(start);
         }
     }
 
     @Override
     public Sentiment[] analyzeSentimentBatch(String[] texts) {
+        ensureInitialized();
+
+        List<Sentiment> results = IoExecutor.getInstance().map(Arrays.asList(texts), maxConcurrentRequests,
+                this::analyzeSentiment);
+        return results.toArray(new Sentiment[0]);
+    }
+
+    private void ensureInitialized() {
         if (!initialized) {
-            initialize();
+            synchronized (this) {
+                if (!initialized) {
+                    initialize();
+                }
+            }
         }
+    }
 
-        Sentiment[] results = new Sentiment[texts.length];
-        for (int i = 0; i < texts.length; i++) {
-            results[i] = analyzeSentiment(texts[i]);
+    /**
+     * Sets how many calls one batch keeps in flight; takes effect on the next initialize
+     */
+    public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+        if (maxConcurrentRequests <= 0) {
+            throw new IllegalArgumentException("Concurrency must be positive");
         }
-        return results;
+        this.maxConcurrentRequests = maxConcurrentRequests;
     }
 
     @Override
@@ -118,20 +160,20 @@ public class PythonSentimentAnalyzer implements SentimentAnalyzer {
     }
 
     @Override
-    public void shutdown() {
+    public synchronized void shutdown() {
         try {
             if (httpClient != null) {
                 httpClient.close();
             }
             initialized = false;
         } catch (Exception e) {
-            System.err.println("Error shutting down analyzer: " + e.getMessage());
+            log.warn("Error shutting down analyzer: {}", e.getMessage());
         }
     }
 
     public void setApiUrl(String newUrl) {
         // Support for changing API URL at runtime
         String oldUrl = this.apiUrl;
-        System.out.println("Changing API URL from " + oldUrl + " to " + newUrl);
+        log.info("Changing API URL from {} to {}", oldUrl, newUrl);
     }
 }
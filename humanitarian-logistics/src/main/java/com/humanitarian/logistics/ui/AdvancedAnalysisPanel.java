@@ -1,28 +1,47 @@
 package com.humanitarian.logistics.ui;
 
+import com.humanitarian.logistics.analysis.CompactBitmap;
+import com.humanitarian.logistics.analysis.PostFilterIndex;
+import com.humanitarian.logistics.analysis.SentimentSeries;
 import com.humanitarian.logistics.model.*;
+import com.humanitarian.logistics.pipeline.BatchAnalysisJob;
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
+import org.jfree.chart.entity.CategoryItemEntity;
+import org.jfree.chart.entity.ChartEntity;
+import org.jfree.chart.entity.PieSectionEntity;
+import org.jfree.chart.entity.XYItemEntity;
 import org.jfree.data.category.DefaultCategoryDataset;
 import org.jfree.data.general.DefaultPieDataset;
 
 import javax.swing.*;
 import java.awt.*;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
  * Advanced Analysis Panel with detailed visualizations for Problem 1 & 2.
+ * Datasets and reports are built off the EDT and cached until the model changes.
  */
 public class AdvancedAnalysisPanel extends JPanel {
+    private static final String COMPUTING = "⏳ Computing...";
+
     private Model model;
+    private final ChartDataCache chartCache;
     private JTabbedPane mainTabs;
 
     public AdvancedAnalysisPanel(Model model) {
         this.model = model;
+        this.chartCache = new ChartDataCache(model);
         initializeUI();
     }
 
@@ -57,25 +76,25 @@ public class AdvancedAnalysisPanel extends JPanel {
 
         // === NEW: By Individual Category with Selector ===
         JPanel individualCategoryPanel = new JPanel(new BorderLayout());
-        
+
         // Create top panel with disaster AND category selectors
         JPanel selectorPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         selectorPanel.setBorder(BorderFactory.createTitledBorder("Select Disaster & Relief Category"));
-        
+
         // Disaster selector
         JLabel disasterLabel = new JLabel("Disaster Type: ");
         JComboBox<String> disasterSelector = new JComboBox<>();
-        disasterSelector.addItem("All Disasters");
+        disasterSelector.addItem(ChartDataCache.ALL_DISASTERS);
         List<String> disasterNames = DisasterManager.getInstance().getAllDisasterNames();
         for (String name : disasterNames) {
             disasterSelector.addItem(name);
         }
         disasterSelector.setPreferredSize(new Dimension(120, 25));
-        
+
         selectorPanel.add(disasterLabel);
         selectorPanel.add(disasterSelector);
         selectorPanel.add(new JLabel("  |  Category: "));
-        
+
         // Category selector
         JComboBox<String> categorySelector = new JComboBox<>();
         categorySelector.addItem("ALL CATEGORIES");
@@ -83,226 +102,63 @@ public class AdvancedAnalysisPanel extends JPanel {
             categorySelector.addItem(cat.getDisplayName());
         }
         selectorPanel.add(categorySelector);
-        
+
         // Chart type selector
         selectorPanel.add(new JLabel("  |  Chart Type: "));
         JComboBox<String> chartTypeSelector = new JComboBox<>(new String[]{"Bar Chart", "Pie Chart"});
         chartTypeSelector.setPreferredSize(new Dimension(120, 25));
         selectorPanel.add(chartTypeSelector);
-        
+
         // Chart and text area
         ChartPanel chartPanel0 = new ChartPanel(null);
         chartPanel0.setPreferredSize(new Dimension(800, 350));
         InteractiveChartUtility.makeChartInteractive(chartPanel0);
-        
+
         JTextArea textArea0 = new JTextArea(8, 50);
         textArea0.setEditable(false);
         textArea0.setFont(new Font("Monospaced", Font.PLAIN, 9));
-        
+
         JButton btnAnalyzeCategory = new JButton("Analyze");
         btnAnalyzeCategory.addActionListener(e -> {
-            try {
-                // Get selected disaster and category
-                String selectedDisaster = (String) disasterSelector.getSelectedItem();
-                String selectedCategory = (String) categorySelector.getSelectedItem();
-                
-                // Filter posts by disaster type first
-                List<Post> posts = model.getPosts();
-                if (selectedDisaster != null && !selectedDisaster.equals("All Disasters")) {
-                    posts = posts.stream()
-                        .filter(p -> {
-                            if (p instanceof YouTubePost) {
-                                YouTubePost ytPost = (YouTubePost) p;
-                                DisasterType type = ytPost.getDisasterType();
-                                return type != null && type.getName().equals(selectedDisaster);
-                            }
-                            return false;
-                        })
-                        .collect(Collectors.toList());
-                }
-                
-                StringBuilder sb = new StringBuilder();
-                sb.append("=== SATISFACTION ANALYSIS: ").append(selectedCategory).append(" ===\n\n");
-                
-                DefaultCategoryDataset dataset = new DefaultCategoryDataset();
-                
-                if ("ALL CATEGORIES".equals(selectedCategory)) {
-                    // Show all categories comparison
-                    Map<ReliefItem.Category, List<Post>> byCategory = posts.stream()
-                        .filter(p -> p.getReliefItem() != null)
-                        .collect(Collectors.groupingBy(p -> p.getReliefItem().getCategory()));
-                    
-                    byCategory.forEach((category, categoryPosts) -> {
-                        int total = categoryPosts.size();
-                        if (total == 0) return;
-                        
-                        long positive = categoryPosts.stream()
-                            .filter(p -> p.getSentiment() != null && p.getSentiment().isPositive())
-                            .count();
-                        long negative = categoryPosts.stream()
-                            .filter(p -> p.getSentiment() != null && p.getSentiment().isNegative())
-                            .count();
-                        long neutral = categoryPosts.stream()
-                            .filter(p -> p.getSentiment() != null && p.getSentiment().isNeutral())
-                            .count();
-                        
-                        double posPct = (double) positive / total * 100;
-                        double negPct = (double) negative / total * 100;
-                        double neuPct = (double) neutral / total * 100;
-                        double satisfactionScore = (positive - negative) / (double) total;
-                        
-                        dataset.addValue(posPct, "Positive", category.getDisplayName());
-                        dataset.addValue(negPct, "Negative", category.getDisplayName());
-                        dataset.addValue(neuPct, "Neutral", category.getDisplayName());
-                        
-                        sb.append(String.format("📦 %s (Total: %d)\n", category.getDisplayName(), total));
-                        sb.append(String.format("   Positive: %d (%.1f%%)\n", positive, posPct));
-                        sb.append(String.format("   Negative: %d (%.1f%%)\n", negative, negPct));
-                        sb.append(String.format("   Neutral:  %d (%.1f%%)\n", neutral, neuPct));
-                        sb.append(String.format("   Satisfaction Score: %.2f\n", satisfactionScore));
-                        
-                        if (satisfactionScore > 0.6) sb.append("   ✅ HIGHLY EFFECTIVE\n");
-                        else if (satisfactionScore > 0.2) sb.append("   ⚠️ NEEDS IMPROVEMENT\n");
-                        else sb.append("   🚨 CRITICAL - URGENT ATTENTION\n");
-                        sb.append("\n");
-                    });
-                    
-                    // Create chart based on selected type
-                    String chartType = (String) chartTypeSelector.getSelectedItem();
-                    JFreeChart chart;
-                    
-                    if ("Pie Chart".equals(chartType)) {
-                        DefaultPieDataset<String> pieDataset = new DefaultPieDataset<>();
-                        
-                        double posSum = 0, negSum = 0, neuSum = 0;
-                        for (Object colObj : dataset.getColumnKeys()) {
-                            Comparable<?> col = (Comparable<?>) colObj;
-                            Number pos = dataset.getValue("Positive", col);
-                            Number neg = dataset.getValue("Negative", col);
-                            Number neu = dataset.getValue("Neutral", col);
-                            if (pos != null) posSum += pos.doubleValue();
-                            if (neg != null) negSum += neg.doubleValue();
-                            if (neu != null) neuSum += neu.doubleValue();
-                        }
-                        
-                        pieDataset.setValue("Positive", posSum);
-                        pieDataset.setValue("Negative", negSum);
-                        pieDataset.setValue("Neutral", neuSum);
-                        
-                        chart = ChartFactory.createPieChart(
-                            "Satisfaction Analysis - All Categories (Pie View)",
-                            pieDataset
-                        );
-                    } else {
-                        // Default: Bar Chart
-                        chart = ChartFactory.createStackedBarChart(
-                            "Satisfaction Analysis - All Categories",
-                            "Relief Category", "Percentage (%)", dataset
-                        );
-                    }
-                    chartPanel0.setChart(chart);
-                } else {
-                    // Show specific category details
-                    ReliefItem.Category targetCategory = null;
-                    for (ReliefItem.Category cat : ReliefItem.Category.values()) {
-                        if (cat.getDisplayName().equals(selectedCategory)) {
-                            targetCategory = cat;
-                            break;
-                        }
-                    }
-                    
-                    final ReliefItem.Category finalCategory = targetCategory;
-                    if (finalCategory != null) {
-                        List<Post> categoryPosts = posts.stream()
-                            .filter(p -> p.getReliefItem() != null && p.getReliefItem().getCategory() == finalCategory)
-                            .collect(Collectors.toList());
-                        
-                        int total = categoryPosts.size();
-                        long positive = categoryPosts.stream()
-                            .filter(p -> p.getSentiment() != null && p.getSentiment().isPositive())
-                            .count();
-                        long negative = categoryPosts.stream()
-                            .filter(p -> p.getSentiment() != null && p.getSentiment().isNegative())
-                            .count();
-                        long neutral = total - positive - negative;
-                        
-                        double posPct = total > 0 ? (double) positive / total * 100 : 0;
-                        double negPct = total > 0 ? (double) negative / total * 100 : 0;
-                        double neuPct = total > 0 ? (double) neutral / total * 100 : 0;
-                        double satisfactionScore = total > 0 ? (positive - negative) / (double) total : 0;
-                        
-                        // Create pie chart for selected category
-                        DefaultPieDataset<String> pieDataset = new DefaultPieDataset<>();
-                        pieDataset.setValue("Positive (" + positive + ")", posPct);
-                        pieDataset.setValue("Negative (" + negative + ")", negPct);
-                        pieDataset.setValue("Neutral (" + neutral + ")", neuPct);
-                        
-                        JFreeChart chart = ChartFactory.createPieChart(
-                            "Sentiment Distribution: " + selectedCategory, pieDataset
-                        );
-                        chartPanel0.setChart(chart);
-                        
-                        sb.append(String.format("📊 Detailed Analysis for: %s\n\n", selectedCategory));
-                        sb.append(String.format("Total Records: %d\n", total));
-                        sb.append(String.format("Positive: %d (%.1f%%)\n", positive, posPct));
-                        sb.append(String.format("Negative: %d (%.1f%%)\n", negative, negPct));
-                        sb.append(String.format("Neutral:  %d (%.1f%%)\n", neutral, neuPct));
-                        sb.append(String.format("\nSatisfaction Score: %.2f\n\n", satisfactionScore));
-                        
-                        // Effectiveness assessment
-                        if (satisfactionScore > 0.6) {
-                            sb.append("✅ STATUS: HIGHLY EFFECTIVE\n");
-                            sb.append("Assessment: This relief category is well-received\n");
-                            sb.append("Recommendation: Maintain and scale current operations\n");
-                        } else if (satisfactionScore > 0.2) {
-                            sb.append("⚠️ STATUS: SATISFACTORY\n");
-                            sb.append("Assessment: Relief efforts are working but need optimization\n");
-                            sb.append("Recommendation: Monitor closely and optimize delivery\n");
-                        } else if (satisfactionScore > -0.2) {
-                            sb.append("🟡 STATUS: NEUTRAL\n");
-                            sb.append("Assessment: Mixed sentiment, unclear effectiveness\n");
-                            sb.append("Recommendation: Gather more data and review strategy\n");
-                        } else if (satisfactionScore > -0.6) {
-                            sb.append("🔴 STATUS: NEEDS URGENT ATTENTION\n");
-                            sb.append("Assessment: More negative than positive sentiment\n");
-                            sb.append("Recommendation: Investigate issues and adjust strategy\n");
+            String selectedDisaster = (String) disasterSelector.getSelectedItem();
+            String selectedCategory = (String) categorySelector.getSelectedItem();
+            textArea0.setText(COMPUTING);
+            chartCache.loadIndexed("problem1.selector", selectedDisaster, selectedCategory,
+                (index, selection) -> buildCategorySatisfaction(index, selection, selectedCategory),
+                data -> {
+                    // The chart type only changes how cached data is drawn
+                    if (data.categoryDataset != null) {
+                        Consumer<ChartEntity> drillDown = drillDown(chartPanel0, data,
+                            EnumSet.allOf(ReliefItem.Category.class), null, selectedDisaster);
+                        if ("Pie Chart".equals(chartTypeSelector.getSelectedItem())) {
+                            showChart(chartPanel0, data.chart("pie", () -> ChartFactory.createPieChart(
+                                "Satisfaction Analysis - All Categories (Pie View)", data.pieDataset)), drillDown);
                         } else {
-                            sb.append("🚨 STATUS: CRITICAL\n");
-                            sb.append("Assessment: High dissatisfaction detected\n");
-                            sb.append("Recommendation: Urgent intervention required\n");
+                            showChart(chartPanel0, data.chart("bar", () -> ChartFactory.createStackedBarChart(
+                                "Satisfaction Analysis - All Categories",
+                                "Relief Category", "Percentage (%)", data.categoryDataset)), drillDown);
                         }
-                        
-                        // List individual posts
-                        sb.append("\n\n📝 Recent Posts/Comments for this category:\n");
-                        categoryPosts.stream().limit(10).forEach(post -> {
-                            sb.append(String.format("  - %s (%s): %s\n",
-                                post.getAuthor(),
-                                post.getSentiment().getType(),
-                                post.getContent().substring(0, Math.min(50, post.getContent().length())) + "..."
-                            ));
-                        });
+                    } else if (data.pieDataset != null) {
+                        showChart(chartPanel0, data.chart("pie", () -> ChartFactory.createPieChart(
+                            "Sentiment Distribution: " + selectedCategory, data.pieDataset)),
+                            drillDown(chartPanel0, data, EnumSet.of(categoryOf(selectedCategory)), null,
+                                selectedCategory));
                     }
-                }
-                
-                InteractiveChartUtility.enableChartInteractivity(chartPanel0);
-                textArea0.setText(sb.toString());
-                textArea0.setCaretPosition(0);
-            } catch (Exception ex) {
-                textArea0.setText("Error: " + ex.getMessage());
-                // Log error
-            }
+                    showText(textArea0, data.text);
+                },
+                ex -> textArea0.setText("Error: " + ex.getMessage()));
         });
-        
+
         JPanel buttonPanel0 = new JPanel();
         buttonPanel0.add(btnAnalyzeCategory);
-        
+
         individualCategoryPanel.add(selectorPanel, BorderLayout.NORTH);
         individualCategoryPanel.add(chartPanel0, BorderLayout.CENTER);
         JPanel southPanel = new JPanel(new BorderLayout());
         southPanel.add(buttonPanel0, BorderLayout.NORTH);
         southPanel.add(new JScrollPane(textArea0), BorderLayout.CENTER);
         individualCategoryPanel.add(southPanel, BorderLayout.SOUTH);
-        
+
         tabs.addTab("By Category (Selector)", individualCategoryPanel);
 
         // By Category
@@ -319,46 +175,16 @@ public class AdvancedAnalysisPanel extends JPanel {
 
         JButton btn1 = new JButton("Refresh");
         btn1.addActionListener(e -> {
-            try {
-                List<Post> posts = model.getPosts();
-                DefaultCategoryDataset dataset = new DefaultCategoryDataset();
-                StringBuilder sb = new StringBuilder("=== SATISFACTION BY CATEGORY ===\n\n");
-
-                Map<ReliefItem.Category, List<Post>> byCategory = posts.stream()
-                    .filter(p -> p.getReliefItem() != null)
-                    .collect(Collectors.groupingBy(p -> p.getReliefItem().getCategory()));
-
-                byCategory.forEach((category, categoryPosts) -> {
-                    int total = categoryPosts.size();
-                    long positive = categoryPosts.stream()
-                        .filter(p -> p.getSentiment() != null && p.getSentiment().isPositive())
-                        .count();
-                    long negative = categoryPosts.stream()
-                        .filter(p -> p.getSentiment() != null && p.getSentiment().isNegative())
-                        .count();
-
-                    double posPct = (double) positive / total * 100;
-                    double negPct = (double) negative / total * 100;
-
-                    dataset.addValue(posPct, "Positive", category.getDisplayName());
-                    dataset.addValue(negPct, "Negative", category.getDisplayName());
-
-                    sb.append(String.format("%s: Pos %.0f%% | Neg %.0f%% (%d posts)\n",
-                        category.getDisplayName(), posPct, negPct, total));
-                    if (negPct > 50) sb.append("  ⚠️ CRITICAL\n");
-                    else if (posPct > 60) sb.append("  ✅ SATISFIED\n");
-                });
-
-                JFreeChart chart = ChartFactory.createStackedBarChart(
-                    "Satisfaction by Category (Problem 1)",
-                    "Category", "%", dataset
-                );
-                chartPanel1.setChart(chart);
-                InteractiveChartUtility.enableChartInteractivity(chartPanel1);
-                textArea1.setText(sb.toString());
-            } catch (Exception ex) {
-                textArea1.setText("Error: " + ex.getMessage());
-            }
+            textArea1.setText(COMPUTING);
+            chartCache.loadIndexed("problem1.by_category", null, null, this::buildCategoryOverview,
+                data -> {
+                    showChart(chartPanel1, data.chart("bar", () -> ChartFactory.createStackedBarChart(
+                        "Satisfaction by Category (Problem 1)",
+                        "Category", "%", data.categoryDataset)),
+                        drillDown(chartPanel1, data, EnumSet.allOf(ReliefItem.Category.class), null, null));
+                    textArea1.setText(data.text);
+                },
+                ex -> textArea1.setText("Error: " + ex.getMessage()));
         });
 
         JPanel buttonPanel1 = new JPanel();
@@ -380,42 +206,15 @@ public class AdvancedAnalysisPanel extends JPanel {
 
         JButton btn2 = new JButton("Refresh");
         btn2.addActionListener(e -> {
-            try {
-                List<Post> posts = model.getPosts();
-                DefaultPieDataset<String> dataset = new DefaultPieDataset<>();
-
-                long pos = posts.stream().filter(p -> p.getSentiment() != null && p.getSentiment().isPositive()).count();
-                long neg = posts.stream().filter(p -> p.getSentiment() != null && p.getSentiment().isNegative()).count();
-                long neu = posts.size() - pos - neg;
-
-                dataset.setValue("Positive (" + pos + ")", pos);
-                dataset.setValue("Negative (" + neg + ")", neg);
-                dataset.setValue("Neutral (" + neu + ")", neu);
-
-                JFreeChart chart = ChartFactory.createPieChart("Sentiment Distribution", dataset);
-                pieChartPanel.setChart(chart);
-                InteractiveChartUtility.enableChartInteractivity(pieChartPanel);
-
-                StringBuilder sb = new StringBuilder("=== DETAILED PROBLEM 1 ANALYSIS ===\n\n");
-                Map<ReliefItem.Category, List<Post>> byCategory = posts.stream()
-                    .filter(p -> p.getReliefItem() != null)
-                    .collect(Collectors.groupingBy(p -> p.getReliefItem().getCategory()));
-
-                byCategory.forEach((category, categoryPosts) -> {
-                    sb.append(String.format("📦 %s (%d posts)\n", category.getDisplayName(), categoryPosts.size()));
-                    categoryPosts.forEach(post -> {
-                        sb.append(String.format("   - %s: %s (%.2f)\n",
-                            post.getAuthor(),
-                            post.getSentiment().getType(),
-                            post.getSentiment().getConfidence()));
-                    });
-                    sb.append("\n");
-                });
-
-                textArea2.setText(sb.toString());
-            } catch (Exception ex) {
-                textArea2.setText("Error: " + ex.getMessage());
-            }
+            textArea2.setText(COMPUTING);
+            chartCache.loadIndexed("problem1.sentiment", null, null, this::buildSentimentDistribution,
+                data -> {
+                    showChart(pieChartPanel, data.chart("pie", () -> ChartFactory.createPieChart(
+                        "Sentiment Distribution", data.pieDataset)),
+                        drillDown(pieChartPanel, data, null, null, null));
+                    textArea2.setText(data.text);
+                },
+                ex -> textArea2.setText("Error: " + ex.getMessage()));
         });
 
         JPanel buttonPanel2 = new JPanel();
@@ -433,180 +232,73 @@ public class AdvancedAnalysisPanel extends JPanel {
 
         // === NEW: By Category Temporal with Selector ===
         JPanel categoryTemporalPanel = new JPanel(new BorderLayout());
-        
+
         // Create top panel with disaster AND category selectors
         JPanel selectorPanel2 = new JPanel(new FlowLayout(FlowLayout.LEFT));
         selectorPanel2.setBorder(BorderFactory.createTitledBorder("Select Disaster & Relief Category for Temporal Analysis"));
-        
+
         // Disaster selector
         JLabel disasterLabel2 = new JLabel("Disaster Type: ");
         JComboBox<String> disasterSelector2 = new JComboBox<>();
-        disasterSelector2.addItem("All Disasters");
+        disasterSelector2.addItem(ChartDataCache.ALL_DISASTERS);
         List<String> disasterNames2 = DisasterManager.getInstance().getAllDisasterNames();
         for (String name : disasterNames2) {
             disasterSelector2.addItem(name);
         }
         disasterSelector2.setPreferredSize(new Dimension(120, 25));
-        
+
         selectorPanel2.add(disasterLabel2);
         selectorPanel2.add(disasterSelector2);
         selectorPanel2.add(new JLabel("  |  Category: "));
-        
+
         // Category selector
         JComboBox<String> categorySelector2 = new JComboBox<>();
         categorySelector2.addItem("ALL CATEGORIES");
         for (ReliefItem.Category cat : ReliefItem.Category.values()) {
             categorySelector2.addItem(cat.getDisplayName());
         }
-        
+
         selectorPanel2.add(categorySelector2);
-        
+
         // Chart and text area
         ChartPanel chartPanel2 = new ChartPanel(null);
         chartPanel2.setPreferredSize(new Dimension(800, 350));
         InteractiveChartUtility.makeChartInteractive(chartPanel2);
-        
+
         JTextArea textArea2 = new JTextArea(8, 50);
         textArea2.setEditable(false);
         textArea2.setFont(new Font("Monospaced", Font.PLAIN, 9));
-        
+
         JButton btnAnalyzeCategoryTemporal = new JButton("Analyze");
         btnAnalyzeCategoryTemporal.addActionListener(e -> {
-            try {
-                // Get selected disaster and category
-                String selectedDisaster = (String) disasterSelector2.getSelectedItem();
-                String selectedCategory = (String) categorySelector2.getSelectedItem();
-                
-                // Filter posts by disaster type first
-                List<Post> posts = model.getPosts();
-                if (selectedDisaster != null && !selectedDisaster.equals("All Disasters")) {
-                    posts = posts.stream()
-                        .filter(p -> {
-                            if (p instanceof YouTubePost) {
-                                YouTubePost ytPost = (YouTubePost) p;
-                                DisasterType type = ytPost.getDisasterType();
-                                return type != null && type.getName().equals(selectedDisaster);
-                            }
-                            return false;
-                        })
-                        .collect(Collectors.toList());
-                }
-                
-                StringBuilder sb = new StringBuilder();
-                sb.append("=== TEMPORAL SENTIMENT ANALYSIS: ").append(selectedCategory).append(" ===\n\n");
-                
-                DefaultCategoryDataset dataset = new DefaultCategoryDataset();
-                
-                ReliefItem.Category targetCategory = null;
-                if (!"ALL CATEGORIES".equals(selectedCategory)) {
-                    for (ReliefItem.Category cat : ReliefItem.Category.values()) {
-                        if (cat.getDisplayName().equals(selectedCategory)) {
-                            targetCategory = cat;
-                            break;
-                        }
-                    }
-                }
-                
-                final ReliefItem.Category finalCategory = targetCategory;
-                
-                // Filter posts by category if selected
-                List<Post> filteredPosts = posts.stream()
-                    .filter(p -> finalCategory == null || (p.getReliefItem() != null && p.getReliefItem().getCategory() == finalCategory))
-                    .collect(Collectors.toList());
-                
-                if (filteredPosts.isEmpty()) {
-                    sb.append("No data available for selected category");
-                    textArea2.setText(sb.toString());
-                    return;
-                }
-                
-                // Group by date
-                Map<String, List<Post>> byDate = filteredPosts.stream()
-                    .collect(Collectors.groupingBy(p -> p.getCreatedAt().toLocalDate().toString()));
-                
-                byDate.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(entry -> {
-                    String date = entry.getKey();
-                    List<Post> datePosts = entry.getValue();
-                    
-                    long pos = datePosts.stream()
-                        .filter(p -> p.getSentiment() != null && p.getSentiment().isPositive())
-                        .count();
-                    long neg = datePosts.stream()
-                        .filter(p -> p.getSentiment() != null && p.getSentiment().isNegative())
-                        .count();
-                    long neu = datePosts.size() - pos - neg;
-                    
-                    double posPct = (double) pos / datePosts.size() * 100;
-                    double negPct = (double) neg / datePosts.size() * 100;
-                    double neuPct = (double) neu / datePosts.size() * 100;
-                    
-                    dataset.addValue(posPct, "Positive", date);
-                    dataset.addValue(negPct, "Negative", date);
-                    dataset.addValue(neuPct, "Neutral", date);
-                    
-                    String trend = pos > neg ? "📈 IMPROVING" : (neg > pos ? "📉 DETERIORATING" : "→ STABLE");
-                    sb.append(String.format("%s: %s\n", date, trend));
-                    sb.append(String.format("   Total: %d | Positive: %d (%.1f%%) | Negative: %d (%.1f%%)\n", 
-                        datePosts.size(), pos, posPct, neg, negPct));
-                });
-                
-                JFreeChart chart = ChartFactory.createStackedBarChart(
-                    "Temporal Sentiment: " + selectedCategory,
-                    "Date", "Percentage (%)", dataset
-                );
-                chartPanel2.setChart(chart);
-                
-                // Overall trend analysis
-                sb.append("\n=== TREND ANALYSIS ===\n");
-                List<Map.Entry<String, List<Post>>> sortedEntries = new ArrayList<>(byDate.entrySet());
-                sortedEntries.sort(Map.Entry.comparingByKey());
-                
-                if (sortedEntries.size() >= 2) {
-                    double firstPosPct = (double) sortedEntries.get(0).getValue().stream()
-                        .filter(p -> p.getSentiment() != null && p.getSentiment().isPositive())
-                        .count() / sortedEntries.get(0).getValue().size() * 100;
-                    
-                    double lastPosPct = (double) sortedEntries.get(sortedEntries.size() - 1).getValue().stream()
-                        .filter(p -> p.getSentiment() != null && p.getSentiment().isPositive())
-                        .count() / sortedEntries.get(sortedEntries.size() - 1).getValue().size() * 100;
-                    
-                    double change = lastPosPct - firstPosPct;
-                    
-                    sb.append(String.format("Initial: %.1f%% positive\n", firstPosPct));
-                    sb.append(String.format("Latest:  %.1f%% positive\n", lastPosPct));
-                    sb.append(String.format("Change:  %+.1f%%\n\n", change));
-                    
-                    if (change > 15) {
-                        sb.append("✅ STRONGLY IMPROVING - Relief efforts are becoming more effective");
-                    } else if (change > 5) {
-                        sb.append("📈 IMPROVING - Positive sentiment trend detected");
-                    } else if (change > -5) {
-                        sb.append("→ STABLE - Sentiment levels maintained");
-                    } else if (change > -15) {
-                        sb.append("📉 DETERIORATING - Negative sentiment trend detected");
-                    } else {
-                        sb.append("🚨 STRONGLY DETERIORATING - Urgent intervention needed");
+            String selectedDisaster = (String) disasterSelector2.getSelectedItem();
+            String selectedCategory = (String) categorySelector2.getSelectedItem();
+            textArea2.setText(COMPUTING);
+            chartCache.loadIndexed("problem2.selector", selectedDisaster, selectedCategory,
+                (index, selection) -> buildCategoryTemporal(index, selection, selectedCategory),
+                data -> {
+                    if (data.series != null) {
+                        DownsampledTimeChart timeChart = data.timeChart(() -> DownsampledTimeChart.of(
+                            "Temporal Sentiment: " + selectedCategory, "Percentage (%)",
+                            data.series, DownsampledTimeChart.Mode.PERCENT, chartPanel2));
+                        showChart(chartPanel2, timeChart.getChart(),
+                            drillDown(chartPanel2, data, null, timeChart, selectedCategory));
                     }
-                }
-                
-                InteractiveChartUtility.enableChartInteractivity(chartPanel2);
-                textArea2.setText(sb.toString());
-                textArea2.setCaretPosition(0);
-            } catch (Exception ex) {
-                textArea2.setText("Error: " + ex.getMessage());
-            }
+                    showText(textArea2, data.text);
+                },
+                ex -> textArea2.setText("Error: " + ex.getMessage()));
         });
-        
+
         JPanel buttonPanel2a = new JPanel();
         buttonPanel2a.add(btnAnalyzeCategoryTemporal);
-        
+
         categoryTemporalPanel.add(selectorPanel2, BorderLayout.NORTH);
         categoryTemporalPanel.add(chartPanel2, BorderLayout.CENTER);
         JPanel southPanel2 = new JPanel(new BorderLayout());
         southPanel2.add(buttonPanel2a, BorderLayout.NORTH);
         southPanel2.add(new JScrollPane(textArea2), BorderLayout.CENTER);
         categoryTemporalPanel.add(southPanel2, BorderLayout.SOUTH);
-        
+
         tabs.addTab("By Category (Temporal)", categoryTemporalPanel);
 
         // Temporal Distribution
@@ -623,40 +315,16 @@ public class AdvancedAnalysisPanel extends JPanel {
 
         JButton btnTemporal = new JButton("Refresh");
         btnTemporal.addActionListener(e -> {
-            try {
-                List<Post> posts = model.getPosts();
-                DefaultCategoryDataset dataset = new DefaultCategoryDataset();
-                StringBuilder sb = new StringBuilder("=== TEMPORAL SENTIMENT ANALYSIS (Problem 2) ===\n\n");
-
-                Map<String, List<Post>> byDate = posts.stream()
-                    .collect(Collectors.groupingBy(p -> p.getCreatedAt().toLocalDate().toString()));
-
-                byDate.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(entry -> {
-                    String date = entry.getKey();
-                    List<Post> datePosts = entry.getValue();
-
-                    long pos = datePosts.stream().filter(p -> p.getSentiment() != null && p.getSentiment().isPositive()).count();
-                    long neg = datePosts.stream().filter(p -> p.getSentiment() != null && p.getSentiment().isNegative()).count();
-                    long neu = datePosts.size() - pos - neg;
-
-                    dataset.addValue(pos, "Positive", date);
-                    dataset.addValue(neg, "Negative", date);
-                    dataset.addValue(neu, "Neutral", date);
-
-                    String trend = pos > neg ? "📈 IMPROVING" : (neg > pos ? "📉 DETERIORATING" : "→ STABLE");
-                    sb.append(String.format("%s: %s | Posts:%d | Pos:%d Neg:%d\n", date, trend, datePosts.size(), pos, neg));
-                });
-
-                JFreeChart chart = ChartFactory.createStackedBarChart(
-                    "Sentiment Over Time (Problem 2)",
-                    "Date", "Posts", dataset
-                );
-                chartPanel.setChart(chart);
-                InteractiveChartUtility.enableChartInteractivity(chartPanel);
-                textArea.setText(sb.toString());
-            } catch (Exception ex) {
-                textArea.setText("Error: " + ex.getMessage());
-            }
+            textArea.setText(COMPUTING);
+            chartCache.loadIndexed("problem2.over_time", null, null, this::buildSentimentOverTime,
+                data -> {
+                    DownsampledTimeChart timeChart = data.timeChart(() -> DownsampledTimeChart.of(
+                        "Sentiment Over Time (Problem 2)", "Posts",
+                        data.series, DownsampledTimeChart.Mode.COUNTS, chartPanel));
+                    showChart(chartPanel, timeChart.getChart(), drillDown(chartPanel, data, null, timeChart, null));
+                    textArea.setText(data.text);
+                },
+                ex -> textArea.setText("Error: " + ex.getMessage()));
         });
 
         JPanel buttonPanel = new JPanel();
@@ -674,36 +342,10 @@ public class AdvancedAnalysisPanel extends JPanel {
 
         JButton btnComment = new JButton("Refresh Comment Analysis");
         btnComment.addActionListener(e -> {
-            try {
-                List<Post> posts = model.getPosts();
-                StringBuilder sb = new StringBuilder("=== COMMENT SENTIMENT OVER TIME ===\n\n");
-
-                posts.forEach(post -> {
-                    if (!post.getComments().isEmpty()) {
-                        sb.append(String.format("📌 Post %s (%s)\n", post.getPostId(), post.getAuthor()));
-                        sb.append(String.format("   Posted: %s\n", post.getCreatedAt().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"))));
-
-                        List<Comment> sorted = post.getComments().stream()
-                            .sorted(Comparator.comparing(Comment::getCreatedAt))
-                            .collect(Collectors.toList());
-
-                        for (int i = 0; i < sorted.size(); i++) {
-                            Comment c = sorted.get(i);
-                            sb.append(String.format("     [%d] %s @ %s: %s (%.2f) - \"%s\"\n",
-                                i + 1, c.getAuthor(),
-                                c.getCreatedAt().format(DateTimeFormatter.ofPattern("HH:mm")),
-                                c.getSentiment().getType(),
-                                c.getSentiment().getConfidence(),
-                                truncate(c.getContent(), 50)));
-                        }
-                        sb.append("\n");
-                    }
-                });
-
-                commentArea.setText(sb.toString());
-            } catch (Exception ex) {
-                commentArea.setText("Error: " + ex.getMessage());
-            }
+            commentArea.setText(COMPUTING);
+            chartCache.load("problem2.comments", null, null, this::buildCommentTimeline,
+                commentArea::setText,
+                ex -> commentArea.setText("Error: " + ex.getMessage()));
         });
 
         JPanel buttonPanel2 = new JPanel();
@@ -717,101 +359,36 @@ public class AdvancedAnalysisPanel extends JPanel {
 
     private JPanel createCombinedTab() {
         JPanel panel = new JPanel(new BorderLayout());
-        
+
         // Add disaster selector panel
         JPanel selectorPanel3 = new JPanel(new FlowLayout(FlowLayout.LEFT));
         selectorPanel3.setBorder(BorderFactory.createTitledBorder("Select Disaster Type"));
-        
+
         JLabel disasterLabel3 = new JLabel("Disaster Type: ");
         JComboBox<String> disasterSelector3 = new JComboBox<>();
-        disasterSelector3.addItem("All Disasters");
+        disasterSelector3.addItem(ChartDataCache.ALL_DISASTERS);
         List<String> disasterNames3 = DisasterManager.getInstance().getAllDisasterNames();
         for (String name : disasterNames3) {
             disasterSelector3.addItem(name);
         }
         disasterSelector3.setPreferredSize(new Dimension(120, 25));
-        
+
         selectorPanel3.add(disasterLabel3);
         selectorPanel3.add(disasterSelector3);
         panel.add(selectorPanel3, BorderLayout.NORTH);
-        
+
         JTextArea textArea = new JTextArea();
         textArea.setEditable(false);
         textArea.setFont(new Font("Monospaced", Font.PLAIN, 9));
 
         JButton btn = new JButton("Generate Report");
         btn.addActionListener(e -> {
-            try {
-                // Get selected disaster
-                String selectedDisaster = (String) disasterSelector3.getSelectedItem();
-                
-                // Filter posts by disaster type
-                List<Post> posts = model.getPosts();
-                if (selectedDisaster != null && !selectedDisaster.equals("All Disasters")) {
-                    posts = posts.stream()
-                        .filter(p -> {
-                            if (p instanceof YouTubePost) {
-                                YouTubePost ytPost = (YouTubePost) p;
-                                DisasterType type = ytPost.getDisasterType();
-                                return type != null && type.getName().equals(selectedDisaster);
-                            }
-                            return false;
-                        })
-                        .collect(Collectors.toList());
-                }
-                
-                StringBuilder sb = new StringBuilder();
-
-                sb.append("═".repeat(70)).append("\n");
-                sb.append("PROBLEM 1 & 2 COMBINED ANALYSIS REPORT\n");
-                if (selectedDisaster != null && !selectedDisaster.equals("All Disasters")) {
-                    sb.append("(Disaster: ").append(selectedDisaster).append(")\n");
-                }
-                sb.append("═".repeat(70)).append("\n\n");
-
-                // Problem 1
-                sb.append("📊 PROBLEM 1: PUBLIC SATISFACTION ANALYSIS\n");
-                sb.append("─".repeat(70)).append("\n");
-
-                Map<ReliefItem.Category, List<Post>> byCategory = posts.stream()
-                    .filter(p -> p.getReliefItem() != null)
-                    .collect(Collectors.groupingBy(p -> p.getReliefItem().getCategory()));
-
-                byCategory.forEach((cat, catPosts) -> {
-                    long pos = catPosts.stream().filter(p -> p.getSentiment() != null && p.getSentiment().isPositive()).count();
-                    double posPct = (double) pos / catPosts.size() * 100;
-                    String status = posPct > 70 ? "✅ EXCELLENT" : (posPct > 50 ? "⚠️ MODERATE" : "❌ CRITICAL");
-                    sb.append(String.format("%-20s: %.1f%% satisfaction %s\n", cat.getDisplayName(), posPct, status));
-                });
-
-                // Problem 2
-                sb.append("\n📈 PROBLEM 2: TEMPORAL SENTIMENT TRACKING\n");
-                sb.append("─".repeat(70)).append("\n");
-
-                Map<String, List<Post>> byDate = posts.stream()
-                    .collect(Collectors.groupingBy(p -> p.getCreatedAt().toLocalDate().toString()));
-
-                byDate.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(entry -> {
-                    List<Post> datePosts = entry.getValue();
-                    long pos = datePosts.stream().filter(p -> p.getSentiment() != null && p.getSentiment().isPositive()).count();
-                    long neg = datePosts.stream().filter(p -> p.getSentiment() != null && p.getSentiment().isNegative()).count();
-                    String trend = pos > neg ? "↗ IMPROVING" : (neg > pos ? "↘ DETERIORATING" : "→ STABLE");
-                    sb.append(String.format("%s: %s (P:%d N:%d)\n", entry.getKey(), trend, pos, neg));
-                });
-
-                // Summary
-                sb.append("\n📋 SUMMARY\n");
-                sb.append("─".repeat(70)).append("\n");
-                sb.append(String.format("Total Posts: %d\n", posts.size()));
-                sb.append(String.format("Total Comments: %d\n", posts.stream().mapToInt(p -> p.getComments().size()).sum()));
-
-                long totalPos = posts.stream().filter(p -> p.getSentiment() != null && p.getSentiment().isPositive()).count();
-                sb.append(String.format("Overall Satisfaction: %.1f%%\n", (double) totalPos / posts.size() * 100));
-
-                textArea.setText(sb.toString());
-            } catch (Exception ex) {
-                textArea.setText("Error: " + ex.getMessage());
-            }
+            String selectedDisaster = (String) disasterSelector3.getSelectedItem();
+            textArea.setText(COMPUTING);
+            chartCache.load("combined.report", selectedDisaster, null,
+                posts -> buildCombinedReport(posts, selectedDisaster),
+                textArea::setText,
+                ex -> textArea.setText("Error: " + ex.getMessage()));
         });
 
         JPanel buttonPanel = new JPanel();
@@ -822,24 +399,509 @@ public class AdvancedAnalysisPanel extends JPanel {
         return panel;
     }
 
+    private static void showChart(ChartPanel chartPanel, JFreeChart chart, Consumer<ChartEntity> drillDown) {
+        chartPanel.setChart(chart);
+        InteractiveChartUtility.enableChartInteractivity(chartPanel);
+        InteractiveChartUtility.setDrillDown(chartPanel, drillDown);
+    }
+
+    /**
+     * Opens the posts behind a clicked bar, slice or point. Bar columns name a category;
+     * bar rows, slices and line series name a sentiment; line points stand for a time bucket.
+     * @param scope categories a click covers unless the entity names one; null for every post
+     * @param timeChart chart whose points are time buckets, or null
+     * @param context shown before the value in the dialog title, or null
+     */
+    private static Consumer<ChartEntity> drillDown(ChartPanel chartPanel, ChartData data,
+                                                   Set<ReliefItem.Category> scope, DownsampledTimeChart timeChart,
+                                                   String context) {
+        return entity -> {
+            Set<ReliefItem.Category> categories = scope;
+            CompactBitmap matches = data.selection;
+            Comparable<?> sentimentKey;
+            String title;
+            if (entity instanceof CategoryItemEntity) {
+                CategoryItemEntity item = (CategoryItemEntity) entity;
+                sentimentKey = item.getRowKey();
+                ReliefItem.Category category = categoryOf(String.valueOf(item.getColumnKey()));
+                if (category != null) {
+                    categories = EnumSet.of(category);
+                }
+                title = item.getRowKey() + " - " + item.getColumnKey();
+            } else if (entity instanceof PieSectionEntity) {
+                sentimentKey = ((PieSectionEntity) entity).getSectionKey();
+                title = String.valueOf(sentimentKey);
+            } else if (entity instanceof XYItemEntity && timeChart != null) {
+                XYItemEntity item = (XYItemEntity) entity;
+                sentimentKey = item.getDataset().getSeriesKey(item.getSeriesIndex());
+                long from = (long) item.getDataset().getXValue(item.getSeriesIndex(), item.getItem());
+                matches = matches.and(data.index.between(from, from + timeChart.getBucketMillis()));
+                title = sentimentKey + " - " + LocalDateTime.ofEpochSecond(Math.floorDiv(from, 1000L), 0, ZoneOffset.UTC)
+                    .format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
+            } else {
+                return;
+            }
+            Sentiment.SentimentType type = sentimentOf(sentimentKey);
+            if (type == null) {
+                return;
+            }
+            matches = matches.and(data.index.sentiment(type));
+            if (categories != null) {
+                matches = matches.and(data.index.categories(categories));
+            }
+            DrillDownDialog.show(chartPanel, context == null ? title : context + ": " + title, data.index.posts(matches));
+        };
+    }
+
+    /**
+     * Sentiment named by a dataset key such as "Positive" or "Negative (12)"
+     */
+    private static Sentiment.SentimentType sentimentOf(Comparable<?> key) {
+        String name = String.valueOf(key).split(" ")[0].toUpperCase(Locale.ROOT);
+        for (Sentiment.SentimentType type : Sentiment.SentimentType.values()) {
+            if (type.name().equals(name)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    private static ReliefItem.Category categoryOf(String displayName) {
+        for (ReliefItem.Category category : ReliefItem.Category.values()) {
+            if (category.getDisplayName().equals(displayName)) {
+                return category;
+            }
+        }
+        return null;
+    }
+
+    private static void showText(JTextArea textArea, String text) {
+        textArea.setText(text);
+        textArea.setCaretPosition(0);
+    }
+
+    // ---- Dataset builders: run on a worker thread, so they must not touch Swing components ----
+
+    /**
+     * Satisfaction of every category side by side, or the sentiment split of one category
+     */
+    private ChartData buildCategorySatisfaction(PostFilterIndex index, CompactBitmap selection,
+                                                String selectedCategory) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== SATISFACTION ANALYSIS: ").append(selectedCategory).append(" ===\n\n");
+
+        if ("ALL CATEGORIES".equals(selectedCategory)) {
+            // Show all categories comparison
+            DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+            CompactBitmap positiveSet = selection.and(index.sentiment(Sentiment.SentimentType.POSITIVE));
+            CompactBitmap negativeSet = selection.and(index.sentiment(Sentiment.SentimentType.NEGATIVE));
+
+            for (ReliefItem.Category category : ReliefItem.Category.values()) {
+                CompactBitmap categorySet = index.category(category);
+                int total = selection.andCardinality(categorySet);
+                if (total == 0) continue;
+
+                long positive = positiveSet.andCardinality(categorySet);
+                long negative = negativeSet.andCardinality(categorySet);
+                long neutral = total - positive - negative;
+
+                double posPct = (double) positive / total * 100;
+                double negPct = (double) negative / total * 100;
+                double neuPct = (double) neutral / total * 100;
+                double satisfactionScore = (positive - negative) / (double) total;
+
+                dataset.addValue(posPct, "Positive", category.getDisplayName());
+                dataset.addValue(negPct, "Negative", category.getDisplayName());
+                dataset.addValue(neuPct, "Neutral", category.getDisplayName());
+
+                sb.append(String.format("📦 %s (Total: %d)\n", category.getDisplayName(), total));
+                sb.append(String.format("   Positive: %d (%.1f%%)\n", positive, posPct));
+                sb.append(String.format("   Negative: %d (%.1f%%)\n", negative, negPct));
+                sb.append(String.format("   Neutral:  %d (%.1f%%)\n", neutral, neuPct));
+                sb.append(String.format("   Satisfaction Score: %.2f\n", satisfactionScore));
+
+                if (satisfactionScore > 0.6) sb.append("   ✅ HIGHLY EFFECTIVE\n");
+                else if (satisfactionScore > 0.2) sb.append("   ⚠️ NEEDS IMPROVEMENT\n");
+                else sb.append("   🚨 CRITICAL - URGENT ATTENTION\n");
+                sb.append("\n");
+            }
+
+            // Pie view of the same data: category percentages summed per sentiment
+            DefaultPieDataset<String> pieDataset = new DefaultPieDataset<>();
+            double posSum = 0, negSum = 0, neuSum = 0;
+            for (Object colObj : dataset.getColumnKeys()) {
+                Comparable<?> col = (Comparable<?>) colObj;
+                Number pos = dataset.getValue("Positive", col);
+                Number neg = dataset.getValue("Negative", col);
+                Number neu = dataset.getValue("Neutral", col);
+                if (pos != null) posSum += pos.doubleValue();
+                if (neg != null) negSum += neg.doubleValue();
+                if (neu != null) neuSum += neu.doubleValue();
+            }
+            pieDataset.setValue("Positive", posSum);
+            pieDataset.setValue("Negative", negSum);
+            pieDataset.setValue("Neutral", neuSum);
+            return new ChartData(dataset, pieDataset, index, selection, sb.toString());
+        }
+
+        // Show specific category details
+        ReliefItem.Category targetCategory = null;
+        for (ReliefItem.Category cat : ReliefItem.Category.values()) {
+            if (cat.getDisplayName().equals(selectedCategory)) {
+                targetCategory = cat;
+                break;
+            }
+        }
+
+        if (targetCategory == null) {
+            return new ChartData(null, null, index, selection, sb.toString());
+        }
+        CompactBitmap categorySet = selection.and(index.category(targetCategory));
+
+        int total = categorySet.cardinality();
+        long positive = categorySet.andCardinality(index.sentiment(Sentiment.SentimentType.POSITIVE));
+        long negative = categorySet.andCardinality(index.sentiment(Sentiment.SentimentType.NEGATIVE));
+        long neutral = total - positive - negative;
+
+        double posPct = total > 0 ? (double) positive / total * 100 : 0;
+        double negPct = total > 0 ? (double) negative / total * 100 : 0;
+        double neuPct = total > 0 ? (double) neutral / total * 100 : 0;
+        double satisfactionScore = total > 0 ? (positive - negative) / (double) total : 0;
+
+        // Pie chart for selected category
+        DefaultPieDataset<String> pieDataset = new DefaultPieDataset<>();
+        pieDataset.setValue("Positive (" + positive + ")", posPct);
+        pieDataset.setValue("Negative (" + negative + ")", negPct);
+        pieDataset.setValue("Neutral (" + neutral + ")", neuPct);
+
+        sb.append(String.format("📊 Detailed Analysis for: %s\n\n", selectedCategory));
+        sb.append(String.format("Total Records: %d\n", total));
+        sb.append(String.format("Positive: %d (%.1f%%)\n", positive, posPct));
+        sb.append(String.format("Negative: %d (%.1f%%)\n", negative, negPct));
+        sb.append(String.format("Neutral:  %d (%.1f%%)\n", neutral, neuPct));
+        sb.append(String.format("\nSatisfaction Score: %.2f\n\n", satisfactionScore));
+
+        // Effectiveness assessment
+        if (satisfactionScore > 0.6) {
+            sb.append("✅ STATUS: HIGHLY EFFECTIVE\n");
+            sb.append("Assessment: This relief category is well-received\n");
+            sb.append("Recommendation: Maintain and scale current operations\n");
+        } else if (satisfactionScore > 0.2) {
+            sb.append("⚠️ STATUS: SATISFACTORY\n");
+            sb.append("Assessment: Relief efforts are working but need optimization\n");
+            sb.append("Recommendation: Monitor closely and optimize delivery\n");
+        } else if (satisfactionScore > -0.2) {
+            sb.append("🟡 STATUS: NEUTRAL\n");
+            sb.append("Assessment: Mixed sentiment, unclear effectiveness\n");
+            sb.append("Recommendation: Gather more data and review strategy\n");
+        } else if (satisfactionScore > -0.6) {
+            sb.append("🔴 STATUS: NEEDS URGENT ATTENTION\n");
+            sb.append("Assessment: More negative than positive sentiment\n");
+            sb.append("Recommendation: Investigate issues and adjust strategy\n");
+        } else {
+            sb.append("🚨 STATUS: CRITICAL\n");
+            sb.append("Assessment: High dissatisfaction detected\n");
+            sb.append("Recommendation: Urgent intervention required\n");
+        }
+
+        // List the newest posts; the index keeps them in time order
+        sb.append("\n\n📝 Recent Posts/Comments for this category:\n");
+        List<Post> categoryPosts = index.posts(categorySet);
+        categoryPosts.subList(Math.max(0, categoryPosts.size() - 10), categoryPosts.size()).forEach(post -> {
+            sb.append(String.format("  - %s (%s): %s\n",
+                post.getAuthor(),
+                post.getSentiment().getType(),
+                post.getContent().substring(0, Math.min(50, post.getContent().length())) + "..."
+            ));
+        });
+        return new ChartData(null, pieDataset, index, selection, sb.toString());
+    }
+
+    private ChartData buildCategoryOverview(PostFilterIndex index, CompactBitmap selection) {
+        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+        StringBuilder sb = new StringBuilder("=== SATISFACTION BY CATEGORY ===\n\n");
+        CompactBitmap positiveSet = selection.and(index.sentiment(Sentiment.SentimentType.POSITIVE));
+        CompactBitmap negativeSet = selection.and(index.sentiment(Sentiment.SentimentType.NEGATIVE));
+
+        for (ReliefItem.Category category : ReliefItem.Category.values()) {
+            CompactBitmap categorySet = index.category(category);
+            int total = selection.andCardinality(categorySet);
+            if (total == 0) continue;
+            long positive = positiveSet.andCardinality(categorySet);
+            long negative = negativeSet.andCardinality(categorySet);
+
+            double posPct = (double) positive / total * 100;
+            double negPct = (double) negative / total * 100;
+
+            dataset.addValue(posPct, "Positive", category.getDisplayName());
+            dataset.addValue(negPct, "Negative", category.getDisplayName());
+
+            sb.append(String.format("%s: Pos %.0f%% | Neg %.0f%% (%d posts)\n",
+                category.getDisplayName(), posPct, negPct, total));
+            if (negPct > 50) sb.append("  ⚠️ CRITICAL\n");
+            else if (posPct > 60) sb.append("  ✅ SATISFIED\n");
+        }
+        return new ChartData(dataset, null, index, selection, sb.toString());
+    }
+
+    private ChartData buildSentimentDistribution(PostFilterIndex index, CompactBitmap selection) {
+        DefaultPieDataset<String> dataset = new DefaultPieDataset<>();
+
+        long pos = selection.andCardinality(index.sentiment(Sentiment.SentimentType.POSITIVE));
+        long neg = selection.andCardinality(index.sentiment(Sentiment.SentimentType.NEGATIVE));
+        long neu = selection.cardinality() - pos - neg;
+
+        dataset.setValue("Positive (" + pos + ")", pos);
+        dataset.setValue("Negative (" + neg + ")", neg);
+        dataset.setValue("Neutral (" + neu + ")", neu);
+
+        StringBuilder sb = new StringBuilder("=== DETAILED PROBLEM 1 ANALYSIS ===\n\n");
+        for (ReliefItem.Category category : ReliefItem.Category.values()) {
+            CompactBitmap categorySet = selection.and(index.category(category));
+            if (categorySet.isEmpty()) continue;
+            sb.append(String.format("📦 %s (%d posts)\n", category.getDisplayName(), categorySet.cardinality()));
+            index.posts(categorySet).forEach(post -> {
+                sb.append(String.format("   - %s: %s (%.2f)\n",
+                    post.getAuthor(),
+                    post.getSentiment().getType(),
+                    post.getSentiment().getConfidence()));
+            });
+            sb.append("\n");
+        }
+        return new ChartData(null, dataset, index, selection, sb.toString());
+    }
+
+    /**
+     * Sentiment over time of one category (or all), with a per-day report and the overall trend
+     */
+    private ChartData buildCategoryTemporal(PostFilterIndex index, CompactBitmap selection, String selectedCategory) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== TEMPORAL SENTIMENT ANALYSIS: ").append(selectedCategory).append(" ===\n\n");
+
+        ReliefItem.Category targetCategory = null;
+        if (!"ALL CATEGORIES".equals(selectedCategory)) {
+            for (ReliefItem.Category cat : ReliefItem.Category.values()) {
+                if (cat.getDisplayName().equals(selectedCategory)) {
+                    targetCategory = cat;
+                    break;
+                }
+            }
+        }
+
+        // Narrow to the category if selected
+        CompactBitmap filtered = targetCategory == null ? selection : selection.and(index.category(targetCategory));
+
+        if (filtered.isEmpty()) {
+            sb.append("No data available for selected category");
+            return new ChartData(null, null, index, filtered, sb.toString());
+        }
+
+        // Per-day counts are rank lookups: the index numbers posts in time order
+        CompactBitmap positiveSet = filtered.and(index.sentiment(Sentiment.SentimentType.POSITIVE));
+        CompactBitmap negativeSet = filtered.and(index.sentiment(Sentiment.SentimentType.NEGATIVE));
+        List<LocalDate> days = index.getDays();
+        int firstDay = -1;
+        int lastDay = -1;
+        for (int d = 0; d < days.size(); d++) {
+            int total = index.count(filtered, d);
+            if (total == 0) continue;
+            if (firstDay < 0) firstDay = d;
+            lastDay = d;
+
+            long pos = index.count(positiveSet, d);
+            long neg = index.count(negativeSet, d);
+
+            double posPct = (double) pos / total * 100;
+            double negPct = (double) neg / total * 100;
+
+            String trend = pos > neg ? "📈 IMPROVING" : (neg > pos ? "📉 DETERIORATING" : "→ STABLE");
+            sb.append(String.format("%s: %s\n", days.get(d), trend));
+            sb.append(String.format("   Total: %d | Positive: %d (%.1f%%) | Negative: %d (%.1f%%)\n",
+                total, pos, posPct, neg, negPct));
+        }
+
+        // Overall trend analysis
+        sb.append("\n=== TREND ANALYSIS ===\n");
+
+        if (firstDay >= 0 && lastDay > firstDay) {
+            double firstPosPct = (double) index.count(positiveSet, firstDay) / index.count(filtered, firstDay) * 100;
+            double lastPosPct = (double) index.count(positiveSet, lastDay) / index.count(filtered, lastDay) * 100;
+
+            double change = lastPosPct - firstPosPct;
+
+            sb.append(String.format("Initial: %.1f%% positive\n", firstPosPct));
+            sb.append(String.format("Latest:  %.1f%% positive\n", lastPosPct));
+            sb.append(String.format("Change:  %+.1f%%\n\n", change));
+
+            if (change > 15) {
+                sb.append("✅ STRONGLY IMPROVING - Relief efforts are becoming more effective");
+            } else if (change > 5) {
+                sb.append("📈 IMPROVING - Positive sentiment trend detected");
+            } else if (change > -5) {
+                sb.append("→ STABLE - Sentiment levels maintained");
+            } else if (change > -15) {
+                sb.append("📉 DETERIORATING - Negative sentiment trend detected");
+            } else {
+                sb.append("🚨 STRONGLY DETERIORATING - Urgent intervention needed");
+            }
+        }
+        return new ChartData(SentimentSeries.of(index.posts(filtered)), index, filtered, sb.toString());
+    }
+
+    private ChartData buildSentimentOverTime(PostFilterIndex index, CompactBitmap selection) {
+        StringBuilder sb = new StringBuilder("=== TEMPORAL SENTIMENT ANALYSIS (Problem 2) ===\n\n");
+
+        CompactBitmap positiveSet = selection.and(index.sentiment(Sentiment.SentimentType.POSITIVE));
+        CompactBitmap negativeSet = selection.and(index.sentiment(Sentiment.SentimentType.NEGATIVE));
+        List<LocalDate> days = index.getDays();
+        for (int d = 0; d < days.size(); d++) {
+            int total = index.count(selection, d);
+            if (total == 0) continue;
+
+            long pos = index.count(positiveSet, d);
+            long neg = index.count(negativeSet, d);
+
+            String trend = pos > neg ? "📈 IMPROVING" : (neg > pos ? "📉 DETERIORATING" : "→ STABLE");
+            sb.append(String.format("%s: %s | Posts:%d | Pos:%d Neg:%d\n", days.get(d), trend, total, pos, neg));
+        }
+        return new ChartData(SentimentSeries.of(index.posts(selection)), index, selection, sb.toString());
+    }
+
+    private String buildCommentTimeline(List<Post> posts) {
+        StringBuilder sb = new StringBuilder("=== COMMENT SENTIMENT OVER TIME ===\n\n");
+        DateTimeFormatter postedFormat = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+        DateTimeFormatter commentFormat = DateTimeFormatter.ofPattern("HH:mm");
+
+        posts.forEach(post -> {
+            if (!post.getComments().isEmpty()) {
+                sb.append(String.format("📌 Post %s (%s)\n", post.getPostId(), post.getAuthor()));
+                sb.append(String.format("   Posted: %s\n", post.getCreatedAt().format(postedFormat)));
+
+                List<Comment> sorted = post.getComments().stream()
+                    .sorted(Comparator.comparing(Comment::getCreatedAt))
+                    .collect(Collectors.toList());
+
+                for (int i = 0; i < sorted.size(); i++) {
+                    Comment c = sorted.get(i);
+                    sb.append(String.format("     [%d] %s @ %s: %s (%.2f) - \"%s\"\n",
+                        i + 1, c.getAuthor(),
+                        c.getCreatedAt().format(commentFormat),
+                        c.getSentiment().getType(),
+                        c.getSentiment().getConfidence(),
+                        truncate(c.getContent(), 50)));
+                }
+                sb.append("\n");
+            }
+        });
+        return sb.toString();
+    }
+
+    private String buildCombinedReport(List<Post> posts, String selectedDisaster) {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("═".repeat(70)).append("\n");
+        sb.append("PROBLEM 1 & 2 COMBINED ANALYSIS REPORT\n");
+        if (selectedDisaster != null && !selectedDisaster.equals(ChartDataCache.ALL_DISASTERS)) {
+            sb.append("(Disaster: ").append(selectedDisaster).append(")\n");
+        }
+        sb.append("═".repeat(70)).append("\n\n");
+
+        // Problem 1
+        sb.append("📊 PROBLEM 1: PUBLIC SATISFACTION ANALYSIS\n");
+        sb.append("─".repeat(70)).append("\n");
+
+        Map<ReliefItem.Category, List<Post>> byCategory = posts.stream()
+            .filter(p -> p.getReliefItem() != null)
+            .collect(Collectors.groupingBy(p -> p.getReliefItem().getCategory()));
+
+        byCategory.forEach((cat, catPosts) -> {
+            long pos = catPosts.stream().filter(p -> p.getSentiment() != null && p.getSentiment().isPositive()).count();
+            double posPct = (double) pos / catPosts.size() * 100;
+            String status = posPct > 70 ? "✅ EXCELLENT" : (posPct > 50 ? "⚠️ MODERATE" : "❌ CRITICAL");
+            sb.append(String.format("%-20s: %.1f%% satisfaction %s\n", cat.getDisplayName(), posPct, status));
+        });
+
+        // Problem 2
+        sb.append("\n📈 PROBLEM 2: TEMPORAL SENTIMENT TRACKING\n");
+        sb.append("─".repeat(70)).append("\n");
+
+        Map<String, List<Post>> byDate = posts.stream()
+            .collect(Collectors.groupingBy(p -> p.getCreatedAt().toLocalDate().toString()));
+
+        byDate.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(entry -> {
+            List<Post> datePosts = entry.getValue();
+            long pos = datePosts.stream().filter(p -> p.getSentiment() != null && p.getSentiment().isPositive()).count();
+            long neg = datePosts.stream().filter(p -> p.getSentiment() != null && p.getSentiment().isNegative()).count();
+            String trend = pos > neg ? "↗ IMPROVING" : (neg > pos ? "↘ DETERIORATING" : "→ STABLE");
+            sb.append(String.format("%s: %s (P:%d N:%d)\n", entry.getKey(), trend, pos, neg));
+        });
+
+        // Summary
+        sb.append("\n📋 SUMMARY\n");
+        sb.append("─".repeat(70)).append("\n");
+        sb.append(String.format("Total Posts: %d\n", posts.size()));
+        sb.append(String.format("Total Comments: %d\n", posts.stream().mapToInt(p -> p.getComments().size()).sum()));
+
+        long totalPos = posts.stream().filter(p -> p.getSentiment() != null && p.getSentiment().isPositive()).count();
+        sb.append(String.format("Overall Satisfaction: %.1f%%\n", (double) totalPos / posts.size() * 100));
+        return sb.toString();
+    }
+
+    /**
+     * Datasets, report text and the selection behind them of one view, as cached by
+     * {@link ChartDataCache}; drill-down narrows the selection in the index. Charts are made on the EDT the first time the data is shown
+     * and then reused, so redisplaying cached data does not attach another chart to the
+     * same dataset.
+     */
+    private static class ChartData {
+        final DefaultCategoryDataset categoryDataset;
+        final DefaultPieDataset<String> pieDataset;
+        final SentimentSeries series;
+        final PostFilterIndex index;
+        final CompactBitmap selection;
+        final String text;
+        private final Map<String, JFreeChart> charts = new HashMap<>();
+        private DownsampledTimeChart timeChart;
+
+        ChartData(DefaultCategoryDataset categoryDataset, DefaultPieDataset<String> pieDataset,
+                  PostFilterIndex index, CompactBitmap selection, String text) {
+            this.categoryDataset = categoryDataset;
+            this.pieDataset = pieDataset;
+            this.series = null;
+            this.index = index;
+            this.selection = selection;
+            this.text = text;
+        }
+
+        ChartData(SentimentSeries series, PostFilterIndex index, CompactBitmap selection, String text) {
+            this.categoryDataset = null;
+            this.pieDataset = null;
+            this.series = series;
+            this.index = index;
+            this.selection = selection;
+            this.text = text;
+        }
+
+        JFreeChart chart(String kind, Supplier<JFreeChart> factory) {
+            return charts.computeIfAbsent(kind, k -> factory.get());
+        }
+
+        DownsampledTimeChart timeChart(Supplier<DownsampledTimeChart> factory) {
+            if (timeChart == null) {
+                timeChart = factory.get();
+            }
+            return timeChart;
+        }
+    }
+
     private String truncate(String s, int len) {
         return s.length() <= len ? s : s.substring(0, len) + "...";
     }
 
     private void analyzeAllPostsAction() {
+        BatchAnalysisJob job;
         try {
-            int analyzedCount = model.analyzeAllPosts();
-            JOptionPane.showMessageDialog(
-                this,
-                "✓ Sentiment analysis complete!\n\n" +
-                "Analyzed: " + analyzedCount + " posts via Python API\n\n" +
-                "Sentiments updated in memory and saved to database.\n" +
-                "Click 'Problem 1' or 'Problem 2' to view analysis.",
-                "Analysis Complete",
-                JOptionPane.INFORMATION_MESSAGE
-            );
-            // Refresh tabs to show updated sentiments
-            mainTabs.repaint();
+            job = model.startBatchAnalysis(Math.max(2, Runtime.getRuntime().availableProcessors()));
         } catch (Exception e) {
             JOptionPane.showMessageDialog(
                 this,
@@ -848,6 +910,69 @@ public class AdvancedAnalysisPanel extends JPanel {
                 "Analysis Error",
                 JOptionPane.ERROR_MESSAGE
             );
+            return;
+        }
+
+        // Non-modal progress dialog polled from the EDT; the job itself runs in the background
+        JDialog dialog = new JDialog(SwingUtilities.getWindowAncestor(this), "Analyzing Posts", Dialog.ModalityType.MODELESS);
+        JProgressBar progressBar = new JProgressBar(0, 1000);
+        progressBar.setStringPainted(true);
+        JLabel progressLabel = new JLabel("Starting...");
+        JButton cancelButton = new JButton("Cancel");
+        cancelButton.addActionListener(e -> job.cancel());
+        JPanel content = new JPanel(new BorderLayout(10, 10));
+        content.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+        content.add(progressLabel, BorderLayout.NORTH);
+        content.add(progressBar, BorderLayout.CENTER);
+        content.add(cancelButton, BorderLayout.SOUTH);
+        dialog.add(content);
+        dialog.setSize(420, 150);
+        dialog.setLocationRelativeTo(this);
+        dialog.setVisible(true);
+
+        javax.swing.Timer timer = new javax.swing.Timer(500, null);
+        timer.addActionListener(e -> {
+            BatchAnalysisJob.Progress progress = job.getProgress();
+            progressBar.setValue((int) (progress.getFraction() * 1000));
+            Duration eta = progress.getEta();
+            progressLabel.setText(String.format("%d/%d posts (%d skipped) - %.1f posts/s - ETA %s",
+                progress.getSkipped() + progress.getCompleted(), progress.getTotal(), progress.getSkipped(),
+                progress.getPostsPerSecond(),
+                eta == null ? "estimating..." : String.format("%d:%02d:%02d", eta.toHours(), eta.toMinutesPart(), eta.toSecondsPart())));
+            if (progress.getState() != BatchAnalysisJob.State.RUNNING && progress.getState() != BatchAnalysisJob.State.PENDING) {
+                timer.stop();
+                dialog.dispose();
+                showBatchAnalysisResult(progress);
+            }
+        });
+        timer.start();
+    }
+
+    private void showBatchAnalysisResult(BatchAnalysisJob.Progress progress) {
+        if (progress.getState() == BatchAnalysisJob.State.FAILED) {
+            JOptionPane.showMessageDialog(
+                this,
+                "Error during analysis.\n\n" +
+                "Make sure Python API is running: python sentiment_api.py\n" +
+                "Finished posts were checkpointed; run again to resume.",
+                "Analysis Error",
+                JOptionPane.ERROR_MESSAGE
+            );
+            return;
         }
+        String title = progress.getState() == BatchAnalysisJob.State.CANCELLED ? "Analysis Cancelled" : "Analysis Complete";
+        JOptionPane.showMessageDialog(
+            this,
+            "✓ Sentiment analysis " + progress.getState().name().toLowerCase() + "!\n\n" +
+            "Analyzed: " + progress.getCompleted() + " posts via Python API\n" +
+            "Skipped (already current): " + progress.getSkipped() + "\n" +
+            "Failed: " + progress.getFailed() + "\n\n" +
+            "Sentiments updated in memory and saved to database.\n" +
+            "Click 'Problem 1' or 'Problem 2' to view analysis.",
+            title,
+            JOptionPane.INFORMATION_MESSAGE
+        );
+        // Refresh tabs to show updated sentiments
+        mainTabs.repaint();
     }
 }
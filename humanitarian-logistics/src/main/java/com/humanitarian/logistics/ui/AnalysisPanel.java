@@ -11,15 +11,20 @@ import java.awt.*;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.List;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
  * Advanced Analysis Panel with Problem 1 and Problem 2 visualizations.
  * Problem 1: Satisfaction analysis per relief category
  * Problem 2: Temporal sentiment tracking and trend analysis
+ * Results are computed off the EDT and cached until the model changes.
  */
 public class AnalysisPanel extends JPanel {
+    private static final String COMPUTING = "⏳ Computing...";
+
     private final Model model;
+    private final ChartDataCache chartCache;
     private JTabbedPane tabbedPane;
     private JTextArea problem1ResultsArea;
     private JTextArea problem2ResultsArea;
@@ -33,6 +38,7 @@ public class AnalysisPanel extends JPanel {
 
     public AnalysisPanel(Model model) {
         this.model = model;
+        this.chartCache = new ChartDataCache(model);
         initializeUI();
     }
 
@@ -69,7 +75,7 @@ public class AnalysisPanel extends JPanel {
         selectorPanel.setBorder(BorderFactory.createTitledBorder("Disaster Type"));
         
         problem1DisasterCombo = new JComboBox<>();
-        problem1DisasterCombo.addItem("All Disasters");
+        problem1DisasterCombo.addItem(ChartDataCache.ALL_DISASTERS);
         List<String> disasterNames = DisasterManager.getInstance().getAllDisasterNames();
         System.out.println("DEBUG: Problem1 loaded " + disasterNames.size() + " disaster names: " + disasterNames);
         for (String name : disasterNames) {
@@ -116,7 +122,7 @@ public class AnalysisPanel extends JPanel {
         selectorPanel.setBorder(BorderFactory.createTitledBorder("Disaster Type"));
         
         problem2DisasterCombo = new JComboBox<>();
-        problem2DisasterCombo.addItem("All Disasters");
+        problem2DisasterCombo.addItem(ChartDataCache.ALL_DISASTERS);
         List<String> disasterNames = DisasterManager.getInstance().getAllDisasterNames();
         for (String name : disasterNames) {
             problem2DisasterCombo.addItem(name);
@@ -167,7 +173,7 @@ public class AnalysisPanel extends JPanel {
         selectorPanel.setBorder(BorderFactory.createTitledBorder("Disaster Type"));
         
         comparisonDisasterCombo = new JComboBox<>();
-        comparisonDisasterCombo.addItem("All Disasters");
+        comparisonDisasterCombo.addItem(ChartDataCache.ALL_DISASTERS);
         List<String> disasterNames = DisasterManager.getInstance().getAllDisasterNames();
         for (String name : disasterNames) {
             comparisonDisasterCombo.addItem(name);
@@ -192,266 +198,268 @@ public class AnalysisPanel extends JPanel {
     }
 
     private void updateProblem1Analysis() {
-        try {
-            List<Post> posts = getFilteredPosts((String) problem1DisasterCombo.getSelectedItem());
-            if (posts.isEmpty()) {
-                problem1ResultsArea.setText("No data available for selected disaster type. Please add posts first.");
-                return;
-            }
-
-            // Problem 1: Satisfaction Analysis per Relief Category
-            StringBuilder results = new StringBuilder();
-            results.append("=== PROBLEM 1: PUBLIC SATISFACTION ANALYSIS ===\n");
-            
-            String selectedDisaster = (String) problem1DisasterCombo.getSelectedItem();
-            if (selectedDisaster != null && !selectedDisaster.equals("All Disasters")) {
-                results.append("Disaster Type: ").append(selectedDisaster).append("\n");
-            }
-            
-            results.append("Determining public satisfaction/dissatisfaction per relief item\n\n");
-
-            // Group by relief category
-            Map<ReliefItem.Category, List<Post>> byCategory = posts.stream()
-                .filter(p -> p.getReliefItem() != null)
-                .collect(Collectors.groupingBy(p -> p.getReliefItem().getCategory()));
-
-            // Create dataset for chart
-            DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+        String selectedDisaster = (String) problem1DisasterCombo.getSelectedItem();
+        problem1ResultsArea.setText(COMPUTING);
+        chartCache.load("problem1", selectedDisaster, null,
+            posts -> buildProblem1Analysis(posts, selectedDisaster),
+            data -> {
+                problem1ResultsArea.setText(data.text);
+                if (data.dataset != null) {
+                    // Create and display chart
+                    problem1ChartPanel.setChart(data.chart("satisfaction", () -> ChartFactory.createStackedBarChart(
+                        "Public Satisfaction by Relief Category (Problem 1)",
+                        "Relief Category",
+                        "Percentage (%)",
+                        data.dataset
+                    )));
+                }
+            },
+            e -> problem1ResultsArea.setText("Error: " + e.getMessage()));
+    }
 
-            byCategory.forEach((category, categoryPosts) -> {
-                int total = categoryPosts.size();
-                int positive = (int) categoryPosts.stream()
-                    .filter(p -> p.getSentiment() != null && p.getSentiment().isPositive())
-                    .count();
-                int negative = (int) categoryPosts.stream()
-                    .filter(p -> p.getSentiment() != null && p.getSentiment().isNegative())
-                    .count();
-                int neutral = total - positive - negative;
-
-                double positivePercent = (double) positive / total * 100;
-                double negativePercent = (double) negative / total * 100;
-                double neutralPercent = (double) neutral / total * 100;
-
-                results.append(String.format("Category: %s\n", category.getDisplayName()));
-                results.append(String.format("  Total Posts: %d\n", total));
-                results.append(String.format("  Positive: %d (%.1f%%)\n", positive, positivePercent));
-                results.append(String.format("  Negative: %d (%.1f%%)\n", negative, negativePercent));
-                results.append(String.format("  Neutral: %d (%.1f%%)\n", neutral, neutralPercent));
-
-                if (negativePercent > 50) {
-                    results.append("  ⚠ STATUS: URGENT - More than 50% negative sentiment\n");
-                } else if (positivePercent > 60) {
-                    results.append("  ✓ STATUS: SATISFIED - More than 60% positive sentiment\n");
-                } else {
-                    results.append("  ◆ STATUS: NEUTRAL - Balanced sentiment\n");
+    private void updateProblem2Analysis() {
+        String selectedDisaster = (String) problem2DisasterCombo.getSelectedItem();
+        problem2ResultsArea.setText(COMPUTING);
+        chartCache.load("problem2", selectedDisaster, null,
+            posts -> buildProblem2Analysis(posts, selectedDisaster),
+            data -> {
+                problem2ResultsArea.setText(data.text);
+                if (data.dataset != null) {
+                    // Create charts
+                    problem2ChartPanel.setChart(data.chart("time", () -> ChartFactory.createStackedBarChart(
+                        "Sentiment Distribution Over Time (Problem 2)",
+                        "Time Period",
+                        "Number of Posts",
+                        data.dataset
+                    )));
+                    trendChartPanel.setChart(data.chart("trend", () -> ChartFactory.createLineChart(
+                        "Sentiment Trend Score (Positive - Negative)",
+                        "Time Period",
+                        "Score",
+                        data.trendDataset
+                    )));
                 }
-                results.append("\n");
+            },
+            e -> problem2ResultsArea.setText("Error: " + e.getMessage()));
+    }
 
-                // Add to dataset
-                dataset.addValue(positivePercent, "Positive", category.getDisplayName());
-                dataset.addValue(negativePercent, "Negative", category.getDisplayName());
-                dataset.addValue(neutralPercent, "Neutral", category.getDisplayName());
-            });
+    private void updateComparisonAnalysis(JTextArea comparisonArea) {
+        String selectedDisaster = (String) comparisonDisasterCombo.getSelectedItem();
+        comparisonArea.setText(COMPUTING);
+        chartCache.load("comparison", selectedDisaster, null,
+            posts -> buildComparisonAnalysis(posts, selectedDisaster),
+            comparisonArea::setText,
+            e -> comparisonArea.setText("Error: " + e.getMessage()));
+    }
 
-            problem1ResultsArea.setText(results.toString());
+    // ---- Builders: run on a worker thread, so they must not touch Swing components ----
 
-            // Create and display chart
-            JFreeChart chart = ChartFactory.createStackedBarChart(
-                "Public Satisfaction by Relief Category (Problem 1)",
-                "Relief Category",
-                "Percentage (%)",
-                dataset
-            );
+    private AnalysisData buildProblem1Analysis(List<Post> posts, String selectedDisaster) {
+        if (posts.isEmpty()) {
+            return new AnalysisData(null, null, "No data available for selected disaster type. Please add posts first.");
+        }
 
-            problem1ChartPanel.setChart(chart);
-        } catch (Exception e) {
-            problem1ResultsArea.setText("Error: " + e.getMessage());
+        // Problem 1: Satisfaction Analysis per Relief Category
+        StringBuilder results = new StringBuilder();
+        results.append("=== PROBLEM 1: PUBLIC SATISFACTION ANALYSIS ===\n");
+        if (selectedDisaster != null && !selectedDisaster.equals(ChartDataCache.ALL_DISASTERS)) {
+            results.append("Disaster Type: ").append(selectedDisaster).append("\n");
         }
-    }
+        results.append("Determining public satisfaction/dissatisfaction per relief item\n\n");
 
-    private void updateProblem2Analysis() {
-        try {
-            List<Post> posts = getFilteredPosts((String) problem2DisasterCombo.getSelectedItem());
-            if (posts.isEmpty()) {
-                problem2ResultsArea.setText("No data available for selected disaster type. Please add posts first.");
-                return;
-            }
+        // Group by relief category
+        Map<ReliefItem.Category, List<Post>> byCategory = posts.stream()
+            .filter(p -> p.getReliefItem() != null)
+            .collect(Collectors.groupingBy(p -> p.getReliefItem().getCategory()));
+
+        // Create dataset for chart
+        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
 
-            StringBuilder results = new StringBuilder();
-            results.append("=== PROBLEM 2: TEMPORAL SENTIMENT TRACKING ===\n");
-            
-            String selectedDisaster = (String) problem2DisasterCombo.getSelectedItem();
-            if (selectedDisaster != null && !selectedDisaster.equals("All Disasters")) {
-                results.append("Disaster Type: ").append(selectedDisaster).append("\n");
+        byCategory.forEach((category, categoryPosts) -> {
+            int total = categoryPosts.size();
+            int positive = (int) categoryPosts.stream()
+                .filter(p -> p.getSentiment() != null && p.getSentiment().isPositive())
+                .count();
+            int negative = (int) categoryPosts.stream()
+                .filter(p -> p.getSentiment() != null && p.getSentiment().isNegative())
+                .count();
+            int neutral = total - positive - negative;
+
+            double positivePercent = (double) positive / total * 100;
+            double negativePercent = (double) negative / total * 100;
+            double neutralPercent = (double) neutral / total * 100;
+
+            results.append(String.format("Category: %s\n", category.getDisplayName()));
+            results.append(String.format("  Total Posts: %d\n", total));
+            results.append(String.format("  Positive: %d (%.1f%%)\n", positive, positivePercent));
+            results.append(String.format("  Negative: %d (%.1f%%)\n", negative, negativePercent));
+            results.append(String.format("  Neutral: %d (%.1f%%)\n", neutral, neutralPercent));
+
+            if (negativePercent > 50) {
+                results.append("  ⚠ STATUS: URGENT - More than 50% negative sentiment\n");
+            } else if (positivePercent > 60) {
+                results.append("  ✓ STATUS: SATISFIED - More than 60% positive sentiment\n");
+            } else {
+                results.append("  ◆ STATUS: NEUTRAL - Balanced sentiment\n");
             }
-            
-            results.append("Analyzing sentiment evolution over time per relief item\n\n");
-
-            // Group by time buckets (6-hour intervals)
-            Map<String, List<Post>> byTimeBucket = posts.stream()
-                .collect(Collectors.groupingBy(p -> {
-                    LocalDateTime dt = p.getCreatedAt();
-                    int hour = dt.getHour();
-                    int bucket = hour / 6;
-                    return String.format("%02d:00-%02d:59", bucket * 6, (bucket + 1) * 6 - 1);
-                }));
-
-            // Create dataset for time series chart
-            DefaultCategoryDataset timeDataset = new DefaultCategoryDataset();
-            DefaultCategoryDataset trendDataset = new DefaultCategoryDataset();
-
-            byTimeBucket.entrySet().stream()
-                .sorted(Map.Entry.comparingByKey())
-                .forEach(entry -> {
-                    String timeBucket = entry.getKey();
-                    List<Post> bucketPosts = entry.getValue();
-
-                    int positive = (int) bucketPosts.stream()
-                        .filter(p -> p.getSentiment() != null && p.getSentiment().isPositive())
-                        .count();
-                    int negative = (int) bucketPosts.stream()
-                        .filter(p -> p.getSentiment() != null && p.getSentiment().isNegative())
-                        .count();
-                    int neutral = bucketPosts.size() - positive - negative;
-
-                    timeDataset.addValue(positive, "Positive", timeBucket);
-                    timeDataset.addValue(negative, "Negative", timeBucket);
-                    timeDataset.addValue(neutral, "Neutral", timeBucket);
-
-                    trendDataset.addValue(positive - negative, "Sentiment Score", timeBucket);
-
-                    results.append(String.format("Time Period: %s\n", timeBucket));
-                    results.append(String.format("  Posts: %d | Pos: %d | Neg: %d | Neutral: %d\n", 
-                        bucketPosts.size(), positive, negative, neutral));
-                });
-
-            // Detect trends per category
-            results.append("\n--- TREND ANALYSIS BY CATEGORY ---\n");
-            Map<ReliefItem.Category, List<Post>> byCategory = posts.stream()
-                .filter(p -> p.getReliefItem() != null)
-                .collect(Collectors.groupingBy(p -> p.getReliefItem().getCategory()));
-
-            byCategory.forEach((category, categoryPosts) -> {
-                int positive = (int) categoryPosts.stream()
-                    .filter(p -> p.getSentiment() != null && p.getSentiment().isPositive())
-                    .count();
-                int negative = (int) categoryPosts.stream()
-                    .filter(p -> p.getSentiment() != null && p.getSentiment().isNegative())
-                    .count();
+            results.append("\n");
 
-                String trend = positive > negative ? "IMPROVING ↗" : 
-                              negative > positive ? "DETERIORATING ↘" : "STABLE →";
-                results.append(String.format("%s: %s\n", category.getDisplayName(), trend));
-            });
+            // Add to dataset
+            dataset.addValue(positivePercent, "Positive", category.getDisplayName());
+            dataset.addValue(negativePercent, "Negative", category.getDisplayName());
+            dataset.addValue(neutralPercent, "Neutral", category.getDisplayName());
+        });
 
-            problem2ResultsArea.setText(results.toString());
+        return new AnalysisData(dataset, null, results.toString());
+    }
 
-            // Create charts
-            JFreeChart timeChart = ChartFactory.createStackedBarChart(
-                "Sentiment Distribution Over Time (Problem 2)",
-                "Time Period",
-                "Number of Posts",
-                timeDataset
-            );
+    private AnalysisData buildProblem2Analysis(List<Post> posts, String selectedDisaster) {
+        if (posts.isEmpty()) {
+            return new AnalysisData(null, null, "No data available for selected disaster type. Please add posts first.");
+        }
 
-            problem2ChartPanel.setChart(timeChart);
+        StringBuilder results = new StringBuilder();
+        results.append("=== PROBLEM 2: TEMPORAL SENTIMENT TRACKING ===\n");
+        if (selectedDisaster != null && !selectedDisaster.equals(ChartDataCache.ALL_DISASTERS)) {
+            results.append("Disaster Type: ").append(selectedDisaster).append("\n");
+        }
+        results.append("Analyzing sentiment evolution over time per relief item\n\n");
 
-            JFreeChart trendChart = ChartFactory.createLineChart(
-                "Sentiment Trend Score (Positive - Negative)",
-                "Time Period",
-                "Score",
-                trendDataset
-            );
+        // Group by time buckets (6-hour intervals)
+        Map<String, List<Post>> byTimeBucket = posts.stream()
+            .collect(Collectors.groupingBy(p -> {
+                LocalDateTime dt = p.getCreatedAt();
+                int hour = dt.getHour();
+                int bucket = hour / 6;
+                return String.format("%02d:00-%02d:59", bucket * 6, (bucket + 1) * 6 - 1);
+            }));
 
-            trendChartPanel.setChart(trendChart);
-        } catch (Exception e) {
-            problem2ResultsArea.setText("Error: " + e.getMessage());
-        }
-    }
+        // Create dataset for time series chart
+        DefaultCategoryDataset timeDataset = new DefaultCategoryDataset();
+        DefaultCategoryDataset trendDataset = new DefaultCategoryDataset();
 
-    private void updateComparisonAnalysis(JTextArea comparisonArea) {
-        try {
-            List<Post> posts = getFilteredPosts((String) comparisonDisasterCombo.getSelectedItem());
-            if (posts.isEmpty()) {
-                comparisonArea.setText("No data available for selected disaster type.");
-                return;
-            }
+        byTimeBucket.entrySet().stream()
+            .sorted(Map.Entry.comparingByKey())
+            .forEach(entry -> {
+                String timeBucket = entry.getKey();
+                List<Post> bucketPosts = entry.getValue();
 
-            StringBuilder comparison = new StringBuilder();
-            comparison.append("=== COMPREHENSIVE ANALYSIS COMPARISON ===\n");
-            
-            String selectedDisaster = (String) comparisonDisasterCombo.getSelectedItem();
-            if (selectedDisaster != null && !selectedDisaster.equals("All Disasters")) {
-                comparison.append("Disaster Type: ").append(selectedDisaster).append("\n");
-            }
-            
-            comparison.append("\n");
-            comparison.append("PROBLEM 1: SATISFACTION ANALYSIS (Public Satisfaction per Relief Item)\n");
-            comparison.append("-".repeat(70)).append("\n");
-
-            Map<ReliefItem.Category, List<Post>> byCategory = posts.stream()
-                .filter(p -> p.getReliefItem() != null)
-                .collect(Collectors.groupingBy(p -> p.getReliefItem().getCategory()));
-
-            byCategory.forEach((category, categoryPosts) -> {
-                int total = categoryPosts.size();
-                int positive = (int) categoryPosts.stream()
+                int positive = (int) bucketPosts.stream()
                     .filter(p -> p.getSentiment() != null && p.getSentiment().isPositive())
                     .count();
-                double positivePercent = (double) positive / total * 100;
-
-                comparison.append(String.format("%-20s: %.1f%% satisfied (%d/%d posts)\n", 
-                    category.getDisplayName(), positivePercent, positive, total));
-            });
-
-            comparison.append("\n");
-            comparison.append("PROBLEM 2: TEMPORAL SENTIMENT TRACKING (Sentiment Trends Over Time)\n");
-            comparison.append("-".repeat(70)).append("\n");
-
-            Map<String, Integer> sentimentTrend = new LinkedHashMap<>();
-            posts.forEach(post -> {
-                LocalDateTime dt = post.getCreatedAt();
-                int hour = dt.getHour();
-                int bucket = hour / 6;
-                String timeBucket = String.format("%02d:00-%02d:59", bucket * 6, (bucket + 1) * 6 - 1);
+                int negative = (int) bucketPosts.stream()
+                    .filter(p -> p.getSentiment() != null && p.getSentiment().isNegative())
+                    .count();
+                int neutral = bucketPosts.size() - positive - negative;
 
-                int score = 0;
-                if (post.getSentiment() != null) {
-                    if (post.getSentiment().isPositive()) score = 1;
-                    else if (post.getSentiment().isNegative()) score = -1;
-                }
+                timeDataset.addValue(positive, "Positive", timeBucket);
+                timeDataset.addValue(negative, "Negative", timeBucket);
+                timeDataset.addValue(neutral, "Neutral", timeBucket);
 
-                sentimentTrend.put(timeBucket, sentimentTrend.getOrDefault(timeBucket, 0) + score);
-            });
+                trendDataset.addValue(positive - negative, "Sentiment Score", timeBucket);
 
-            sentimentTrend.forEach((timeBucket, score) -> {
-                String trend = score > 0 ? "IMPROVING ↗" : score < 0 ? "DETERIORATING ↘" : "STABLE →";
-                comparison.append(String.format("%-20s: Score %3d - %s\n", timeBucket, score, trend));
+                results.append(String.format("Time Period: %s\n", timeBucket));
+                results.append(String.format("  Posts: %d | Pos: %d | Neg: %d | Neutral: %d\n",
+                    bucketPosts.size(), positive, negative, neutral));
             });
 
-            comparison.append("\n");
-            comparison.append("OVERALL STATISTICS\n");
-            comparison.append("-".repeat(70)).append("\n");
+        // Detect trends per category
+        results.append("\n--- TREND ANALYSIS BY CATEGORY ---\n");
+        Map<ReliefItem.Category, List<Post>> byCategory = posts.stream()
+            .filter(p -> p.getReliefItem() != null)
+            .collect(Collectors.groupingBy(p -> p.getReliefItem().getCategory()));
 
-            int totalPosts = posts.size();
-            int totalComments = posts.stream().mapToInt(p -> p.getComments().size()).sum();
-            int positive = (int) posts.stream()
+        byCategory.forEach((category, categoryPosts) -> {
+            int positive = (int) categoryPosts.stream()
                 .filter(p -> p.getSentiment() != null && p.getSentiment().isPositive())
                 .count();
-            int negative = (int) posts.stream()
+            int negative = (int) categoryPosts.stream()
                 .filter(p -> p.getSentiment() != null && p.getSentiment().isNegative())
                 .count();
 
-            comparison.append(String.format("Total Posts: %d\n", totalPosts));
-            comparison.append(String.format("Total Comments: %d\n", totalComments));
-            comparison.append(String.format("Overall Positive: %d (%.1f%%)\n", positive, (double)positive/totalPosts*100));
-            comparison.append(String.format("Overall Negative: %d (%.1f%%)\n", negative, (double)negative/totalPosts*100));
-            comparison.append(String.format("Satisfaction Rate: %.1f%%\n", (double)positive/totalPosts*100));
+            String trend = positive > negative ? "IMPROVING ↗" :
+                          negative > positive ? "DETERIORATING ↘" : "STABLE →";
+            results.append(String.format("%s: %s\n", category.getDisplayName(), trend));
+        });
 
-            comparisonArea.setText(comparison.toString());
-        } catch (Exception e) {
-            comparisonArea.setText("Error: " + e.getMessage());
+        return new AnalysisData(timeDataset, trendDataset, results.toString());
+    }
+
+    private String buildComparisonAnalysis(List<Post> posts, String selectedDisaster) {
+        if (posts.isEmpty()) {
+            return "No data available for selected disaster type.";
+        }
+
+        StringBuilder comparison = new StringBuilder();
+        comparison.append("=== COMPREHENSIVE ANALYSIS COMPARISON ===\n");
+        if (selectedDisaster != null && !selectedDisaster.equals(ChartDataCache.ALL_DISASTERS)) {
+            comparison.append("Disaster Type: ").append(selectedDisaster).append("\n");
         }
+
+        comparison.append("\n");
+        comparison.append("PROBLEM 1: SATISFACTION ANALYSIS (Public Satisfaction per Relief Item)\n");
+        comparison.append("-".repeat(70)).append("\n");
+
+        Map<ReliefItem.Category, List<Post>> byCategory = posts.stream()
+            .filter(p -> p.getReliefItem() != null)
+            .collect(Collectors.groupingBy(p -> p.getReliefItem().getCategory()));
+
+        byCategory.forEach((category, categoryPosts) -> {
+            int total = categoryPosts.size();
+            int positive = (int) categoryPosts.stream()
+                .filter(p -> p.getSentiment() != null && p.getSentiment().isPositive())
+                .count();
+            double positivePercent = (double) positive / total * 100;
+
+            comparison.append(String.format("%-20s: %.1f%% satisfied (%d/%d posts)\n",
+                category.getDisplayName(), positivePercent, positive, total));
+        });
+
+        comparison.append("\n");
+        comparison.append("PROBLEM 2: TEMPORAL SENTIMENT TRACKING (Sentiment Trends Over Time)\n");
+        comparison.append("-".repeat(70)).append("\n");
+
+        Map<String, Integer> sentimentTrend = new LinkedHashMap<>();
+        posts.forEach(post -> {
+            LocalDateTime dt = post.getCreatedAt();
+            int hour = dt.getHour();
+            int bucket = hour / 6;
+            String timeBucket = String.format("%02d:00-%02d:59", bucket * 6, (bucket + 1) * 6 - 1);
+
+            int score = 0;
+            if (post.getSentiment() != null) {
+                if (post.getSentiment().isPositive()) score = 1;
+                else if (post.getSentiment().isNegative()) score = -1;
+            }
+
+            sentimentTrend.put(timeBucket, sentimentTrend.getOrDefault(timeBucket, 0) + score);
+        });
+
+        sentimentTrend.forEach((timeBucket, score) -> {
+            String trend = score > 0 ? "IMPROVING ↗" : score < 0 ? "DETERIORATING ↘" : "STABLE →";
+            comparison.append(String.format("%-20s: Score %3d - %s\n", timeBucket, score, trend));
+        });
+
+        comparison.append("\n");
+        comparison.append("OVERALL STATISTICS\n");
+        comparison.append("-".repeat(70)).append("\n");
+
+        int totalPosts = posts.size();
+        int totalComments = posts.stream().mapToInt(p -> p.getComments().size()).sum();
+        int positive = (int) posts.stream()
+            .filter(p -> p.getSentiment() != null && p.getSentiment().isPositive())
+            .count();
+        int negative = (int) posts.stream()
+            .filter(p -> p.getSentiment() != null && p.getSentiment().isNegative())
+            .count();
+
+        comparison.append(String.format("Total Posts: %d\n", totalPosts));
+        comparison.append(String.format("Total Comments: %d\n", totalComments));
+        comparison.append(String.format("Overall Positive: %d (%.1f%%)\n", positive, (double)positive/totalPosts*100));
+        comparison.append(String.format("Overall Negative: %d (%.1f%%)\n", negative, (double)negative/totalPosts*100));
+        comparison.append(String.format("Satisfaction Rate: %.1f%%\n", (double)positive/totalPosts*100));
+
+        return comparison.toString();
     }
 
     public void refresh() {
@@ -463,26 +471,23 @@ public class AnalysisPanel extends JPanel {
     }
 
     /**
-     * Get posts filtered by the selected disaster type
+     * Datasets and text of one analysis, as cached by {@link ChartDataCache}; charts are
+     * made on the EDT when first shown and reused when the cached data is shown again
      */
-    private List<Post> getFilteredPosts(String disasterName) {
-        List<Post> allPosts = model.getPosts();
-        
-        // If "All Disasters" is selected, return all posts
-        if (disasterName == null || disasterName.equals("All Disasters")) {
-            return allPosts;
+    private static class AnalysisData {
+        final DefaultCategoryDataset dataset;
+        final DefaultCategoryDataset trendDataset;
+        final String text;
+        private final Map<String, JFreeChart> charts = new HashMap<>();
+
+        AnalysisData(DefaultCategoryDataset dataset, DefaultCategoryDataset trendDataset, String text) {
+            this.dataset = dataset;
+            this.trendDataset = trendDataset;
+            this.text = text;
+        }
+
+        JFreeChart chart(String kind, Supplier<JFreeChart> factory) {
+            return charts.computeIfAbsent(kind, k -> factory.get());
         }
-        
-        // Filter posts by disaster type
-        return allPosts.stream()
-            .filter(p -> {
-                if (p instanceof YouTubePost) {
-                    YouTubePost ytPost = (YouTubePost) p;
-                    DisasterType type = ytPost.getDisasterType();
-                    return type != null && type.getName().equals(disasterName);
-                }
-                return false;
-            })
-            .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,179 @@
+package com.humanitarian.logistics.ui;
+
+import com.humanitarian.logistics.analysis.CompactBitmap;
+import com.humanitarian.logistics.analysis.PostFilterIndex;
+import com.humanitarian.logistics.metrics.Counter;
+import com.humanitarian.logistics.metrics.LatencyTimer;
+import com.humanitarian.logistics.metrics.MetricsRegistry;
+import com.humanitarian.logistics.model.*;
+import javax.swing.SwingWorker;
+import java.util.*;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Builds chart datasets and report text for the analysis panels off the EDT and
+ * caches them by (view, disaster filter, category filter). An entry is reused while
+ * the model's data version and analysis model version are unchanged, so pressing
+ * Analyze again or switching back to an earlier filter costs nothing; any change to
+ * the data makes every entry stale and the next request rebuilds it.
+ *
+ * Views that slice by more than the disaster load through {@link #loadIndexed}, which
+ * hands them a {@link PostFilterIndex} built once per data version and shared by all
+ * views and filters.
+ *
+ * All methods are called on the EDT; only the compute functions run in the background.
+ */
+public class ChartDataCache {
+    public static final String ALL_DISASTERS = "All Disasters";
+    static final int MAX_ENTRIES = 64;
+    private static final LatencyTimer computeTimer = MetricsRegistry.getInstance().timer("ui.chart_compute");
+    private static final Counter hits = MetricsRegistry.getInstance().counter("ui.chart_cache.hits");
+    private static final Counter misses = MetricsRegistry.getInstance().counter("ui.chart_cache.misses");
+    private static final LatencyTimer indexTimer = MetricsRegistry.getInstance().timer("ui.filter_index_build");
+
+    private final Model model;
+    private final Map<String, CacheEntry> entries = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private final Map<String, Long> latestRequest = new HashMap<>(); // per view, so late results of older filters are dropped
+    private long requestCounter;
+    private PostFilterIndex filterIndex;    // guarded by this; built on a worker thread
+    private String filterIndexVersion;
+
+    public ChartDataCache(Model model) {
+        this.model = model;
+    }
+
+    /**
+     * Delivers the data for a view to onReady on the EDT: at once if a current entry is
+     * cached, otherwise after compute has run on a worker thread. If the same view is
+     * requested again before the result arrives, only the newest request is delivered.
+     * @param view identifies the chart or report, and with it what compute builds
+     * @param disaster disaster name, or null / {@link #ALL_DISASTERS} for every post
+     * @param category category filter the compute function applies; part of the cache key only
+     * @param compute builds the data from the posts of the selected disaster
+     * @param onError receives the failure instead of onReady
+     */
+    public <T> void load(String view, String disaster, String category, Function<List<Post>, T> compute,
+                         Consumer<T> onReady, Consumer<Exception> onError) {
+        submit(view, disaster, category, () -> compute.apply(postsOf(disaster)), onReady, onError);
+    }
+
+    /**
+     * Like {@link #load}, but compute receives the shared filter index and the bitmap of
+     * the selected disaster's posts, to be narrowed by AND / OR instead of filtering posts
+     */
+    public <T> void loadIndexed(String view, String disaster, String category,
+                                BiFunction<PostFilterIndex, CompactBitmap, T> compute,
+                                Consumer<T> onReady, Consumer<Exception> onError) {
+        String version = model.getDataVersion() + "|" + model.getAnalysisModelVersion();
+        submit(view, disaster, category, () -> {
+            PostFilterIndex index = indexFor(version);
+            boolean all = disaster == null || ALL_DISASTERS.equals(disaster);
+            return compute.apply(index, all ? index.all() : index.disaster(disaster));
+        }, onReady, onError);
+    }
+
+    private <T> void submit(String view, String disaster, String category, Supplier<T> compute,
+                            Consumer<T> onReady, Consumer<Exception> onError) {
+        String key = view + '\u0000' + disaster + '\u0000' + category;
+        String version = model.getDataVersion() + "|" + model.getAnalysisModelVersion();
+        long request = ++requestCounter;
+        latestRequest.put(view, request);
+
+        CacheEntry cached = entries.get(key);
+        if (cached != null && cached.version.equals(version)) {
+            hits.increment();
+            @SuppressWarnings("unchecked")
+            T value = (T) cached.value;
+            onReady.accept(value);
+            return;
+        }
+        misses.increment();
+
+        new SwingWorker<T, Void>() {
+            @Override
+            protected T doInBackground() {
+                long start = System.nanoTime();
+                T value = compute.get();
+                computeTimer.recordSince(start);
+                return value;
+            }
+
+            @Override
+            protected void done() {
+                T value;
+                try {
+                    value = get();
+                } catch (Exception e) {
+                    if (latestRequest.get(view) == request) {
+                        onError.accept(e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+                    }
+                    return;
+                }
+                // Cached under the version read before the snapshot was taken, so data
+                // that changed while computing makes the entry stale rather than wrong
+                entries.put(key, new CacheEntry(version, value));
+                if (latestRequest.get(view) == request) {
+                    onReady.accept(value);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Drops every entry, e.g. after data was changed outside the model's notifications
+     */
+    public void clear() {
+        entries.clear();
+        synchronized (this) {
+            filterIndex = null;
+            filterIndexVersion = null;
+        }
+    }
+
+    /**
+     * Index of the current posts, rebuilt once when the data version moves on; concurrent
+     * workers wait for the one build
+     */
+    private synchronized PostFilterIndex indexFor(String version) {
+        if (filterIndex == null || !version.equals(filterIndexVersion)) {
+            long start = System.nanoTime();
+            filterIndex = PostFilterIndex.of(model.getPosts());
+            filterIndexVersion = version;
+            indexTimer.recordSince(start);
+        }
+        return filterIndex;
+    }
+
+    /**
+     * Posts of a YouTube disaster type, looked up through the repository's disaster index
+     */
+    private List<Post> postsOf(String disaster) {
+        if (disaster == null || ALL_DISASTERS.equals(disaster)) {
+            return model.getPosts();
+        }
+        return model.getRepository().findByDisaster(disaster).stream()
+            .filter(p -> p instanceof YouTubePost && ((YouTubePost) p).getDisasterType() != null
+                && ((YouTubePost) p).getDisasterType().getName().equals(disaster))
+            .collect(Collectors.toList());
+    }
+
+    private static class CacheEntry {
+        final String version;
+        final Object value;
+
+        CacheEntry(String version, Object value) {
+            this.version = version;
+            this.value = value;
+        }
+    }
+}
@@ -3,11 +3,14 @@ package com.humanitarian.logistics.ui;
 import com.humanitarian.logistics.model.*;
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.JFreeChart;
+import org.jfree.chart.renderer.xy.XYItemRenderer;
 import org.jfree.data.category.DefaultCategoryDataset;
 import org.jfree.data.general.DefaultPieDataset;
+import org.jfree.data.xy.XYDataset;
 import org.jfree.data.xy.XYSeries;
 import org.jfree.data.xy.XYSeriesCollection;
 
+import java.awt.Color;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -170,6 +173,19 @@ public class ChartsUtility {
         );
     }
 
+    /**
+     * Create line chart of sentiment series on a date axis, e.g. from {@link DownsampledTimeChart}.
+     * Series are drawn as Positive, Negative, Neutral in green, red and grey.
+     */
+    public static JFreeChart createSentimentTimeSeriesChart(String title, String valueAxisLabel, XYDataset dataset) {
+        JFreeChart chart = ChartFactory.createTimeSeriesChart(title, "Date", valueAxisLabel, dataset);
+        XYItemRenderer renderer = chart.getXYPlot().getRenderer();
+        renderer.setSeriesPaint(0, new Color(76, 175, 80));
+        renderer.setSeriesPaint(1, new Color(211, 47, 47));
+        renderer.setSeriesPaint(2, new Color(158, 158, 158));
+        return chart;
+    }
+
     /**
      * Create author contribution chart
      */
@@ -5,22 +5,27 @@ import com.humanitarian.logistics.database.DatabaseManager;
 import javax.swing.*;
 import javax.swing.table.*;
 import java.awt.*;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 
 /**
  * Excel-style table panel for managing comments in user app.
  * Allows users to view, edit, and manage individual comments from humanitarian_logistics_user.db
+ * Rows come from a {@link CommentTableModel}: model changes are applied as row deltas,
+ * and sorting (click a column header) and filtering run off the EDT.
  */
 public class CommentManagementPanel extends JPanel implements ModelListener {
     private final Model model;
     private DatabaseManager dbManager;
     private JTable commentTable;
-    private DefaultTableModel tableModel;
+    private CommentTableModel tableModel;
     private JTextArea detailsArea;
     private JLabel statusLabel;
     private JLabel totalLabel;
+    private JTextField filterField;
+    private JComboBox<Object> sentimentFilter;
+    private Timer filterTimer;
+    private String selectedCommentId;
 
     public CommentManagementPanel(Model model) {
         this.model = model;
@@ -41,6 +46,29 @@ public class CommentManagementPanel extends JPanel implements ModelListener {
         refreshTable();
     }
 
+    @Override
+    public void modelChanged(ModelChangeEvent event) {
+        if (event.isReload()) {
+            refreshTable();
+            return;
+        }
+        int before = tableModel.getCommentCount();
+        if (event.has(ModelChangeEvent.Type.POSTS_ADDED)) {
+            tableModel.addPosts(event.getAddedPosts());
+        }
+        if (event.has(ModelChangeEvent.Type.COMMENTS_UPDATED)) {
+            tableModel.updateComments(event.getUpdatedCommentIds(), model.getRepository());
+        }
+        if (event.has(ModelChangeEvent.Type.COMMENTS_REMOVED)) {
+            tableModel.removeComments(event.getRemovedCommentIds());
+        }
+        updateStatsPanel();
+        int added = tableModel.getCommentCount() - before;
+        if (added > 0) {
+            statusLabel.setText("Loaded " + tableModel.getCommentCount() + " comments (+" + added + ")");
+        }
+    }
+
     private void initializeUI() {
         setLayout(new BorderLayout(10, 10));
         setBorder(BorderFactory.createTitledBorder("💬 Comment Management"));
@@ -81,12 +109,54 @@ public class CommentManagementPanel extends JPanel implements ModelListener {
         panel.add(Box.createHorizontalStrut(20));
         panel.add(refreshBtn);
 
+        // Filter: applied in the background a moment after typing stops
+        panel.add(Box.createHorizontalStrut(20));
+        panel.add(new JLabel("🔍 Filter:"));
+        filterField = new JTextField(18);
+        filterField.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            @Override
+            public void insertUpdate(javax.swing.event.DocumentEvent e) {
+                filterTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(javax.swing.event.DocumentEvent e) {
+                filterTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(javax.swing.event.DocumentEvent e) {
+                filterTimer.restart();
+            }
+        });
+        panel.add(filterField);
+        sentimentFilter = new JComboBox<>();
+        sentimentFilter.addItem("All sentiments");
+        for (Sentiment.SentimentType type : Sentiment.SentimentType.values()) {
+            sentimentFilter.addItem(type);
+        }
+        sentimentFilter.addActionListener(e -> applyFilter());
+        panel.add(sentimentFilter);
+        filterTimer = new Timer(250, e -> applyFilter());
+        filterTimer.setRepeats(false);
+
         return panel;
     }
 
+    private void applyFilter() {
+        Object sentiment = sentimentFilter.getSelectedItem();
+        tableModel.setFilter(filterField.getText(),
+                sentiment instanceof Sentiment.SentimentType ? (Sentiment.SentimentType) sentiment : null);
+    }
+
     private void updateStatsPanel() {
-        int total = model.getPosts().stream().mapToInt(p -> p.getComments().size()).sum();
-        totalLabel.setText("Total Comments: " + total);
+        if (tableModel == null) {
+            totalLabel.setText("Total Comments: 0");
+            return;
+        }
+        int total = tableModel.getCommentCount();
+        int shown = tableModel.getRowCount();
+        totalLabel.setText("Total Comments: " + total + (shown != total ? " (showing " + shown + ")" : ""));
     }
 
     private JPanel createMainPanel() {
@@ -94,13 +164,8 @@ public class CommentManagementPanel extends JPanel implements ModelListener {
         panel.setLayout(new BorderLayout(10, 10));
 
         // Table
-        String[] columns = {"Comment ID", "Author", "Posted At", "Sentiment", "Content Preview"};
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = new CommentTableModel();
+        tableModel.setViewListener(this::onViewApplied);
 
         commentTable = new JTable(tableModel);
         commentTable.setRowHeight(25);
@@ -112,6 +177,16 @@ public class CommentManagementPanel extends JPanel implements ModelListener {
                 }
             }
         });
+        commentTable.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int column = commentTable.columnAtPoint(e.getPoint());
+                if (column >= 0) {
+                    statusLabel.setText("⏳ Sorting...");
+                    tableModel.toggleSort(commentTable.convertColumnIndexToModel(column));
+                }
+            }
+        });
 
         JScrollPane tableScroll = new JScrollPane(commentTable);
         tableScroll.setPreferredSize(new Dimension(0, 300));
@@ -178,63 +253,53 @@ public class CommentManagementPanel extends JPanel implements ModelListener {
         return panel;
     }
 
+    /**
+     * Reloads every comment from the model; rows are rebuilt in the background
+     */
     public void refreshTable() {
-        tableModel.setRowCount(0);
+        statusLabel.setText("⏳ Loading comments...");
+        tableModel.reload(model.getPosts());
+    }
 
-        // Add comments from all posts
-        for (Post post : model.getPosts()) {
-            for (Comment comment : post.getComments()) {
-                addCommentRow(comment);
+    /**
+     * After a background reload, sort or filter: restores the selection and updates labels
+     */
+    private void onViewApplied() {
+        for (int i = 0; i < commentTable.getColumnCount(); i++) {
+            int column = commentTable.convertColumnIndexToModel(i);
+            String name = tableModel.getColumnName(column);
+            if (column == tableModel.getSortColumn()) {
+                name += tableModel.isAscending() ? " ▲" : " ▼";
             }
+            commentTable.getColumnModel().getColumn(i).setHeaderValue(name);
         }
+        commentTable.getTableHeader().repaint();
 
-        statusLabel.setText("Loaded " + tableModel.getRowCount() + " comments");
-    }
-
-    private void addCommentRow(Comment comment) {
-        String sentimentType = comment.getSentiment() != null ? 
-            comment.getSentiment().getType().toString() : "N/A";
-        
-        String content = comment.getContent();
-        if (content.length() > 50) {
-            content = content.substring(0, 47) + "...";
+        if (selectedCommentId != null) {
+            int row = tableModel.getRowOf(selectedCommentId);
+            if (row >= 0) {
+                commentTable.setRowSelectionInterval(row, row);
+                commentTable.scrollRectToVisible(commentTable.getCellRect(row, 0, true));
+            }
         }
-
-        String dateStr = comment.getCreatedAt() != null ?
-            comment.getCreatedAt().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")) :
-            LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
-
-        tableModel.addRow(new Object[]{
-            comment.getCommentId(),
-            comment.getAuthor(),
-            dateStr,
-            sentimentType,
-            content
-        });
+        updateStatsPanel();
+        statusLabel.setText("Loaded " + tableModel.getCommentCount() + " comments");
     }
 
     private void showCommentDetails(int row) {
-        Comment comment = null;
-        int count = 0;
-        for (Post post : model.getPosts()) {
-            for (Comment c : post.getComments()) {
-                if (count == row) {
-                    comment = c;
-                    break;
-                }
-                count++;
-            }
-            if (comment != null) break;
-        }
+        Comment comment = tableModel.getCommentAt(row);
 
         if (comment != null) {
+            selectedCommentId = comment.getCommentId();
             StringBuilder details = new StringBuilder();
             details.append("=== COMMENT DETAILS ===\n\n");
             details.append("ID: ").append(comment.getCommentId()).append("\n");
             details.append("Author: ").append(comment.getAuthor()).append("\n");
             details.append("Posted: ").append(comment.getCreatedAt()).append("\n");
-            details.append("Sentiment: ").append(comment.getSentiment().getType()).append("\n");
-            details.append("Confidence: ").append(String.format("%.2f", comment.getSentiment().getConfidence())).append("\n");
+            if (comment.getSentiment() != null) {
+                details.append("Sentiment: ").append(comment.getSentiment().getType()).append("\n");
+                details.append("Confidence: ").append(String.format("%.2f", comment.getSentiment().getConfidence())).append("\n");
+            }
             details.append("\n--- Content ---\n");
             details.append(comment.getContent()).append("\n");
             
@@ -255,21 +320,9 @@ public class CommentManagementPanel extends JPanel implements ModelListener {
             return;
         }
 
-        // Find both comment and parent post in one pass
-        Comment commentToDelete = null;
-        Post parentPost = null;
-        int count = 0;
-        for (Post post : model.getPosts()) {
-            for (Comment c : post.getComments()) {
-                if (count == selectedRow) {
-                    commentToDelete = c;
-                    parentPost = post;
-                    break;
-                }
-                count++;
-            }
-            if (commentToDelete != null) break;
-        }
+        Comment commentToDelete = tableModel.getCommentAt(selectedRow);
+        Post parentPost = commentToDelete != null
+                ? model.getRepository().findPostByCommentId(commentToDelete.getCommentId()) : null;
 
         if (commentToDelete != null && parentPost != null) {
             String preview = commentToDelete.getContent();
@@ -285,14 +338,14 @@ public class CommentManagementPanel extends JPanel implements ModelListener {
             
             if (confirm == JOptionPane.YES_OPTION) {
                 try {
-                    // Remove from parent post
-                    parentPost.removeComment(commentToDelete.getCommentId());
+                    // Remove from parent post; the row goes when the model notifies
+                    model.removeComment(commentToDelete.getCommentId());
                     
                     // Remove from database
                     if (dbManager != null) {
                         dbManager.deleteComment(commentToDelete.getCommentId());
                     }
-                    refreshTable();
+                    selectedCommentId = null;
                     detailsArea.setText("");
                     JOptionPane.showMessageDialog(this, "✓ Comment deleted successfully", "Success", JOptionPane.INFORMATION_MESSAGE);
                     statusLabel.setText("✓ Comment deleted and saved");
@@ -310,21 +363,9 @@ public class CommentManagementPanel extends JPanel implements ModelListener {
             return;
         }
 
-        // Find comment and parent post
-        Comment commentToEdit = null;
-        Post parentPost = null;
-        int count = 0;
-        for (Post post : model.getPosts()) {
-            for (Comment c : post.getComments()) {
-                if (count == selectedRow) {
-                    commentToEdit = c;
-                    parentPost = post;
-                    break;
-                }
-                count++;
-            }
-            if (commentToEdit != null) break;
-        }
+        Comment commentToEdit = tableModel.getCommentAt(selectedRow);
+        Post parentPost = commentToEdit != null
+                ? model.getRepository().findPostByCommentId(commentToEdit.getCommentId()) : null;
 
         if (commentToEdit != null && parentPost != null) {
             showEditDialog(commentToEdit, parentPost);
@@ -406,15 +447,14 @@ public class CommentManagementPanel extends JPanel implements ModelListener {
                     updatedComment.setReliefItem(comment.getReliefItem());
                 }
                 
-                // Update in parent post
-                parentPost.updateComment(updatedComment);
+                // Update in parent post; the row is refreshed when the model notifies
+                model.updateComment(updatedComment);
                 
                 // Update in database
                 if (dbManager != null) {
                     dbManager.updateComment(updatedComment);
                 }
                 
-                refreshTable();
                 dialog.dispose();
                 JOptionPane.showMessageDialog(CommentManagementPanel.this, "✓ Comment updated successfully", "Success", JOptionPane.INFORMATION_MESSAGE);
             } catch (Exception ex) {
@@ -0,0 +1,576 @@
+package com.humanitarian.logistics.ui;
+
+import com.humanitarian.logistics.model.*;
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Table model over every comment in the model, for tables of hundreds of thousands of rows.
+ *
+ * Comments are held once, in arrival order, in an indexed list; the rows shown are an
+ * int array of positions into it. Cells are formatted only when the table asks for a
+ * visible row, so nothing per row is built up front. Sorting and filtering compute a
+ * new position array on a background thread and swap it in on the EDT. Model events
+ * become row insert, update and delete events, so selection and scroll position survive.
+ *
+ * All methods other than the background computation run on the EDT.
+ */
+public class CommentTableModel extends AbstractTableModel {
+    public static final int COLUMN_ID = 0;
+    public static final int COLUMN_AUTHOR = 1;
+    public static final int COLUMN_POSTED = 2;
+    public static final int COLUMN_SENTIMENT = 3;
+    public static final int COLUMN_CONTENT = 4;
+    private static final String[] COLUMNS = {"Comment ID", "Author", "Posted At", "Sentiment", "Content Preview"};
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final int PREVIEW_LENGTH = 50;
+    // Beyond this many separate runs of removed rows, one data-changed event replaces the deletes
+    private static final int MAX_DELETE_EVENTS = 64;
+    private static final Logger log = LoggerFactory.getLogger(CommentTableModel.class);
+
+    // Arrival-ordered comments; removed comments leave a null slot until the next rebuild
+    private Comment[] comments = new Comment[0];
+    private int commentCount;
+    private int removedCount;
+    private final Map<String, Integer> positionById = new HashMap<>();
+
+    // Rows shown: positions into comments, and the row of each position (-1 if hidden)
+    private int[] rows = new int[0];
+    private int rowCount;
+    private int[] rowOfPosition = new int[0];
+
+    private int sortColumn = -1;
+    private boolean ascending = true;
+    private String filterText = "";
+    private Sentiment.SentimentType filterSentiment;
+    private long generation;
+    private boolean computing;
+    private Runnable viewListener;
+
+    // A reload in progress, and what changed while it was being computed
+    private List<Post> pendingReload;
+    private final List<Comment> addedDuringReload = new ArrayList<>();
+    private final Set<String> removedDuringReload = new HashSet<>();
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Comment comment = getCommentAt(row);
+        if (comment == null) {
+            return null;
+        }
+        switch (column) {
+            case COLUMN_ID:
+                return comment.getCommentId();
+            case COLUMN_AUTHOR:
+                return comment.getAuthor();
+            case COLUMN_POSTED:
+                return comment.getCreatedAt() != null ? comment.getCreatedAt().format(DATE_FORMAT) : "";
+            case COLUMN_SENTIMENT:
+                return comment.getSentiment() != null ? comment.getSentiment().getType().toString() : "N/A";
+            default:
+                String content = comment.getContent();
+                return content != null && content.length() > PREVIEW_LENGTH
+                        ? content.substring(0, PREVIEW_LENGTH - 3) + "..." : content;
+        }
+    }
+
+    /**
+     * @return the comment shown in a row, or null if the row is out of range
+     */
+    public Comment getCommentAt(int row) {
+        return row >= 0 && row < rowCount ? comments[rows[row]] : null;
+    }
+
+    /**
+     * @return row showing a comment, or -1 if it is unknown or filtered out
+     */
+    public int getRowOf(String commentId) {
+        Integer position = positionById.get(commentId);
+        return position == null ? -1 : rowOfPosition[position];
+    }
+
+    /**
+     * @return comments held, whether or not the filter shows them
+     */
+    public int getCommentCount() {
+        return commentCount - removedCount;
+    }
+
+    public int getSortColumn() {
+        return sortColumn;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    /**
+     * Called on the EDT whenever a background sort or filter has been applied
+     */
+    public void setViewListener(Runnable listener) {
+        this.viewListener = listener;
+    }
+
+    /**
+     * Replaces every comment, e.g. after a reload; the comments are gathered and the
+     * current sort and filter applied in the background
+     */
+    public void reload(List<Post> posts) {
+        pendingReload = posts;
+        addedDuringReload.clear();
+        removedDuringReload.clear();
+        recompute();
+    }
+
+    /**
+     * Sorts by a column, toggling the direction if it is already the sort column
+     * @param column column index, or -1 for arrival order
+     */
+    public void toggleSort(int column) {
+        ascending = column != sortColumn || !ascending;
+        sortColumn = column;
+        recompute();
+    }
+
+    /**
+     * Shows only comments whose author or content contains the text and, if given,
+     * with the sentiment
+     */
+    public void setFilter(String text, Sentiment.SentimentType sentiment) {
+        String normalized = text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+        if (normalized.equals(filterText) && sentiment == filterSentiment) {
+            return;
+        }
+        filterText = normalized;
+        filterSentiment = sentiment;
+        recompute();
+    }
+
+    /**
+     * Appends the comments of newly added posts as new rows. Matching rows go at the
+     * end; a sorted view is re-sorted in the background afterwards.
+     */
+    public void addPosts(List<Post> posts) {
+        int firstRow = rowCount;
+        for (Post post : posts) {
+            for (Comment comment : post.getComments()) {
+                append(comment);
+            }
+            if (pendingReload != null) {
+                addedDuringReload.addAll(post.getComments());
+            }
+        }
+        if (rowCount > firstRow) {
+            fireTableRowsInserted(firstRow, rowCount - 1);
+            if (sortColumn >= 0 || computing) {
+                recompute(); // new rows may need sorting, or predate a view being computed
+            }
+        }
+    }
+
+    /**
+     * Refreshes changed comments from the repository; ids not held yet, e.g. comments
+     * merged into an existing post by a re-crawl, are appended
+     */
+    public void updateComments(Set<String> commentIds, PostRepository repository) {
+        List<Comment> added = new ArrayList<>();
+        List<Integer> hiddenRows = new ArrayList<>();
+        for (String commentId : commentIds) {
+            Comment comment = findComment(repository, commentId);
+            if (comment == null) {
+                continue;
+            }
+            Integer position = positionById.get(commentId);
+            if (position == null) {
+                added.add(comment);
+                continue;
+            }
+            comments[position] = comment;
+            int row = rowOfPosition[position];
+            if (row >= 0) {
+                if (matches(comment)) {
+                    fireTableRowsUpdated(row, row);
+                } else {
+                    hiddenRows.add(row);
+                }
+            } else if (matches(comment)) {
+                added.add(comment); // now passes the filter; shown at the end
+            }
+        }
+        removeRows(hiddenRows);
+
+        int firstRow = rowCount;
+        for (Comment comment : added) {
+            Integer position = positionById.get(comment.getCommentId());
+            if (position == null) {
+                append(comment);
+            } else {
+                showAtEnd(position);
+            }
+        }
+        if (pendingReload != null) {
+            addedDuringReload.addAll(added);
+        }
+        if (rowCount > firstRow) {
+            fireTableRowsInserted(firstRow, rowCount - 1);
+        }
+        if ((sortColumn >= 0 || computing) && !commentIds.isEmpty()) {
+            recompute(); // edits may move rows, or predate a view being computed
+        }
+    }
+
+    /**
+     * Drops removed comments and their rows
+     */
+    public void removeComments(Set<String> commentIds) {
+        List<Integer> removedRows = new ArrayList<>();
+        List<Integer> removedPositions = new ArrayList<>();
+        for (String commentId : commentIds) {
+            if (pendingReload != null) {
+                removedDuringReload.add(commentId);
+            }
+            Integer position = positionById.remove(commentId);
+            if (position == null) {
+                continue;
+            }
+            removedPositions.add(position);
+            if (rowOfPosition[position] >= 0) {
+                removedRows.add(rowOfPosition[position]);
+            }
+        }
+        // Rows still shown while their delete events go out keep their comments until then
+        removeRows(removedRows);
+        for (int position : removedPositions) {
+            comments[position] = null;
+            removedCount++;
+        }
+    }
+
+    private static Comment findComment(PostRepository repository, String commentId) {
+        Post post = repository.findPostByCommentId(commentId);
+        if (post == null) {
+            return null;
+        }
+        for (Comment comment : post.getComments()) {
+            if (comment.getCommentId().equals(commentId)) {
+                return comment;
+            }
+        }
+        return null;
+    }
+
+    private void append(Comment comment) {
+        if (positionById.containsKey(comment.getCommentId())) {
+            return;
+        }
+        if (commentCount == comments.length) {
+            int capacity = Math.max(16, comments.length * 2);
+            comments = Arrays.copyOf(comments, capacity);
+            int oldLength = rowOfPosition.length;
+            rowOfPosition = Arrays.copyOf(rowOfPosition, capacity);
+            Arrays.fill(rowOfPosition, oldLength, capacity, -1);
+        }
+        int position = commentCount++;
+        comments[position] = comment;
+        positionById.put(comment.getCommentId(), position);
+        if (matches(comment)) {
+            showAtEnd(position);
+        }
+    }
+
+    private void showAtEnd(int position) {
+        if (rowCount == rows.length) {
+            rows = Arrays.copyOf(rows, Math.max(16, rows.length * 2));
+        }
+        rows[rowCount] = position;
+        rowOfPosition[position] = rowCount++;
+    }
+
+    /**
+     * Removes rows. Each run of adjacent rows is cut out and announced highest run first,
+     * so every delete event describes the rows as they are when it is fired. A removal
+     * scattered over many runs is compacted in one pass and announced as a data change.
+     */
+    private void removeRows(List<Integer> removedRows) {
+        if (removedRows.isEmpty()) {
+            return;
+        }
+        TreeSet<Integer> removed = new TreeSet<>(removedRows);
+        List<int[]> runs = new ArrayList<>(); // {first, last}, highest first
+        Iterator<Integer> descending = removed.descendingIterator();
+        int last = descending.next();
+        int first = last;
+        while (descending.hasNext()) {
+            int row = descending.next();
+            if (row != first - 1) {
+                runs.add(new int[] {first, last});
+                last = row;
+            }
+            first = row;
+        }
+        runs.add(new int[] {first, last});
+
+        if (runs.size() > MAX_DELETE_EVENTS) {
+            int kept = 0;
+            for (int row = 0; row < rowCount; row++) {
+                int position = rows[row];
+                if (removed.contains(row)) {
+                    rowOfPosition[position] = -1;
+                } else {
+                    rows[kept] = position;
+                    rowOfPosition[position] = kept++;
+                }
+            }
+            rowCount = kept;
+            fireTableDataChanged();
+            return;
+        }
+        for (int[] run : runs) {
+            for (int row = run[0]; row <= run[1]; row++) {
+                rowOfPosition[rows[row]] = -1;
+            }
+            System.arraycopy(rows, run[1] + 1, rows, run[0], rowCount - run[1] - 1);
+            rowCount -= run[1] - run[0] + 1;
+            for (int row = run[0]; row < rowCount; row++) {
+                rowOfPosition[rows[row]] = row;
+            }
+            fireTableRowsDeleted(run[0], run[1]);
+        }
+    }
+
+    private boolean matches(Comment comment) {
+        return matches(comment, filterText, filterSentiment);
+    }
+
+    private static boolean matches(Comment comment, String text, Sentiment.SentimentType sentiment) {
+        if (comment == null) {
+            return false;
+        }
+        if (sentiment != null && (comment.getSentiment() == null || comment.getSentiment().getType() != sentiment)) {
+            return false;
+        }
+        if (text.isEmpty()) {
+            return true;
+        }
+        return contains(comment.getContent(), text) || contains(comment.getAuthor(), text);
+    }
+
+    private static boolean contains(String value, String lowerCaseText) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(lowerCaseText);
+    }
+
+    /**
+     * Computes the rows for the current sort and filter on a worker thread, from the
+     * pending reload if there is one. Results of a computation overtaken by a newer
+     * one are dropped.
+     */
+    private void recompute() {
+        long requested = ++generation;
+        computing = true;
+        List<Post> posts = pendingReload;
+        Comment[] source = posts == null ? Arrays.copyOf(comments, commentCount) : null;
+        int column = sortColumn;
+        boolean up = ascending;
+        String text = filterText;
+        Sentiment.SentimentType sentiment = filterSentiment;
+
+        new SwingWorker<RowView, Void>() {
+            @Override
+            protected RowView doInBackground() {
+                Comment[] all = source;
+                if (all == null) {
+                    List<Comment> gathered = new ArrayList<>();
+                    for (Post post : posts) {
+                        gathered.addAll(post.getComments());
+                    }
+                    all = gathered.toArray(new Comment[0]);
+                }
+                return RowView.compute(all, column, up, text, sentiment);
+            }
+
+            @Override
+            protected void done() {
+                if (requested != generation) {
+                    return;
+                }
+                computing = false;
+                try {
+                    install(get(), posts != null);
+                } catch (Exception e) {
+                    log.error("✗ Comment table update failed: {}", e.getMessage(), e);
+                }
+            }
+        }.execute();
+    }
+
+    private void install(RowView view, boolean replaceComments) {
+        if (replaceComments) {
+            comments = view.comments;
+            commentCount = view.comments.length;
+            removedCount = 0;
+            positionById.clear();
+            for (int i = 0; i < commentCount; i++) {
+                positionById.putIfAbsent(comments[i].getCommentId(), i);
+            }
+        }
+        rows = view.rows;
+        rowCount = view.rows.length;
+        rowOfPosition = new int[comments.length];
+        Arrays.fill(rowOfPosition, -1);
+        for (int row = 0; row < rowCount; row++) {
+            rowOfPosition[rows[row]] = row;
+        }
+        if (!replaceComments) {
+            compactRows(); // comments removed while the view was computed
+        }
+
+        boolean resort = false;
+        if (replaceComments) {
+            // Replay what changed while the reload was computed; one data-changed event covers it
+            pendingReload = null;
+            for (String commentId : removedDuringReload) {
+                Integer position = positionById.remove(commentId);
+                if (position != null) {
+                    comments[position] = null;
+                    removedCount++;
+                }
+            }
+            if (!removedDuringReload.isEmpty()) {
+                compactRows();
+            }
+            for (Comment comment : addedDuringReload) {
+                if (!positionById.containsKey(comment.getCommentId())) {
+                    append(comment);
+                    resort = true;
+                }
+            }
+            addedDuringReload.clear();
+            removedDuringReload.clear();
+        }
+        fireTableDataChanged();
+        if (viewListener != null) {
+            viewListener.run();
+        }
+        if (resort && sortColumn >= 0) {
+            recompute();
+        }
+    }
+
+    /**
+     * Drops rows of removed comments without firing events
+     */
+    private void compactRows() {
+        int kept = 0;
+        for (int row = 0; row < rowCount; row++) {
+            int position = rows[row];
+            if (comments[position] == null) {
+                rowOfPosition[position] = -1;
+            } else {
+                rows[kept] = position;
+                rowOfPosition[position] = kept++;
+            }
+        }
+        rowCount = kept;
+    }
+
+    /**
+     * Comments and the rows to show, computed off the EDT
+     */
+    private static class RowView {
+        final Comment[] comments;
+        final int[] rows;
+
+        RowView(Comment[] comments, int[] rows) {
+            this.comments = comments;
+            this.rows = rows;
+        }
+
+        static RowView compute(Comment[] comments, int column, boolean ascending,
+                            String text, Sentiment.SentimentType sentiment) {
+            int[] shown = new int[comments.length];
+            int count = 0;
+            for (int i = 0; i < comments.length; i++) {
+                if (matches(comments[i], text, sentiment)) {
+                    shown[count++] = i;
+                }
+            }
+            int[] rows = Arrays.copyOf(shown, count);
+            if (column >= 0) {
+                Integer[] boxed = new Integer[count];
+                for (int i = 0; i < count; i++) {
+                    boxed[i] = rows[i];
+                }
+                Arrays.sort(boxed, comparator(comments, column, ascending)); // stable: ties keep arrival order
+                for (int i = 0; i < count; i++) {
+                    rows[i] = boxed[i];
+                }
+            }
+            return new RowView(comments, rows);
+        }
+
+        /**
+         * Orders positions by a column. Sort keys are extracted once into arrays, so the
+         * n log n comparisons read primitives or strings instead of calling getters.
+         * Missing values sort last in either direction.
+         */
+        private static Comparator<Integer> comparator(Comment[] comments, int column, boolean ascending) {
+            if (column == COLUMN_POSTED || column == COLUMN_SENTIMENT) {
+                long[] keys = new long[comments.length];
+                for (int i = 0; i < comments.length; i++) {
+                    Comment comment = comments[i];
+                    if (comment == null) {
+                        continue;
+                    }
+                    if (column == COLUMN_POSTED) {
+                        keys[i] = comment.getCreatedAt() != null
+                                ? comment.getCreatedAt().toEpochSecond(java.time.ZoneOffset.UTC) : Long.MAX_VALUE;
+                    } else {
+                        keys[i] = comment.getSentiment() != null ? comment.getSentiment().getType().ordinal() : Long.MAX_VALUE;
+                    }
+                }
+                return (a, b) -> {
+                    if (keys[a] == Long.MAX_VALUE || keys[b] == Long.MAX_VALUE) {
+                        return Long.compare(keys[a], keys[b]);
+                    }
+                    return ascending ? Long.compare(keys[a], keys[b]) : Long.compare(keys[b], keys[a]);
+                };
+            }
+            String[] keys = new String[comments.length];
+            for (int i = 0; i < comments.length; i++) {
+                Comment comment = comments[i];
+                if (comment != null) {
+                    keys[i] = column == COLUMN_ID ? comment.getCommentId()
+                            : column == COLUMN_AUTHOR ? comment.getAuthor() : comment.getContent();
+                }
+            }
+            Comparator<String> text = Comparator.nullsLast(
+                    ascending ? String.CASE_INSENSITIVE_ORDER : String.CASE_INSENSITIVE_ORDER.reversed());
+            return (a, b) -> text.compare(keys[a], keys[b]);
+        }
+    }
+}
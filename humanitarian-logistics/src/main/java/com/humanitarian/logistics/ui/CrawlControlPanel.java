@@ -1,6 +1,9 @@
 package com.humanitarian.logistics.ui;
 
 import com.humanitarian.logistics.model.*;
+import com.humanitarian.logistics.concurrent.IoExecutor;
+import com.humanitarian.logistics.crawler.CrawlScheduler;
+import com.humanitarian.logistics.crawler.CrawlStateStore;
 import com.humanitarian.logistics.crawler.YouTubeCrawler;
 import com.humanitarian.logistics.crawler.MockDataCrawler;
 import com.humanitarian.logistics.database.DatabaseManager;
@@ -9,6 +12,7 @@ import java.awt.*;
 import java.io.File;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -213,8 +217,20 @@ public class CrawlControlPanel extends JPanel {
         return panel;
     }
 
+    /**
+     * Records the incremental crawl state of posts once they are saved, or drops it
+     * after a failed save so their comments are fetched again by the next crawl
+     */
+    private static void commitCrawlState(List<Post> posts, Throwable saveError) {
+        if (saveError == null) {
+            CrawlStateStore.getInstance().commit(posts);
+        } else {
+            CrawlStateStore.getInstance().discard(posts);
+        }
+    }
+
     private void startCrawling() {
-        new Thread(() -> {
+        IoExecutor.getInstance().execute(() -> {
             Object crawler = null;
             try {
                 crawlButton.setEnabled(false);
@@ -252,6 +268,8 @@ public class CrawlControlPanel extends JPanel {
                     
                     YouTubeCrawler youtubeCrawler = new YouTubeCrawler();
                     youtubeCrawler.initialize();
+                    youtubeCrawler.enableIncrementalCrawl(CrawlStateStore.getInstance(), YouTubeCrawler.DEFAULT_RECRAWL_INTERVAL);
+                    youtubeCrawler.setCommentLimits(commentLimit, youtubeCrawler.getMaxPagesPerVideo());
                     crawler = youtubeCrawler;
                     
                     if (youtubeCrawler.isInitialized()) {
@@ -310,8 +328,14 @@ public class CrawlControlPanel extends JPanel {
                     if (post instanceof YouTubePost) {
                         ((YouTubePost) post).setDisasterType(disasterType);
                     }
-                    model.addPost(post);
                 }
+                try {
+                    model.addPosts(posts);
+                } catch (RuntimeException saveError) {
+                    commitCrawlState(posts, saveError);
+                    throw saveError;
+                }
+                commitCrawlState(posts, null);
 
                 // Update results
                 updateCrawlResults(posts);
@@ -337,11 +361,11 @@ public class CrawlControlPanel extends JPanel {
                     }
                 }
             }
-        }).start();
+        });
     }
 
     private void startCrawlingByUrl() {
-        new Thread(() -> {
+        IoExecutor.getInstance().execute(() -> {
             try {
                 crawlUrlButton.setEnabled(false);
                 progressBar.setValue(0);
@@ -396,44 +420,40 @@ public class CrawlControlPanel extends JPanel {
                 int successCount = 0;
                 int failCount = 0;
 
-                // Crawl each URL
-                for (int i = 0; i < validUrls.size(); i++) {
-                    String postUrl = validUrls.get(i);
-                    crawlResultsArea.append("\n[" + (i + 1) + "/" + validUrls.size() + "] Processing URL:\n");
-                    crawlResultsArea.append("  " + postUrl.substring(0, Math.min(70, postUrl.length())) + "\n");
-                    
-                    try {
-                        Post post = null;
+                // Crawl all URLs concurrently and handle each post as soon as it is complete
+                YouTubeCrawler youtubeCrawler = new YouTubeCrawler();
+                youtubeCrawler.initialize();
+                // Re-crawled videos only fetch comments that are not stored yet
+                youtubeCrawler.enableIncrementalCrawl(CrawlStateStore.getInstance(), YouTubeCrawler.DEFAULT_RECRAWL_INTERVAL);
+                CrawlScheduler scheduler = new CrawlScheduler(youtubeCrawler);
+                try {
+                    CrawlScheduler.ResultStream results = scheduler.crawlVideos(validUrls);
+                    Post post;
+                    while ((post = results.next()) != null) {
+                        // Set the disaster type
+                        if (post instanceof YouTubePost) {
+                            ((YouTubePost) post).setDisasterType(selectedDisaster);
+                        }
                         
-                        // Use YouTubeCrawler for YouTube URLs
-                        YouTubeCrawler youtubeCrawler = new YouTubeCrawler();
-                        youtubeCrawler.initialize();
-                        post = youtubeCrawler.crawlVideoByUrl(postUrl);
-                        youtubeCrawler.shutdown();
+                        crawlResultsArea.append("\n[" + (successCount + 1) + "/" + validUrls.size() + "] ✓ Video "
+                            + post.getPostId() + ": " + post.getComments().size() + " new comments extracted\n");
+                        allPosts.add(post);
+                        List<Post> saved = Collections.singletonList(post);
+                        model.submitPosts(saved).whenComplete((ignored, error) -> commitCrawlState(saved, error));
+                        successCount++;
                         
-                        if (post != null) {
-                            // Set the disaster type
-                            if (post instanceof YouTubePost) {
-                                ((YouTubePost) post).setDisasterType(selectedDisaster);
-                            }
-                            
-                            crawlResultsArea.append("  ✓ Success: " + post.getComments().size() + " comments extracted\n");
-                            allPosts.add(post);
-                            model.addPost(post);
-                            successCount++;
-                            
-                            // Update progress
-                            int progress = (int) ((i + 1.0) / validUrls.size() * 100);
-                            progressBar.setIndeterminate(false);
-                            progressBar.setValue(progress);
-                        } else {
-                            crawlResultsArea.append("  ✗ Failed: Could not extract post\n");
-                            failCount++;
-                        }
-                    } catch (Exception e) {
-                        crawlResultsArea.append("  ✗ Error: " + e.getMessage() + "\n");
-                        failCount++;
+                        // Update progress
+                        int progress = (int) ((successCount + results.getFailedCount()) * 100.0 / validUrls.size());
+                        progressBar.setIndeterminate(false);
+                        progressBar.setValue(progress);
+                    }
+                    for (String failure : results.getFailures()) {
+                        crawlResultsArea.append("  ✗ Failed: " + failure + "\n");
                     }
+                    failCount = results.getFailedCount();
+                } finally {
+                    scheduler.shutdown();
+                    youtubeCrawler.shutdown();
                 }
 
                 // Display summary
@@ -465,7 +485,7 @@ public class CrawlControlPanel extends JPanel {
             } finally {
                 crawlUrlButton.setEnabled(true);
             }
-        }).start();
+        });
     }
 
     private void addCommentsToPost(Post post, int commentLimit) {
@@ -600,14 +620,18 @@ public class CrawlControlPanel extends JPanel {
                 samplePosts.add(post);
             }
 
-            // Add to model
-            for (Post post : samplePosts) {
-                model.addPost(post);
+            // Add to model; the posts are shown even if saving them fails
+            String saveError = null;
+            try {
+                model.addPosts(samplePosts);
+            } catch (RuntimeException e) {
+                saveError = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
             }
 
             // Update results
             updateCrawlResults(samplePosts);
-            statusLabel.setText("✓ Sample data loaded successfully!");
+            statusLabel.setText(saveError == null ? "✓ Sample data loaded successfully!"
+                    : "⚠️ Sample data loaded but not saved: " + saveError);
             crawlResultsArea.insert("✓ Loaded 5 sample posts with 8 comments each\n", 0);
 
         } catch (Exception e) {
@@ -841,6 +865,8 @@ public class CrawlControlPanel extends JPanel {
                         // CRITICAL: Reset Model's DatabaseManager instance to force new connection
                         model.resetDatabaseConnection();
                         System.out.println("DEBUG: Model database connection reset");
+                        // Forget known comments and crawl times; reloaded from the new database on next use
+                        CrawlStateStore.getInstance().invalidate();
                         
                         JOptionPane.showMessageDialog(
                             this,
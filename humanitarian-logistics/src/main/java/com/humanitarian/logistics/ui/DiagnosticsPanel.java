@@ -0,0 +1,142 @@
+package com.humanitarian.logistics.ui;
+
+import com.humanitarian.logistics.metrics.MetricsRegistry;
+import javax.swing.*;
+import javax.swing.table.*;
+import java.awt.*;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.List;
+import org.json.JSONObject;
+
+/**
+ * Live view of the metrics registry: latency percentiles for HTTP calls, sentiment
+ * scoring, classification, SQLite writes, analysis runs and listener refreshes,
+ * plus counters and value histograms. Refreshes once a second while visible.
+ */
+public class DiagnosticsPanel extends JPanel {
+    private static final int REFRESH_MS = 1000;
+    private static final String[] COLUMNS = {"Metric", "Type", "Count", "Mean", "p50", "p90", "p99", "Max"};
+
+    private final MetricsRegistry registry;
+    private final DefaultTableModel tableModel;
+    private final JLabel statusLabel;
+    private final javax.swing.Timer refreshTimer;
+
+    public DiagnosticsPanel() {
+        this(MetricsRegistry.getInstance());
+    }
+
+    public DiagnosticsPanel(MetricsRegistry registry) {
+        this.registry = registry;
+        setLayout(new BorderLayout(10, 10));
+        setBorder(BorderFactory.createTitledBorder("🩺 Diagnostics"));
+
+        JPanel toolbar = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        toolbar.setBackground(new Color(240, 240, 240));
+        JButton resetButton = new JButton("↺ Reset");
+        resetButton.setFont(new Font("Arial", Font.PLAIN, 10));
+        resetButton.addActionListener(e -> {
+            registry.reset();
+            refresh();
+        });
+        JButton exportButton = new JButton("💾 Export JSON...");
+        exportButton.setFont(new Font("Arial", Font.PLAIN, 10));
+        exportButton.addActionListener(e -> exportJson());
+        toolbar.add(resetButton);
+        toolbar.add(exportButton);
+        toolbar.add(new JLabel("  Timers in ms; histograms in their own unit"));
+        add(toolbar, BorderLayout.NORTH);
+
+        tableModel = new DefaultTableModel(COLUMNS, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+
+            @Override
+            public Class<?> getColumnClass(int column) {
+                return column >= 2 ? Number.class : String.class;
+            }
+        };
+        JTable table = new JTable(tableModel);
+        table.setAutoCreateRowSorter(true);
+        table.setFont(new Font("Monospaced", Font.PLAIN, 11));
+        table.getColumnModel().getColumn(0).setPreferredWidth(280);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+
+        statusLabel = new JLabel(" ");
+        statusLabel.setFont(new Font("Arial", Font.PLAIN, 11));
+        add(statusLabel, BorderLayout.SOUTH);
+
+        refreshTimer = new javax.swing.Timer(REFRESH_MS, e -> {
+            if (isShowing()) {
+                refresh();
+            }
+        });
+        refreshTimer.start();
+    }
+
+    /**
+     * Reloads the table from the registry, keeping the row order the user sorted by
+     */
+    @SuppressWarnings("unchecked")
+    public void refresh() {
+        Map<String, Object> metrics = registry.getMetrics();
+        List<Object[]> rows = new ArrayList<>();
+        ((Map<String, Map<String, Object>>) metrics.get("timers")).forEach((name, summary) -> rows.add(new Object[] {
+            name, "timer", summary.get("count"), round(summary.get("mean_ms")), round(summary.get("p50_ms")),
+            round(summary.get("p90_ms")), round(summary.get("p99_ms")), round(summary.get("max_ms"))
+        }));
+        ((Map<String, Map<String, Object>>) metrics.get("histograms")).forEach((name, summary) -> rows.add(new Object[] {
+            name, "histogram", summary.get("count"), round(summary.get("mean")), summary.get("p50"),
+            summary.get("p90"), summary.get("p99"), summary.get("max")
+        }));
+        ((Map<String, Object>) metrics.get("counters")).forEach((name, value) -> rows.add(new Object[] {
+            name, "counter", value, null, null, null, null, null
+        }));
+
+        if (rows.size() == tableModel.getRowCount()) {
+            // Same metrics as before: update cells in place so selection and sorting stay put
+            for (int r = 0; r < rows.size(); r++) {
+                Object[] row = rows.get(r);
+                for (int c = 2; c < row.length; c++) {
+                    if (!Objects.equals(row[c], tableModel.getValueAt(r, c))) {
+                        tableModel.setValueAt(row[c], r, c);
+                    }
+                }
+            }
+        } else {
+            tableModel.setRowCount(0);
+            for (Object[] row : rows) {
+                tableModel.addRow(row);
+            }
+        }
+        statusLabel.setText("Updated " + java.time.LocalTime.now().withNano(0) + " - " + rows.size() + " metrics");
+    }
+
+    private static Object round(Object value) {
+        return value instanceof Double ? Math.round((Double) value * 1000) / 1000.0 : value;
+    }
+
+    private void exportJson() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("metrics.json"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        try {
+            Files.write(chooser.getSelectedFile().toPath(),
+                    new JSONObject(registry.getMetrics()).toString(2).getBytes(StandardCharsets.UTF_8));
+            statusLabel.setText("✓ Exported to " + chooser.getSelectedFile());
+        } catch (Exception e) {
+            statusLabel.setText("✗ Export failed: " + e.getMessage());
+        }
+    }
+
+    public void shutdown() {
+        refreshTimer.stop();
+    }
+}
@@ -0,0 +1,190 @@
+package com.humanitarian.logistics.ui;
+
+import com.humanitarian.logistics.analysis.SentimentSeries;
+import com.humanitarian.logistics.model.Sentiment;
+import org.jfree.chart.ChartPanel;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.ValueAxis;
+import org.jfree.chart.title.TextTitle;
+import org.jfree.data.Range;
+import org.jfree.data.time.FixedMillisecond;
+import org.jfree.data.time.TimeSeries;
+import org.jfree.data.time.TimeSeriesCollection;
+
+import java.awt.*;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Sentiment-over-time line chart that never draws much more than one point per pixel.
+ * The bucket width follows the visible time range: the whole corpus is summed per day,
+ * and zooming in with the ChartPanel's domain zoom re-sums just the zoomed window at
+ * a finer width, down to 5 minutes. A window that still has more buckets than the plot
+ * is wide, e.g. years of daily data, is reduced with LTTB.
+ *
+ * Re-summing reads the cached {@link SentimentSeries}, not the posts, so it is cheap
+ * enough to run on the EDT as the user zooms and pans.
+ */
+public class DownsampledTimeChart {
+    public enum Mode { COUNTS, PERCENT }
+
+    private static final long MINUTE = 60_000L;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long[] BUCKET_WIDTHS = {
+        5 * MINUTE, 15 * MINUTE, 30 * MINUTE, HOUR, 3 * HOUR, 6 * HOUR, 12 * HOUR, 24 * HOUR
+    };
+    private static final String[] BUCKET_NAMES = {
+        "5 minutes", "15 minutes", "30 minutes", "hour", "3 hours", "6 hours", "12 hours", "day"
+    };
+    private static final int PIXELS_PER_BUCKET = 4; // finest width whose buckets are at least this wide
+    private static final int DEFAULT_PLOT_WIDTH = 800; // until the panel has been laid out
+    private static final int REFRESH_DELAY_MS = 100;   // coalesces the axis events of one wheel or drag zoom
+    private static final Sentiment.SentimentType[] TYPES = {
+        Sentiment.SentimentType.POSITIVE, Sentiment.SentimentType.NEGATIVE, Sentiment.SentimentType.NEUTRAL
+    };
+    private static final String[] SERIES_NAMES = {"Positive", "Negative", "Neutral"};
+
+    private final SentimentSeries series;
+    private final Mode mode;
+    private final String valueLabel;
+    private final ChartPanel chartPanel;
+    private final JFreeChart chart;
+    private final TextTitle resolutionTitle = new TextTitle();
+    private final javax.swing.Timer refreshTimer;
+    private String renderedKey;
+    private long bucketMillis;
+
+    private DownsampledTimeChart(String title, String valueLabel, SentimentSeries series, Mode mode, ChartPanel chartPanel) {
+        this.series = series;
+        this.mode = mode;
+        this.valueLabel = valueLabel;
+        this.chartPanel = chartPanel;
+        this.chart = ChartsUtility.createSentimentTimeSeriesChart(title, valueLabel, new TimeSeriesCollection());
+        resolutionTitle.setFont(new Font("Arial", Font.PLAIN, 10));
+        chart.addSubtitle(resolutionTitle);
+        refreshTimer = new javax.swing.Timer(REFRESH_DELAY_MS, e -> refresh());
+        refreshTimer.setRepeats(false);
+        refresh();
+        chart.getXYPlot().getDomainAxis().addChangeListener(e -> refreshTimer.restart());
+    }
+
+    /**
+     * Creates the chart for display in chartPanel, whose plot width sets the resolution
+     * @param valueLabel range axis label in COUNTS mode, completed with the bucket width
+     */
+    public static DownsampledTimeChart of(String title, String valueLabel, SentimentSeries series, Mode mode,
+                                          ChartPanel chartPanel) {
+        return new DownsampledTimeChart(title, valueLabel, series, mode, chartPanel);
+    }
+
+    public JFreeChart getChart() {
+        return chart;
+    }
+
+    /**
+     * @return width of the buckets currently drawn; a point at x stands for [x, x + width)
+     */
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+
+    /**
+     * Rebuilds the dataset for the visible window if it or the plot width changed
+     */
+    private void refresh() {
+        if (series.isEmpty()) {
+            resolutionTitle.setText("No data");
+            return;
+        }
+        ValueAxis axis = chart.getXYPlot().getDomainAxis();
+        // While auto-ranging the window is the whole series, so replacing the dataset,
+        // which re-fits the axis, does not feed back into another refresh
+        long from = series.getStart();
+        long to = series.getEnd();
+        if (!axis.isAutoRange()) {
+            Range range = axis.getRange();
+            from = Math.max(from, (long) range.getLowerBound());
+            to = Math.min(to, (long) Math.ceil(range.getUpperBound()));
+        }
+        int pixels = plotWidth();
+        int level = resolutionFor(Math.max(1, to - from), pixels);
+        String key = level + ":" + from + ":" + to + ":" + pixels;
+        if (key.equals(renderedKey)) {
+            return;
+        }
+        renderedKey = key;
+
+        long width = BUCKET_WIDTHS[level];
+        bucketMillis = width;
+        // One bucket beyond each edge so lines run to the border of a zoomed window
+        boolean zoomed = !axis.isAutoRange();
+        SentimentSeries.Buckets buckets = series.sum(zoomed ? from - width : from, zoomed ? to + width : to, width);
+
+        TimeSeriesCollection dataset = new TimeSeriesCollection();
+        int drawn = 0;
+        for (int s = 0; s < TYPES.length; s++) {
+            TimeSeries line = toSeries(SERIES_NAMES[s], TYPES[s], buckets, pixels);
+            drawn = Math.max(drawn, line.getItemCount());
+            dataset.addSeries(line);
+        }
+        chart.getXYPlot().setDataset(dataset);
+
+        if (mode == Mode.COUNTS) {
+            chart.getXYPlot().getRangeAxis().setLabel(valueLabel + " per " + BUCKET_NAMES[level]);
+        }
+        String text = "Resolution: per " + BUCKET_NAMES[level];
+        if (drawn < buckets.size()) {
+            text += String.format(Locale.ROOT, " · LTTB %,d of %,d points", drawn, buckets.size());
+        }
+        resolutionTitle.setText(text);
+    }
+
+    private TimeSeries toSeries(String name, Sentiment.SentimentType type, SentimentSeries.Buckets buckets,
+                                        int pixels) {
+        double[] x = new double[buckets.size()];
+        double[] y = new double[buckets.size()];
+        int n = 0;
+        for (int b = 0; b < buckets.size(); b++) {
+            int total = buckets.total(b);
+            if (mode == Mode.PERCENT && total == 0) {
+                continue; // no share to show for an empty bucket
+            }
+            x[n] = buckets.getStart(b);
+            y[n] = mode == Mode.PERCENT ? (double) buckets.count(b, type) / total * 100 : buckets.count(b, type);
+            n++;
+        }
+        if (n < x.length) {
+            x = Arrays.copyOf(x, n);
+            y = Arrays.copyOf(y, n);
+        }
+
+        TimeSeries line = new TimeSeries(name);
+        for (int i : TimeSeriesDownsampler.lttb(x, y, pixels)) {
+            line.add(new FixedMillisecond((long) x[i]), y[i], false);
+        }
+        return line;
+    }
+
+    private int plotWidth() {
+        Rectangle area = chartPanel.getScreenDataArea().getBounds();
+        if (area.width > 0) {
+            return area.width;
+        }
+        return chartPanel.getWidth() > 0 ? chartPanel.getWidth() : DEFAULT_PLOT_WIDTH;
+    }
+
+    /**
+     * Finest bucket width that keeps every bucket at least {@link #PIXELS_PER_BUCKET}
+     * pixels wide, capped at one day
+     * @return index into {@link #BUCKET_WIDTHS}
+     */
+    static int resolutionFor(long span, int pixels) {
+        long maxBuckets = Math.max(1, pixels / PIXELS_PER_BUCKET);
+        for (int level = 0; level < BUCKET_WIDTHS.length; level++) {
+            if (span / BUCKET_WIDTHS[level] <= maxBuckets) {
+                return level;
+            }
+        }
+        return BUCKET_WIDTHS.length - 1;
+    }
+}
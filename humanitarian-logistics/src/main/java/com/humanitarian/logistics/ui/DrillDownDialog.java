@@ -0,0 +1,116 @@
+package com.humanitarian.logistics.ui;
+
+import com.humanitarian.logistics.model.*;
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.List;
+
+/**
+ * Lists the posts behind a clicked chart value, with the comments of the selected
+ * post underneath. Rows are formatted only when painted, so a slice of many thousand
+ * posts opens at once.
+ */
+public class DrillDownDialog extends JDialog {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final String[] POST_COLUMNS = {"Date", "Author", "Sentiment", "Category", "Comments", "Content"};
+    private static final String[] COMMENT_COLUMNS = {"Date", "Author", "Sentiment", "Content"};
+
+    private DrillDownDialog(Window owner, String title, List<Post> posts) {
+        super(owner, title + " - " + posts.size() + " posts", ModalityType.MODELESS);
+        setLayout(new BorderLayout(5, 5));
+
+        JTable postTable = new JTable(new RowModel<>(POST_COLUMNS, posts, (post, column) -> {
+            switch (column) {
+                case 0: return format(post.getCreatedAt());
+                case 1: return post.getAuthor();
+                case 2: return post.getSentiment() == null ? "-" : post.getSentiment().getType();
+                case 3: return post.getReliefItem() == null ? "-" : post.getReliefItem().getCategory().getDisplayName();
+                case 4: return post.getComments().size();
+                default: return post.getContent();
+            }
+        }));
+        RowModel<Comment> commentModel = new RowModel<>(COMMENT_COLUMNS, Collections.emptyList(), (comment, column) -> {
+            switch (column) {
+                case 0: return format(comment.getCreatedAt());
+                case 1: return comment.getAuthor();
+                case 2: return comment.getSentiment() == null ? "-" : comment.getSentiment().getType();
+                default: return comment.getContent();
+            }
+        });
+        JTable commentTable = new JTable(commentModel);
+        for (JTable table : new JTable[] {postTable, commentTable}) {
+            table.setFont(new Font("Arial", Font.PLAIN, 11));
+            table.getColumnModel().getColumn(0).setPreferredWidth(110);
+            table.getColumnModel().getColumn(table.getColumnCount() - 1).setPreferredWidth(500);
+        }
+        postTable.getSelectionModel().addListSelectionListener(e -> {
+            int row = postTable.getSelectedRow();
+            commentModel.setRows(row < 0 ? Collections.emptyList() : new ArrayList<>(posts.get(row).getComments()));
+        });
+
+        JSplitPane split = new JSplitPane(JSplitPane.VERTICAL_SPLIT, new JScrollPane(postTable), new JScrollPane(commentTable));
+        split.setResizeWeight(0.6);
+        add(split, BorderLayout.CENTER);
+        JLabel hint = new JLabel(" Select a post to see its comments");
+        hint.setFont(new Font("Arial", Font.PLAIN, 11));
+        add(hint, BorderLayout.SOUTH);
+
+        setSize(1000, 600);
+        setLocationRelativeTo(owner);
+    }
+
+    /**
+     * Opens a dialog for the posts of one chart value
+     */
+    public static void show(Component parent, String title, List<Post> posts) {
+        new DrillDownDialog(SwingUtilities.getWindowAncestor(parent), title, posts).setVisible(true);
+    }
+
+    private static String format(java.time.LocalDateTime time) {
+        return time == null ? "" : time.format(DATE_FORMAT);
+    }
+
+    private interface CellFormatter<T> {
+        Object format(T row, int column);
+    }
+
+    private static class RowModel<T> extends AbstractTableModel {
+        private final String[] columns;
+        private final CellFormatter<T> formatter;
+        private List<T> rows;
+
+        RowModel(String[] columns, List<T> rows, CellFormatter<T> formatter) {
+            this.columns = columns;
+            this.rows = rows;
+            this.formatter = formatter;
+        }
+
+        void setRows(List<T> rows) {
+            this.rows = rows;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return rows.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columns.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return columns[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            return formatter.format(rows.get(row), column);
+        }
+    }
+}
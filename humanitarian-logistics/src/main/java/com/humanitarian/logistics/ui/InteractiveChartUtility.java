@@ -9,12 +9,14 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
+import java.util.function.Consumer;
 
 /**
  * Utility for adding interactive features to JFreeChart ChartPanels.
  * Provides enhanced tooltips, zoom, and pan capabilities.
  */
 public class InteractiveChartUtility {
+    private static final String DRILL_DOWN_PROPERTY = "chart.drillDown";
 
     /**
      * Add enhanced interactive features to a ChartPanel
@@ -33,10 +35,14 @@ public class InteractiveChartUtility {
         // Add enhanced mouse listener for tooltips
         chartPanel.addChartMouseListener(new ChartMouseListener() {
             @Override
+            @SuppressWarnings("unchecked")
             public void chartMouseClicked(ChartMouseEvent event) {
-                // On click, show detailed info
+                // On click, open the records behind the value, or show detailed info
                 ChartEntity entity = event.getEntity();
-                if (entity != null) {
+                Consumer<ChartEntity> drillDown = (Consumer<ChartEntity>) chartPanel.getClientProperty(DRILL_DOWN_PROPERTY);
+                if (entity != null && drillDown != null) {
+                    drillDown.accept(entity);
+                } else if (entity != null) {
                     System.out.println("Clicked: " + entity.getToolTipText());
                 }
             }
@@ -52,6 +58,15 @@ public class InteractiveChartUtility {
         chartPanel.setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY, 1));
     }
     
+    /**
+     * Set what clicking an entity of the panel's chart opens; set it again whenever the
+     * chart is replaced. Only panels set up with {@link #makeChartInteractive} react.
+     * @param handler receives the clicked entity, or null to only log clicks
+     */
+    public static void setDrillDown(ChartPanel chartPanel, Consumer<ChartEntity> handler) {
+        chartPanel.putClientProperty(DRILL_DOWN_PROPERTY, handler);
+    }
+
     /**
      * Enable interactivity on a ChartPanel with an existing chart
      */
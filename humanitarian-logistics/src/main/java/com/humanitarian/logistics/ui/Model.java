@@ -6,29 +6,82 @@ import com.humanitarian.logistics.sentiment.PythonCategoryClassifier;
 import com.humanitarian.logistics.database.DatabaseManager;
 import com.humanitarian.logistics.database.DataPersistenceManager;
 import com.humanitarian.logistics.analysis.*;
+import com.humanitarian.logistics.metrics.LatencyTimer;
+import com.humanitarian.logistics.metrics.MetricsRegistry;
+import com.humanitarian.logistics.pipeline.BatchAnalysisJob;
+import com.humanitarian.logistics.pipeline.IngestionPipeline;
+import com.humanitarian.logistics.pipeline.PostEnricher;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Model component of MVC pattern.
  * Manages application state, data, and business logic.
  */
 public class Model {
-    private List<Post> posts;
-    private SentimentAnalyzer sentimentAnalyzer;
+    // Records (posts + comments) above which analysis aggregation runs on the fork/join pool
+    private static final int PARALLEL_ANALYSIS_THRESHOLD = 50_000;
+    private static final int DEFAULT_ANALYSIS_WORKERS = 4;
+    private static final String CATEGORY_MODEL_VERSION = "category-api-v1";
+    private static final int NOTIFY_DEBOUNCE_MS = 100; // changes within this window reach listeners as one event
+    private static final Logger log = LoggerFactory.getLogger(Model.class);
+    private static final LatencyTimer refreshTimer = MetricsRegistry.getInstance().timer("ui.refresh");
+
+    private final PostRepository repository = new PostRepository();
+    private volatile SentimentAnalyzer sentimentAnalyzer; // read by ingestion pipeline threads
     private PythonCategoryClassifier categoryClassifier;
     private DatabaseManager dbManager;
     private DataPersistenceManager persistenceManager;
     private Map<String, AnalysisModule> analysisModules;
     private List<ModelListener> listeners;
+    private volatile CachedTimeline sentimentTimeline; // rebuilt lazily after data changes
+    private final AtomicLong dataVersion = new AtomicLong(); // bumped by every change, before listeners hear of it
+    private final SentimentMonitor sentimentMonitor = new SentimentMonitor();
+    // Posts being loaded from storage; the monitor only watches newly collected records
+    private final Set<Post> storedPosts = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+    private final TermFrequencyIndex termIndex = new TermFrequencyIndex(); // fed incrementally by addPost
+
+    // Pending change notification, coalesced until the debounce timer fires or a bulk update ends
+    private final Object changeLock = new Object();
+    private final Object indexLock = new Object(); // keeps the term index in step with the repository
+    private final Set<ModelChangeEvent.Type> pendingTypes = EnumSet.noneOf(ModelChangeEvent.Type.class);
+    private final List<Post> pendingAddedPosts = new ArrayList<>();
+    private final Set<String> pendingUpdatedComments = new LinkedHashSet<>();
+    private final Set<String> pendingRemovedComments = new LinkedHashSet<>();
+    private int bulkUpdateDepth;
+    private boolean flushScheduled;
+    private final Timer notifyTimer;
+    private final PostEnricher enricher;
+    private final IngestionPipeline ingestionPipeline;
+    private volatile BatchAnalysisJob batchAnalysisJob;
 
     public Model() {
-        this.posts = new ArrayList<>();
-        this.listeners = new ArrayList<>();
+        this(new DatabaseManager(), new DataPersistenceManager());
+    }
+
+    /**
+     * Uses the given storage instead of the project's data folder, e.g. in tests
+     */
+    Model(DatabaseManager dbManager, DataPersistenceManager persistenceManager) {
+        this.listeners = new CopyOnWriteArrayList<>();
         this.analysisModules = new LinkedHashMap<>();
         this.categoryClassifier = new PythonCategoryClassifier();
-        this.dbManager = new DatabaseManager();
-        this.persistenceManager = new DataPersistenceManager();
+        this.dbManager = dbManager;
+        this.persistenceManager = persistenceManager;
+        this.notifyTimer = new Timer(NOTIFY_DEBOUNCE_MS, e -> flushChanges());
+        this.notifyTimer.setRepeats(false);
+        this.enricher = new PostEnricher(categoryClassifier::classifyText, "ML-classified (Keyword-based)",
+                () -> sentimentAnalyzer);
+        this.ingestionPipeline = new IngestionPipeline(enricher::classify, enricher::score, this::persist, this::publish);
 
         registerAnalysisModules();
         
@@ -39,6 +92,46 @@ public class Model {
     private void registerAnalysisModules() {
         analysisModules.put("satisfaction", new SatisfactionAnalysisModule());
         analysisModules.put("time_series", new TimeSeriesSentimentModule());
+        analysisModules.put("complaint_terms", new ComplaintTermsModule());
+    }
+
+    /**
+     * Starts a bulk update. Change notifications are held back until the matching
+     * {@link #endBulkUpdate()} and then delivered as a single event. Scopes may nest.
+     */
+    public void beginBulkUpdate() {
+        synchronized (changeLock) {
+            bulkUpdateDepth++;
+        }
+    }
+
+    /**
+     * Ends a bulk update; the outermost call delivers everything that changed inside it
+     */
+    public void endBulkUpdate() {
+        boolean deliver;
+        synchronized (changeLock) {
+            if (bulkUpdateDepth == 0) {
+                throw new IllegalStateException("endBulkUpdate() without beginBulkUpdate()");
+            }
+            bulkUpdateDepth--;
+            deliver = bulkUpdateDepth == 0 && !pendingTypes.isEmpty();
+        }
+        if (deliver) {
+            SwingUtilities.invokeLater(this::flushChanges);
+        }
+    }
+
+    /**
+     * Runs a task inside a bulk update scope
+     */
+    public void runBulkUpdate(Runnable task) {
+        beginBulkUpdate();
+        try {
+            task.run();
+        } finally {
+            endBulkUpdate();
+        }
     }
 
     public void setSentimentAnalyzer(SentimentAnalyzer analyzer) {
@@ -47,78 +140,186 @@ public class Model {
         }
         this.sentimentAnalyzer = analyzer;
         this.sentimentAnalyzer.initialize();
-        notifyListeners();
+        notifyListeners(ModelChangeEvent.Type.RELOADED);
     }
 
+    /**
+     * Gets a read-only snapshot of all posts. No copy is made; posts added later are not visible in it.
+     */
     public List<Post> getPosts() {
-        return new ArrayList<>(posts);
+        return repository.snapshot();
+    }
+
+    /**
+     * Gets the indexed post repository for lookups by id, disaster and category
+     */
+    public PostRepository getRepository() {
+        return repository;
     }
 
     public void clearPosts() {
-        posts.clear();
-        notifyListeners();
+        synchronized (indexLock) {
+            repository.clear();
+            termIndex.clear();
+        }
+        sentimentMonitor.reset();
+        notifyListeners(ModelChangeEvent.Type.RELOADED);
     }
 
+    /**
+     * Classifies, scores, saves and publishes one post on the calling thread
+     * @throws IllegalStateException if the post could not be saved; it is still published
+     */
     public void addPost(Post post) {
-        // Classify relief item if not already done
-        if (post.getReliefItem() == null) {
-            categoryClassifier.classifyPost(post);
+        enricher.classify(post);
+        enricher.score(Collections.singletonList(post));
+        Exception saveError = null;
+        try {
+            dbManager.savePost(post);
+        } catch (Exception e) {
+            saveError = e;
         }
-
-        // Analyze sentiment if not already done
-        if (post.getSentiment() == null && sentimentAnalyzer != null) {
-            Sentiment sentiment = sentimentAnalyzer.analyzeSentiment(post.getContent());
-            post.setSentiment(sentiment);
+        publish(Collections.singletonList(post));
+        if (saveError != null) {
+            throw new IllegalStateException("Error saving post " + post.getPostId() + ": " + saveError.getMessage(),
+                    saveError);
         }
+    }
 
-        // Classify comments
-        for (Comment comment : post.getComments()) {
-            if (comment.getReliefItem() == null) {
-                categoryClassifier.classifyPost(new PostAdapter(comment));
-            }
-            if (comment.getSentiment() == null && sentimentAnalyzer != null) {
-                Sentiment sentiment = sentimentAnalyzer.analyzeSentiment(comment.getContent());
-                comment.setSentiment(sentiment);
-            }
+    /**
+     * Adds a post read back from storage, e.g. on a database reload. Like addPost, but
+     * the post is not fed to the sentiment monitor, which only watches new data.
+     * @throws IllegalStateException if the post could not be saved; it is still published
+     */
+    public void loadPost(Post post) {
+        storedPosts.add(post);
+        try {
+            addPost(post);
+        } finally {
+            storedPosts.remove(post);
         }
+    }
 
-        this.posts.add(post);
+    /**
+     * Adds posts read back from storage through the ingestion pipeline, without
+     * feeding them to the sentiment monitor
+     * @throws java.util.concurrent.CompletionException if a batch could not be saved
+     */
+    public void loadPosts(List<Post> storedBatch) {
+        storedPosts.addAll(storedBatch);
         try {
-            dbManager.savePost(post);
-        } catch (Exception e) {
-            System.err.println("Error saving post: " + e.getMessage());
+            addPosts(storedBatch);
+        } finally {
+            storedPosts.removeAll(storedBatch);
         }
-        notifyListeners();
     }
 
+    /**
+     * Adds several posts through the ingestion pipeline, so classification, sentiment
+     * scoring and database writes for different posts overlap. Blocks until all posts
+     * are published; listeners are notified once for the whole batch.
+     * @throws java.util.concurrent.CompletionException if a batch could not be saved; its
+     *         posts are still published
+     */
     public void addPosts(List<Post> newPosts) {
-        for (Post post : newPosts) {
-            addPost(post);
+        runBulkUpdate(() -> ingestionPipeline.submit(newPosts).join());
+    }
+
+    /**
+     * Queues posts for ingestion without waiting for them
+     * @return future completed once every post has been published
+     */
+    public CompletableFuture<Void> submitPosts(List<Post> newPosts) {
+        return ingestionPipeline.submit(newPosts);
+    }
+
+    /**
+     * Gets the ingestion pipeline, e.g. to read its stage metrics
+     */
+    public IngestionPipeline getIngestionPipeline() {
+        return ingestionPipeline;
+    }
+
+    private void persist(List<Post> batch) {
+        try {
+            dbManager.savePosts(batch);
+        } catch (Exception e) {
+            // Fails the batch's submitters; the posts are still published
+            throw new IllegalStateException("Error saving " + batch.size() + " posts: " + e.getMessage(), e);
         }
     }
 
-    public void updateComment(Comment updatedComment) {
-        for (Post post : posts) {
-            for (Comment comment : post.getComments()) {
-                if (comment.getCommentId().equals(updatedComment.getCommentId())) {
-                    post.updateComment(updatedComment);
-                    notifyListeners();
-                    return;
+    /**
+     * Makes saved posts visible: repository, incremental indexes, monitor and listeners.
+     * Posts loaded from storage skip the monitor. A post already in the repository, e.g. from an incremental re-crawl, has its new
+     * comments merged into the stored post.
+     */
+    private void publish(List<Post> batch) {
+        boolean merged = false;
+        for (Post post : batch) {
+            boolean monitored = !storedPosts.contains(post);
+            Post existing = repository.findPost(post.getPostId());
+            if (existing != null) {
+                List<Comment> added;
+                synchronized (indexLock) {
+                    added = repository.mergeComments(existing, post.getComments());
+                    termIndex.addComments(existing, added);
+                }
+                if (monitored) {
+                    for (SentimentShiftEvent event : sentimentMonitor.observeComments(existing, added)) {
+                        notifySentimentShift(event);
+                    }
+                }
+                synchronized (changeLock) {
+                    for (Comment comment : added) {
+                        pendingUpdatedComments.add(comment.getCommentId());
+                    }
+                }
+                merged |= !added.isEmpty();
+                continue;
+            }
+            synchronized (indexLock) {
+                repository.add(post);
+                termIndex.add(post);
+            }
+            if (monitored) {
+                for (SentimentShiftEvent event : sentimentMonitor.observe(post)) {
+                    notifySentimentShift(event);
                 }
             }
+            synchronized (changeLock) {
+                pendingAddedPosts.add(post);
+            }
+        }
+        notifyListeners(ModelChangeEvent.Type.POSTS_ADDED);
+        if (merged) {
+            notifyListeners(ModelChangeEvent.Type.COMMENTS_UPDATED);
+        }
+    }
+
+    public void updateComment(Comment updatedComment) {
+        Post post = repository.findPostByCommentId(updatedComment.getCommentId());
+        if (post == null) {
+            return;
+        }
+        post.updateComment(updatedComment);
+        synchronized (changeLock) {
+            pendingUpdatedComments.add(updatedComment.getCommentId());
         }
+        notifyListeners(ModelChangeEvent.Type.COMMENTS_UPDATED);
     }
 
     public void removeComment(String commentId) {
-        for (Post post : posts) {
-            for (Comment comment : post.getComments()) {
-                if (comment.getCommentId().equals(commentId)) {
-                    post.removeComment(commentId);
-                    notifyListeners();
-                    return;
-                }
-            }
+        Post post = repository.findPostByCommentId(commentId);
+        if (post == null) {
+            return;
+        }
+        post.removeComment(commentId);
+        repository.unindexComment(commentId);
+        synchronized (changeLock) {
+            pendingRemovedComments.add(commentId);
         }
+        notifyListeners(ModelChangeEvent.Type.COMMENTS_REMOVED);
     }
 
     public Map<String, Object> performAnalysis(String moduleName) {
@@ -126,13 +327,93 @@ public class Model {
         if (module == null) {
             return Collections.emptyMap();
         }
-        return module.analyze(posts);
+        List<Post> posts = repository.snapshot();
+        long start = System.nanoTime();
+        try {
+            return module.analyze(posts, shouldAnalyzeInParallel(posts));
+        } finally {
+            MetricsRegistry.getInstance().timer("analysis." + moduleName).recordSince(start);
+        }
+    }
+
+    /**
+     * Runs the time series module at a specific bucket size.
+     * The multi-resolution timeline is built once per data change, so switching
+     * granularity (e.g. zooming a chart) does not rescan posts and comments.
+     * @param bucketSize between 5 minutes and 1 week, in whole multiples of 5 minutes
+     */
+    public Map<String, Object> performTimeSeriesAnalysis(Duration bucketSize) {
+        TimeSeriesSentimentModule module = (TimeSeriesSentimentModule) analysisModules.get("time_series");
+        SentimentTimeline timeline = getSentimentTimeline();
+        long start = System.nanoTime();
+        try {
+            return module.analyze(timeline, bucketSize);
+        } finally {
+            MetricsRegistry.getInstance().timer("analysis.time_series").recordSince(start);
+        }
+    }
+
+    /**
+     * Reports complaint terms from the incrementally maintained index instead of rescanning posts
+     */
+    public Map<String, Object> performComplaintTermsAnalysis() {
+        ComplaintTermsModule module = (ComplaintTermsModule) analysisModules.get("complaint_terms");
+        long start = System.nanoTime();
+        try {
+            return module.analyze(termIndex);
+        } finally {
+            MetricsRegistry.getInstance().timer("analysis.complaint_terms").recordSince(start);
+        }
+    }
+
+    /**
+     * Gets the sentiment timeline for the current posts, building it if data changed
+     */
+    public SentimentTimeline getSentimentTimeline() {
+        CachedTimeline cached = sentimentTimeline;
+        if (cached != null && cached.version == dataVersion.get()) {
+            return cached.timeline;
+        }
+        // Tagged with the version read before the snapshot, so a timeline that a change
+        // overtook while it was being built is never served as current
+        long version = dataVersion.get();
+        List<Post> posts = repository.snapshot();
+        long start = System.nanoTime();
+        SentimentTimeline timeline = SentimentTimeline.of(posts, shouldAnalyzeInParallel(posts));
+        MetricsRegistry.getInstance().timer("analysis.timeline_build").recordSince(start);
+        sentimentTimeline = new CachedTimeline(version, timeline);
+        return timeline;
+    }
+
+    /**
+     * Parallel aggregation only pays off with several cores and a corpus large
+     * enough to amortize task splitting and merging.
+     */
+    private boolean shouldAnalyzeInParallel(List<Post> posts) {
+        if (Runtime.getRuntime().availableProcessors() < 2) {
+            return false;
+        }
+        int records = 0;
+        for (Post post : posts) {
+            records += 1 + post.getComments().size();
+            if (records >= PARALLEL_ANALYSIS_THRESHOLD) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public Map<String, AnalysisModule> getAnalysisModules() {
         return new LinkedHashMap<>(analysisModules);
     }
 
+    /**
+     * Get the streaming sentiment monitor fed by addPost
+     */
+    public SentimentMonitor getSentimentMonitor() {
+        return sentimentMonitor;
+    }
+
     public void addModelListener(ModelListener listener) {
         listeners.add(listener);
     }
@@ -141,17 +422,65 @@ public class Model {
         listeners.remove(listener);
     }
 
-    private void notifyListeners() {
+    /**
+     * Records a change and schedules delivery. Derived caches are invalidated at once;
+     * listeners hear about it on the EDT after the debounce window, or when the
+     * enclosing bulk update ends.
+     */
+    private void notifyListeners(ModelChangeEvent.Type type) {
+        dataVersion.incrementAndGet();
+        sentimentTimeline = null;
+        boolean schedule;
+        synchronized (changeLock) {
+            pendingTypes.add(type);
+            schedule = bulkUpdateDepth == 0 && !flushScheduled;
+            if (schedule) {
+                flushScheduled = true;
+            }
+        }
+        if (schedule) {
+            SwingUtilities.invokeLater(notifyTimer::restart);
+        }
+    }
+
+    /**
+     * Delivers the pending change event to listeners; runs on the EDT
+     */
+    private void flushChanges() {
+        ModelChangeEvent event;
+        synchronized (changeLock) {
+            flushScheduled = false;
+            if (pendingTypes.isEmpty() || bulkUpdateDepth > 0) {
+                return;
+            }
+            if (pendingTypes.contains(ModelChangeEvent.Type.RELOADED)) {
+                // Listeners rebuild from scratch, so the deltas are redundant
+                pendingAddedPosts.clear();
+                pendingUpdatedComments.clear();
+                pendingRemovedComments.clear();
+            }
+            event = new ModelChangeEvent(pendingTypes, pendingAddedPosts,
+                    pendingUpdatedComments, pendingRemovedComments);
+            pendingTypes.clear();
+            pendingAddedPosts.clear();
+            pendingUpdatedComments.clear();
+            pendingRemovedComments.clear();
+        }
+        // Time each listener, so a slow panel refresh shows up by name in diagnostics
+        long refreshStart = System.nanoTime();
         for (ModelListener listener : listeners) {
-            listener.modelChanged();
+            long start = System.nanoTime();
+            listener.modelChanged(event);
+            String name = listener.getClass().getSimpleName().isEmpty()
+                    ? listener.getClass().getName() : listener.getClass().getSimpleName(); // anonymous listeners
+            MetricsRegistry.getInstance().timer("ui.listener." + name).recordSince(start);
         }
+        refreshTimer.recordSince(refreshStart);
     }
 
-    // Adapter to treat Comment as Post for classification
-    private static class PostAdapter extends Post {
-        PostAdapter(Comment comment) {
-            super(comment.getCommentId(), comment.getContent(), comment.getCreatedAt(),
-                    comment.getAuthor(), "ADAPTER");
+    private void notifySentimentShift(SentimentShiftEvent event) {
+        for (ModelListener listener : listeners) {
+            listener.sentimentShiftDetected(event);
         }
     }
 
@@ -161,12 +490,15 @@ public class Model {
     private void loadPersistedData() {
         List<Post> loadedPosts = persistenceManager.loadPosts();
         if (!loadedPosts.isEmpty()) {
-            // Add each post through addPost() to ensure classification is called
-            for (Post post : loadedPosts) {
-                addPost(post);
+            // Through the pipeline to ensure classification is called
+            try {
+                loadPosts(loadedPosts);
+                log.info("✓ Persisted data loaded: {} posts", loadedPosts.size());
+            } catch (CompletionException e) {
+                // The posts are shown; only the database copy is missing
+                log.warn("⚠️ Persisted data loaded ({} posts) but not saved to the database: {}",
+                        loadedPosts.size(), e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
             }
-            notifyListeners();
-            System.out.println("✓ Persisted data loaded: " + loadedPosts.size() + " posts");
         }
     }
 
@@ -174,7 +506,7 @@ public class Model {
      * Save all posts to persistent storage
      */
     public void savePersistedData() {
-        persistenceManager.savePosts(posts);
+        persistenceManager.savePosts(repository.snapshot());
     }
 
     /**
@@ -182,8 +514,12 @@ public class Model {
      */
     public void clearPersistedData() {
         persistenceManager.clearAllData();
-        posts.clear();
-        notifyListeners();
+        synchronized (indexLock) {
+            repository.clear();
+            termIndex.clear();
+        }
+        sentimentMonitor.reset();
+        notifyListeners(ModelChangeEvent.Type.RELOADED);
     }
 
     /**
@@ -196,50 +532,88 @@ public class Model {
     /**
      * Batch analyze all posts through both classification models.
      * Runs all posts through PythonCategoryClassifier and SentimentAnalyzer,
-     * then updates database with new classifications.
+     * then updates database with new classifications. Blocks until done;
+     * see {@link #startBatchAnalysis(int)} for the background variant.
      * 
      * @return number of posts analyzed
      */
     public int analyzeAllPosts() {
-        System.out.println("Starting batch analysis of " + posts.size() + " posts...");
-        System.out.println("✓ Category Classification: Keyword-based (Instant Vietnamese)");
-        System.out.println("✓ Sentiment Analysis: xlm-roberta-large-xnli (Vietnamese + 100+ languages)");
-        int analyzed = 0;
+        return startBatchAnalysis(DEFAULT_ANALYSIS_WORKERS).await();
+    }
 
-        for (Post post : posts) {
-            try {
-                // 1. Classify relief category using keyword-based approach
-                categoryClassifier.classifyPost(post);
+    /**
+     * Starts re-analysis of all posts as a background job. Posts already analyzed by the
+     * current model version are skipped, and progress is checkpointed to SQLite, so an
+     * interrupted run resumes where it stopped. Only one job runs at a time; if one is
+     * already running it is returned instead.
+     *
+     * @param workers number of posts analyzed concurrently
+     * @return the running job, for progress and ETA
+     */
+    public synchronized BatchAnalysisJob startBatchAnalysis(int workers) {
+        if (batchAnalysisJob != null && batchAnalysisJob.getState() == BatchAnalysisJob.State.RUNNING) {
+            return batchAnalysisJob;
+        }
+        BatchAnalysisJob job = new BatchAnalysisJob(getAnalysisModelVersion(), repository.snapshot(),
+                this::reanalyze, dbManager, workers);
+        batchAnalysisJob = job;
+        job.start().whenComplete((analyzed, error) -> rebuildIndexes()); // categories may have changed
+        return job;
+    }
 
-                // 2. Analyze sentiment using transformer model
-                if (sentimentAnalyzer != null) {
-                    Sentiment sentiment = sentimentAnalyzer.analyzeSentiment(post.getContent());
-                    post.setSentiment(sentiment);
-                }
+    /**
+     * Rebuilds the repository and term indexes from the posts as they are now and
+     * notifies listeners. Call after posts are reclassified or get comments in place.
+     */
+    public void rebuildIndexes() {
+        synchronized (indexLock) {
+            repository.reindex();
+            termIndex.rebuild(repository.snapshot());
+        }
+        notifyListeners(ModelChangeEvent.Type.RELOADED);
+    }
 
-                // 3. Analyze comments in the post
-                for (Comment comment : post.getComments()) {
-                    categoryClassifier.classifyPost(new PostAdapter(comment));
-                    if (sentimentAnalyzer != null) {
-                        Sentiment sentiment = sentimentAnalyzer.analyzeSentiment(comment.getContent());
-                        comment.setSentiment(sentiment);
-                    }
-                }
+    /**
+     * Gets the most recent batch analysis job, or null if none was started
+     */
+    public BatchAnalysisJob getBatchAnalysisJob() {
+        return batchAnalysisJob;
+    }
 
-                // 4. Update database with new classifications
-                dbManager.savePost(post);
-                analyzed++;
+    /**
+     * Counts changes to posts and comments; derived data computed at one version is
+     * current for as long as this value stays the same
+     */
+    public long getDataVersion() {
+        return dataVersion.get();
+    }
 
-                System.out.println("✓ Analyzed post " + analyzed + "/" + posts.size() + 
-                    " (ID: " + post.getPostId() + ")");
-            } catch (Exception e) {
-                System.err.println("✗ Error analyzing post " + post.getPostId() + ": " + e.getMessage());
+    /**
+     * Identifies the models whose output is stored; records analyzed under the same
+     * version are not re-analyzed
+     */
+    public String getAnalysisModelVersion() {
+        SentimentAnalyzer analyzer = sentimentAnalyzer;
+        return CATEGORY_MODEL_VERSION + "|" + (analyzer != null ? analyzer.getModelName() : "no-sentiment");
+    }
+
+    /**
+     * Re-classifies and re-scores a post and its comments in memory
+     */
+    private void reanalyze(Post post) {
+        post.setReliefItem(new ReliefItem(categoryClassifier.classifyText(post.getContent()),
+                "ML-classified (Keyword-based)", 3));
+        SentimentAnalyzer analyzer = sentimentAnalyzer;
+        if (analyzer != null) {
+            post.setSentiment(analyzer.analyzeSentiment(post.getContent()));
+        }
+        for (Comment comment : post.getComments()) {
+            comment.setReliefItem(new ReliefItem(categoryClassifier.classifyText(comment.getContent()),
+                    "ML-classified (Keyword-based)", 3));
+            if (analyzer != null) {
+                comment.setSentiment(analyzer.analyzeSentiment(comment.getContent()));
             }
         }
-
-        notifyListeners();
-        System.out.println("✓ Batch analysis complete! Analyzed " + analyzed + "/" + posts.size() + " posts");
-        return analyzed;
     }
 
     /**
@@ -247,15 +621,25 @@ public class Model {
      * CRITICAL: Call this after database files are deleted to force reconnection.
      */
     public void resetDatabaseConnection() {
-        System.out.println("DEBUG: Model.resetDatabaseConnection() called");
+        log.debug("Model.resetDatabaseConnection() called");
         if (dbManager != null) {
             try {
                 // Call reset() on the existing instance to close connection and reset flags
                 dbManager.reset();
-                System.out.println("DEBUG: Called reset() on existing dbManager");
+                log.debug("Called reset() on existing dbManager");
             } catch (Exception e) {
-                System.err.println("Error resetting dbManager: " + e.getMessage());
+                log.warn("Error resetting dbManager: {}", e.getMessage());
             }
         }
     }
+
+    private static class CachedTimeline {
+        final long version;
+        final SentimentTimeline timeline;
+
+        CachedTimeline(long version, SentimentTimeline timeline) {
+            this.version = version;
+            this.timeline = timeline;
+        }
+    }
 }
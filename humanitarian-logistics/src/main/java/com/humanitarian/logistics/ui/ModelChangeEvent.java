@@ -0,0 +1,67 @@
+package com.humanitarian.logistics.ui;
+
+import com.humanitarian.logistics.model.Post;
+import java.util.*;
+
+/**
+ * Describes what changed in the model since the previous notification.
+ * Changes made in quick succession, or inside a bulk update, are coalesced
+ * into one event so listeners can apply deltas instead of rebuilding.
+ */
+public class ModelChangeEvent {
+    public enum Type {
+        POSTS_ADDED,
+        COMMENTS_UPDATED,
+        COMMENTS_REMOVED,
+        RELOADED // posts cleared or reclassified; listeners should rebuild
+    }
+
+    private final Set<Type> types;
+    private final List<Post> addedPosts;
+    private final Set<String> updatedCommentIds;
+    private final Set<String> removedCommentIds;
+
+    ModelChangeEvent(Set<Type> types, List<Post> addedPosts,
+                     Set<String> updatedCommentIds, Set<String> removedCommentIds) {
+        this.types = Collections.unmodifiableSet(EnumSet.copyOf(types));
+        this.addedPosts = Collections.unmodifiableList(new ArrayList<>(addedPosts));
+        this.updatedCommentIds = Collections.unmodifiableSet(new LinkedHashSet<>(updatedCommentIds));
+        this.removedCommentIds = Collections.unmodifiableSet(new LinkedHashSet<>(removedCommentIds));
+    }
+
+    public Set<Type> getTypes() {
+        return types;
+    }
+
+    public boolean has(Type type) {
+        return types.contains(type);
+    }
+
+    /**
+     * @return true if listeners should discard derived state and rebuild from the model
+     */
+    public boolean isReload() {
+        return types.contains(Type.RELOADED);
+    }
+
+    /**
+     * @return posts appended since the last event, in insertion order; empty on reload
+     */
+    public List<Post> getAddedPosts() {
+        return addedPosts;
+    }
+
+    public Set<String> getUpdatedCommentIds() {
+        return updatedCommentIds;
+    }
+
+    public Set<String> getRemovedCommentIds() {
+        return removedCommentIds;
+    }
+
+    @Override
+    public String toString() {
+        return "ModelChangeEvent" + types + " added=" + addedPosts.size()
+                + " updated=" + updatedCommentIds.size() + " removed=" + removedCommentIds.size();
+    }
+}
@@ -1,9 +1,28 @@
 package com.humanitarian.logistics.ui;
 
+import com.humanitarian.logistics.analysis.SentimentShiftEvent;
+
 /**
  * Interface for listening to model changes.
  * Demonstrates the Observer pattern.
  */
 public interface ModelListener {
     void modelChanged();
+
+    /**
+     * Called on the EDT with the coalesced changes since the previous notification.
+     * The default implementation ignores the details and calls {@link #modelChanged()}.
+     * @param event what changed
+     */
+    default void modelChanged(ModelChangeEvent event) {
+        modelChanged();
+    }
+
+    /**
+     * Called when the streaming monitor detects a sudden negative sentiment shift.
+     * Invoked on the thread that added the data; listeners that touch Swing must hop to the EDT.
+     * @param event details of the detected shift
+     */
+    default void sentimentShiftDetected(SentimentShiftEvent event) {
+    }
 }
@@ -0,0 +1,69 @@
+package com.humanitarian.logistics.ui;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling (Steinarsson, 2013).
+ * Keeps the first and last points and, from each of threshold - 2 equal slices in
+ * between, the point forming the largest triangle with the previously kept point and
+ * the average of the next slice. Peaks and dips survive, unlike plain averaging or
+ * taking every n-th point, so a line of a few hundred points looks like the original.
+ */
+public class TimeSeriesDownsampler {
+
+    private TimeSeriesDownsampler() {
+    }
+
+    /**
+     * @param x ascending x values
+     * @param y y values, same length as x
+     * @param threshold number of points to keep; below 3 or at least the input size keeps all
+     * @return ascending indices of the points to draw
+     */
+    public static int[] lttb(double[] x, double[] y, int threshold) {
+        int n = x.length;
+        if (threshold < 3 || threshold >= n) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] kept = new int[threshold];
+        int count = 0;
+        double every = (double) (n - 2) / (threshold - 2);
+        int previous = 0;
+        kept[count++] = previous;
+
+        for (int slice = 0; slice < threshold - 2; slice++) {
+            // Average of the next slice stands in for the point still to be chosen there
+            int nextStart = (int) Math.floor((slice + 1) * every) + 1;
+            int nextEnd = Math.min((int) Math.floor((slice + 2) * every) + 1, n);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += x[i];
+                avgY += y[i];
+            }
+            avgX /= nextEnd - nextStart;
+            avgY /= nextEnd - nextStart;
+
+            int start = (int) Math.floor(slice * every) + 1;
+            int end = (int) Math.floor((slice + 1) * every) + 1;
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((x[previous] - avgX) * (y[i] - y[previous])
+                        - (x[previous] - x[i]) * (avgY - y[previous]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            kept[count++] = chosen;
+            previous = chosen;
+        }
+
+        kept[count] = n - 1;
+        return kept;
+    }
+}
@@ -1,8 +1,11 @@
 package com.humanitarian.logistics.ui;
 
+import com.humanitarian.logistics.analysis.SentimentShiftEvent;
 import com.humanitarian.logistics.model.*;
 import javax.swing.*;
 import java.awt.*;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 
 /**
@@ -16,7 +19,12 @@ public class View extends JFrame implements ModelListener {
     private DataCollectionPanel dataCollectionPanel;
     private AdvancedAnalysisPanel advancedAnalysisPanel;
     private CommentManagementPanel commentPanel;
+    private DiagnosticsPanel diagnosticsPanel;
     private JLabel statusLabel;
+    private JPanel alertPanel;
+    private JLabel alertLabel;
+    private final Deque<String> alerts = new ArrayDeque<>(); // newest first, EDT only
+    private static final int MAX_ALERTS = 20;
 
     public View(Model model) {
         this.model = model;
@@ -68,6 +76,10 @@ public class View extends JFrame implements ModelListener {
         advancedAnalysisPanel = new AdvancedAnalysisPanel(model);
         mainTabbedPane.addTab("📊 Analysis", advancedAnalysisPanel);
 
+        // Tab 4: Diagnostics (latency and throughput metrics)
+        diagnosticsPanel = new DiagnosticsPanel();
+        mainTabbedPane.addTab("🩺 Diagnostics", diagnosticsPanel);
+
         mainPanel.add(mainTabbedPane, BorderLayout.CENTER);
 
         // Status bar
@@ -113,6 +125,23 @@ public class View extends JFrame implements ModelListener {
         statusLabel.setFont(new Font("Monospaced", Font.PLAIN, 11));
         panel.add(statusLabel, BorderLayout.WEST);
 
+        // Sentiment alerts stay until dismissed; status updates don't replace them
+        alertPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 8, 0));
+        alertPanel.setOpaque(false);
+        alertLabel = new JLabel();
+        alertLabel.setFont(new Font("Arial", Font.BOLD, 11));
+        alertLabel.setForeground(new Color(192, 57, 43));
+        JButton dismissButton = new JButton("Dismiss");
+        dismissButton.setMargin(new Insets(0, 6, 0, 6));
+        dismissButton.addActionListener(e -> {
+            alerts.clear();
+            alertPanel.setVisible(false);
+        });
+        alertPanel.add(alertLabel);
+        alertPanel.add(dismissButton);
+        alertPanel.setVisible(false);
+        panel.add(alertPanel, BorderLayout.CENTER);
+
         // Quick info panel
         JPanel infoPanel = new JPanel();
         infoPanel.setLayout(new FlowLayout(FlowLayout.RIGHT));
@@ -141,6 +170,27 @@ public class View extends JFrame implements ModelListener {
         });
     }
 
+    @Override
+    public void sentimentShiftDetected(SentimentShiftEvent event) {
+        String alert = String.format("🚨 %s / %s sentiment dropping: %.2f → %.2f (%d recent records)",
+            event.getDisaster(), event.getCategory().getDisplayName(),
+            event.getBaselineScore(), event.getRecentScore(), event.getRecentCount());
+        SwingUtilities.invokeLater(() -> {
+            alerts.addFirst(alert);
+            if (alerts.size() > MAX_ALERTS) {
+                alerts.removeLast();
+            }
+            alertLabel.setText(alerts.size() == 1 ? alert : alert + "  (+" + (alerts.size() - 1) + " earlier)");
+            StringBuilder tooltip = new StringBuilder("<html>");
+            for (String a : alerts) {
+                tooltip.append(a).append("<br>");
+            }
+            alertLabel.setToolTipText(tooltip.append("</html>").toString());
+            alertPanel.setVisible(true);
+            alertPanel.revalidate();
+        });
+    }
+
     private void cleanupAndExit() {
         try {
             System.out.println("Saving data before exit...");
@@ -158,6 +208,9 @@ public class View extends JFrame implements ModelListener {
                 if (commentPanel != null) {
                     // CommentPanel cleanup
                 }
+                if (diagnosticsPanel != null) {
+                    diagnosticsPanel.shutdown();
+                }
             } catch (Throwable t) {
                 // Silently ignore
             }
@@ -0,0 +1,151 @@
+package com.humanitarian.logistics.analysis;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class CompactBitmapTest {
+    private static final int CHUNK = 1 << 16;
+
+    @Test
+    public void builtBitmapHoldsExactlyTheValuesAdded() {
+        BitSet expected = randomSet(new Random(41));
+        CompactBitmap bitmap = build(expected);
+
+        assertEquals(expected.cardinality(), bitmap.cardinality());
+        assertArrayEquals(expected.stream().toArray(), bitmap.toArray());
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            int value = random.nextInt(8 * CHUNK);
+            assertEquals(expected.get(value), bitmap.contains(value));
+        }
+        assertFalse(bitmap.contains(-1));
+    }
+
+    @Test
+    public void rankCountsValuesBelowAnyBound() {
+        BitSet expected = randomSet(new Random(43));
+        CompactBitmap bitmap = build(expected);
+
+        int[] bounds = {-5, 0, 1, 63, 64, 65, 4095, 4096, CHUNK - 1, CHUNK, CHUNK + 1, 2 * CHUNK, 3 * CHUNK + 777,
+                6 * CHUNK - 1, 6 * CHUNK, 7 * CHUNK, Integer.MAX_VALUE};
+        for (int bound : bounds) {
+            int below = bound <= 0 ? 0 : expected.get(0, Math.min(bound, expected.length() + 1)).cardinality();
+            assertEquals("rank " + bound, below, bitmap.rank(bound));
+        }
+        assertEquals(expected.get(1000, 3 * CHUNK + 5).cardinality(), bitmap.cardinality(1000, 3 * CHUNK + 5));
+        assertEquals(0, bitmap.cardinality(500, 500));
+        assertEquals(0, bitmap.cardinality(600, 500));
+    }
+
+    @Test
+    public void andAndOrMatchSetOperations() {
+        Random random = new Random(44);
+        for (int round = 0; round < 5; round++) {
+            BitSet a = randomSet(random);
+            BitSet b = randomSet(random);
+            CompactBitmap x = build(a);
+            CompactBitmap y = build(b);
+
+            BitSet and = (BitSet) a.clone();
+            and.and(b);
+            BitSet or = (BitSet) a.clone();
+            or.or(b);
+            assertArrayEquals(and.stream().toArray(), x.and(y).toArray());
+            assertEquals(and.cardinality(), x.and(y).cardinality());
+            assertEquals(and.cardinality(), x.andCardinality(y));
+            assertArrayEquals(or.stream().toArray(), x.or(y).toArray());
+            assertEquals(or.cardinality(), x.or(y).cardinality());
+            assertEquals(or.get(0, 2 * CHUNK).cardinality(), x.or(y).rank(2 * CHUNK));
+        }
+    }
+
+    @Test
+    public void orOfManyIsTheirUnion() {
+        Random random = new Random(45);
+        BitSet union = new BitSet();
+        List<CompactBitmap> bitmaps = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            BitSet set = randomSet(random);
+            union.or(set);
+            bitmaps.add(build(set));
+        }
+
+        assertArrayEquals(union.stream().toArray(), CompactBitmap.or(bitmaps).toArray());
+        assertTrue(CompactBitmap.or(Collections.emptyList()).isEmpty());
+    }
+
+    @Test
+    public void rangeCoversItsBoundsAcrossChunks() {
+        for (int[] bounds : new int[][] {{0, 1}, {5, 4_000}, {100, CHUNK - 3}, {CHUNK - 10, 3 * CHUNK + 10}, {0, 5 * CHUNK}}) {
+            BitSet expected = new BitSet();
+            expected.set(bounds[0], bounds[1]);
+
+            CompactBitmap range = CompactBitmap.range(bounds[0], bounds[1]);
+
+            assertEquals(expected.cardinality(), range.cardinality());
+            assertArrayEquals(expected.stream().toArray(), range.toArray());
+            assertEquals(bounds[1] - bounds[0], range.and(CompactBitmap.range(0, 6 * CHUNK)).cardinality());
+        }
+        assertTrue(CompactBitmap.range(10, 10).isEmpty());
+        assertTrue(CompactBitmap.range(-1, 10).isEmpty());
+        assertSame(CompactBitmap.empty(), CompactBitmap.range(10, 5));
+    }
+
+    @Test
+    public void denseChunksAreStoredAsBits() {
+        CompactBitmap.Builder sparse = new CompactBitmap.Builder();
+        CompactBitmap.Builder dense = new CompactBitmap.Builder();
+        for (int v = 0; v < CHUNK; v++) {
+            if (v % 100 == 0) {
+                sparse.add(v);
+            }
+            if (v % 2 == 0) {
+                dense.add(v);
+            }
+        }
+
+        assertTrue(sparse.build().sizeInBytes() < 2 * 1_000);
+        assertTrue(dense.build().sizeInBytes() < 1_024 * 8 + 64);
+        assertEquals(CHUNK / 2, dense.build().cardinality());
+    }
+
+    @Test
+    public void builderRejectsValuesOutOfOrder() {
+        CompactBitmap.Builder builder = new CompactBitmap.Builder().add(5);
+        for (int value : new int[] {5, 4, -1}) {
+            try {
+                builder.add(value);
+                fail("accepted " + value);
+            } catch (IllegalArgumentException expected) {
+                // rejected as it should be
+            }
+        }
+        assertArrayEquals(new int[] {5}, builder.build().toArray());
+    }
+
+    /**
+     * Values over six chunks of different densities: sparse, half full, empty, just
+     * over the array limit, full, and a few values
+     */
+    private static BitSet randomSet(Random random) {
+        double[] densities = {0.01, 0.5, 0.0, 4_200.0 / CHUNK, 1.0, 0.0005};
+        BitSet set = new BitSet();
+        for (int chunk = 0; chunk < densities.length; chunk++) {
+            for (int low = 0; low < CHUNK; low++) {
+                if (random.nextDouble() < densities[chunk]) {
+                    set.set(chunk * CHUNK + low);
+                }
+            }
+        }
+        return set;
+    }
+
+    private static CompactBitmap build(BitSet set) {
+        CompactBitmap.Builder builder = new CompactBitmap.Builder();
+        set.stream().forEach(builder::add);
+        return builder.build();
+    }
+}
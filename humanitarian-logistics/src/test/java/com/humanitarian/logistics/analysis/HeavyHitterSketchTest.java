@@ -0,0 +1,73 @@
+package com.humanitarian.logistics.analysis;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class HeavyHitterSketchTest {
+
+    @Test
+    public void countsExactlyWhileItemsFitTheSketch() {
+        HeavyHitterSketch sketch = new HeavyHitterSketch();
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j <= i; j++) {
+                sketch.add("item" + i);
+            }
+        }
+
+        assertEquals(55, sketch.getTotal());
+        List<Map.Entry<String, Long>> top = sketch.topK(3);
+        assertEquals(Arrays.asList("item9", "item8", "item7"), keys(top));
+        assertEquals(Long.valueOf(10), top.get(0).getValue());
+        assertEquals(4, sketch.estimate("item3"));
+        assertEquals(0, sketch.estimate("never"));
+    }
+
+    @Test
+    public void neverUndercountsAndFindsHeavyHittersInALongTail() {
+        // Small sketch, many distinct items: Zipf-like counts where item i occurs 2000 / (i + 1) times
+        HeavyHitterSketch sketch = new HeavyHitterSketch(4, 256, 16);
+        Map<String, Integer> exact = new HashMap<>();
+        List<String> stream = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            int count = Math.max(1, 2_000 / (i + 1));
+            for (int c = 0; c < count; c++) {
+                stream.add("t" + i);
+            }
+            exact.put("t" + i, count);
+        }
+        Collections.shuffle(stream, new Random(7));
+        stream.forEach(sketch::add);
+
+        for (Map.Entry<String, Integer> entry : exact.entrySet()) {
+            assertTrue(entry.getKey(), sketch.estimate(entry.getKey()) >= entry.getValue());
+        }
+        assertTrue(keys(sketch.topK(5)).containsAll(Arrays.asList("t0", "t1", "t2", "t3", "t4")));
+        assertEquals(stream.size(), sketch.getTotal());
+    }
+
+    @Test
+    public void topKIsBoundedByCapacity() {
+        HeavyHitterSketch sketch = new HeavyHitterSketch(2, 64, 4);
+        for (int i = 0; i < 100; i++) {
+            sketch.add("item" + i);
+        }
+
+        assertEquals(4, sketch.topK(Integer.MAX_VALUE).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyDimensions() {
+        new HeavyHitterSketch(0, 64, 4);
+    }
+
+    private static List<String> keys(List<Map.Entry<String, Long>> entries) {
+        List<String> keys = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : entries) {
+            keys.add(entry.getKey());
+        }
+        return keys;
+    }
+}
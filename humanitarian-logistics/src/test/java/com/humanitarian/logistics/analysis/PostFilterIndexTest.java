@@ -0,0 +1,146 @@
+package com.humanitarian.logistics.analysis;
+
+import com.humanitarian.logistics.model.*;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.*;
+
+public class PostFilterIndexTest {
+    private static final String[] DISASTERS = {"flood", "typhoon", "landslide"};
+
+    private final List<Post> posts = randomPosts(3_000, new Random(51));
+    private final PostFilterIndex index = PostFilterIndex.of(posts);
+
+    @Test
+    public void eachDimensionSelectsItsPosts() {
+        assertEquals(posts.size(), index.size());
+        assertEquals(posts.size(), index.all().cardinality());
+        for (String disaster : DISASTERS) {
+            assertSelects(p -> disaster.equals(disasterOf(p)), index.disaster(disaster));
+        }
+        assertTrue(index.disaster("earthquake").isEmpty());
+        for (ReliefItem.Category category : ReliefItem.Category.values()) {
+            assertSelects(p -> p.getReliefItem() != null && p.getReliefItem().getCategory() == category,
+                    index.category(category));
+        }
+        // Posts without a sentiment count as neutral
+        for (Sentiment.SentimentType type : Sentiment.SentimentType.values()) {
+            assertSelects(p -> typeOf(p) == type, index.sentiment(type));
+        }
+    }
+
+    @Test
+    public void combinedSelectionsMatchAFilterOverThePosts() {
+        Set<ReliefItem.Category> categories = EnumSet.of(ReliefItem.Category.FOOD, ReliefItem.Category.MEDICAL);
+        CompactBitmap selection = index.disaster("flood")
+                .and(index.categories(categories))
+                .and(index.sentiment(Sentiment.SentimentType.NEGATIVE));
+
+        assertSelects(p -> "flood".equals(disasterOf(p))
+                && p.getReliefItem() != null && categories.contains(p.getReliefItem().getCategory())
+                && typeOf(p) == Sentiment.SentimentType.NEGATIVE, selection);
+    }
+
+    @Test
+    public void selectedPostsAreListedOldestFirst() {
+        List<Post> listed = index.posts(index.all());
+
+        assertEquals(posts.size(), listed.size());
+        for (int i = 1; i < listed.size(); i++) {
+            assertFalse(listed.get(i).getCreatedAt().isBefore(listed.get(i - 1).getCreatedAt()));
+        }
+    }
+
+    @Test
+    public void perDayCountsMatchTheCalendarDays() {
+        CompactBitmap selection = index.sentiment(Sentiment.SentimentType.POSITIVE);
+        Map<LocalDate, Integer> expected = new TreeMap<>();
+        Set<LocalDate> days = new TreeSet<>();
+        for (Post post : posts) {
+            days.add(post.getCreatedAt().toLocalDate());
+            if (typeOf(post) == Sentiment.SentimentType.POSITIVE) {
+                expected.merge(post.getCreatedAt().toLocalDate(), 1, Integer::sum);
+            }
+        }
+
+        assertEquals(new ArrayList<>(days), index.getDays());
+        for (int day = 0; day < index.getDays().size(); day++) {
+            assertEquals(expected.getOrDefault(index.getDays().get(day), 0).intValue(), index.count(selection, day));
+        }
+    }
+
+    @Test
+    public void windowSelectsPostsCreatedInIt() {
+        LocalDateTime from = LocalDateTime.of(2024, 9, 5, 6, 30);
+        LocalDateTime to = LocalDateTime.of(2024, 9, 11, 18, 0);
+
+        CompactBitmap window = index.between(millis(from), millis(to));
+
+        assertSelects(p -> !p.getCreatedAt().isBefore(from) && p.getCreatedAt().isBefore(to), window);
+        assertTrue(index.between(millis(to), millis(from)).isEmpty());
+    }
+
+    @Test
+    public void emptyIndex() {
+        PostFilterIndex empty = PostFilterIndex.of(Collections.emptyList());
+
+        assertEquals(0, empty.size());
+        assertTrue(empty.all().isEmpty());
+        assertTrue(empty.getDays().isEmpty());
+        assertTrue(empty.posts(empty.all()).isEmpty());
+    }
+
+    private void assertSelects(Predicate<Post> filter, CompactBitmap selection) {
+        Set<String> expected = new TreeSet<>();
+        for (Post post : posts) {
+            if (filter.test(post)) {
+                expected.add(post.getPostId());
+            }
+        }
+        Set<String> actual = new TreeSet<>();
+        for (Post post : index.posts(selection)) {
+            actual.add(post.getPostId());
+        }
+        assertEquals(expected, actual);
+        assertEquals(expected.size(), selection.cardinality());
+    }
+
+    private static String disasterOf(Post post) {
+        DisasterType type = ((YouTubePost) post).getDisasterType();
+        return type == null ? null : type.getName();
+    }
+
+    private static Sentiment.SentimentType typeOf(Post post) {
+        return post.getSentiment() == null ? Sentiment.SentimentType.NEUTRAL : post.getSentiment().getType();
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1000L;
+    }
+
+    /**
+     * Posts in random order over 20 days; some have no disaster, relief item or sentiment
+     */
+    private static List<Post> randomPosts(int count, Random random) {
+        List<Post> posts = SentimentAggregateTest.randomPosts(count, 20, random);
+        for (Post post : posts) {
+            int disaster = random.nextInt(DISASTERS.length + 1);
+            if (disaster < DISASTERS.length) {
+                ((YouTubePost) post).setDisasterType(new DisasterType(DISASTERS[disaster]));
+            }
+            if (random.nextInt(10) == 0) {
+                post.setReliefItem(null);
+            }
+            if (random.nextInt(10) == 0) {
+                post.setSentiment(null);
+            }
+        }
+        return posts;
+    }
+}
@@ -0,0 +1,244 @@
+package com.humanitarian.logistics.analysis;
+
+import com.humanitarian.logistics.model.*;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class SentimentAggregateTest {
+    private static final long FIVE_MINUTES = 300L;
+    private static final LocalDateTime START = LocalDateTime.of(2024, 9, 1, 0, 0);
+
+    @Test
+    public void countsEveryPostAndCommentInItsBucket() {
+        List<Post> posts = randomPosts(2_000, 30, new Random(1));
+        SentimentAggregate aggregate = SentimentAggregate.of(posts, 3600L);
+
+        Map<String, Integer> expected = new HashMap<>();
+        int records = 0;
+        for (Post post : posts) {
+            expected.merge(key(post.getReliefItem(), post.getSentiment(), post.getCreatedAt(), 3600L), 1, Integer::sum);
+            records++;
+            for (Comment comment : post.getComments()) {
+                expected.merge(key(comment.getReliefItem(), comment.getSentiment(), comment.getCreatedAt(), 3600L), 1, Integer::sum);
+                records++;
+            }
+        }
+
+        Map<String, Integer> actual = new HashMap<>();
+        for (int b = 0; b < aggregate.getBucketCount(); b++) {
+            long bucket = aggregate.getBucketStart(b).toEpochSecond(ZoneOffset.UTC) / 3600L;
+            for (ReliefItem.Category category : ReliefItem.Category.values()) {
+                for (Sentiment.SentimentType type : Sentiment.SentimentType.values()) {
+                    int count = aggregate.count(category, b, type);
+                    if (count > 0) {
+                        actual.put(category + "/" + type + "/" + bucket, count);
+                    }
+                }
+            }
+        }
+        assertEquals(expected, actual);
+        assertEquals(posts.size(), aggregate.getPostCount());
+        assertEquals(records, aggregate.getRecordCount());
+    }
+
+    @Test
+    public void outOfOrderBucketsGrowInProportionToTheSpan() {
+        List<Post> posts = randomPosts(20_000, 180, new Random(2));
+        SentimentAggregate aggregate = new SentimentAggregate(FIVE_MINUTES);
+        for (Post post : posts) {
+            aggregate.add(post);
+            assertTrue("capacity " + aggregate.capacity() + " for " + aggregate.getBucketCount() + " buckets",
+                    aggregate.capacity() <= 2 * aggregate.getBucketCount() + 64);
+        }
+
+        SentimentAggregate built = SentimentAggregate.of(posts, FIVE_MINUTES);
+        assertEquals(built.getBucketCount(), built.capacity());
+        assertSameAggregate(built, aggregate);
+    }
+
+    @Test
+    public void tenYearSpanAtFiveMinutesStaysWithinTheSpan() {
+        // Alternating ends: every post extends the span on the other side
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            long days = (i % 2 == 0 ? i : -i) * 365L * 10 / 4_000;
+            posts.add(post("p" + i, START.plusDays(days), ReliefItem.Category.SHELTER, Sentiment.SentimentType.NEGATIVE));
+        }
+        SentimentAggregate aggregate = SentimentAggregate.of(posts, FIVE_MINUTES);
+
+        assertTrue(aggregate.getBucketCount() > 1_000_000);
+        assertEquals(aggregate.getBucketCount(), aggregate.capacity());
+        assertEquals(2_000, aggregate.categoryCounts(ReliefItem.Category.SHELTER)[Sentiment.SentimentType.NEGATIVE.ordinal()]);
+    }
+
+    @Test
+    public void rollupMatchesAggregatingAtTheCoarserSize() {
+        List<Post> posts = randomPosts(3_000, 60, new Random(3));
+        SentimentAggregate fine = SentimentAggregate.of(posts, FIVE_MINUTES);
+
+        assertSameAggregate(SentimentAggregate.of(posts, 86400L), fine.rollup(86400L));
+        assertSameAggregate(SentimentAggregate.of(posts, 6 * 3600L), fine.rollup(3600L).rollup(6 * 3600L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rollupRejectsSizesThatAreNotMultiples() {
+        new SentimentAggregate(3600L).rollup(5400L);
+    }
+
+    @Test
+    public void mergeOfPartsEqualsTheWhole() {
+        List<Post> posts = randomPosts(3_000, 90, new Random(4));
+        // Later posts first, so merging extends the span backwards
+        SentimentAggregate merged = SentimentAggregate.of(posts.subList(1_500, 3_000), 3600L)
+                .merge(SentimentAggregate.of(posts.subList(0, 1_500), 3600L));
+
+        assertSameAggregate(SentimentAggregate.of(posts, 3600L), merged);
+    }
+
+    @Test
+    public void parallelBuildMatchesSequential() {
+        List<Post> posts = randomPosts(20_000, 180, new Random(5));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertSameAggregate(SentimentAggregate.of(posts, FIVE_MINUTES),
+                    SentimentAggregate.ofParallel(posts, FIVE_MINUTES, pool));
+            assertSameAggregate(SentimentAggregate.of(posts, Long.MAX_VALUE),
+                    SentimentAggregate.ofParallel(posts, Long.MAX_VALUE, pool));
+            assertSameAggregate(SentimentAggregate.of(posts, 3600L),
+                    SentimentAggregate.ofParallel(new LinkedList<>(posts), 3600L, pool));
+            // Common pool, whatever its size here
+            assertSameAggregate(SentimentAggregate.of(posts, 3600L), SentimentAggregate.ofParallel(posts, 3600L));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void parallelBuildAllocatesOnlyTheFinalSpan() {
+        List<Post> posts = randomPosts(20_000, 180, new Random(6));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            SentimentAggregate aggregate = SentimentAggregate.ofParallel(posts, FIVE_MINUTES, pool);
+
+            assertEquals(aggregate.getBucketCount(), aggregate.capacity());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void parallelBuildOfPostsWithoutRecordsIsEmpty() {
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            Post post = post("p" + i, START.plusHours(i), ReliefItem.Category.FOOD, Sentiment.SentimentType.POSITIVE);
+            post.setSentiment(null);
+            posts.add(post);
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        SentimentAggregate aggregate;
+        try {
+            aggregate = SentimentAggregate.ofParallel(posts, 3600L, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(1_000, aggregate.getPostCount());
+        assertEquals(0, aggregate.getRecordCount());
+        assertEquals(0, aggregate.getBucketCount());
+    }
+
+    @Test
+    public void recordsWithoutATimeAreSkipped() {
+        List<Post> posts = randomPosts(2_000, 30, new Random(7));
+        List<Post> withUntimed = new ArrayList<>(posts);
+        for (int i = 0; i < 600; i++) {
+            Post untimed = new YouTubePost("u" + i, "content", START, "author", "channel") {
+                @Override
+                public LocalDateTime getCreatedAt() {
+                    return null; // e.g. read back from an old serialized cache
+                }
+            };
+            untimed.setReliefItem(new ReliefItem(ReliefItem.Category.FOOD, "test", 3));
+            untimed.setSentiment(new Sentiment(Sentiment.SentimentType.NEGATIVE, 0.75, "content"));
+            withUntimed.add(i * 3, untimed);
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        SentimentAggregate parallel;
+        try {
+            parallel = SentimentAggregate.ofParallel(withUntimed, 3600L, pool);
+        } finally {
+            pool.shutdown();
+        }
+        SentimentAggregate sequential = SentimentAggregate.of(withUntimed, 3600L);
+
+        SentimentAggregate expected = SentimentAggregate.of(posts, 3600L);
+        assertEquals(withUntimed.size(), sequential.getPostCount());
+        assertEquals(expected.getRecordCount(), sequential.getRecordCount());
+        assertSameAggregate(sequential, parallel);
+        for (int b = 0; b < expected.getBucketCount(); b++) {
+            for (ReliefItem.Category category : ReliefItem.Category.values()) {
+                for (Sentiment.SentimentType type : Sentiment.SentimentType.values()) {
+                    assertEquals(expected.count(category, b, type), sequential.count(category, b, type));
+                }
+            }
+        }
+    }
+
+    static void assertSameAggregate(SentimentAggregate expected, SentimentAggregate actual) {
+        assertEquals(expected.getBucketSeconds(), actual.getBucketSeconds());
+        assertEquals(expected.getBucketCount(), actual.getBucketCount());
+        assertEquals(expected.getPostCount(), actual.getPostCount());
+        assertEquals(expected.getRecordCount(), actual.getRecordCount());
+        if (expected.getBucketCount() > 0) {
+            assertEquals(expected.getBucketStart(0), actual.getBucketStart(0));
+        }
+        for (int b = 0; b < expected.getBucketCount(); b++) {
+            for (ReliefItem.Category category : ReliefItem.Category.values()) {
+                for (Sentiment.SentimentType type : Sentiment.SentimentType.values()) {
+                    assertEquals(expected.count(category, b, type), actual.count(category, b, type));
+                }
+                assertEquals(expected.confidenceSum(category, b), actual.confidenceSum(category, b), 1e-9);
+            }
+        }
+    }
+
+    /**
+     * Posts in random order over a span of days, each with a few comments
+     */
+    static List<Post> randomPosts(int count, int spanDays, Random random) {
+        ReliefItem.Category[] categories = ReliefItem.Category.values();
+        Sentiment.SentimentType[] types = Sentiment.SentimentType.values();
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            LocalDateTime time = START.plusMinutes(random.nextInt(spanDays * 24 * 60));
+            Post post = post("p" + i, time, categories[random.nextInt(categories.length)], types[random.nextInt(types.length)]);
+            for (int c = random.nextInt(4); c > 0; c--) {
+                Comment comment = new Comment("c" + i + "-" + c, post.getPostId(), "comment",
+                        time.plusMinutes(random.nextInt(3 * 24 * 60)), "viewer");
+                comment.setReliefItem(new ReliefItem(categories[random.nextInt(categories.length)], "test", 3));
+                comment.setSentiment(new Sentiment(types[random.nextInt(types.length)], 0.5, "comment"));
+                post.addComment(comment);
+            }
+            posts.add(post);
+        }
+        return posts;
+    }
+
+    static Post post(String id, LocalDateTime time, ReliefItem.Category category, Sentiment.SentimentType type) {
+        Post post = new YouTubePost(id, "content " + id, time, "author", "channel");
+        post.setReliefItem(new ReliefItem(category, "test", 3));
+        post.setSentiment(new Sentiment(type, 0.75, "content"));
+        return post;
+    }
+
+    private static String key(ReliefItem item, Sentiment sentiment, LocalDateTime time, long bucketSeconds) {
+        return item.getCategory() + "/" + sentiment.getType() + "/"
+                + Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), bucketSeconds);
+    }
+}
@@ -0,0 +1,115 @@
+package com.humanitarian.logistics.analysis;
+
+import com.humanitarian.logistics.model.*;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class SentimentMonitorTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 9, 1, 0, 0);
+    private static final ReliefItem.Category FOOD = ReliefItem.Category.FOOD;
+    private static final String DISASTER = PostRepository.disasterOf(post(0, Sentiment.SentimentType.POSITIVE));
+
+    @Test
+    public void steadySentimentRaisesNoAlert() {
+        SentimentMonitor monitor = new SentimentMonitor();
+        for (int i = 0; i < 500; i++) {
+            assertTrue(monitor.observe(post(i, Sentiment.SentimentType.POSITIVE)).isEmpty());
+        }
+    }
+
+    @Test
+    public void suddenDropAlertsWithinAFewRecords() {
+        SentimentMonitor monitor = new SentimentMonitor();
+        for (int i = 0; i < 100; i++) {
+            monitor.observe(post(i, Sentiment.SentimentType.POSITIVE));
+        }
+
+        List<SentimentShiftEvent> events = new ArrayList<>();
+        int records = 0;
+        while (events.isEmpty() && records < 20) {
+            events.addAll(monitor.observe(post(100 + records++, Sentiment.SentimentType.NEGATIVE)));
+        }
+
+        assertEquals(1, events.size());
+        assertTrue("took " + records + " records", records <= 10);
+        SentimentShiftEvent event = events.get(0);
+        assertEquals(DISASTER, event.getDisaster());
+        assertEquals(FOOD, event.getCategory());
+        assertTrue(event.getBaselineScore() > 0.75); // the slow baseline has barely moved
+        assertTrue(event.getRecentScore() < event.getBaselineScore());
+        // The statistic restarts after an alert
+        assertEquals(0.0, monitor.getSnapshot(DISASTER, FOOD).getCusum(), 0.0);
+    }
+
+    @Test
+    public void noAlertBeforeTheBaselineHasSettled() {
+        SentimentMonitor monitor = new SentimentMonitor();
+        monitor.observe(post(0, Sentiment.SentimentType.POSITIVE));
+        for (int i = 1; i <= 19; i++) {
+            assertTrue(monitor.observe(post(i, Sentiment.SentimentType.NEGATIVE)).isEmpty());
+        }
+    }
+
+    @Test
+    public void baselineIsASlowMovingAverage() {
+        SentimentMonitor monitor = new SentimentMonitor();
+        monitor.observe(post(0, Sentiment.SentimentType.POSITIVE));
+        monitor.observe(post(1, Sentiment.SentimentType.NEGATIVE));
+
+        SentimentMonitor.Snapshot snapshot = monitor.getSnapshot(DISASTER, FOOD);
+        assertEquals(1.0 + 0.02 * (-1.0 - 1.0), snapshot.getBaselineScore(), 1e-9);
+        assertEquals(2, snapshot.getObserved());
+    }
+
+    @Test
+    public void windowOnlyCountsRecentRecords() {
+        SentimentMonitor monitor = new SentimentMonitor(Duration.ofHours(1));
+        // Two hours of positives, one record every five minutes, then a final negative
+        for (int i = 0; i < 24; i++) {
+            monitor.observe(post("p" + i, START.plusMinutes(5L * i), Sentiment.SentimentType.POSITIVE));
+        }
+        monitor.observe(post("late", START.plusMinutes(120), Sentiment.SentimentType.NEGATIVE));
+        // Too old for the window but still observed
+        monitor.observe(post("old", START, Sentiment.SentimentType.NEGATIVE));
+
+        SentimentMonitor.Snapshot snapshot = monitor.getSnapshot(DISASTER, FOOD);
+        assertEquals(12, snapshot.getWindowCount());
+        assertEquals((11 - 1) / 12.0, snapshot.getWindowScore(), 1e-9);
+        assertEquals(26, snapshot.getObserved());
+    }
+
+    @Test
+    public void commentsAreMonitoredWithTheirPost() {
+        SentimentMonitor monitor = new SentimentMonitor();
+        Post post = post(0, Sentiment.SentimentType.POSITIVE);
+        Comment comment = new Comment("c0", post.getPostId(), "comment", START, "viewer");
+        comment.setReliefItem(new ReliefItem(FOOD, "test", 3));
+        comment.setSentiment(new Sentiment(Sentiment.SentimentType.NEGATIVE, 0.5, "comment"));
+        monitor.observe(post);
+        monitor.observeComments(post, Collections.singletonList(comment));
+
+        assertEquals(2, monitor.getSnapshot(DISASTER, FOOD).getObserved());
+    }
+
+    @Test
+    public void resetForgetsEverything() {
+        SentimentMonitor monitor = new SentimentMonitor();
+        monitor.observe(post(0, Sentiment.SentimentType.POSITIVE));
+        monitor.reset();
+
+        assertNull(monitor.getSnapshot(DISASTER, FOOD));
+    }
+
+    private static Post post(int i, Sentiment.SentimentType type) {
+        return post("p" + i, START.plusMinutes(i), type);
+    }
+
+    private static Post post(String id, LocalDateTime time, Sentiment.SentimentType type) {
+        return SentimentAggregateTest.post(id, time, FOOD, type);
+    }
+}
@@ -0,0 +1,117 @@
+package com.humanitarian.logistics.analysis;
+
+import com.humanitarian.logistics.model.*;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class SentimentSeriesTest {
+    private static final long HOUR = 3_600_000L;
+    private static final long DAY = 24 * HOUR;
+
+    @Test
+    public void sumsMatchDirectCountsAtEveryWidth() {
+        List<Post> posts = SentimentAggregateTest.randomPosts(5_000, 40, new Random(31));
+        posts.get(7).setSentiment(null);
+        SentimentSeries series = SentimentSeries.of(posts);
+
+        assertEquals(posts.size(), series.getPostCount());
+        for (long width : new long[] {SentimentSeries.BASE_BUCKET_MILLIS, HOUR, 6 * HOUR, DAY, 7 * DAY}) {
+            assertSameCounts(posts, series.sum(series.getStart(), series.getEnd(), width));
+            // A window starting and ending mid-bucket
+            assertSameCounts(posts, series.sum(series.getStart() + 10 * DAY + 7 * 60_000L,
+                    series.getStart() + 23 * DAY + 1, width));
+        }
+    }
+
+    @Test
+    public void everyBucketOfTheWindowIsPresent() {
+        LocalDateTime start = LocalDateTime.of(2024, 9, 1, 0, 0);
+        List<Post> posts = Arrays.asList(
+                post("a", start.plusHours(1), Sentiment.SentimentType.NEGATIVE),
+                post("b", start.plusHours(1).plusMinutes(4), Sentiment.SentimentType.NEGATIVE),
+                post("c", start.plusHours(5), Sentiment.SentimentType.POSITIVE));
+        SentimentSeries series = SentimentSeries.of(posts);
+        long from = millis(start);
+
+        SentimentSeries.Buckets buckets = series.sum(from, from + 6 * HOUR, HOUR);
+
+        assertEquals(6, buckets.size());
+        assertEquals(HOUR, buckets.getWidth());
+        assertEquals(from + 2 * HOUR, buckets.getStart(2));
+        assertEquals(2, buckets.count(1, Sentiment.SentimentType.NEGATIVE));
+        assertEquals(1, buckets.count(5, Sentiment.SentimentType.POSITIVE));
+        for (int b : new int[] {0, 2, 3, 4}) {
+            assertEquals(0, buckets.total(b));
+        }
+        assertEquals(millis(start.plusHours(1)), series.getStart());
+        assertEquals(millis(start.plusHours(5)) + SentimentSeries.BASE_BUCKET_MILLIS, series.getEnd());
+    }
+
+    @Test
+    public void bucketsAreAlignedToTheEpochBeforeIt() {
+        LocalDateTime time = LocalDateTime.of(1969, 12, 31, 23, 58);
+        SentimentSeries series = SentimentSeries.of(Collections.singletonList(
+                post("old", time, Sentiment.SentimentType.NEUTRAL)));
+
+        assertEquals(-SentimentSeries.BASE_BUCKET_MILLIS, series.getStart());
+        SentimentSeries.Buckets buckets = series.sum(-DAY, DAY, DAY);
+        assertEquals(2, buckets.size());
+        assertEquals(1, buckets.count(0, Sentiment.SentimentType.NEUTRAL));
+        assertEquals(0, buckets.total(1));
+    }
+
+    @Test
+    public void emptySeries() {
+        SentimentSeries series = SentimentSeries.of(Collections.emptyList());
+
+        assertTrue(series.isEmpty());
+        assertEquals(0, series.getStart());
+        assertEquals(0, series.getEnd());
+        assertEquals(1, series.sum(0, 0, HOUR).size());
+    }
+
+    @Test
+    public void rejectsWidthsThatAreNotWholeBaseBuckets() {
+        SentimentSeries series = SentimentSeries.of(Collections.emptyList());
+        for (long width : new long[] {0, -HOUR, 60_000L, SentimentSeries.BASE_BUCKET_MILLIS + 1}) {
+            try {
+                series.sum(0, DAY, width);
+                fail("accepted " + width);
+            } catch (IllegalArgumentException expected) {
+                // rejected as it should be
+            }
+        }
+    }
+
+    private static void assertSameCounts(List<Post> posts, SentimentSeries.Buckets buckets) {
+        long from = buckets.getStart(0);
+        long to = buckets.getStart(buckets.size() - 1) + buckets.getWidth();
+        int[][] expected = new int[buckets.size()][3];
+        for (Post post : posts) {
+            long time = millis(post.getCreatedAt());
+            if (time >= from && time < to) {
+                Sentiment.SentimentType type = post.getSentiment() == null
+                        ? Sentiment.SentimentType.NEUTRAL : post.getSentiment().getType();
+                expected[(int) ((time - from) / buckets.getWidth())][type.ordinal()]++;
+            }
+        }
+        for (int b = 0; b < buckets.size(); b++) {
+            for (Sentiment.SentimentType type : Sentiment.SentimentType.values()) {
+                assertEquals(expected[b][type.ordinal()], buckets.count(b, type));
+            }
+        }
+    }
+
+    private static Post post(String id, LocalDateTime time, Sentiment.SentimentType type) {
+        return SentimentAggregateTest.post(id, time, ReliefItem.Category.FOOD, type);
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1000L;
+    }
+}
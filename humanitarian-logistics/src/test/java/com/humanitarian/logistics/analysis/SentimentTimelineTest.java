@@ -0,0 +1,57 @@
+package com.humanitarian.logistics.analysis;
+
+import com.humanitarian.logistics.model.Post;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SentimentTimelineTest {
+
+    @Test
+    public void everyLevelMatchesDirectAggregation() {
+        List<Post> posts = SentimentAggregateTest.randomPosts(3_000, 60, new Random(11));
+        SentimentTimeline timeline = SentimentTimeline.of(posts, false);
+
+        for (Duration size : new Duration[] {Duration.ofMinutes(5), Duration.ofMinutes(90), Duration.ofHours(6),
+                Duration.ofDays(1), Duration.ofDays(7)}) {
+            SentimentAggregateTest.assertSameAggregate(SentimentAggregate.of(posts, size.getSeconds()), timeline.at(size));
+        }
+    }
+
+    @Test
+    public void rollupsAreComputedOnce() {
+        SentimentTimeline timeline = SentimentTimeline.of(SentimentAggregateTest.randomPosts(500, 10, new Random(12)), false);
+
+        assertSame(timeline.at(Duration.ofMinutes(45)), timeline.at(Duration.ofMinutes(45)));
+    }
+
+    @Test
+    public void rejectsUnsupportedBucketSizes() {
+        for (Duration size : new Duration[] {null, Duration.ofMinutes(1), Duration.ofMinutes(7), Duration.ofDays(8),
+                Duration.ofMinutes(5).plusMillis(1)}) {
+            try {
+                SentimentTimeline.validateBucketSize(size);
+                fail("accepted " + size);
+            } catch (IllegalArgumentException expected) {
+                // rejected as it should be
+            }
+        }
+        assertEquals(300L, SentimentTimeline.validateBucketSize(Duration.ofMinutes(5)));
+    }
+
+    @Test
+    public void reportsBucketSizeInMinutesAndFractionalHours() {
+        TimeSeriesSentimentModule module = new TimeSeriesSentimentModule();
+        SentimentTimeline timeline = SentimentTimeline.of(SentimentAggregateTest.randomPosts(200, 5, new Random(13)), false);
+
+        Map<String, Object> results = module.analyze(timeline, Duration.ofMinutes(15));
+
+        assertEquals(15L, results.get("time_bucket_minutes"));
+        assertEquals(0.25, (Double) results.get("time_bucket_hours"), 0.0);
+    }
+}
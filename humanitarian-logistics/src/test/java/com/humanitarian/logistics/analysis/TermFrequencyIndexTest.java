@@ -0,0 +1,80 @@
+package com.humanitarian.logistics.analysis;
+
+import com.humanitarian.logistics.model.*;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TermFrequencyIndexTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 9, 1, 0, 0);
+    private static final ReliefItem.Category FOOD = ReliefItem.Category.FOOD;
+    private static final Sentiment.SentimentType NEGATIVE = Sentiment.SentimentType.NEGATIVE;
+
+    @Test
+    public void tokenizeSkipsStopWordsShortTokensAndMentions() {
+        TermFrequencyIndex index = new TermFrequencyIndex();
+
+        assertEquals(Arrays.asList("rice", "shortage", "bad", "#relief", "dont", "water"),
+                index.tokenize("The rice shortage is bad #relief @someone, we don't have water!"));
+    }
+
+    @Test
+    public void countsTermsAndAuthorsPerCell() {
+        TermFrequencyIndex index = TermFrequencyIndex.of(Arrays.asList(
+                post("p1", "rice shortage rice"), post("p2", "no rice left")));
+        String disaster = PostRepository.disasterOf(post("p0", ""));
+
+        List<Map.Entry<String, Long>> terms = index.topTerms(disaster, FOOD, NEGATIVE, 2);
+        assertEquals("rice", terms.get(0).getKey());
+        assertEquals(Long.valueOf(3), terms.get(0).getValue());
+        assertEquals(Long.valueOf(2), index.topAuthors(disaster, FOOD, NEGATIVE, 1).get(0).getValue());
+        assertEquals(terms, index.topTerms(null, FOOD, NEGATIVE, 2));
+        assertTrue(index.topTerms(disaster, ReliefItem.Category.SHELTER, NEGATIVE, 2).isEmpty());
+        assertEquals(Collections.singleton(disaster), index.getDisasters());
+    }
+
+    @Test
+    public void commentsAttachedLaterAreCountedOnce() {
+        Post post = post("p1", "flooded road");
+        TermFrequencyIndex index = TermFrequencyIndex.of(Collections.singletonList(post));
+        String disaster = PostRepository.disasterOf(post);
+        Comment comment = new Comment("c1", "p1", "road still flooded", START, "viewer");
+        comment.setReliefItem(new ReliefItem(FOOD, "test", 3));
+        comment.setSentiment(new Sentiment(NEGATIVE, 0.5, "comment"));
+        post.addComment(comment);
+        index.addComments(post, Collections.singletonList(comment));
+
+        assertEquals(5, index.termTotal(disaster, FOOD, NEGATIVE));
+        index.rebuild(Collections.singletonList(post));
+        assertEquals(5, index.termTotal(disaster, FOOD, NEGATIVE));
+    }
+
+    @Test
+    public void rebuildReplacesEarlierCounts() {
+        List<Post> posts = SentimentAggregateTest.randomPosts(300, 10, new Random(21));
+        TermFrequencyIndex index = TermFrequencyIndex.of(posts);
+        index.rebuild(posts);
+        TermFrequencyIndex fresh = TermFrequencyIndex.of(posts);
+
+        for (String disaster : fresh.getDisasters()) {
+            for (ReliefItem.Category category : ReliefItem.Category.values()) {
+                for (Sentiment.SentimentType type : Sentiment.SentimentType.values()) {
+                    assertEquals(fresh.termTotal(disaster, category, type), index.termTotal(disaster, category, type));
+                    assertEquals(fresh.topTerms(disaster, category, type, 10), index.topTerms(disaster, category, type, 10));
+                }
+            }
+        }
+        index.clear();
+        assertTrue(index.getDisasters().isEmpty());
+    }
+
+    private static Post post(String id, String content) {
+        Post post = new YouTubePost(id, content, START, "author", "channel");
+        post.setReliefItem(new ReliefItem(FOOD, "test", 3));
+        post.setSentiment(new Sentiment(NEGATIVE, 0.75, "content"));
+        return post;
+    }
+}
@@ -0,0 +1,208 @@
+package com.humanitarian.logistics.concurrent;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class IoExecutorTest {
+    private final IoExecutor io = IoExecutor.getInstance();
+
+    @Test(timeout = 10_000)
+    public void mapKeepsTheOrderOfTheItems() {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            items.add(i);
+        }
+        Random random = new Random(5);
+        List<Integer> delays = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            delays.add(random.nextInt(20));
+        }
+
+        // Later items often finish first
+        List<String> results = io.map(items, 8, i -> {
+            pause(delays.get(i));
+            return "r" + i;
+        });
+
+        assertEquals(items.size(), results.size());
+        for (int i = 0; i < items.size(); i++) {
+            assertEquals("r" + i, results.get(i));
+        }
+    }
+
+    @Test(timeout = 10_000)
+    public void callerWorksThroughItemsAndConcurrencyStaysWithinTheLimit() {
+        Thread caller = Thread.currentThread();
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        io.map(Collections.nCopies(30, "item"), 3, item -> {
+            threads.add(Thread.currentThread());
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            pause(10);
+            inFlight.decrementAndGet();
+            return item;
+        });
+
+        assertTrue(threads.contains(caller));
+        assertTrue(threads.size() <= 3);
+        assertTrue("max in flight " + maxInFlight.get(), maxInFlight.get() <= 3);
+    }
+
+    @Test(timeout = 10_000)
+    public void mapWithALimitOfOneRunsOnlyOnTheCaller() {
+        Thread caller = Thread.currentThread();
+        List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+
+        List<Integer> results = io.map(Arrays.asList(1, 2, 3), 1, i -> {
+            threads.add(Thread.currentThread());
+            return i * 10;
+        });
+
+        assertEquals(Arrays.asList(10, 20, 30), results);
+        assertEquals(Arrays.asList(caller, caller, caller), threads);
+    }
+
+    @Test(timeout = 10_000)
+    public void mapCalledFromEveryPoolThreadStillFinishes() throws Exception {
+        ExecutorService pool = IoExecutor.newPlatformExecutor(2);
+        try {
+            // Both pool threads block in map while their helpers queue behind them
+            IoExecutor saturated = new IoExecutor(pool, false);
+            List<Future<List<Integer>>> outer = new ArrayList<>();
+            for (int t = 0; t < 2; t++) {
+                outer.add(pool.submit(() -> saturated.map(Arrays.asList(1, 2, 3, 4), 4, i -> {
+                    pause(5);
+                    return i;
+                })));
+            }
+            for (Future<List<Integer>> result : outer) {
+                assertEquals(Arrays.asList(1, 2, 3, 4), result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test(timeout = 10_000)
+    public void firstFailureIsRethrownAndLaterItemsAreSkipped() {
+        List<Integer> applied = new ArrayList<>();
+        IllegalStateException boom = new IllegalStateException("item 2 failed");
+
+        try {
+            io.map(Arrays.asList(0, 1, 2, 3, 4), 1, i -> {
+                applied.add(i);
+                if (i == 2) {
+                    throw boom;
+                }
+                return i;
+            });
+            fail("expected a CompletionException");
+        } catch (CompletionException e) {
+            assertSame(boom, e.getCause());
+        }
+        assertEquals(Arrays.asList(0, 1, 2), applied);
+    }
+
+    @Test(timeout = 10_000)
+    public void completionExceptionsAreNotWrappedTwice() {
+        CompletionException failure = new CompletionException(new IOException("reset"));
+
+        try {
+            io.map(Arrays.asList("a", "b"), 2, item -> {
+                throw failure;
+            });
+            fail("expected a CompletionException");
+        } catch (CompletionException e) {
+            assertSame(failure, e);
+        }
+    }
+
+    @Test(timeout = 10_000)
+    public void supplyAsyncCompletesWithTheResultOrTheFailure() throws Exception {
+        assertEquals("done", io.supplyAsync(() -> "done").get(5, TimeUnit.SECONDS));
+
+        IOException failure = new IOException("timed out");
+        try {
+            io.supplyAsync(() -> {
+                throw failure;
+            }).get(5, TimeUnit.SECONDS);
+            fail("expected an ExecutionException");
+        } catch (ExecutionException e) {
+            assertSame(failure, e.getCause());
+        }
+    }
+
+    @Test
+    public void mapOfNoItemsIsEmpty() {
+        assertTrue(io.map(Collections.<String>emptyList(), 4, item -> item).isEmpty());
+    }
+
+    @Test
+    public void platformThreadsAreUsedWhenVirtualThreadsAreUnavailable() {
+        ExecutorService virtual = IoExecutor.newVirtualThreadExecutor();
+        if (virtual != null) {
+            virtual.shutdown();
+        }
+
+        // Virtual threads only exist from JDK 21; the requested mode is not enough by itself
+        assertEquals(virtual != null, IoExecutor.create().isVirtual());
+        String mode = System.getProperty(IoExecutor.MODE_PROPERTY);
+        System.setProperty(IoExecutor.MODE_PROPERTY, "platform");
+        try {
+            assertFalse(IoExecutor.create().isVirtual());
+        } finally {
+            if (mode == null) {
+                System.clearProperty(IoExecutor.MODE_PROPERTY);
+            } else {
+                System.setProperty(IoExecutor.MODE_PROPERTY, mode);
+            }
+        }
+    }
+
+    @Test(timeout = 10_000)
+    public void platformPoolIsBoundedAndUsesDaemonThreads() throws Exception {
+        ExecutorService pool = IoExecutor.newPlatformExecutor(2);
+        try {
+            AtomicInteger inFlight = new AtomicInteger();
+            AtomicInteger maxInFlight = new AtomicInteger();
+            Set<Thread> threads = ConcurrentHashMap.newKeySet();
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                tasks.add(pool.submit(() -> {
+                    threads.add(Thread.currentThread());
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    pause(20);
+                    inFlight.decrementAndGet();
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get(5, TimeUnit.SECONDS);
+            }
+
+            assertEquals(2, maxInFlight.get());
+            assertEquals(2, threads.size());
+            for (Thread thread : threads) {
+                assertTrue(thread.isDaemon());
+                assertTrue(thread.getName(), thread.getName().startsWith("io-"));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
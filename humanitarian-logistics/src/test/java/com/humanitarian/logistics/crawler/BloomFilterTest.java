@@ -0,0 +1,50 @@
+package com.humanitarian.logistics.crawler;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BloomFilterTest {
+
+    @Test
+    public void neverForgetsAnAddedKey() {
+        BloomFilter filter = new BloomFilter(10_000, 1e-4);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("Ugx" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("Ugx" + i));
+        }
+        assertTrue(filter.isFull());
+    }
+
+    @Test
+    public void falsePositiveRateStaysNearTheTargetAtCapacity() {
+        BloomFilter filter = new BloomFilter(20_000, 1e-3);
+        for (int i = 0; i < 20_000; i++) {
+            filter.put("known-" + i);
+        }
+        int falsePositives = 0;
+        int probes = 200_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("unknown-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        double rate = (double) falsePositives / probes;
+        assertTrue("rate " + rate, rate < 3e-3);
+        assertEquals(1e-3, filter.getExpectedFalsePositiveRate(), 1e-3);
+    }
+
+    @Test
+    public void putReportsWhetherTheKeyWasNew() {
+        BloomFilter filter = new BloomFilter(100, 1e-4);
+
+        assertFalse(filter.mightContain("a"));
+        assertTrue(filter.put("a"));
+        assertFalse(filter.put("a"));
+        assertEquals(1, filter.getCount());
+        assertEquals(0.0, new BloomFilter(100, 1e-4).getExpectedFalsePositiveRate(), 0.0);
+    }
+}
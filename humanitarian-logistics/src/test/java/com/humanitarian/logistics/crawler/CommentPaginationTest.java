@@ -0,0 +1,165 @@
+package com.humanitarian.logistics.crawler;
+
+import com.humanitarian.logistics.model.Comment;
+import com.humanitarian.logistics.model.CrawlState;
+import com.humanitarian.logistics.model.Post;
+import com.humanitarian.logistics.model.YouTubePost;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Walks the comment section of the watch.html fixture. Continuation tokens map to
+ * recorded pages: the first page holds the sort menu, whose "Newest first" entry
+ * leads to three newest-first pages.
+ */
+public class CommentPaginationTest {
+    private static final String VIDEO = "dQ7kZ1a0abc";
+    private static final String NEXT = "/youtubei/v1/next";
+    private static final String FIRST = "Eg0SC2RRN2taMWEwYWJjGAYy";
+    private static final String TOP_2 = "Eg0SC2RRN2taMWEwYWJjGAYyJSIRIgtkUTdrWjFhMGFiYzAAdG9wMg";
+    private static final String NEWEST_1 = "Eg0SC2RRN2taMWEwYWJjGAYyJSIRIgtkUTdrWjFhMGFiYzABbmV3MQ";
+    private static final String NEWEST_2 = "Eg0SC2RRN2taMWEwYWJjGAYyJSIRIgtkUTdrWjFhMGFiYzABbmV3Mg";
+    private static final String NEWEST_3 = "Eg0SC2RRN2taMWEwYWJjGAYyJSIRIgtkUTdrWjFhMGFiYzABbmV3Mw";
+    private static final String NEWEST_4 = "Eg0SC2RRN2taMWEwYWJjGAYyJSIRIgtkUTdrWjFhMGFiYzABbmV3NA";
+    private static final String PINNED = "UgxPinnedRelief0";
+
+    private final Map<String, String> pages = new HashMap<>();
+    private FixtureServer server;
+
+    @Before
+    public void startServer() throws IOException {
+        pages.put(FIRST, "youtube/next-sort-menu.json");
+        pages.put(TOP_2, "youtube/next-continuation.json");
+        pages.put(NEWEST_1, "youtube/next-newest-page1.json");
+        pages.put(NEWEST_2, "youtube/next-newest-page2.json");
+        pages.put(NEWEST_3, "youtube/next-newest-page3.json");
+        server = new FixtureServer()
+                .route("/watch", request -> new FixtureServer.Response(200, "text/html; charset=UTF-8",
+                        FixtureServer.fixture("youtube/watch.html")))
+                .route(NEXT, request -> {
+                    String token = new JSONObject(request.body).getString("continuation");
+                    if (token.equals(NEWEST_4)) {
+                        // the end of the section: no comments and no further continuation
+                        return FixtureServer.Response.json(200,
+                                "{\"onResponseReceivedEndpoints\":[]}".getBytes(StandardCharsets.UTF_8));
+                    }
+                    return pages.containsKey(token)
+                            ? FixtureServer.Response.json(200, FixtureServer.fixture(pages.get(token)))
+                            : FixtureServer.Response.json(404, new byte[0]);
+                });
+    }
+
+    @After
+    public void stopServer() {
+        server.close();
+    }
+
+    @Test(timeout = 10_000)
+    public void withoutIncrementalCrawlingTheSortMenuIsNotFollowed() {
+        Post post = crawl(null, 2);
+
+        assertEquals(Arrays.asList(FIRST, TOP_2), requestedTokens());
+        assertEquals(Arrays.asList(PINNED, "UgyTopFloodNews1", "UgzMNq3cAk0bV2x1", "UgwR7pLQe9sTt2x2"),
+                commentIds(post));
+    }
+
+    @Test(timeout = 10_000)
+    public void firstIncrementalCrawlSwitchesToNewestFirstAndSavesWhereTheCapStoppedIt() {
+        CrawlStateStore store = new CrawlStateStore(null);
+
+        Post post = crawl(store, 3);
+
+        // The top-comments page only yields the newest-first token; its comments come again there
+        assertEquals(Arrays.asList(FIRST, NEWEST_1, NEWEST_2), requestedTokens());
+        assertEquals(Arrays.asList(PINNED, "UgzNewRice000003", "UgzNewWater00002",
+                "UgzNewShelter001", "UgyOldMedical002", "UgyOldBoats00001"), commentIds(post));
+        CrawlState state = store.getState(VIDEO);
+        assertEquals("UgzNewRice000003", state.getNewestCommentId()); // the pinned comment is not the newest
+        assertEquals(NEWEST_3, state.getContinuationCursor());
+        assertEquals(6, state.getCommentCount());
+        assertTrue(store.isKnownComment("UgyOldBoats00001"));
+    }
+
+    @Test(timeout = 10_000)
+    public void olderCommentsLeftByACapAreResumedFromTheSavedCursor() {
+        CrawlStateStore store = new CrawlStateStore(null);
+        crawl(store, 3);
+        int firstCrawl = server.requests(NEXT).size();
+
+        Post post = crawl(store, 10);
+
+        // Nothing new at the top, so paging jumps straight to the saved cursor
+        assertEquals(Arrays.asList(FIRST, NEWEST_1, NEWEST_3, NEWEST_4),
+                requestedTokens().subList(firstCrawl, server.requests(NEXT).size()));
+        assertEquals(Collections.singletonList("UgyOldestPost000"), commentIds(post));
+        CrawlState state = store.getState(VIDEO);
+        assertEquals("UgzNewRice000003", state.getNewestCommentId());
+        assertNull(state.getContinuationCursor());
+        assertEquals(7, state.getCommentCount());
+    }
+
+    @Test(timeout = 10_000)
+    public void laterCrawlStopsAtTheNewestCommentOfThePreviousOne() {
+        CrawlStateStore store = new CrawlStateStore(null);
+        store.stage(VIDEO, "UgzNewShelter001", null,
+                Arrays.asList("UgzNewShelter001", "UgyOldMedical002", "UgyOldBoats00001", "UgyOldestPost000"));
+        store.commit(Collections.singletonList(new YouTubePost(VIDEO, "video",
+                LocalDateTime.of(2024, 9, 7, 8, 0), "author", "channel")));
+
+        Post post = crawl(store, 10);
+
+        assertEquals(Arrays.asList(FIRST, NEWEST_1, NEWEST_2), requestedTokens());
+        assertEquals(Arrays.asList(PINNED, "UgzNewRice000003", "UgzNewWater00002"), commentIds(post));
+        CrawlState state = store.getState(VIDEO);
+        assertEquals("UgzNewRice000003", state.getNewestCommentId());
+        assertNull(state.getContinuationCursor());
+        assertEquals(7, state.getCommentCount());
+    }
+
+    /**
+     * Crawls the fixture video and, as the model does once the post is saved, commits its crawl state
+     */
+    private Post crawl(CrawlStateStore store, int maxPages) {
+        YouTubeCrawler crawler = new YouTubeCrawler(server.url(""));
+        crawler.setSentimentAnalyzer(null);
+        crawler.setCommentLimits(100, maxPages);
+        if (store != null) {
+            crawler.enableIncrementalCrawl(store, Duration.ofHours(1));
+        }
+        CrawlScheduler scheduler = new CrawlScheduler(crawler, 1, 1000.0, 0);
+        CrawlScheduler.ResultStream stream = scheduler.crawlVideos(
+                Collections.singletonList(server.url("/watch?v=" + VIDEO)));
+        List<Post> posts = stream.toList();
+        assertEquals(stream.getFailures().toString(), 1, posts.size());
+        if (store != null) {
+            store.commit(posts);
+        }
+        return posts.get(0);
+    }
+
+    private List<String> requestedTokens() {
+        List<String> tokens = new ArrayList<>();
+        for (FixtureServer.Request request : server.requests(NEXT)) {
+            tokens.add(new JSONObject(request.body).getString("continuation"));
+        }
+        return tokens;
+    }
+
+    private static List<String> commentIds(Post post) {
+        List<String> ids = new ArrayList<>();
+        for (Comment comment : post.getComments()) {
+            ids.add(comment.getCommentId());
+        }
+        return ids;
+    }
+}
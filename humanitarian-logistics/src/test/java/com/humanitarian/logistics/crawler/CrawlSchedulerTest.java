@@ -0,0 +1,244 @@
+package com.humanitarian.logistics.crawler;
+
+import com.humanitarian.logistics.model.Post;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class CrawlSchedulerTest {
+    private static final String WATCH = "/watch";
+    private static final String NEXT = "/youtubei/v1/next";
+
+    private FixtureServer server;
+
+    @Before
+    public void startServer() throws IOException {
+        server = new FixtureServer().replay(NEXT, "youtube/next-continuation.json");
+    }
+
+    @After
+    public void stopServer() {
+        server.close();
+    }
+
+    @Test(timeout = 10_000)
+    public void streamsEndWhenRequestsAreRejected() {
+        CrawlScheduler scheduler = new CrawlScheduler(new YouTubeCrawler(), 1, 1000, 0);
+        scheduler.shutdown();
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            urls.add("https://www.youtube.com/watch?v=video" + i);
+        }
+
+        CrawlScheduler.ResultStream videos = scheduler.crawlVideos(urls);
+        assertTrue(videos.toList().isEmpty());
+        assertTrue(videos.isFinished());
+        assertEquals(500, videos.getFailures().size());
+
+        CrawlScheduler.ResultStream keywords = scheduler.crawlKeywords(Arrays.asList("flood", "storm"), 10);
+        assertTrue(keywords.toList().isEmpty());
+        assertTrue(keywords.isFinished());
+    }
+
+    @Test(timeout = 20_000)
+    public void hostGateCapsConcurrentRequests() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        server.route(WATCH, request -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                pause(150);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            return watchPage();
+        });
+        CrawlScheduler scheduler = new CrawlScheduler(crawler(0, 1), 2, 1000.0, 0);
+
+        List<Post> posts = scheduler.crawlVideos(urls("a", "b", "c", "d", "e", "f")).toList();
+
+        assertEquals(6, posts.size());
+        assertEquals(2, maxInFlight.get());
+        Map<?, ?> hosts = (Map<?, ?>) scheduler.getMetrics().get("hosts");
+        Map<?, ?> gate = (Map<?, ?>) hosts.values().iterator().next();
+        assertEquals(0, gate.get("active"));
+        assertEquals(0, gate.get("waiting"));
+    }
+
+    @Test(timeout = 20_000)
+    public void hostGateSpacesRequestStarts() {
+        List<Long> starts = Collections.synchronizedList(new ArrayList<>());
+        server.route(WATCH, request -> {
+            starts.add(System.nanoTime());
+            return watchPage();
+        });
+        CrawlScheduler scheduler = new CrawlScheduler(crawler(0, 1), 8, 20.0, 0);
+
+        List<Post> posts = scheduler.crawlVideos(urls("a", "b", "c", "d", "e", "f", "g", "h")).toList();
+
+        assertEquals(8, posts.size());
+        // 50 ms apart at 20 per second; single gaps vary with delivery, the whole span does not
+        long spanMillis = (Collections.max(starts) - Collections.min(starts)) / 1_000_000;
+        assertTrue("8 starts within " + spanMillis + " ms", spanMillis >= 7 * 50 - 30);
+    }
+
+    @Test(timeout = 20_000)
+    public void throttledResponsesAreRetriedWithGrowingBackoff() {
+        Deque<Integer> throttled = new ConcurrentLinkedDeque<>(Arrays.asList(429, 403, 413));
+        List<Long> attempts = Collections.synchronizedList(new ArrayList<>());
+        server.route(WATCH, request -> {
+            attempts.add(System.nanoTime());
+            Integer status = throttled.poll();
+            return status == null ? watchPage() : new FixtureServer.Response(status, "text/html",
+                    "slow down".getBytes(StandardCharsets.UTF_8));
+        });
+        CrawlScheduler scheduler = new CrawlScheduler(crawler(0, 1), 4, 100.0, 3);
+
+        CrawlScheduler.ResultStream stream = scheduler.crawlVideos(urls("a"));
+
+        assertEquals(1, stream.toList().size());
+        assertEquals(0, stream.getFailedCount());
+        assertEquals(4, attempts.size());
+        for (int retry = 0; retry < 3; retry++) {
+            long waitedMillis = (attempts.get(retry + 1) - attempts.get(retry)) / 1_000_000;
+            long least = (500L << retry) / 2 - 20; // a little slack for delivery
+            assertTrue("retry " + retry + " after " + waitedMillis + " ms", waitedMillis >= least);
+        }
+        assertEquals(3L, scheduler.getMetrics().get("retries"));
+        assertEquals(0L, scheduler.getMetrics().get("errors"));
+    }
+
+    @Test(timeout = 10_000)
+    public void throttledRequestFailsOnceItsRetriesAreUsed() {
+        server.route(WATCH, request -> new FixtureServer.Response(429, "text/html", new byte[0]));
+        CrawlScheduler scheduler = new CrawlScheduler(crawler(0, 1), 4, 100.0, 1);
+
+        CrawlScheduler.ResultStream stream = scheduler.crawlVideos(urls("a"));
+
+        assertTrue(stream.toList().isEmpty());
+        assertEquals(2, server.requests(WATCH).size());
+        assertEquals(1, stream.getFailures().size());
+        assertTrue(stream.getFailures().get(0), stream.getFailures().get(0).contains("HTTP 429"));
+    }
+
+    @Test
+    public void backoffIsJitteredWithinADoublingCap() {
+        for (int attempt = 0; attempt < 10; attempt++) {
+            long cap = Math.min(16_000, 500L << attempt);
+            Set<Long> delays = new HashSet<>();
+            for (int i = 0; i < 200; i++) {
+                long delay = CrawlScheduler.backoffMillis(attempt);
+                assertTrue(attempt + ": " + delay, delay >= cap / 2 && delay <= cap);
+                delays.add(delay);
+            }
+            assertTrue("no jitter at attempt " + attempt, delays.size() > 10);
+        }
+    }
+
+    @Test(timeout = 20_000)
+    public void continuationsOfStartedVideosGoAheadOfNewVideos() {
+        server.route(WATCH, request -> {
+            pause(100);
+            return watchPage();
+        });
+        CrawlScheduler scheduler = new CrawlScheduler(crawler(100, 2), 1, 1000.0, 0);
+
+        List<Post> posts = scheduler.crawlVideos(urls("a", "b", "c")).toList();
+
+        assertEquals(3, posts.size());
+        for (Post post : posts) {
+            assertEquals(2, post.getComments().size());
+        }
+        // One request at a time: without priority c's page would follow b's at once
+        List<String> order = new ArrayList<>();
+        for (FixtureServer.Request request : server.requests()) {
+            order.add(request.path.equals(WATCH) ? request.query.get("v") : "next");
+        }
+        assertEquals(9, order.size());
+        assertEquals(Arrays.asList("a", "b", "next"), order.subList(0, 3));
+        assertTrue(order.toString(), order.indexOf("c") > order.indexOf("next") + 1);
+    }
+
+    @Test(timeout = 10_000)
+    public void streamEndsOnceEveryVideoIsDeliveredOrFailed() throws Exception {
+        server.route(WATCH, request -> "missing".equals(request.query.get("v"))
+                ? new FixtureServer.Response(404, "text/html", new byte[0]) : watchPage());
+        CrawlScheduler scheduler = new CrawlScheduler(crawler(0, 1), 2, 1000.0, 0);
+
+        CrawlScheduler.ResultStream stream = scheduler.crawlVideos(urls("a", "missing", "b"));
+
+        assertEquals(2, stream.toList().size());
+        assertTrue(stream.isFinished());
+        assertNull(stream.next());
+        assertNull(stream.poll(1, TimeUnit.SECONDS));
+        assertEquals(2, stream.getDeliveredCount());
+        assertEquals(1, stream.getFailedCount());
+        assertTrue(stream.getFailures().get(0), stream.getFailures().get(0).contains("HTTP 404"));
+    }
+
+    @Test(timeout = 10_000)
+    public void cancelEndsTheStreamAndSendsNothingMore() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        server.route(WATCH, request -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return watchPage();
+        });
+        CrawlScheduler scheduler = new CrawlScheduler(crawler(0, 1), 1, 1000.0, 0);
+        CrawlScheduler.ResultStream stream = scheduler.crawlVideos(urls("a", "b", "c"));
+        while (server.requests(WATCH).isEmpty()) {
+            Thread.sleep(10);
+        }
+
+        stream.cancel();
+
+        assertNull(stream.next());
+        assertTrue(stream.isCancelled());
+        assertTrue(stream.isFinished());
+        release.countDown();
+        Thread.sleep(300);
+        assertEquals(1, server.requests(WATCH).size());
+        assertEquals(0, stream.getDeliveredCount());
+        assertEquals(0, stream.getFailedCount());
+    }
+
+    private YouTubeCrawler crawler(int maxComments, int maxPages) {
+        YouTubeCrawler crawler = new YouTubeCrawler(server.url(""));
+        crawler.setSentimentAnalyzer(null);
+        crawler.setCommentLimits(maxComments, maxPages);
+        return crawler;
+    }
+
+    private List<String> urls(String... videoIds) {
+        List<String> urls = new ArrayList<>();
+        for (String videoId : videoIds) {
+            urls.add(server.url(WATCH + "?v=" + videoId));
+        }
+        return urls;
+    }
+
+    private static FixtureServer.Response watchPage() {
+        return new FixtureServer.Response(200, "text/html; charset=UTF-8", FixtureServer.fixture("youtube/watch.html"));
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.humanitarian.logistics.crawler;
+
+import com.humanitarian.logistics.model.CrawlState;
+import com.humanitarian.logistics.model.Post;
+import com.humanitarian.logistics.model.YouTubePost;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class CrawlStateStoreTest {
+
+    @Test
+    public void stagedCrawlIsRecordedOnlyOnCommit() {
+        CrawlStateStore store = new CrawlStateStore(null);
+        store.stage("v1", "c2", "cursor", Arrays.asList("c1", "c2"));
+
+        assertFalse(store.isKnownComment("c1"));
+        assertNull(store.getState("v1"));
+
+        store.commit(Collections.singletonList(post("v1")));
+        assertTrue(store.isKnownComment("c1"));
+        assertTrue(store.isKnownComment("c2"));
+        CrawlState state = store.getState("v1");
+        assertEquals("c2", state.getNewestCommentId());
+        assertEquals("cursor", state.getContinuationCursor());
+        assertEquals(2, state.getCommentCount());
+        assertTrue(store.isRecentlyCrawled("v1", Duration.ofHours(1)));
+    }
+
+    @Test
+    public void laterCrawlsAddToTheCountAndKeepTheNewestComment() {
+        CrawlStateStore store = new CrawlStateStore(null);
+        store.stage("v1", "c2", null, Arrays.asList("c1", "c2"));
+        store.commit(Collections.singletonList(post("v1")));
+        store.stage("v1", null, null, Collections.singletonList("c3"));
+        store.commit(Collections.singletonList(post("v1")));
+
+        assertEquals("c2", store.getState("v1").getNewestCommentId());
+        assertEquals(3, store.getState("v1").getCommentCount());
+    }
+
+    @Test
+    public void discardedOrInvalidatedCrawlsAreNeverRecorded() {
+        CrawlStateStore store = new CrawlStateStore(null);
+        store.stage("v1", "c1", null, Collections.singletonList("c1"));
+        store.stage("v2", "c2", null, Collections.singletonList("c2"));
+
+        store.discard(Collections.singletonList(post("v1")));
+        store.invalidate();
+        store.commit(Arrays.asList(post("v1"), post("v2")));
+
+        assertNull(store.getState("v1"));
+        assertNull(store.getState("v2"));
+        assertFalse(store.isKnownComment("c1"));
+        assertFalse(store.isKnownComment("c2"));
+    }
+
+    @Test
+    public void dedupIndexGrowsPastItsInitialSize() {
+        CrawlStateStore store = new CrawlStateStore(null);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < CrawlStateStore.DEFAULT_EXPECTED_COMMENTS * 3; i++) {
+            ids.add("comment-" + i);
+        }
+        store.markKnown(ids);
+
+        for (String id : ids) {
+            assertTrue(store.isKnownComment(id));
+        }
+        Map<String, Object> stats = store.getStats();
+        assertTrue((Integer) stats.get("filters") > 1);
+        assertTrue((Double) stats.get("false_positive_rate") < 1e-3);
+    }
+
+    private static Post post(String videoId) {
+        return new YouTubePost(videoId, "video", LocalDateTime.now(), "author", "channel");
+    }
+}
@@ -0,0 +1,109 @@
+package com.humanitarian.logistics.crawler;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class CrawlerHttpClientTest {
+    private final CrawlerHttpClient http = CrawlerHttpClient.getInstance();
+    private FixtureServer server;
+
+    @Before
+    public void startServer() throws IOException {
+        server = new FixtureServer();
+    }
+
+    @After
+    public void stopServer() {
+        server.close();
+    }
+
+    @Test
+    public void sendReturnsTheRecordedBodyAndAsksForCompression() throws Exception {
+        server.replay("/next", "youtube/next-continuation.json");
+
+        HttpResponse<String> response = http.send("test/plain", http.newRequest(server.url("/next")).GET().build());
+
+        assertEquals(200, response.statusCode());
+        assertEquals(FixtureServer.fixtureText("youtube/next-continuation.json"), response.body());
+        assertEquals("gzip, deflate", server.requests("/next").get(0).header("Accept-Encoding"));
+    }
+
+    @Test
+    public void gzipBodiesAreDecoded() throws Exception {
+        server.route("/next", request -> FixtureServer.Response.json(200,
+                FixtureServer.fixture("youtube/next-continuation.json")).gzip());
+
+        HttpResponse<String> response = http.send("test/gzip", http.newRequest(server.url("/next")).GET().build());
+
+        assertEquals(FixtureServer.fixtureText("youtube/next-continuation.json"), response.body());
+        Map<?, ?> metrics = (Map<?, ?>) http.getMetrics().get("test/gzip");
+        long wire = (Long) metrics.get("wire_bytes");
+        long decoded = (Long) metrics.get("decoded_bytes");
+        assertEquals(FixtureServer.fixture("youtube/next-continuation.json").length, decoded);
+        assertTrue(wire + " wire bytes for " + decoded, wire < decoded);
+    }
+
+    @Test
+    public void bodyIsDecodedWithTheDeclaredCharset() throws Exception {
+        String text = "Lũ lụt ở Lào Cai";
+        server.route("/utf16", request -> new FixtureServer.Response(200, "text/plain; charset=\"UTF-16\"",
+                text.getBytes(StandardCharsets.UTF_16)));
+
+        HttpResponse<String> response = http.send("test/charset", http.newRequest(server.url("/utf16")).GET().build());
+
+        assertEquals(text, response.body());
+    }
+
+    @Test
+    public void sendAsyncCompletesWithTheResponse() {
+        server.replay("/search", "youtube/search.json");
+
+        HttpResponse<String> response = http.sendAsync("test/async", http.newRequest(server.url("/search")).GET().build())
+                .join();
+
+        assertEquals(FixtureServer.fixtureText("youtube/search.json"), response.body());
+        assertNotNull(http.getLatency("test/async"));
+    }
+
+    @Test
+    public void statusClassesAreCountedPerEndpoint() throws Exception {
+        server.route("/quota", request -> FixtureServer.Response.json(403, "{}".getBytes(StandardCharsets.UTF_8)));
+        server.route("/down", request -> FixtureServer.Response.json(503, new byte[0]));
+        server.replay("/ok", "youtube/search.json");
+
+        http.send("test/status", http.newRequest(server.url("/ok")).GET().build());
+        http.send("test/status", http.newRequest(server.url("/quota")).GET().build());
+        http.send("test/status", http.newRequest(server.url("/quota")).GET().build());
+        HttpResponse<String> down = http.send("test/status", http.newRequest(server.url("/down")).GET().build());
+
+        assertEquals(503, down.statusCode());
+        assertEquals("", down.body());
+        Map<?, ?> metrics = (Map<?, ?>) http.getMetrics().get("test/status");
+        assertEquals(1L, metrics.get("ok"));
+        assertEquals(2L, metrics.get("4xx"));
+        assertEquals(1L, metrics.get("5xx"));
+        assertEquals(0L, metrics.get("failed"));
+    }
+
+    @Test
+    public void connectionFailuresAreCounted() {
+        String url = server.url("/gone");
+        server.close();
+
+        try {
+            http.send("test/refused", http.newRequest(url).GET().build());
+            fail("sent to a stopped server");
+        } catch (IOException | InterruptedException expected) {
+            // nothing is listening any more
+        }
+        assertEquals(1L, ((Map<?, ?>) http.getMetrics().get("test/refused")).get("failed"));
+    }
+}
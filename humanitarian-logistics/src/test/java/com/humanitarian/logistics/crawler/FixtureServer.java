@@ -0,0 +1,187 @@
+package com.humanitarian.logistics.crawler;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Local HTTP server that replays recorded responses from src/test/resources/fixtures.
+ * Routes are matched by exact path; every request is recorded so tests can check
+ * what the client sent. Unrouted paths answer 404.
+ */
+final class FixtureServer implements AutoCloseable {
+    private final HttpServer server;
+    private final ExecutorService handlers = Executors.newCachedThreadPool(); // concurrent requests, like a real host
+    private final Map<String, Function<Request, Response>> routes = new ConcurrentHashMap<>();
+    private final List<Request> requests = new CopyOnWriteArrayList<>();
+
+    FixtureServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(handlers);
+        server.start();
+    }
+
+    /**
+     * @return absolute URL of a path on this server, e.g. "/youtube/v3"
+     */
+    String url(String path) {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + path;
+    }
+
+    /**
+     * Answers a path with a recorded JSON fixture
+     */
+    FixtureServer replay(String path, String fixture) {
+        return route(path, request -> Response.json(200, fixture(fixture)));
+    }
+
+    FixtureServer route(String path, Function<Request, Response> handler) {
+        routes.put(path, handler);
+        return this;
+    }
+
+    /**
+     * @return requests received so far, in arrival order
+     */
+    List<Request> requests() {
+        return new ArrayList<>(requests);
+    }
+
+    List<Request> requests(String path) {
+        List<Request> matching = new ArrayList<>();
+        for (Request request : requests) {
+            if (request.path.equals(path)) {
+                matching.add(request);
+            }
+        }
+        return matching;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        handlers.shutdownNow();
+    }
+
+    /**
+     * Reads a recorded fixture from the test classpath
+     */
+    static byte[] fixture(String name) {
+        try (InputStream in = FixtureServer.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalArgumentException("No fixture " + name);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static String fixtureText(String name) {
+        return new String(fixture(name), StandardCharsets.UTF_8);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            Request request = new Request(exchange.getRequestURI().getPath(),
+                    parseQuery(exchange.getRequestURI().getRawQuery()), exchange.getRequestHeaders(),
+                    new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            requests.add(request);
+            Function<Request, Response> handler = routes.get(request.path);
+            Response response = handler != null
+                    ? handler.apply(request)
+                    : Response.json(404, "{\"error\":{\"code\":404}}".getBytes(StandardCharsets.UTF_8));
+            response.headers.forEach((name, value) -> exchange.getResponseHeaders().add(name, value));
+            exchange.sendResponseHeaders(response.status, response.body.length == 0 ? -1 : response.body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response.body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> params = new LinkedHashMap<>();
+        if (query == null) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    static final class Request {
+        final String path;
+        final Map<String, String> query;
+        final Map<String, List<String>> headers;
+        final String body; // empty for GET requests
+
+        Request(String path, Map<String, String> query, Map<String, List<String>> headers, String body) {
+            this.path = path;
+            this.query = query;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        String header(String name) {
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                if (header.getKey().equalsIgnoreCase(name) && !header.getValue().isEmpty()) {
+                    return header.getValue().get(0);
+                }
+            }
+            return null;
+        }
+    }
+
+    static final class Response {
+        final int status;
+        final Map<String, String> headers = new LinkedHashMap<>();
+        final byte[] body;
+
+        Response(int status, String contentType, byte[] body) {
+            this.status = status;
+            this.body = body;
+            headers.put("Content-Type", contentType);
+        }
+
+        static Response json(int status, byte[] body) {
+            return new Response(status, "application/json; charset=UTF-8", body);
+        }
+
+        /**
+         * @return the same response, gzip-encoded as a server does when asked for it
+         */
+        Response gzip() {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+                out.write(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            Response encoded = new Response(status, headers.get("Content-Type"), bytes.toByteArray());
+            encoded.headers.put("Content-Encoding", "gzip");
+            return encoded;
+        }
+    }
+}
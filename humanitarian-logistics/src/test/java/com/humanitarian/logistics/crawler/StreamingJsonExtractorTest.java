@@ -0,0 +1,113 @@
+package com.humanitarian.logistics.crawler;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class StreamingJsonExtractorTest {
+    private static final String WATCH_PAGE = FixtureServer.fixtureText("youtube/watch.html");
+
+    @Test
+    public void findsTheYtcfgCallThatHoldsTheApiKey() throws Exception {
+        int first = StreamingJsonExtractor.findCallArgument(WATCH_PAGE, "ytcfg.set", 0);
+        int second = StreamingJsonExtractor.findCallArgument(WATCH_PAGE, "ytcfg.set", first);
+
+        assertFalse(StreamingJsonExtractor.readObject(WATCH_PAGE, first).has("INNERTUBE_API_KEY"));
+        JSONObject ytcfg = StreamingJsonExtractor.readObject(WATCH_PAGE, second);
+        assertEquals("AIzaSyFixtureKey0000", ytcfg.getString("INNERTUBE_API_KEY"));
+        assertEquals("2.20240910.01.00", ytcfg.getJSONObject("INNERTUBE_CONTEXT").getJSONObject("client")
+                .getString("clientVersion"));
+        assertEquals(-1, StreamingJsonExtractor.findCallArgument(WATCH_PAGE, "ytcfg.set", second));
+    }
+
+    @Test
+    public void findsTheAssignmentRatherThanOtherMentions() throws Exception {
+        int start = StreamingJsonExtractor.findAssignedObject(WATCH_PAGE, "ytInitialData");
+
+        assertTrue(start > WATCH_PAGE.indexOf("var ytInitialData"));
+        assertEquals('{', WATCH_PAGE.charAt(start));
+        // The value ends at its closing brace, not at the first "};" inside a string
+        JSONObject data = StreamingJsonExtractor.readObject(WATCH_PAGE, start);
+        assertTrue(data.has("microformat"));
+        assertEquals(-1, StreamingJsonExtractor.findAssignedObject(WATCH_PAGE, "ytMissingData"));
+    }
+
+    @Test
+    public void findsWindowIndexAssignments() {
+        String page = "<script>window[\"ytInitialData\"] = {\"a\":1};</script>";
+
+        assertEquals(page.indexOf('{'), StreamingJsonExtractor.findAssignedObject(page, "ytInitialData"));
+    }
+
+    @Test
+    public void keepsOnlyTheCommentContinuationOfTheWatchPage() throws Exception {
+        StreamingJsonExtractor data = new StreamingJsonExtractor()
+                .objectWithin("continuationItemRenderer", "itemSectionRenderer")
+                .object("dateText")
+                .object("publishedTimeText")
+                .string("uploadDate")
+                .read(WATCH_PAGE, StreamingJsonExtractor.findAssignedObject(WATCH_PAGE, "ytInitialData"));
+
+        // The related-videos continuation sits outside itemSectionRenderer
+        List<JSONObject> continuations = data.get("continuationItemRenderer");
+        assertEquals(1, continuations.size());
+        assertEquals("Eg0SC2RRN2taMWEwYWJjGAYy", continuations.get(0).getJSONObject("continuationEndpoint")
+                .getJSONObject("continuationCommand").getString("token"));
+        assertEquals("Sep 7, 2024", data.first("dateText").getString("simpleText"));
+        assertEquals("2 weeks ago", data.first("publishedTimeText").getString("simpleText"));
+        assertEquals(Collections.singletonList("2024-09-07T07:30:00-07:00"), data.getStrings("uploadDate"));
+    }
+
+    @Test
+    public void streamsContinuationActionsAndCommentPayloads() throws Exception {
+        StreamingJsonExtractor response;
+        try (Reader reader = new InputStreamReader(
+                getClass().getResourceAsStream("/fixtures/youtube/next-continuation.json"), StandardCharsets.UTF_8)) {
+            response = new StreamingJsonExtractor()
+                    .object("reloadContinuationItemsCommand")
+                    .object("appendContinuationItemsAction")
+                    .object("commentEntityPayload")
+                    .read(reader);
+        }
+
+        assertEquals("comments-section", response.first("reloadContinuationItemsCommand").getString("targetId"));
+        assertTrue(response.get("appendContinuationItemsAction").isEmpty());
+        List<String> ids = new ArrayList<>();
+        for (JSONObject payload : response.get("commentEntityPayload")) {
+            ids.add(payload.getJSONObject("properties").getString("commentId"));
+        }
+        assertEquals(Arrays.asList("UgzMNq3cAk0bV2x1", "UgwR7pLQe9sTt2x2"), ids);
+    }
+
+    @Test
+    public void reportsWantedKeysNestedInACapturedObject() throws Exception {
+        String json = "{\"actions\":[{\"appendContinuationItemsAction\":{\"continuationItems\":"
+                + "[{\"commentEntityPayload\":{\"key\":\"k1\"}},{\"commentEntityPayload\":{\"key\":\"k2\"}}]}}]}";
+
+        StreamingJsonExtractor response = new StreamingJsonExtractor()
+                .object("appendContinuationItemsAction")
+                .object("commentEntityPayload")
+                .read(json, 0);
+
+        assertEquals(1, response.get("appendContinuationItemsAction").size());
+        assertEquals(2, response.get("commentEntityPayload").size());
+        assertEquals("k2", response.get("commentEntityPayload").get(1).getString("key"));
+    }
+
+    @Test
+    public void readsOnlyOneValueAndIgnoresTheRest() throws Exception {
+        String text = "x = {\"dateText\":{\"simpleText\":\"today\"}}; y = {\"dateText\":{\"simpleText\":\"later\"}};";
+
+        StreamingJsonExtractor data = new StreamingJsonExtractor().object("dateText").read(text, text.indexOf('{'));
+
+        assertEquals(1, data.get("dateText").size());
+        assertNull(data.first("publishedTimeText"));
+        assertTrue(data.getStrings("uploadDate").isEmpty());
+    }
+}
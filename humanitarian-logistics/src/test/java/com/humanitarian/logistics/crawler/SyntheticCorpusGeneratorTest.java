@@ -0,0 +1,78 @@
+package com.humanitarian.logistics.crawler;
+
+import com.humanitarian.logistics.model.Comment;
+import com.humanitarian.logistics.model.Post;
+import com.humanitarian.logistics.model.YouTubePost;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class SyntheticCorpusGeneratorTest {
+
+    @Test
+    public void sameSeedGivesTheSameCorpus() {
+        List<String> first = corpus(7, 5_000);
+        List<String> second = corpus(7, 5_000);
+
+        assertEquals(first.size(), second.size());
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals("record " + i, first.get(i), second.get(i));
+        }
+        assertNotEquals(first, corpus(8, 5_000));
+    }
+
+    @Test
+    public void corpusHasExactlyTheRequestedRecordsInBatches() {
+        List<Integer> batchSizes = new ArrayList<>();
+        long[] records = new long[1];
+        long generated = new SyntheticCorpusGenerator(7).generate(5_000, 40, batch -> {
+            batchSizes.add(batch.size());
+            for (Post post : batch) {
+                records[0] += 1 + post.getComments().size();
+            }
+        });
+
+        assertEquals(5_000, generated);
+        assertEquals(5_000, records[0]);
+        for (int size : batchSizes.subList(0, batchSizes.size() - 1)) {
+            assertEquals(40, size);
+        }
+    }
+
+    @Test
+    public void postsDependOnlyOnSeedAndIndex() {
+        SyntheticCorpusGenerator generator = new SyntheticCorpusGenerator(7);
+        generator.generate(1_000, 50, batch -> { });
+
+        assertEquals(describe(new SyntheticCorpusGenerator(7).generatePost(3, 100)),
+                describe(generator.generatePost(3, 100)));
+    }
+
+    /**
+     * Every generated post and comment, one line each, with the fields the generator draws
+     */
+    private static List<String> corpus(long seed, long records) {
+        List<String> lines = new ArrayList<>();
+        new SyntheticCorpusGenerator(seed).generate(records, 100, batch -> {
+            for (Post post : batch) {
+                lines.add(describe(post));
+                for (Comment comment : post.getComments()) {
+                    lines.add(comment.getCommentId() + "|" + comment.getContent() + "|" + comment.getCreatedAt()
+                            + "|" + comment.getAuthor() + "|" + comment.getSentiment().getType()
+                            + "|" + comment.getSentiment().getConfidence());
+                }
+            }
+        });
+        return lines;
+    }
+
+    private static String describe(Post post) {
+        YouTubePost video = (YouTubePost) post;
+        return post.getPostId() + "|" + post.getContent() + "|" + post.getCreatedAt() + "|" + post.getAuthor()
+                + "|" + post.getDisasterKeyword() + "|" + post.getReliefItem().getCategory()
+                + "|" + post.getSentiment().getType() + "|" + post.getSentiment().getConfidence()
+                + "|" + video.getViews() + "|" + video.getLikes() + "|" + post.getComments().size();
+    }
+}
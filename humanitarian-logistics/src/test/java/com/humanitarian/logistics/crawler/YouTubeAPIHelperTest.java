@@ -0,0 +1,198 @@
+package com.humanitarian.logistics.crawler;
+
+import com.google.gson.JsonObject;
+import com.humanitarian.logistics.model.Comment;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class YouTubeAPIHelperTest {
+    private static final String API = "/youtube/v3";
+    private static final String PAGE_TWO = "QURTSl9pMkhfaGxf";
+
+    private FixtureServer server;
+    private QuotaBudget quota;
+    private YouTubeAPIHelper helper;
+
+    @Before
+    public void startServer() throws IOException {
+        server = new FixtureServer()
+                .replay(API + "/search", "youtube/search.json")
+                .replay(API + "/videos", "youtube/videos.json")
+                .route(API + "/commentThreads", request -> FixtureServer.Response.json(200, FixtureServer.fixture(
+                        PAGE_TWO.equals(request.query.get("pageToken"))
+                                ? "youtube/commentThreads-page2.json" : "youtube/commentThreads-page1.json")));
+        quota = new QuotaBudget();
+        helper = new YouTubeAPIHelper("test-key", quota, server.url(API));
+    }
+
+    @After
+    public void stopServer() {
+        server.close();
+    }
+
+    @Test
+    public void searchReturnsVideoIdsAndSkipsOtherResults() throws Exception {
+        List<String> ids = helper.searchVideos("bão Yagi cứu trợ", 80);
+
+        assertEquals(Arrays.asList("dQ7kZ1a0abc", "Xy9_flood02", "Yagi-relief3"), ids);
+        FixtureServer.Request request = server.requests(API + "/search").get(0);
+        assertEquals("bão Yagi cứu trợ", request.query.get("q"));
+        assertEquals("50", request.query.get("maxResults"));
+        assertEquals("video", request.query.get("type"));
+        assertEquals("test-key", request.query.get("key"));
+        assertEquals("nextPageToken,items(id/videoId)", request.query.get("fields"));
+        assertEquals(100, quota.getUsed());
+    }
+
+    @Test
+    public void searchOfSeveralQueriesKeepsTheirOrder() {
+        Map<String, List<String>> results = helper.searchVideos(Arrays.asList("flood", "storm", "flood"), 10);
+
+        assertEquals(Arrays.asList("flood", "storm"), new ArrayList<>(results.keySet()));
+        assertEquals(3, results.get("storm").size());
+        assertEquals(200, quota.getUsed());
+    }
+
+    @Test
+    public void commentsFollowPageTokens() throws Exception {
+        List<Comment> comments = helper.getComments("dQ7kZ1a0abc");
+
+        // The thread without an author is skipped
+        assertEquals(3, comments.size());
+        Comment first = comments.get(0);
+        assertEquals("UgzMNq3cAk0bV2x1", first.getCommentId());
+        assertEquals("dQ7kZ1a0abc", first.getPostId());
+        assertEquals("@minhtran", first.getAuthor());
+        assertEquals("Our village near Hai Phong still has no clean water, please send help", first.getContent());
+        assertEquals(LocalDateTime.of(2024, 9, 8, 3, 15, 42), first.getCreatedAt());
+        assertEquals("Ugy0c9Vb1fHn3x3", comments.get(2).getCommentId());
+
+        List<FixtureServer.Request> requests = server.requests(API + "/commentThreads");
+        assertEquals(2, requests.size());
+        assertNull(requests.get(0).query.get("pageToken"));
+        assertEquals(PAGE_TWO, requests.get(1).query.get("pageToken"));
+        assertEquals("dQ7kZ1a0abc", requests.get(1).query.get("videoId"));
+        assertEquals(2, quota.getUsed());
+    }
+
+    @Test
+    public void commentsStopAtThePageLimit() {
+        Map<String, List<Comment>> comments = helper.getComments(Arrays.asList("dQ7kZ1a0abc", "Xy9_flood02"), 1, 2);
+
+        assertEquals(Arrays.asList("dQ7kZ1a0abc", "Xy9_flood02"), new ArrayList<>(comments.keySet()));
+        assertEquals(2, comments.get("dQ7kZ1a0abc").size());
+        assertEquals(2, comments.get("Xy9_flood02").size());
+        assertEquals(2, server.requests(API + "/commentThreads").size());
+    }
+
+    @Test
+    public void commentsEndWhenTheQuotaRunsOut() {
+        helper = new YouTubeAPIHelper("test-key", new QuotaBudget(1), server.url(API));
+
+        List<Comment> comments = helper.getComments(Collections.singletonList("dQ7kZ1a0abc"), 10, 1).get("dQ7kZ1a0abc");
+
+        assertEquals(2, comments.size());
+        assertEquals(1, server.requests(API + "/commentThreads").size());
+    }
+
+    @Test
+    public void videoDetailsAreLookedUpFiftyIdsPerCall() throws Exception {
+        List<String> ids = new ArrayList<>(Arrays.asList("dQ7kZ1a0abc", "Xy9_flood02"));
+        for (int i = 0; i < 58; i++) {
+            ids.add("video" + i);
+        }
+
+        Map<String, JsonObject> details = helper.getVideoDetails(ids);
+
+        assertEquals(Arrays.asList("dQ7kZ1a0abc", "Xy9_flood02"), new ArrayList<>(details.keySet()));
+        assertEquals("Typhoon Yagi: flooding in northern Vietnam", details.get("dQ7kZ1a0abc").get("title").getAsString());
+        assertEquals("VTV24", details.get("dQ7kZ1a0abc").get("channelTitle").getAsString());
+        Set<Integer> batchSizes = new HashSet<>();
+        for (FixtureServer.Request request : server.requests(API + "/videos")) {
+            batchSizes.add(request.query.get("id").split(",").length);
+        }
+        assertEquals(new HashSet<>(Arrays.asList(50, 10)), batchSizes);
+        assertEquals(2, quota.getUsed());
+    }
+
+    @Test(timeout = 20_000)
+    public void videoDetailCallsAreLimitedToMaxConcurrent() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        server.route(API + "/videos", request -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            return FixtureServer.Response.json(200, "{\"items\":[]}".getBytes(StandardCharsets.UTF_8));
+        });
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 6 * 50; i++) {
+            ids.add("video" + i);
+        }
+
+        assertTrue(helper.getVideoDetails(ids, 2).isEmpty());
+
+        assertEquals(6, server.requests(API + "/videos").size());
+        assertEquals(2, maxInFlight.get());
+        assertEquals(6, quota.getUsed());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void commentsNeedAPositiveConcurrency() {
+        helper.getComments(Collections.singletonList("dQ7kZ1a0abc"), 1, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void videoDetailsNeedAPositiveConcurrency() throws Exception {
+        helper.getVideoDetails(Collections.singletonList("dQ7kZ1a0abc"), 0);
+    }
+
+    @Test
+    public void errorResponsesReadAsNoResults() throws Exception {
+        server.route(API + "/search", request -> FixtureServer.Response.json(403,
+                "{\"error\":{\"code\":403,\"message\":\"quotaExceeded\"}}".getBytes(StandardCharsets.UTF_8)));
+        server.route(API + "/commentThreads", request -> FixtureServer.Response.json(500, new byte[0]));
+
+        assertTrue(helper.searchVideos("flood", 10).isEmpty());
+        assertTrue(helper.getComments("dQ7kZ1a0abc").isEmpty());
+        assertNull(helper.getVideoDetails("missing"));
+    }
+
+    @Test(expected = QuotaBudget.ExceededException.class)
+    public void searchIsNotSentWithoutQuota() throws Exception {
+        helper = new YouTubeAPIHelper("test-key", new QuotaBudget(150), server.url(API));
+        helper.searchVideos("flood", 10);
+
+        try {
+            helper.searchVideos("storm", 10);
+        } finally {
+            assertEquals(1, server.requests(API + "/search").size());
+        }
+    }
+
+    @Test
+    public void apiKeyIsCheckedWithALanguagesCall() {
+        server.route(API + "/i18nLanguages", request -> FixtureServer.Response.json(
+                "test-key".equals(request.query.get("key")) ? 200 : 400, "{\"etag\":\"x\"}".getBytes(StandardCharsets.UTF_8)));
+
+        assertTrue(helper.isAPIKeyValid());
+        assertFalse(new YouTubeAPIHelper("wrong-key", quota, server.url(API)).isAPIKeyValid());
+        assertFalse(new YouTubeAPIHelper("", quota, server.url(API)).isAPIKeyValid());
+        assertEquals(2, server.requests(API + "/i18nLanguages").size());
+        assertEquals(2, quota.getUsed());
+    }
+}
@@ -0,0 +1,110 @@
+package com.humanitarian.logistics.crawler;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.Assert.*;
+
+public class YouTubeDateParserTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 9, 10, 14, 30, 15);
+
+    @Test
+    public void relativeTimesInEnglish() {
+        assertEquals(NOW.minusSeconds(45), parse("45 seconds ago"));
+        assertEquals(NOW.minusMinutes(1), parse("1 minute ago"));
+        assertEquals(NOW.minusHours(5), parse("5 hours ago (edited)"));
+        assertEquals(NOW.minusDays(2), parse("2 days ago"));
+        assertEquals(NOW.minusWeeks(3), parse("Streamed 3 weeks ago"));
+        assertEquals(NOW.minusMonths(11), parse("11 months ago"));
+        assertEquals(NOW.minusYears(1), parse("1 year ago"));
+    }
+
+    @Test
+    public void relativeTimesInVietnamese() {
+        assertEquals(NOW.minusMinutes(30), parse("30 phút trước"));
+        assertEquals(NOW.minusHours(2), parse("2 giờ trước"));
+        assertEquals(NOW.minusDays(4), parse("4 ngày trước"));
+        assertEquals(NOW.minusWeeks(3), parse("3 tuần trước"));
+        assertEquals(NOW.minusMonths(6), parse("6 tháng trước (đã chỉnh sửa)"));
+        assertEquals(NOW.minusYears(2), parse("2 năm trước"));
+    }
+
+    @Test
+    public void todayAndYesterdayAreTheStartOfTheDay() {
+        assertEquals(LocalDate.of(2024, 9, 10).atStartOfDay(), parse("today"));
+        assertEquals(LocalDate.of(2024, 9, 9).atStartOfDay(), parse("Yesterday"));
+        assertEquals(LocalDate.of(2024, 9, 10).atStartOfDay(), parse("Hôm nay"));
+        assertEquals(LocalDate.of(2024, 9, 9).atStartOfDay(), parse("hôm qua"));
+    }
+
+    @Test
+    public void absoluteDatesInEnglish() {
+        assertEquals(day(2023, 1, 15), parse("Jan 15, 2023"));
+        assertEquals(day(2024, 12, 25), parse("Uploaded on Dec 25, 2024"));
+        assertEquals(day(2024, 9, 7), parse("Premiered September 7 2024"));
+        assertEquals(day(2024, 9, 7), parse("Sept 7, 2024"));
+        assertEquals(day(2024, 3, 2), parse("Mar 2"));
+    }
+
+    @Test
+    public void absoluteDatesInVietnamese() {
+        assertEquals(day(2024, 12, 15), parse("15 thg 12, 2024"));
+        assertEquals(day(2024, 12, 1), parse("thg 12, 2024"));
+        assertEquals(day(2023, 7, 4), parse("Đã công chiếu vào 4 thg 7, 2023"));
+    }
+
+    @Test
+    public void isoDates() {
+        assertEquals(day(2024, 12, 1), parse("2024-12-01"));
+        assertEquals(day(2024, 9, 7), parse("2024-09-07T07:30:00-07:00"));
+    }
+
+    @Test
+    public void dayOfTheCurrentYearIsClampedToTheMonth() {
+        assertEquals(day(2023, 2, 28), YouTubeDateParser.parse("Feb 29", LocalDateTime.of(2023, 6, 1, 0, 0)));
+        assertEquals(day(2024, 2, 29), YouTubeDateParser.parse("Feb 29", LocalDateTime.of(2024, 6, 1, 0, 0)));
+    }
+
+    @Test
+    public void nonDatesParseToNull() {
+        assertNull(parse(null));
+        assertNull(parse(""));
+        assertNull(parse("1.2M views"));
+        assertNull(parse("ago"));
+        assertNull(parse("3 bananas ago"));
+        assertNull(parse("Feb 30, 2024"));
+        assertNull(parse("Dec 45, 2024"));
+        assertNull(parse("thg 12"));
+        assertNull(parse("May"));
+    }
+
+    @Test
+    public void onlyRelativeTimesAreRelative() {
+        assertTrue(YouTubeDateParser.isRelative("2 days ago"));
+        assertTrue(YouTubeDateParser.isRelative("hôm qua"));
+        assertFalse(YouTubeDateParser.isRelative("Jan 15, 2023"));
+        assertFalse(YouTubeDateParser.isRelative("1.2M views"));
+        assertFalse(YouTubeDateParser.isRelative(null));
+    }
+
+    @Test
+    public void cachedRelativeTimesFollowTheClock() {
+        String text = "7 hours ago (cache test)";
+        LocalDateTime later = NOW.plusDays(3);
+
+        assertEquals(NOW.minusHours(7), parse(text));
+        long hits = (Long) YouTubeDateParser.getStats().get("hits");
+        assertEquals(later.minusHours(7), YouTubeDateParser.parse(text, later));
+        assertTrue((Long) YouTubeDateParser.getStats().get("hits") > hits);
+    }
+
+    private static LocalDateTime parse(String text) {
+        return YouTubeDateParser.parse(text, NOW);
+    }
+
+    private static LocalDateTime day(int year, int month, int day) {
+        return LocalDate.of(year, month, day).atStartOfDay();
+    }
+}
@@ -0,0 +1,128 @@
+package com.humanitarian.logistics.metrics;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class HistogramTest {
+
+    @Test
+    public void emptyHistogramReadsAsZero() {
+        Histogram histogram = new Histogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getMean(), 0);
+        assertEquals(0, histogram.getValueAtQuantile(0.99));
+    }
+
+    @Test
+    public void smallValuesAreExact() {
+        Histogram histogram = new Histogram();
+        for (int v = 0; v < 16; v++) {
+            histogram.record(v);
+        }
+
+        assertEquals(7, histogram.getValueAtQuantile(0.5));
+        assertEquals(14, histogram.getValueAtQuantile(0.9));
+        assertEquals(15, histogram.getValueAtQuantile(1.0));
+        assertEquals(0, histogram.getValueAtQuantile(0));
+        assertEquals(0, histogram.getMin());
+        assertEquals(7.5, histogram.getMean(), 1e-9);
+    }
+
+    @Test
+    public void percentilesAreWithinOneSixteenthOfTheTrueValue() {
+        Histogram histogram = new Histogram();
+        List<Long> values = new ArrayList<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 100_000; i++) {
+            long v = (long) Math.exp(random.nextDouble() * 20); // 1 to about 5e8
+            values.add(v);
+            histogram.record(v);
+        }
+        Collections.sort(values);
+
+        for (double quantile : new double[] {0.01, 0.25, 0.5, 0.9, 0.99, 0.999}) {
+            long exact = values.get((int) Math.ceil(quantile * values.size()) - 1);
+            long reported = histogram.getValueAtQuantile(quantile);
+            assertTrue(quantile + ": " + reported + " < " + exact, reported >= exact);
+            assertTrue(quantile + ": " + reported + " vs " + exact, reported <= exact + exact / 16);
+        }
+        assertEquals((long) values.get(values.size() - 1), histogram.getValueAtQuantile(1.0));
+        assertEquals((long) values.get(0), histogram.getMin());
+        assertEquals(100_000, histogram.getCount());
+    }
+
+    @Test
+    public void quantilesAreCappedAtTheMax() {
+        Histogram histogram = new Histogram();
+        histogram.record(1_000_003);
+
+        assertEquals(1_000_003, histogram.getValueAtQuantile(0.5));
+        assertEquals(1_000_003, histogram.getMax());
+    }
+
+    @Test
+    public void negativeValuesAreRecordedAsZero() {
+        Histogram histogram = new Histogram();
+        histogram.record(-5);
+
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(0, histogram.getValueAtQuantile(1.0));
+    }
+
+    @Test
+    public void bucketsCoverTheLongRangeWithoutGaps() {
+        int last = Histogram.indexOf(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, Histogram.upperBoundOf(last));
+        for (int i = 0; i < last; i++) {
+            long upper = Histogram.upperBoundOf(i);
+            assertEquals(i, Histogram.indexOf(upper));
+            assertEquals(i + 1, Histogram.indexOf(upper + 1));
+        }
+    }
+
+    @Test
+    public void resetClearsEverything() {
+        Histogram histogram = new Histogram();
+        histogram.record(40);
+        histogram.record(900);
+
+        histogram.reset();
+        histogram.record(3);
+
+        assertEquals(1, histogram.getCount());
+        assertEquals(3, histogram.getTotal());
+        assertEquals(3, histogram.getMin());
+        assertEquals(3, histogram.getMax());
+        assertEquals(3, histogram.getValueAtQuantile(0.99));
+    }
+
+    @Test(timeout = 10_000)
+    public void concurrentRecordsAreAllCounted() throws Exception {
+        Histogram histogram = new Histogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 1; i <= 10_000; i++) {
+                    histogram.record(i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(40_000, histogram.getCount());
+        assertEquals(4L * 10_000 * 10_001 / 2, histogram.getTotal());
+        assertEquals(1, histogram.getMin());
+        assertEquals(10_000, histogram.getMax());
+    }
+}
@@ -0,0 +1,80 @@
+package com.humanitarian.logistics.metrics;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class MetricsRegistryTest {
+
+    @Test
+    public void metricsAreCreatedOnceByName() {
+        MetricsRegistry registry = new MetricsRegistry();
+
+        assertSame(registry.counter("db.rows"), registry.counter("db.rows"));
+        assertSame(registry.timer("db.save_posts"), registry.timer("db.save_posts"));
+        assertSame(registry.histogram("batch.size"), registry.histogram("batch.size"));
+        assertNotSame(registry.counter("db.rows"), registry.counter("db.errors"));
+        assertSame(MetricsRegistry.getInstance(), MetricsRegistry.getInstance());
+    }
+
+    @Test
+    public void metricsAreReportedByKindAndSortedByName() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("z.last").add(3);
+        registry.counter("a.first").increment();
+        registry.timer("http.youtube/next").record(2_000_000);
+        registry.timer("http.youtube/next").record(4_000_000);
+        registry.histogram("batch.size").record(50);
+
+        Map<String, Object> metrics = registry.getMetrics();
+
+        assertEquals(Arrays.asList("counters", "timers", "histograms"), new ArrayList<>(metrics.keySet()));
+        Map<?, ?> counters = (Map<?, ?>) metrics.get("counters");
+        assertEquals(Arrays.asList("a.first", "z.last"), new ArrayList<>(counters.keySet()));
+        assertEquals(3L, counters.get("z.last"));
+        Map<?, ?> timer = (Map<?, ?>) ((Map<?, ?>) metrics.get("timers")).get("http.youtube/next");
+        assertEquals(2L, timer.get("count"));
+        assertEquals(3.0, (Double) timer.get("mean_ms"), 0.2);
+        assertEquals(4.0, (Double) timer.get("max_ms"), 1e-9);
+        Map<?, ?> histogram = (Map<?, ?>) ((Map<?, ?>) metrics.get("histograms")).get("batch.size");
+        assertEquals(1L, histogram.get("count"));
+        assertEquals(50L, histogram.get("max"));
+    }
+
+    @Test
+    public void resetZeroesMetricsThatCallersKeepUsing() {
+        MetricsRegistry registry = new MetricsRegistry();
+        Counter rows = registry.counter("db.rows");
+        LatencyTimer save = registry.timer("db.save_posts");
+        rows.add(10);
+        save.record(1_000_000);
+
+        registry.reset();
+        rows.increment();
+
+        assertEquals(1, registry.counter("db.rows").get());
+        assertEquals(0, registry.timer("db.save_posts").getCount());
+        assertSame(save, registry.timer("db.save_posts"));
+    }
+
+    @Test
+    public void summaryListsOnlyMetricsWithData() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.timer("sentiment.batch").record(1_500_000);
+        registry.timer("idle.timer");
+        registry.histogram("batch.size").record(8);
+        registry.counter("db.rows").add(5);
+        registry.counter("db.errors");
+
+        String summary = registry.formatSummary();
+
+        assertTrue(summary, summary.contains("sentiment.batch"));
+        assertTrue(summary, summary.contains("batch.size"));
+        assertTrue(summary, summary.contains("db.rows=5"));
+        assertFalse(summary, summary.contains("idle.timer"));
+        assertFalse(summary, summary.contains("db.errors"));
+        assertEquals("", new MetricsRegistry().formatSummary());
+    }
+}
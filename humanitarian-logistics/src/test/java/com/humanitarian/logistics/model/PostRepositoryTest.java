@@ -0,0 +1,150 @@
+package com.humanitarian.logistics.model;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class PostRepositoryTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 9, 8, 0, 0);
+
+    @Test
+    public void snapshotsKeepTheirLengthAcrossAppendsAndClear() {
+        PostRepository repository = new PostRepository();
+        for (int i = 0; i < 20; i++) {
+            repository.add(post("p" + i));
+        }
+        List<Post> before = repository.snapshot();
+
+        for (int i = 20; i < 50; i++) {
+            repository.add(post("p" + i)); // grows the backing array past the first snapshot's
+        }
+        repository.clear();
+
+        assertEquals(20, before.size());
+        assertEquals("p19", before.get(19).getPostId());
+        assertEquals(0, repository.size());
+        assertTrue(repository.snapshot().isEmpty());
+        assertNull(repository.findPost("p3"));
+    }
+
+    @Test(timeout = 20_000)
+    public void readersSeeACompletePrefixWhileAWriterAppends() throws Exception {
+        PostRepository repository = new PostRepository();
+        int count = 20_000;
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch started = new CountDownLatch(1);
+        Thread reader = new Thread(() -> {
+            started.countDown();
+            try {
+                int seen = 0;
+                while (seen < count) {
+                    List<Post> snapshot = repository.snapshot();
+                    assertTrue(snapshot.size() >= seen);
+                    for (int i = 0; i < snapshot.size(); i++) {
+                        assertEquals("p" + i, snapshot.get(i).getPostId());
+                    }
+                    seen = snapshot.size();
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        reader.start();
+        started.await();
+
+        for (int i = 0; i < count; i++) {
+            repository.add(post("p" + i));
+        }
+        reader.join();
+
+        assertNull(String.valueOf(failure.get()), failure.get());
+    }
+
+    @Test
+    public void mergeAddsOnlyNewCommentsAndIndexesThem() {
+        PostRepository repository = new PostRepository();
+        Post stored = post("p1");
+        stored.addComment(comment("c1", ReliefItem.Category.FOOD));
+        repository.add(stored);
+
+        List<Comment> added = repository.mergeComments(stored, Arrays.asList(
+                comment("c1", ReliefItem.Category.FOOD),
+                comment("c2", ReliefItem.Category.MEDICAL),
+                comment("c3", ReliefItem.Category.MEDICAL)));
+
+        assertEquals(Arrays.asList("c2", "c3"), ids(added));
+        assertEquals(Arrays.asList("c1", "c2", "c3"), ids(stored.getComments()));
+        assertSame(stored, repository.findPostByCommentId("c3"));
+        assertEquals(Collections.singletonList(stored), repository.findByCategory(ReliefItem.Category.MEDICAL));
+        assertEquals(Collections.singletonList(stored), repository.findByCategory(ReliefItem.Category.FOOD));
+        assertTrue(repository.mergeComments(stored, Collections.singletonList(
+                comment("c2", ReliefItem.Category.MEDICAL))).isEmpty());
+    }
+
+    @Test
+    public void commentsBeingIteratedAreNotChangedByAMerge() {
+        PostRepository repository = new PostRepository();
+        Post stored = post("p1");
+        stored.addComment(comment("c1", ReliefItem.Category.FOOD));
+        repository.add(stored);
+        Iterator<Comment> iterating = stored.getComments().iterator();
+
+        repository.mergeComments(stored, Collections.singletonList(comment("c2", ReliefItem.Category.FOOD)));
+
+        assertEquals("c1", iterating.next().getCommentId());
+        assertFalse(iterating.hasNext());
+        assertEquals(2, stored.getComments().size());
+    }
+
+    @Test(timeout = 20_000)
+    public void mergesWhileAnotherThreadIteratesTheComments() throws Exception {
+        PostRepository repository = new PostRepository();
+        Post stored = post("p1");
+        repository.add(stored);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            try {
+                while (stored.getComments().size() < 2_000) {
+                    int total = 0;
+                    for (Comment comment : stored.getComments()) {
+                        total += comment.getContent().length();
+                    }
+                    assertTrue(total >= 0);
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        reader.start();
+
+        for (int i = 0; i < 2_000; i++) {
+            repository.mergeComments(stored, Collections.singletonList(comment("c" + i, ReliefItem.Category.FOOD)));
+        }
+        reader.join();
+
+        assertNull(String.valueOf(failure.get()), failure.get());
+    }
+
+    private static Post post(String id) {
+        return new YouTubePost(id, "content " + id, START, "author", "channel");
+    }
+
+    private static Comment comment(String id, ReliefItem.Category category) {
+        Comment comment = new Comment(id, "p1", "comment " + id, START.plusHours(1), "viewer");
+        comment.setReliefItem(new ReliefItem(category, "test", 1));
+        return comment;
+    }
+
+    private static List<String> ids(List<Comment> comments) {
+        List<String> ids = new ArrayList<>();
+        for (Comment comment : comments) {
+            ids.add(comment.getCommentId());
+        }
+        return ids;
+    }
+}
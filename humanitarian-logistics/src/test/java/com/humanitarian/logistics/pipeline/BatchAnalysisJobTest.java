@@ -0,0 +1,76 @@
+package com.humanitarian.logistics.pipeline;
+
+import com.humanitarian.logistics.database.DatabaseManager;
+import com.humanitarian.logistics.model.Post;
+import com.humanitarian.logistics.model.YouTubePost;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class BatchAnalysisJobTest {
+    private static final String VERSION = "test-v1";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test(timeout = 30_000)
+    public void restartedJobSkipsPostsCheckpointedBeforeTheInterruption() {
+        String dbPath = new File(folder.getRoot(), "analysis.db").getPath();
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            posts.add(new YouTubePost("p" + i, "post " + i, LocalDateTime.of(2024, 9, 8, 0, 0).plusMinutes(i),
+                    "author", "channel"));
+        }
+
+        // First run: one worker, cancelled by the analyzer once 30 posts are done
+        List<String> firstRun = new ArrayList<>();
+        AtomicReference<BatchAnalysisJob> running = new AtomicReference<>();
+        DatabaseManager db = new DatabaseManager(dbPath);
+        BatchAnalysisJob first = new BatchAnalysisJob(VERSION, posts, post -> {
+            firstRun.add(post.getPostId());
+            if (firstRun.size() == 30) {
+                running.get().cancel();
+            }
+        }, db, 1, 10);
+        running.set(first);
+        assertEquals(30, first.start().join().intValue());
+        assertEquals(BatchAnalysisJob.State.CANCELLED, first.getState());
+        db.close();
+
+        // Second run against the same database file, as after an application restart
+        List<String> secondRun = Collections.synchronizedList(new ArrayList<>());
+        db = new DatabaseManager(dbPath);
+        try {
+            BatchAnalysisJob second = new BatchAnalysisJob(VERSION, posts, post -> secondRun.add(post.getPostId()),
+                    db, 4, 10);
+            assertEquals(70, second.start().join().intValue());
+
+            BatchAnalysisJob.Progress progress = second.getProgress();
+            assertEquals(BatchAnalysisJob.State.COMPLETED, progress.getState());
+            assertTrue(progress.isResumed());
+            assertEquals(first.getJobId(), second.getJobId());
+            assertEquals(30, progress.getSkipped());
+            assertEquals(0, progress.getRemaining());
+            assertTrue(Collections.disjoint(firstRun, secondRun));
+            Set<String> all = new HashSet<>(firstRun);
+            all.addAll(secondRun);
+            assertEquals(100, all.size());
+            assertEquals(100, firstRun.size() + secondRun.size());
+
+            // A third run finds nothing left at this version
+            BatchAnalysisJob third = new BatchAnalysisJob(VERSION, posts, post -> fail("re-analyzed " + post),
+                    db, 2, 10);
+            assertEquals(0, third.start().join().intValue());
+            assertEquals(100, third.getProgress().getSkipped());
+        } finally {
+            db.close();
+        }
+    }
+}
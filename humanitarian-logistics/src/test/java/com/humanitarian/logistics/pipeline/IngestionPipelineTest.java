@@ -0,0 +1,83 @@
+package com.humanitarian.logistics.pipeline;
+
+import com.humanitarian.logistics.model.Post;
+import com.humanitarian.logistics.model.YouTubePost;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+public class IngestionPipelineTest {
+
+    @Test
+    public void failedPublishFailsItsBatchAndTheWorkerKeepsGoing() throws Exception {
+        List<String> published = Collections.synchronizedList(new ArrayList<>());
+        IngestionPipeline pipeline = new IngestionPipeline(post -> { }, posts -> { }, posts -> { },
+                posts -> {
+                    for (Post post : posts) {
+                        if (post.getPostId().startsWith("bad")) {
+                            throw new IllegalStateException("listener failed");
+                        }
+                        published.add(post.getPostId());
+                    }
+                }, 1, 1, 1, 16, 4, 4);
+        try {
+            CompletableFuture<Void> failed = pipeline.submit(Collections.singletonList(post("bad")));
+            try {
+                failed.get(10, TimeUnit.SECONDS);
+                fail("publish failure was not reported");
+            } catch (ExecutionException expected) {
+                assertTrue(expected.getCause() instanceof IllegalStateException);
+            }
+
+            pipeline.submit(Arrays.asList(post("a"), post("b"))).get(10, TimeUnit.SECONDS);
+            assertEquals(Arrays.asList("a", "b"), published);
+        } finally {
+            pipeline.shutdown();
+        }
+    }
+
+    @Test
+    public void failedSaveFailsTheSubmitterButStillPublishes() throws Exception {
+        List<String> published = Collections.synchronizedList(new ArrayList<>());
+        IngestionPipeline pipeline = new IngestionPipeline(post -> { }, posts -> { },
+                posts -> {
+                    throw new IllegalStateException("disk full");
+                },
+                posts -> posts.forEach(post -> published.add(post.getPostId())), 1, 1, 1, 16, 4, 4);
+        try {
+            pipeline.submit(Collections.singletonList(post("a"))).get(10, TimeUnit.SECONDS);
+            fail("save failure was not reported");
+        } catch (ExecutionException expected) {
+            assertEquals("disk full", expected.getCause().getMessage());
+        } finally {
+            pipeline.shutdown();
+        }
+        assertEquals(Collections.singletonList("a"), published);
+    }
+
+    @Test
+    public void everySubmittedPostIsPublishedOnce() throws Exception {
+        Set<String> published = ConcurrentHashMap.newKeySet();
+        IngestionPipeline pipeline = new IngestionPipeline(post -> { }, posts -> { }, posts -> { },
+                posts -> posts.forEach(post -> assertTrue(published.add(post.getPostId()))),
+                2, 2, 1, 8, 5, 7);
+        try {
+            List<Post> posts = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                posts.add(post("p" + i));
+            }
+            pipeline.submit(posts).get(10, TimeUnit.SECONDS);
+            assertEquals(200, published.size());
+        } finally {
+            pipeline.shutdown();
+        }
+    }
+
+    private static Post post(String id) {
+        return new YouTubePost(id, "content", LocalDateTime.of(2024, 9, 1, 0, 0), "author", "channel");
+    }
+}
@@ -0,0 +1,139 @@
+package com.humanitarian.logistics.ui;
+
+import com.humanitarian.logistics.database.DataPersistenceManager;
+import com.humanitarian.logistics.database.DatabaseManager;
+import com.humanitarian.logistics.model.Post;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.swing.*;
+import java.io.File;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+public class ChartDataCacheTest {
+    private static final String VIEW = "problem1";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicInteger computes = new AtomicInteger();
+    private DatabaseManager db;
+    private Model model;
+    private ChartDataCache cache;
+
+    @Before
+    public void setUp() {
+        db = new DatabaseManager(new File(folder.getRoot(), "test.db").getPath());
+        model = new Model(db, new DataPersistenceManager(folder.getRoot().getPath()));
+        cache = new ChartDataCache(model);
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test(timeout = 20_000)
+    public void leastRecentlyUsedEntryIsEvicted() throws Exception {
+        for (int i = 0; i < ChartDataCache.MAX_ENTRIES; i++) {
+            assertEquals("d" + i, load("d" + i));
+        }
+        assertEquals(ChartDataCache.MAX_ENTRIES, computes.get());
+
+        load("d0"); // now the most recently used
+        load("d" + ChartDataCache.MAX_ENTRIES);
+        assertEquals(ChartDataCache.MAX_ENTRIES + 1, computes.get());
+
+        load("d0");
+        assertEquals(ChartDataCache.MAX_ENTRIES + 1, computes.get());
+        load("d1");
+        assertEquals(ChartDataCache.MAX_ENTRIES + 2, computes.get());
+    }
+
+    @Test(timeout = 10_000)
+    public void onlyTheNewestRequestOfAViewIsDelivered() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+        List<Exception> errors = Collections.synchronizedList(new ArrayList<>());
+        CompletableFuture<String> newest = new CompletableFuture<>();
+
+        onEdt(() -> {
+            cache.load(VIEW, "Typhoon Yagi", null, posts -> {
+                await(release);
+                return "old";
+            }, delivered::add, errors::add);
+            cache.<String>load(VIEW, "Typhoon Yagi", null, posts -> {
+                await(release);
+                throw new IllegalStateException("stale failure");
+            }, delivered::add, errors::add);
+            cache.load(VIEW, ChartDataCache.ALL_DISASTERS, null, posts -> "new", value -> {
+                delivered.add(value);
+                newest.complete(value);
+            }, errors::add);
+        });
+        assertEquals("new", newest.get(5, TimeUnit.SECONDS));
+        release.countDown();
+        Thread.sleep(300);
+        onEdt(() -> { });
+
+        assertEquals(Collections.singletonList("new"), delivered);
+        assertTrue(errors.isEmpty());
+        // The overtaken result is still cached for its filter
+        List<String> again = new ArrayList<>();
+        onEdt(() -> cache.load(VIEW, "Typhoon Yagi", null, posts -> "recomputed", again::add, errors::add));
+        assertEquals(Collections.singletonList("old"), again);
+    }
+
+    @Test(timeout = 10_000)
+    public void entriesAreRebuiltOnceTheDataChanges() throws Exception {
+        load("all");
+        load("all");
+        assertEquals(1, computes.get());
+
+        model.clearPosts(); // moves the data version on
+        load("all");
+        assertEquals(2, computes.get());
+        load("all");
+        assertEquals(2, computes.get());
+
+        onEdt(cache::clear);
+        load("all");
+        assertEquals(3, computes.get());
+    }
+
+    /**
+     * Loads the view for a disaster and waits for it, counting computations
+     */
+    private String load(String disaster) throws Exception {
+        CompletableFuture<String> ready = new CompletableFuture<>();
+        Function<List<Post>, String> compute = posts -> {
+            computes.incrementAndGet();
+            return disaster;
+        };
+        onEdt(() -> cache.load(VIEW, disaster, null, compute, ready::complete, ready::completeExceptionally));
+        return ready.get(5, TimeUnit.SECONDS);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void onEdt(Runnable action) throws Exception {
+        SwingUtilities.invokeAndWait(action);
+    }
+}
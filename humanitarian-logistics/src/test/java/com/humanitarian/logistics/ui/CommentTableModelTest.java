@@ -0,0 +1,167 @@
+package com.humanitarian.logistics.ui;
+
+import com.humanitarian.logistics.model.*;
+import org.junit.Test;
+
+import javax.swing.*;
+import javax.swing.event.TableModelEvent;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class CommentTableModelTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 9, 8, 0, 0);
+
+    @Test(timeout = 10_000)
+    public void missingSentimentsSortLastInBothDirections() throws Exception {
+        CommentTableModel table = new CommentTableModel();
+        Post post = post("p1",
+                comment("c1", START.plusHours(1), Sentiment.SentimentType.NEUTRAL),
+                comment("c2", START.plusHours(4), null),
+                comment("c3", START.plusHours(3), Sentiment.SentimentType.POSITIVE),
+                comment("c4", START.plusHours(2), Sentiment.SentimentType.NEGATIVE));
+        onEdt(() -> table.addPosts(Collections.singletonList(post)));
+
+        awaitView(table, () -> table.toggleSort(CommentTableModel.COLUMN_SENTIMENT));
+        assertEquals(Arrays.asList("c3", "c4", "c1", "c2"), ids(table));
+        awaitView(table, () -> table.toggleSort(CommentTableModel.COLUMN_SENTIMENT));
+        assertFalse(table.isAscending());
+        assertEquals(Arrays.asList("c1", "c4", "c3", "c2"), ids(table));
+
+        awaitView(table, () -> table.toggleSort(CommentTableModel.COLUMN_POSTED));
+        assertEquals(Arrays.asList("c1", "c4", "c3", "c2"), ids(table));
+        awaitView(table, () -> table.toggleSort(CommentTableModel.COLUMN_POSTED));
+        assertEquals(Arrays.asList("c2", "c3", "c4", "c1"), ids(table));
+    }
+
+    @Test(timeout = 10_000)
+    public void commentsAddedWhileAFilterIsComputedAreKept() throws Exception {
+        CommentTableModel table = new CommentTableModel();
+        onEdt(() -> table.addPosts(Collections.singletonList(post("p1",
+                comment("c1", START, null), comment("c2", START, null)))));
+
+        // The filter is computed from the comments held before the new post arrives
+        awaitView(table, () -> {
+            table.setFilter("water", null);
+            table.addPosts(Collections.singletonList(post("p2", comment("c3", START, null))));
+        });
+
+        assertEquals(Collections.singletonList("c3"), ids(table));
+        assertEquals(3, table.getCommentCount());
+    }
+
+    @Test(timeout = 10_000)
+    public void deleteEventsDescribeTheRowsWhenTheyAreFired() throws Exception {
+        CommentTableModel table = new CommentTableModel();
+        onEdt(() -> table.addPosts(Collections.singletonList(post("p1", comments(10)))));
+        List<String> mirror = mirror(table);
+
+        onEdt(() -> table.removeComments(new HashSet<>(Arrays.asList("c1", "c2", "c3", "c6", "c9"))));
+
+        assertEquals(Arrays.asList("c0", "c4", "c5", "c7", "c8"), mirror);
+        assertEquals(mirror, ids(table));
+        assertEquals(-1, table.getRowOf("c6"));
+        assertEquals(3, table.getRowOf("c7"));
+    }
+
+    @Test(timeout = 10_000)
+    public void widelyScatteredRemovalIsOneDataChange() throws Exception {
+        CommentTableModel table = new CommentTableModel();
+        onEdt(() -> table.addPosts(Collections.singletonList(post("p1", comments(300)))));
+        List<String> mirror = mirror(table);
+        Set<String> removed = new HashSet<>();
+        for (int i = 0; i < 300; i += 2) {
+            removed.add("c" + i);
+        }
+
+        onEdt(() -> table.removeComments(removed));
+
+        assertEquals(150, table.getRowCount());
+        assertEquals(mirror, ids(table));
+        assertEquals(0, table.getRowOf("c1"));
+        assertEquals(149, table.getRowOf("c299"));
+    }
+
+    /**
+     * Keeps a copy of the shown comment ids up to date from the table's events alone,
+     * reading rows only while each event is delivered, as a JTable does
+     */
+    private static List<String> mirror(CommentTableModel table) throws Exception {
+        List<String> mirror = new ArrayList<>(ids(table));
+        onEdt(() -> table.addTableModelListener(event -> {
+            if (event.getFirstRow() == TableModelEvent.HEADER_ROW || event.getLastRow() == Integer.MAX_VALUE) {
+                mirror.clear();
+                for (int row = 0; row < table.getRowCount(); row++) {
+                    mirror.add(table.getCommentAt(row).getCommentId());
+                }
+            } else if (event.getType() == TableModelEvent.DELETE) {
+                mirror.subList(event.getFirstRow(), event.getLastRow() + 1).clear();
+            } else if (event.getType() == TableModelEvent.INSERT) {
+                for (int row = event.getFirstRow(); row <= event.getLastRow(); row++) {
+                    mirror.add(row, table.getCommentAt(row).getCommentId());
+                }
+            }
+            assertEquals(table.getRowCount(), mirror.size());
+            for (int row = 0; row < mirror.size(); row++) {
+                assertEquals(mirror.get(row), table.getCommentAt(row).getCommentId());
+            }
+        }));
+        return mirror;
+    }
+
+    private static Comment[] comments(int count) {
+        Comment[] comments = new Comment[count];
+        for (int i = 0; i < count; i++) {
+            comments[i] = comment("c" + i, START.plusMinutes(i), null);
+        }
+        return comments;
+    }
+
+    /**
+     * Runs an action on the EDT and waits for the view it starts to be applied
+     */
+    private static void awaitView(CommentTableModel table, Runnable action) throws Exception {
+        CountDownLatch applied = new CountDownLatch(1);
+        onEdt(() -> {
+            table.setViewListener(applied::countDown);
+            action.run();
+        });
+        assertTrue(applied.await(5, TimeUnit.SECONDS));
+        onEdt(() -> { }); // let the rest of the install finish
+    }
+
+    private static void onEdt(Runnable action) throws Exception {
+        SwingUtilities.invokeAndWait(action);
+    }
+
+    private static List<String> ids(CommentTableModel table) throws Exception {
+        List<String> ids = new ArrayList<>();
+        onEdt(() -> {
+            for (int row = 0; row < table.getRowCount(); row++) {
+                ids.add(table.getCommentAt(row).getCommentId());
+            }
+        });
+        return ids;
+    }
+
+    private static Post post(String id, Comment... comments) {
+        Post post = new YouTubePost(id, "content " + id, START, "author", "channel");
+        for (Comment comment : comments) {
+            post.addComment(comment);
+        }
+        return post;
+    }
+
+    private static Comment comment(String id, LocalDateTime time, Sentiment.SentimentType type) {
+        String content = id.equals("c3") ? "No clean water in Hai Phong" : "Thank you for the rice";
+        Comment comment = new Comment(id, "post", content, time, "viewer");
+        if (type != null) {
+            comment.setSentiment(new Sentiment(type, 0.5, content));
+        }
+        return comment;
+    }
+}
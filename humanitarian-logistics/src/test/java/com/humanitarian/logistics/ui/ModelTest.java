@@ -0,0 +1,140 @@
+package com.humanitarian.logistics.ui;
+
+import com.humanitarian.logistics.database.DataPersistenceManager;
+import com.humanitarian.logistics.database.DatabaseManager;
+import com.humanitarian.logistics.model.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.swing.*;
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ModelTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 9, 8, 0, 0);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final LinkedBlockingQueue<ModelChangeEvent> events = new LinkedBlockingQueue<>();
+    private final List<Boolean> onEdt = Collections.synchronizedList(new ArrayList<>());
+    private DatabaseManager db;
+    private Model model;
+
+    @Before
+    public void setUp() {
+        db = new DatabaseManager(new File(folder.getRoot(), "test.db").getPath());
+        model = new Model(db, new DataPersistenceManager(folder.getRoot().getPath()));
+        model.addModelListener(new ModelListener() {
+            @Override
+            public void modelChanged() {
+            }
+
+            @Override
+            public void modelChanged(ModelChangeEvent event) {
+                onEdt.add(SwingUtilities.isEventDispatchThread());
+                events.add(event);
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test(timeout = 10_000)
+    public void bulkAddIsOneEvent() throws Exception {
+        model.addPosts(Arrays.asList(post("p1", "c1", "c2"), post("p2", "c3")));
+
+        ModelChangeEvent event = events.poll(5, TimeUnit.SECONDS);
+        assertNotNull(event);
+        assertEquals(EnumSet.of(ModelChangeEvent.Type.POSTS_ADDED), event.getTypes());
+        // The pipeline may publish the posts in either order
+        assertEquals(new HashSet<>(Arrays.asList("p1", "p2")), new HashSet<>(ids(event.getAddedPosts())));
+        assertNoMoreEvents();
+    }
+
+    @Test(timeout = 10_000)
+    public void burstOfChangesIsMergedIntoOneEventOnTheEdt() throws Exception {
+        model.addPosts(Arrays.asList(post("p1", "c1", "c2", "c3"), post("p2", "c4")));
+        assertNotNull(events.poll(5, TimeUnit.SECONDS));
+        onEdt.clear();
+
+        model.updateComment(comment("c1", "p1", "Still no water"));
+        model.updateComment(comment("c4", "p2", "Rice arrived"));
+        model.removeComment("c2");
+        model.updateComment(comment("c1", "p1", "Water arrived"));
+        model.removeComment("c3");
+
+        ModelChangeEvent event = events.poll(5, TimeUnit.SECONDS);
+        assertNotNull(event);
+        assertEquals(EnumSet.of(ModelChangeEvent.Type.COMMENTS_UPDATED, ModelChangeEvent.Type.COMMENTS_REMOVED),
+                event.getTypes());
+        assertEquals(new LinkedHashSet<>(Arrays.asList("c1", "c4")), event.getUpdatedCommentIds());
+        assertEquals(new LinkedHashSet<>(Arrays.asList("c2", "c3")), event.getRemovedCommentIds());
+        assertTrue(event.getAddedPosts().isEmpty());
+        assertNoMoreEvents();
+        assertEquals(Collections.singletonList(true), onEdt);
+    }
+
+    @Test(timeout = 10_000)
+    public void changesInsideABulkUpdateWaitForItsEnd() throws Exception {
+        model.beginBulkUpdate();
+        model.addPost(post("p1", "c1"));
+        model.removeComment("c1");
+        Thread.sleep(300); // well past the debounce window
+        assertTrue(events.isEmpty());
+        model.endBulkUpdate();
+
+        ModelChangeEvent event = events.poll(5, TimeUnit.SECONDS);
+        assertNotNull(event);
+        assertEquals(EnumSet.of(ModelChangeEvent.Type.POSTS_ADDED, ModelChangeEvent.Type.COMMENTS_REMOVED),
+                event.getTypes());
+        assertEquals(Collections.singletonList("p1"), ids(event.getAddedPosts()));
+        assertNoMoreEvents();
+    }
+
+    private void assertNoMoreEvents() throws Exception {
+        Thread.sleep(300);
+        SwingUtilities.invokeAndWait(() -> { });
+        assertTrue(events.toString(), events.isEmpty());
+    }
+
+    private static List<String> ids(List<Post> posts) {
+        List<String> ids = new ArrayList<>();
+        for (Post post : posts) {
+            ids.add(post.getPostId());
+        }
+        return ids;
+    }
+
+    /**
+     * A post already classified and scored, so adding it needs no external service
+     */
+    private static Post post(String id, String... commentIds) {
+        Post post = new YouTubePost(id, "content " + id, START, "author", "channel");
+        post.setReliefItem(new ReliefItem(ReliefItem.Category.FOOD, "test", 1));
+        post.setSentiment(new Sentiment(Sentiment.SentimentType.NEUTRAL, 0.5, post.getContent()));
+        for (String commentId : commentIds) {
+            post.addComment(comment(commentId, id, "Thank you for the rice"));
+        }
+        return post;
+    }
+
+    private static Comment comment(String id, String postId, String content) {
+        Comment comment = new Comment(id, postId, content, START.plusHours(1), "viewer");
+        comment.setReliefItem(new ReliefItem(ReliefItem.Category.FOOD, "test", 1));
+        comment.setSentiment(new Sentiment(Sentiment.SentimentType.NEUTRAL, 0.5, content));
+        return comment;
+    }
+}
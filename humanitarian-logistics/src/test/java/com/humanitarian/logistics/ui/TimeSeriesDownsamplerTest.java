@@ -0,0 +1,74 @@
+package com.humanitarian.logistics.ui;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TimeSeriesDownsamplerTest {
+
+    @Test
+    public void smallThresholdsKeepEveryPoint() {
+        double[] x = {0, 1, 2, 3, 4};
+        double[] y = {5, 1, 4, 2, 3};
+
+        assertArrayEquals(new int[] {0, 1, 2, 3, 4}, TimeSeriesDownsampler.lttb(x, y, 2));
+        assertArrayEquals(new int[] {0, 1, 2, 3, 4}, TimeSeriesDownsampler.lttb(x, y, 5));
+        assertArrayEquals(new int[] {0, 1, 2, 3, 4}, TimeSeriesDownsampler.lttb(x, y, 50));
+        assertArrayEquals(new int[0], TimeSeriesDownsampler.lttb(new double[0], new double[0], 10));
+    }
+
+    @Test
+    public void keepsEndsAndOnePointPerSlice() {
+        Random random = new Random(21);
+        int n = 10_000;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = i * 300_000.0 + random.nextInt(1000);
+            y[i] = random.nextGaussian();
+        }
+
+        for (int threshold : new int[] {3, 17, 500, 9_999}) {
+            int[] kept = TimeSeriesDownsampler.lttb(x, y, threshold);
+
+            assertEquals(threshold, kept.length);
+            assertEquals(0, kept[0]);
+            assertEquals(n - 1, kept[threshold - 1]);
+            double every = (double) (n - 2) / (threshold - 2);
+            for (int slice = 0; slice < threshold - 2; slice++) {
+                int index = kept[slice + 1];
+                assertTrue(index >= (int) Math.floor(slice * every) + 1);
+                assertTrue(index < (int) Math.floor((slice + 1) * every) + 1);
+            }
+        }
+    }
+
+    @Test
+    public void peaksAndDipsSurvive() {
+        int n = 5_000;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = i;
+            y[i] = 10 + Math.sin(i / 50.0);
+        }
+        y[1_234] = 100;
+        y[3_210] = -80;
+
+        int[] kept = TimeSeriesDownsampler.lttb(x, y, 100);
+
+        assertTrue(contains(kept, 1_234));
+        assertTrue(contains(kept, 3_210));
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int v : values) {
+            if (v == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}